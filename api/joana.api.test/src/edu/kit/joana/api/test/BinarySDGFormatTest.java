@@ -0,0 +1,64 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.IFCAnalysis;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGBinaryFormat;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import joana.api.testdata.toy.conc.ThreadJoins;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that the binary sdg format round-trips exactly w.r.t. the textual .pdg format.
+ */
+public class BinarySDGFormatTest {
+
+	private static void testRoundTrip(Class<?> clazz, boolean concurrent) {
+		try {
+			final IFCAnalysis ana = BuildSDG.build(clazz,
+					concurrent ? BuildSDG.top_concurrent : BuildSDG.top_sequential, false);
+			final SDG sdg = ana.getProgram().getSDG();
+			final File file = File.createTempFile(clazz.getSimpleName(), SDGBinaryFormat.FILE_SUFFIX);
+			file.deleteOnExit();
+
+			SDGSerializer.toBinaryFormat(sdg, file.getAbsolutePath());
+			final SDG read = SDG.readFromBinary(file.getAbsolutePath());
+
+			assertEquals(sdg.vertexSet().size(), read.vertexSet().size());
+			assertEquals(sdg.edgeSet().size(), read.edgeSet().size());
+			assertEquals(SDGSerializer.toPDGFormat(sdg), SDGSerializer.toPDGFormat(read));
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testSequential() {
+		testRoundTrip(Nested.class, false);
+	}
+
+	@Test
+	public void testConcurrent() {
+		testRoundTrip(ThreadJoins.class, true);
+	}
+}
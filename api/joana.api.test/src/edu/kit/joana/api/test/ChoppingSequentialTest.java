@@ -7,6 +7,7 @@
  */
 package edu.kit.joana.api.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -26,6 +27,7 @@ import edu.kit.joana.api.test.util.ApiTestException;
 import edu.kit.joana.api.test.util.JoanaPath;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.chopper.MemoizingNonSameLevelChopper;
 import edu.kit.joana.ifc.sdg.graph.chopper.NonSameLevelChopper;
 import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopper;
 import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
@@ -277,4 +279,36 @@ public class ChoppingSequentialTest {
 					ExceptionAnalysis.IGNORE_ALL);
 	}
 
+	private static void testMemoizingChopsEqualFor(final String className) {
+		try {
+			final SDG sdg = build(className);
+			final MemoizingNonSameLevelChopper memo = new MemoizingNonSameLevelChopper(sdg);
+			final Random r = new Random(42);
+			final Collection<SDGNode> sources = sdg.getNRandomNodes(srceSize, r);
+			final Collection<SDGNode> sinks   = sdg.getNRandomNodes(sinkSize, r);
+
+			final Collection<SDGNode> chop = new NonSameLevelChopper(sdg).chop(sources, sinks);
+			assertEquals(chop, memo.chop(sources, sinks));
+			// the second chop reuses the same-level chops of the first one
+			assertEquals(chop, memo.chop(sources, sinks));
+
+			// the same-level chops of the graph before the modification must not be reused
+			SDGProgram.throwAwayControlDeps(sdg);
+			assertEquals(new NonSameLevelChopper(sdg).chop(sources, sinks), memo.chop(sources, sinks));
+		} catch (ApiTestException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testMemoizingPraktomatValid() {
+		testMemoizingChopsEqualFor("sequential.PraktomatValid");
+	}
+
+	@Test
+	public void testMemoizingRecursive() {
+		testMemoizingChopsEqualFor("tests.Recursive");
+	}
+
 }
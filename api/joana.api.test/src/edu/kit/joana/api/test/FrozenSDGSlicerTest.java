@@ -0,0 +1,96 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.FrozenContextInsensitiveBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.FrozenContextInsensitiveForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.FrozenSummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.FrozenSummarySlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.FrozenI2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.FrozenI2PForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PForward;
+import joana.api.testdata.toy.conc.ThreadJoins;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that the slicers on a {@link FrozenSDG} compute the same slices as their counterparts on the {@link SDG}.
+ */
+public class FrozenSDGSlicerTest {
+
+	private static void testSameSlices(SDG sdg, Slicer expected, Slicer actual) {
+		for (SDGNode n : sdg.vertexSet()) {
+			assertEquals("slice of " + n, new HashSet<>(expected.slice(n)), new HashSet<>(actual.slice(n)));
+		}
+	}
+
+	@Test
+	public void testSummarySlicers() {
+		try {
+			final SDG sdg = BuildSDG.build(Nested.class, BuildSDG.top_sequential, false).getProgram().getSDG();
+			final FrozenSDG frozen = FrozenSDG.freeze(sdg);
+			assertEquals(sdg.vertexSet().size(), frozen.getNumberOfNodes());
+			assertEquals(sdg.edgeSet().size(), frozen.getNumberOfEdges());
+
+			testSameSlices(sdg, new SummarySlicerBackward(sdg), new FrozenSummarySlicerBackward(frozen));
+			testSameSlices(sdg, new SummarySlicerForward(sdg), new FrozenSummarySlicerForward(frozen));
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testContextInsensitiveSlicers() {
+		try {
+			final SDG sdg = BuildSDG.build(ThreadJoins.class, BuildSDG.top_concurrent, false).getProgram().getSDG();
+			final FrozenSDG frozen = FrozenSDG.freeze(sdg);
+
+			testSameSlices(sdg, new ContextInsensitiveBackward(sdg), new FrozenContextInsensitiveBackward(frozen));
+			testSameSlices(sdg, new ContextInsensitiveForward(sdg), new FrozenContextInsensitiveForward(frozen));
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testI2PSlicers() {
+		try {
+			final SDG sdg = BuildSDG.build(ThreadJoins.class, BuildSDG.top_concurrent, false).getProgram().getSDG();
+			final FrozenSDG frozen = FrozenSDG.freeze(sdg);
+
+			testSameSlices(sdg, new I2PBackward(sdg), new FrozenI2PBackward(frozen));
+			testSameSlices(sdg, new I2PForward(sdg), new FrozenI2PForward(frozen));
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.IntContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.IntContextSlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import joana.api.testdata.toy.conc.ThreadJoins;
+import joana.api.testdata.toy.pw.PasswordFile;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that {@link IntContextSlicerBackward} and {@link IntContextSlicerForward} compute the same slices as
+ * the {@link ContextSlicerBackward} and {@link ContextSlicerForward} with static contexts.
+ */
+public class IntContextSlicerTest {
+
+	private static void testSameSlices(SDG sdg, Slicer expected, Slicer actual) {
+		final List<SDGNode> nodes = new ArrayList<SDGNode>(sdg.vertexSet());
+		for (SDGNode n : nodes) {
+			assertEquals("slice of " + n, new HashSet<>(expected.slice(n)), new HashSet<>(actual.slice(n)));
+		}
+		// criteria with several nodes
+		for (int i = 0; i + 1 < nodes.size(); i += 7) {
+			final List<SDGNode> criteria = nodes.subList(i, Math.min(nodes.size(), i + 5));
+			assertEquals("slice of " + criteria, new HashSet<>(expected.slice(criteria)), new HashSet<>(actual.slice(criteria)));
+		}
+	}
+
+	private static void testSameSlices(Class<?> clazz, SDGConfig config) {
+		try {
+			final SDG sdg = BuildSDG.build(clazz, config, false).getProgram().getSDG();
+			testSameSlices(sdg, ContextSlicerBackward.newStaticContextSlicerBackward(sdg), new IntContextSlicerBackward(sdg));
+			testSameSlices(sdg, ContextSlicerForward.newStaticContextSlicerForward(sdg), new IntContextSlicerForward(sdg));
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testNested() {
+		testSameSlices(Nested.class, BuildSDG.top_sequential);
+	}
+
+	@Test
+	public void testPasswordFile() {
+		testSameSlices(PasswordFile.class, BuildSDG.bottom_sequential);
+	}
+
+	@Test
+	public void testThreadJoins() {
+		testSameSlices(ThreadJoins.class, BuildSDG.top_concurrent);
+	}
+}
@@ -8,17 +8,32 @@
 package edu.kit.joana.api.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
 import org.junit.Test;
 
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.IFCAnalysis;
+import edu.kit.joana.api.lattice.BuiltinLattices;
+import edu.kit.joana.api.test.util.ApiTestException;
+import edu.kit.joana.api.test.util.BuildSDG;
+
 import edu.kit.joana.ifc.sdg.lattice.IEditableLattice;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IndexedLattice;
 import edu.kit.joana.ifc.sdg.lattice.LatticeUtil;
 import edu.kit.joana.ifc.sdg.lattice.WrongLatticeDefinitionException;
+import joana.api.testdata.toy.pw.PasswordFile;
 
 /**
  * Test class to test lattice construction and operations.
@@ -59,16 +74,22 @@ public class LatticeTests {
 
 	void test(IEditableLattice<String> latticeE, IStaticLattice<String> latticeB,
 	             List<TestExpectation> tests) {
+		final IndexedLattice<String> latticeI = IndexedLattice.of(latticeE);
 		for (TestExpectation test : tests) {
 			assertEquals(test.resultGLB, latticeE.greatestLowerBound(test.e1, test.e2));
 			assertEquals(test.resultGLB, latticeE.greatestLowerBound(test.e2, test.e1));
 			assertEquals(test.resultGLB, latticeB.greatestLowerBound(test.e1, test.e2));
 			assertEquals(test.resultGLB, latticeB.greatestLowerBound(test.e2, test.e1));
+			assertEquals(test.resultGLB, latticeI.greatestLowerBound(test.e1, test.e2));
+			assertEquals(test.resultGLB, latticeI.greatestLowerBound(test.e2, test.e1));
 
 			assertEquals(test.resultLUB, latticeE.leastUpperBound(test.e1, test.e2));
 			assertEquals(test.resultLUB, latticeE.leastUpperBound(test.e2, test.e1));
 			assertEquals(test.resultLUB, latticeB.leastUpperBound(test.e1, test.e2));
 			assertEquals(test.resultLUB, latticeB.leastUpperBound(test.e2, test.e1));
+			assertEquals(test.resultLUB, latticeI.leastUpperBound(test.e1, test.e2));
+			assertEquals(test.resultLUB, latticeI.leastUpperBound(test.e2, test.e1));
+			assertEquals(true, latticeI.isLeq(test.resultGLB, test.resultLUB));
 		}
 	}
 
@@ -274,4 +295,20 @@ public class LatticeTests {
 		testPowerSetLattice(5);
 		testPowerSetLattice(6);
 	}
+
+	@Test
+	public void testAnalysisKeepsUserLattice() {
+		try {
+			final IStaticLattice<String> lattice = BuiltinLattices.getBinaryLattice();
+			final IFCAnalysis ana = BuildSDG.buldAndUseJavaAnnotations(PasswordFile.class, BuildSDG.top_sequential, false,
+					lattice);
+			// the checkers work on an IndexedLattice, but the analysis hands out the lattice it was given
+			assertSame(lattice, ana.getLattice());
+			assertFalse(ana.doIFC().isEmpty());
+			assertSame(lattice, ana.getLattice());
+		} catch (ApiTestException | ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
 }
@@ -9,9 +9,14 @@ package edu.kit.joana.api.test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -22,8 +27,11 @@ import edu.kit.joana.api.test.util.SDGAnalyzer;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPIndex;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.PreciseMHPAnalysis;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.SimpleMHPAnalysis;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadRegion;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadRegions;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
 import edu.kit.joana.ifc.sdg.util.graph.ThreadInformationUtil;
 import edu.kit.joana.util.Pair;
@@ -595,6 +603,82 @@ public class MHPAnalysisTest {
 		}
 	}
 
+	/*
+	 * checks the bit-parallel index of PreciseMHPAnalysis against the rows of its thread region bit matrix,
+	 * which parallelTo still reads directly
+	 */
+	@Test
+	public void testIndexMatchesBitMatrix() {
+		final Random rand = new Random(42);
+		for (String key : testData.keySet()) {
+			SDG sdg = buildOrLoad(key);
+			PreciseMHPAnalysis mhp = PreciseMHPAnalysis.analyze(sdg);
+			MHPIndex index = mhp.getIndex();
+			Assert.assertNotNull(key, index);
+			ThreadRegions regions = mhp.getTR();
+
+			Map<Integer, BitSet> rows = new HashMap<Integer, BitSet>();
+			for (ThreadRegion r : regions) {
+				BitSet row = new BitSet();
+				for (ThreadRegion s : mhp.parallelTo(r)) {
+					row.set(s.getID());
+				}
+				rows.put(r.getID(), row);
+
+				BitSet indexed = new BitSet();
+				index.forEachParallelRegion(r.getID(), indexed::set);
+				Assert.assertEquals(key + ": " + r, row, indexed);
+				for (ThreadRegion s : regions) {
+					Assert.assertEquals(key + ": " + r + " || " + s, row.get(s.getID()), index.isParallel(r.getID(), s.getID()));
+				}
+				Assert.assertEquals(key + ": " + r, !row.isEmpty(), index.anyParallelRegion(r.getID(), row.isEmpty() ? allRegions(regions) : row));
+			}
+
+			List<SDGNode> nodes = new ArrayList<SDGNode>();
+			for (SDGNode n : sdg.vertexSet()) {
+				if (index.isIndexed(n)) {
+					nodes.add(n);
+				}
+			}
+			Assert.assertFalse(key, nodes.isEmpty());
+			for (SDGNode m : nodes) {
+				BitSet expectedRegions = new BitSet();
+				for (int mt : m.getThreadNumbers()) {
+					ThreadRegion mr = regions.getThreadRegion(m, mt);
+					Assert.assertEquals(key + ": " + m, mr.getID(), index.getRegion(m, mt));
+					expectedRegions.or(rows.get(mr.getID()));
+				}
+				Assert.assertEquals(key + ": " + m, expectedRegions, index.parallelRegions(m));
+
+				// comparing all pairs of nodes is too slow for the bigger programs
+				if (rand.nextInt(nodes.size()) >= 100) {
+					continue;
+				}
+				List<SDGNode> expected = new ArrayList<SDGNode>();
+				for (SDGNode n : nodes) {
+					boolean parallel = false;
+					for (int nt : n.getThreadNumbers()) {
+						parallel |= expectedRegions.get(regions.getThreadRegion(n, nt).getID());
+					}
+					Assert.assertEquals(key + ": " + m + " || " + n, parallel, index.isParallel(m, n));
+					if (parallel) {
+						expected.add(n);
+					}
+				}
+				Assert.assertEquals(key + ": " + m, expected, index.filterParallel(m, nodes));
+				Assert.assertEquals(key + ": " + m, new HashSet<SDGNode>(expected), new HashSet<SDGNode>(index.parallelNodes(m)));
+			}
+		}
+	}
+
+	private static BitSet allRegions(ThreadRegions regions) {
+		BitSet all = new BitSet();
+		for (ThreadRegion r : regions) {
+			all.set(r.getID());
+		}
+		return all;
+	}
+
 	private SDGNode getIntPrintInMethod(SDGAnalyzer ana, String shortName) {
 		return getPrintInMethod(ana, shortName, "I");
 	}
@@ -0,0 +1,233 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.irlsod.ORLSODChecker;
+import edu.kit.joana.ifc.sdg.irlsod.OptORLSODChecker;
+import edu.kit.joana.ifc.sdg.irlsod.PredecessorMethod;
+import edu.kit.joana.ifc.sdg.irlsod.ProbInfComputer;
+import edu.kit.joana.ifc.sdg.lattice.IEditableLattice;
+import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IndexedLattice;
+import edu.kit.joana.ifc.sdg.lattice.impl.EditableLatticeSimple;
+
+/**
+ * Checks on random graphs that the worklist based {@link ORLSODChecker} reports the violations of
+ * {@link OptORLSODChecker}, if the predecessors are the sdg edges (both compute the same least fixed point then), and
+ * that it computes the levels of the previous sweep implementation, if the predecessors are the backward slices.
+ */
+public class ORLSODRandomizedTests {
+
+	static final int seed = 11;
+	static final int maxSize = 60;
+	static final int nrOfTests = 300;
+
+	private static final String[] LEVELS = { "low", "A", "B", "high" };
+
+	private static IEditableLattice<String> diamond() {
+		final IEditableLattice<String> l = new EditableLatticeSimple<String>();
+		for (String level : LEVELS) {
+			l.addElement(level);
+		}
+		l.setImmediatelyGreater("low", "A");
+		l.setImmediatelyGreater("low", "B");
+		l.setImmediatelyGreater("A", "high");
+		l.setImmediatelyGreater("B", "high");
+		return l;
+	}
+
+	private static Set<String> asStrings(Collection<? extends IViolation<SecurityNode>> violations) {
+		final Set<String> ret = new TreeSet<>();
+		for (IViolation<SecurityNode> v : violations) {
+			ret.add(v.toString());
+		}
+		return ret;
+	}
+
+	/**
+	 * The diamond lattice, but with so many additional elements that it cannot be indexed. The additional
+	 * elements are never used as levels, so the order of the used ones is unchanged.
+	 */
+	private static IStaticLattice<String> tooLargeToIndex() {
+		final IEditableLattice<String> diamond = diamond();
+		final List<String> elements = new ArrayList<>(diamond.getElements());
+		for (int i = 0; elements.size() <= IndexedLattice.MAX_BITSET_SIZE; i++) {
+			elements.add("unused" + i);
+		}
+		return new IStaticLattice<String>() {
+			@Override
+			public String greatestLowerBound(String s, String t) {
+				return diamond.greatestLowerBound(s, t);
+			}
+
+			@Override
+			public String leastUpperBound(String s, String t) {
+				return diamond.leastUpperBound(s, t);
+			}
+
+			@Override
+			public String getTop() {
+				return diamond.getTop();
+			}
+
+			@Override
+			public String getBottom() {
+				return diamond.getBottom();
+			}
+
+			@Override
+			public Collection<String> getElements() {
+				return elements;
+			}
+		};
+	}
+
+	@Test
+	public void testSameViolationsAsOptORLSOD() {
+		checkSameViolationsAsOptORLSOD(diamond());
+	}
+
+	@Test
+	public void testLatticeTooLargeToIndex() {
+		final IStaticLattice<String> lattice = tooLargeToIndex();
+		assertFalse(IndexedLattice.isIndexable(lattice));
+		checkSameViolationsAsOptORLSOD(lattice);
+	}
+
+	/**
+	 * A random sdg of a single thread, with random probabilistic influencers and user annotations.
+	 */
+	private static final class Instance {
+		final SDG sdg = new SDG();
+		final Map<SDGNode, List<SDGNode>> influencers = new HashMap<>();
+		final Map<SDGNode, String> annotations = new HashMap<>();
+		final ProbInfComputer probInf = new ProbInfComputer() {
+			@Override
+			protected Collection<? extends SDGNode> computeProbabilisticInfluencers(SDGNode node) {
+				return influencers.get(node);
+			}
+		};
+
+		Instance(final Random random) {
+			final int n = 5 + random.nextInt(maxSize);
+			final List<SDGNode> nodes = new ArrayList<>();
+			for (int i = 1; i <= n; i++) {
+				final SDGNode node = new SDGNode(SDGNode.Kind.EXPRESSION, i, 0, "n" + i);
+				node.setThreadNumbers(new int[] { 0 });
+				sdg.addVertex(node);
+				nodes.add(node);
+			}
+			for (int i = random.nextInt(3 * n); i > 0; i--) {
+				final SDGEdge.Kind kind = random.nextBoolean() ? SDGEdge.Kind.DATA_DEP : SDGEdge.Kind.CONTROL_DEP_UNCOND;
+				sdg.addEdge(kind.newEdge(nodes.get(random.nextInt(n)), nodes.get(random.nextInt(n))));
+			}
+
+			for (SDGNode node : nodes) {
+				final List<SDGNode> inf = new ArrayList<>();
+				if (random.nextInt(4) == 0) {
+					inf.add(nodes.get(random.nextInt(n)));
+				}
+				influencers.put(node, inf);
+			}
+
+			for (int i = 1 + random.nextInt(4); i > 0; i--) {
+				annotations.put(nodes.get(random.nextInt(n)), LEVELS[random.nextInt(LEVELS.length)]);
+			}
+		}
+	}
+
+	private static void checkSameViolationsAsOptORLSOD(final IStaticLattice<String> lattice) {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final Instance instance = new Instance(random);
+			final Set<String> expected = asStrings(new OptORLSODChecker<String>(instance.sdg, lattice,
+					new HashMap<>(instance.annotations), instance.probInf).checkIFlow());
+			final Set<String> actual = asStrings(new ORLSODChecker<String>(instance.sdg, lattice,
+					new HashMap<>(instance.annotations), instance.probInf, PredecessorMethod.EDGE).checkIFlow());
+			assertEquals("test " + test, expected, actual);
+		}
+	}
+
+	/**
+	 * Hands out the levels an {@link ORLSODChecker} with {@link PredecessorMethod#SLICE} computes.
+	 */
+	private static final class SliceClassification extends ORLSODChecker<String> {
+
+		SliceClassification(final Instance instance, final IStaticLattice<String> lattice) {
+			super(instance.sdg, lattice, new HashMap<>(instance.annotations), instance.probInf, PredecessorMethod.SLICE);
+		}
+
+		Map<SDGNode, String> compute() {
+			checkIFlow();
+			return cl;
+		}
+	}
+
+	/**
+	 * Computes the levels like {@link ORLSODChecker} with {@link PredecessorMethod#SLICE} did before it used a
+	 * worklist: all nodes are visited again until no level changes.
+	 */
+	private static Map<SDGNode, String> sweep(final Instance instance, final IStaticLattice<String> lattice) {
+		final I2PBackward backw = new I2PBackward(instance.sdg);
+		final Map<SDGNode, String> cl = new HashMap<>();
+		for (SDGNode n : instance.sdg.vertexSet()) {
+			final String ann = instance.annotations.get(n);
+			cl.put(n, ann != null ? ann : lattice.getBottom());
+		}
+		boolean change;
+		do {
+			change = false;
+			for (SDGNode n : instance.sdg.vertexSet()) {
+				String level = cl.get(n);
+				for (SDGNode m : backw.slice(n)) {
+					level = lattice.leastUpperBound(level, cl.get(m));
+				}
+				for (SDGNode m : instance.influencers.get(n)) {
+					level = lattice.leastUpperBound(level, cl.get(m));
+				}
+				if (!level.equals(cl.get(n))) {
+					cl.put(n, level);
+					change = true;
+				}
+			}
+		} while (change);
+		return cl;
+	}
+
+	@Test
+	public void testSliceSameAsSweep() {
+		final IStaticLattice<String> diamond = diamond();
+		final IStaticLattice<String> tooLarge = tooLargeToIndex();
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final Instance instance = new Instance(random);
+			final Map<SDGNode, String> expected = sweep(instance, diamond);
+			assertEquals("test " + test, expected, new SliceClassification(instance, diamond).compute());
+			assertEquals("test " + test, expected, new SliceClassification(instance, tooLarge).compute());
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGBuildPreparation;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.SDGBuilder;
+import edu.kit.joana.wala.core.SDGBuilder.SDGBuilderConfig;
+import joana.api.testdata.toy.pw.PasswordFile;
+
+/**
+ * Checks that converting the pdgs of a builder to an sdg gives the same sdg, whether the conversion runs in
+ * parallel or not.
+ */
+public class ParallelConversionTest {
+
+	private static void testSameSDG(final String classPath, final String className, final boolean interference) {
+		final String entryMethod = JavaMethodSignature.mainMethodOfClass(className).toBCString();
+		final SDGConfig config = new SDGConfig(classPath, entryMethod, Stubs.JRE_15);
+		config.setComputeInterferences(interference);
+		final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+		try {
+			final SDGBuilderConfig cfg = SDGBuildPreparation.prepareBuild(out,
+					SDGProgram.makeBuildPreparationConfig(config), NullProgressMonitor.INSTANCE).snd;
+			// keeps the pdgs, so they can be converted again
+			final SDGBuilder builder = SDGBuilder.buildAndKeepBuilder(cfg, NullProgressMonitor.INSTANCE).snd;
+
+			cfg.doParallel = false;
+			final SDG sequential = SDGBuilder.convertToJoana(out, builder, NullProgressMonitor.INSTANCE, true);
+			cfg.doParallel = true;
+			final SDG parallel = SDGBuilder.convertToJoana(out, builder, NullProgressMonitor.INSTANCE, true);
+
+			assertFalse(sequential.vertexSet().isEmpty());
+			assertEquals(sequential.vertexSet().size(), parallel.vertexSet().size());
+			assertEquals(sequential.edgeSet().size(), parallel.edgeSet().size());
+			assertEquals(SDGSerializer.toPDGFormat(sequential), SDGSerializer.toPDGFormat(parallel));
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testSequentialProgram() {
+		testSameSDG(JoanaPath.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator + JoanaPath.ANNOTATIONS_PASSON_CLASSPATH,
+				PasswordFile.class.getName(), false);
+	}
+
+	@Test
+	public void testConcurrentProgram() {
+		testSameSDG(JoanaPath.JOANA_MANY_SMALL_PROGRAMS_CLASSPATH, "conc.ac.AlarmClock", true);
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.IFCAnalysis;
+import edu.kit.joana.api.IFCType;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.ApiTestException;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
+import joana.api.testdata.toy.pw.PasswordFile;
+
+/**
+ * Checks that checking the information sinks on a {@link ForkJoinPool} (see {@link IFCAnalysis#setIFCPool})
+ * reports exactly the violations of the sequential check, in the same order.
+ */
+public class ParallelIFCTest {
+
+	private static final int PARALLEL_RUNS = 5;
+
+	private static List<String> violations(IFCAnalysis ana, IFCType type) {
+		final List<String> ret = new ArrayList<String>();
+		for (IViolation<SecurityNode> v : ana.doIFC(type)) {
+			ret.add(v.toString());
+		}
+		return ret;
+	}
+
+	private static void testSameViolations(IFCAnalysis ana, IFCType type) {
+		ana.setIFCPool(null);
+		final List<String> expected = violations(ana, type);
+		assertFalse(type + ": expected a leak", expected.isEmpty());
+
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ana.setIFCPool(pool);
+			for (int i = 0; i < PARALLEL_RUNS; i++) {
+				assertEquals(type + ", run " + i, expected, violations(ana, type));
+			}
+		} finally {
+			ana.setIFCPool(null);
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSequentialProgram() {
+		try {
+			final IFCAnalysis ana = BuildSDG.buldAndUseJavaAnnotations(PasswordFile.class, BuildSDG.top_sequential, false);
+			testSameViolations(ana, IFCType.CLASSICAL_NI);
+		} catch (ApiTestException | ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testConcurrentProgram() {
+		try {
+			final SDGProgram prog = FullIFCConcurrentTest.build("conc.ac.AlarmClock", MHPType.PRECISE);
+			final IFCAnalysis ana = FullIFCConcurrentTest.annotate(prog, "conc.ac.Clock.max", "conc.ac.Client.name");
+			testSameViolations(ana, IFCType.CLASSICAL_NI);
+			testSameViolations(ana, IFCType.LSOD);
+			testSameViolations(ana, IFCType.RLSOD);
+		} catch (ApiTestException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+}
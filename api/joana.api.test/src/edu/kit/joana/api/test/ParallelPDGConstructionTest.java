@@ -0,0 +1,84 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import joana.api.testdata.toy.conc.ThreadHierarchy;
+import joana.api.testdata.toy.conc.ThreadJoins;
+import joana.api.testdata.toy.pw.PasswordFile;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that building the pdgs in parallel yields exactly the sdg of the sequential construction.
+ */
+public class ParallelPDGConstructionTest {
+
+	/** the parallel construction is repeated, as a race rarely shows up in a single run */
+	private static final int PARALLEL_RUNS = 5;
+
+	private static String build(Class<?> clazz, SDGConfig config, boolean parallel)
+			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		final boolean old = config.isParallel();
+		final boolean oldPDGs = config.isParallelPDGConstruction();
+		config.setParallel(parallel);
+		config.setParallelPDGConstruction(parallel);
+		try {
+			final SDG sdg = BuildSDG.build(clazz, config, false).getProgram().getSDG();
+			return SDGSerializer.toPDGFormat(sdg);
+		} finally {
+			config.setParallel(old);
+			config.setParallelPDGConstruction(oldPDGs);
+		}
+	}
+
+	private static void testSameResult(Class<?> clazz, SDGConfig config) {
+		try {
+			final String sequential = build(clazz, config, false);
+			for (int i = 0; i < PARALLEL_RUNS; i++) {
+				assertEquals(sequential, build(clazz, config, true));
+			}
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testSequential() {
+		testSameResult(Nested.class, BuildSDG.top_sequential);
+	}
+
+	@Test
+	public void testFieldAccesses() {
+		testSameResult(PasswordFile.class, BuildSDG.top_sequential);
+	}
+
+	@Test
+	public void testNoExceptionAnalysis() {
+		testSameResult(ThreadHierarchy.class, BuildSDG.bottom_concurrent);
+	}
+
+	@Test
+	public void testConcurrent() {
+		testSameResult(ThreadJoins.class, BuildSDG.top_concurrent);
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.graph.ReachabilityIndex;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that a {@link ReachabilityIndex} never rules out a node which is part of a slice.
+ */
+public class ReachabilityIndexTest {
+
+	@Test
+	public void testSoundForBackwardSlices() {
+		try {
+			final SDG sdg = BuildSDG.build(Nested.class, BuildSDG.top_sequential, false).getProgram().getSDG();
+			final ReachabilityIndex reach = ReachabilityIndex.build(sdg);
+			final Slicer backw = new I2PBackward(sdg);
+			for (SDGNode n : sdg.vertexSet()) {
+				for (SDGNode m : backw.slice(n)) {
+					assertTrue(m + " is in the slice of " + n, reach.mayReach(m, n));
+				}
+			}
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+}
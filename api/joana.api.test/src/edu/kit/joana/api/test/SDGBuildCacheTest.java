@@ -0,0 +1,96 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGBuildCache;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.SDGBuilder.FieldPropagation;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that a cached sdg is reused only if neither the program nor the configuration changed.
+ */
+public class SDGBuildCacheTest {
+
+	@Test
+	public void testReuse() {
+		final SDGConfig config = BuildSDG.top_sequential;
+		final String oldClassPath = config.getClassPath();
+		final String oldEntryMethod = config.getEntryMethod();
+		try {
+			final File cacheDir = Files.createTempDirectory("sdgcache").toFile();
+			cacheDir.deleteOnExit();
+			config.setClassPath(JoanaPath.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator + JoanaPath.ANNOTATIONS_PASSON_CLASSPATH);
+			config.setEntryMethod(JavaMethodSignature.mainMethodOfClass(Nested.class.getName()).toBCString());
+			final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+			assertFalse(SDGBuildCache.open(cacheDir, config).isUpToDate());
+			final SDGProgram built = SDGProgram.createSDGProgram(config, cacheDir, out, NullProgressMonitor.INSTANCE);
+			assertTrue(SDGBuildCache.open(cacheDir, config).isUpToDate());
+
+			final SDGProgram reused = SDGProgram.createSDGProgram(config, cacheDir, out, NullProgressMonitor.INSTANCE);
+			assertEquals(SDGSerializer.toPDGFormat(built.getSDG()), SDGSerializer.toPDGFormat(reused.getSDG()));
+
+			final FieldPropagation oldFieldPropagation = config.getFieldPropagation();
+			try {
+				config.setFieldPropagation(FieldPropagation.FLAT);
+				final SDGBuildCache changed = SDGBuildCache.open(cacheDir, config);
+				assertFalse(changed.isUpToDate());
+				assertTrue(changed.hasConfigChanged());
+			} finally {
+				config.setFieldPropagation(oldFieldPropagation);
+			}
+
+			final boolean oldLocalKillingDefs = config.localKillingDefs();
+			try {
+				config.setLocalKillingDefs(!oldLocalKillingDefs);
+				assertTrue(SDGBuildCache.open(cacheDir, config).hasConfigChanged());
+			} finally {
+				config.setLocalKillingDefs(oldLocalKillingDefs);
+			}
+
+			final boolean oldParallelPDGs = config.isParallelPDGConstruction();
+			try {
+				config.setParallelPDGConstruction(!oldParallelPDGs);
+				assertTrue(SDGBuildCache.open(cacheDir, config).hasConfigChanged());
+			} finally {
+				config.setParallelPDGConstruction(oldParallelPDGs);
+			}
+			assertTrue(SDGBuildCache.open(cacheDir, config).isUpToDate());
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		} finally {
+			config.setClassPath(oldClassPath);
+			config.setEntryMethod(oldEntryMethod);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.wala.core.SDGBuildProfile;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that a profiled sdg build records its phases and pdgs.
+ */
+public class SDGBuildProfileTest {
+
+	@Test
+	public void testPhasesRecorded() {
+		final SDGConfig config = BuildSDG.top_sequential;
+		final SDGBuildProfile profile = new SDGBuildProfile(5);
+		config.setBuildProfile(profile);
+		try {
+			final SDG sdg = BuildSDG.build(Nested.class, config, false).getProgram().getSDG();
+
+			final List<String> names = new ArrayList<String>();
+			for (final SDGBuildProfile.PhaseRecord phase : profile.getPhases()) {
+				assertTrue(phase.getWallNanos() >= 0);
+				names.add(phase.getName());
+			}
+			assertTrue(names.toString(), names.contains("callgraph"));
+			assertTrue(names.toString(), names.contains("intraproc"));
+			assertTrue(names.toString(), names.contains("connect call sites"));
+			assertTrue(names.toString(), names.contains("convert"));
+			assertTrue(names.indexOf("intraproc") < names.indexOf("convert"));
+
+			final SDGBuildProfile.PhaseRecord last = profile.getPhases().get(profile.getPhases().size() - 1);
+			assertEquals(sdg.vertexSet().size(), last.getNodesAfter());
+
+			assertTrue(profile.getNumberOfPdgs() > 0);
+			assertFalse(profile.getHotspots().isEmpty());
+			assertTrue(profile.getHotspots().size() <= 5);
+			assertTrue(profile.toJSON().contains("\"intraproc\""));
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		} finally {
+			config.setBuildProfile(null);
+		}
+	}
+}
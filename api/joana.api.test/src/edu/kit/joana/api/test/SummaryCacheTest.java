@@ -0,0 +1,156 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.api.test.util.RandomCallSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.summary.EntryPointCache;
+import edu.kit.joana.wala.summary.GraphUtil;
+import edu.kit.joana.wala.summary.SummaryComputationType;
+import edu.kit.joana.wala.summary.WorkPackage;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import joana.api.testdata.toy.simp.Nested;
+
+/**
+ * Checks that summary edges taken from the cache of library summaries are the ones computed without it.
+ */
+public class SummaryCacheTest {
+
+	@Test
+	public void testCachedSummariesAreEqual() {
+		final SDGConfig config = BuildSDG.top_sequential;
+		final String oldClassPath = config.getClassPath();
+		final String oldEntryMethod = config.getEntryMethod();
+		try {
+			final File cacheDir = Files.createTempDirectory("summarycache").toFile();
+			cacheDir.deleteOnExit();
+			config.setClassPath(JoanaPath.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator + JoanaPath.ANNOTATIONS_PASSON_CLASSPATH);
+			config.setEntryMethod(JavaMethodSignature.mainMethodOfClass(Nested.class.getName()).toBCString());
+			final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+			final String uncached = SDGSerializer.toPDGFormat(
+					SDGProgram.createSDGProgram(config, out, NullProgressMonitor.INSTANCE).getSDG());
+
+			config.setSummaryCacheDir(cacheDir.getAbsolutePath());
+			final String stored = SDGSerializer.toPDGFormat(
+					SDGProgram.createSDGProgram(config, out, NullProgressMonitor.INSTANCE).getSDG());
+			assertTrue(cacheDir.list().length > 0);
+			final String loaded = SDGSerializer.toPDGFormat(
+					SDGProgram.createSDGProgram(config, out, NullProgressMonitor.INSTANCE).getSDG());
+
+			assertEquals(uncached, stored);
+			assertEquals(uncached, loaded);
+		} catch (ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		} finally {
+			config.setSummaryCacheDir(null);
+			config.setClassPath(oldClassPath);
+			config.setEntryMethod(oldEntryMethod);
+		}
+	}
+
+	private static final int PROCS = 60;
+	private static final int FIRST_LIBRARY_PROC = 20;
+
+	/**
+	 * Computes the summary edges of a random sdg, where every second formal-out of the library procedures is
+	 * treated as fully connected if requested.
+	 */
+	private static Set<String> computeSummaries(long seed, boolean fullyConnected, File cacheDir)
+			throws IOException, CancelException {
+		final SDG sdg = RandomCallSDG.generate(new Random(seed), PROCS, FIRST_LIBRARY_PROC);
+		final Set<WorkPackage.EntryPoint> entries = new HashSet<>();
+		entries.add(GraphUtil.extractEntryPoint(sdg, sdg.getRoot()));
+
+		final WorkPackage<SDG> pack;
+		if (fullyConnected) {
+			final TIntSet connected = new TIntHashSet();
+			final TIntObjectMap<List<SDGNode>> out2in = new TIntObjectHashMap<>();
+			for (SDGNode n : sdg.vertexSet()) {
+				if (n.getKind() == SDGNode.Kind.FORMAL_OUT && n.getProc() >= FIRST_LIBRARY_PROC && n.getId() % 2 == 0) {
+					connected.add(n.getId());
+					out2in.put(n.getId(), new ArrayList<>(sdg.getFormalInsOfProcedure(sdg.getEntry(n))));
+				}
+			}
+			pack = WorkPackage.create(sdg, entries, sdg.getName(), null, connected, out2in);
+		} else {
+			pack = WorkPackage.create(sdg, entries, sdg.getName());
+		}
+		if (cacheDir != null) {
+			pack.setSummaryCache(EntryPointCache.create(cacheDir.getAbsolutePath()));
+		}
+		SummaryComputationType.JOANA_CLASSIC_SCC.getSummaryComputer().compute(pack, false,
+				NullProgressMonitor.INSTANCE);
+
+		final Set<String> ret = new TreeSet<>();
+		for (SDGEdge e : sdg.edgeSet()) {
+			if (e.getKind() == SDGEdge.Kind.SUMMARY) {
+				ret.add(e.getSource().getId() + " -> " + e.getTarget().getId());
+			}
+		}
+		return ret;
+	}
+
+	@Test
+	public void testRandomLibraries() throws IOException, CancelException {
+		for (long seed = 0; seed < 5; seed++) {
+			final File cacheDir = Files.createTempDirectory("summarycache").toFile();
+			cacheDir.deleteOnExit();
+			final Set<String> uncached = computeSummaries(seed, false, null);
+			assertEquals(uncached, computeSummaries(seed, false, cacheDir));
+			assertTrue(cacheDir.list().length > 0);
+			assertEquals(uncached, computeSummaries(seed, false, cacheDir));
+		}
+	}
+
+	@Test
+	public void testFullyConnectedIsNotCached() throws IOException, CancelException {
+		for (long seed = 0; seed < 5; seed++) {
+			final File cacheDir = Files.createTempDirectory("summarycache").toFile();
+			cacheDir.deleteOnExit();
+			final Set<String> uncached = computeSummaries(seed, true, null);
+			assertEquals(uncached, computeSummaries(seed, true, cacheDir));
+			assertEquals(0, cacheDir.list().length);
+		}
+	}
+}
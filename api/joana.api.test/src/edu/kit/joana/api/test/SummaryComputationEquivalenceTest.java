@@ -0,0 +1,132 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+
+import edu.kit.joana.api.test.util.RandomCallSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.wala.summary.GraphUtil;
+import edu.kit.joana.wala.summary.NullProgressMonitor;
+import edu.kit.joana.wala.summary.SummaryComputationType;
+import edu.kit.joana.wala.summary.WorkPackage;
+
+/**
+ * Checks on random sdgs that the scc based summary computation finds the summary edges of the classic one, no
+ * matter if the sccs are processed sequentially or in parallel, and that it stops when it is canceled.
+ */
+public class SummaryComputationEquivalenceTest {
+
+	private static final int ROUNDS = 30;
+
+	private static WorkPackage<SDG> pack(SDG sdg, int threads) {
+		final Set<WorkPackage.EntryPoint> entries = new HashSet<>();
+		entries.add(GraphUtil.extractEntryPoint(sdg, sdg.getRoot()));
+		final WorkPackage<SDG> pack = WorkPackage.create(sdg, entries, sdg.getName());
+		pack.setSummaryThreads(threads);
+		return pack;
+	}
+
+	private static Set<String> summaryEdges(SDG sdg) {
+		final Set<String> ret = new TreeSet<>();
+		for (SDGEdge e : sdg.edgeSet()) {
+			if (e.getKind() == SDGEdge.Kind.SUMMARY) {
+				ret.add(e.getSource().getId() + " -> " + e.getTarget().getId());
+			}
+		}
+		return ret;
+	}
+
+	private static Set<String> compute(long seed, int procs, SummaryComputationType type, boolean parallel, int threads)
+			throws CancelException {
+		final SDG sdg = RandomCallSDG.generate(new Random(seed), procs, procs);
+		type.getSummaryComputer().compute(pack(sdg, threads), parallel, NullProgressMonitor.INSTANCE);
+		return summaryEdges(sdg);
+	}
+
+	@Test
+	public void testSequentialParallelAndClassic() throws CancelException {
+		for (int round = 0; round < ROUNDS; round++) {
+			final int procs = 10 + 10 * round;
+			final Set<String> classic = compute(round, procs, SummaryComputationType.JOANA_CLASSIC, false, 0);
+			assertEquals("round " + round + ", sequential",
+					classic, compute(round, procs, SummaryComputationType.JOANA_CLASSIC_SCC, false, 0));
+			assertEquals("round " + round + ", parallel",
+					classic, compute(round, procs, SummaryComputationType.JOANA_CLASSIC_SCC, true, 0));
+			assertEquals("round " + round + ", parallel on 3 threads",
+					classic, compute(round, procs, SummaryComputationType.JOANA_CLASSIC_SCC, true, 3));
+		}
+	}
+
+	/**
+	 * A monitor that reports cancellation after it was asked a given number of times.
+	 */
+	private static final class CancelAfter implements IProgressMonitor {
+		private final AtomicInteger remaining;
+
+		CancelAfter(int checks) {
+			this.remaining = new AtomicInteger(checks);
+		}
+
+		@Override
+		public void beginTask(String task, int totalWork) {}
+
+		@Override
+		public void subTask(String subTask) {}
+
+		@Override
+		public boolean isCanceled() {
+			return remaining.getAndDecrement() <= 0;
+		}
+
+		@Override
+		public void cancel() {
+			remaining.set(0);
+		}
+
+		@Override
+		public void done() {}
+
+		@Override
+		public void worked(int units) {}
+
+		@Override
+		public String getCancelMessage() {
+			return "canceled.";
+		}
+	}
+
+	@Test
+	public void testCancel() {
+		for (boolean parallel : new boolean[] { false, true }) {
+			for (int checks : new int[] { 0, 5 }) {
+				final SDG sdg = RandomCallSDG.generate(new Random(checks), 100, 100);
+				try {
+					SummaryComputationType.JOANA_CLASSIC_SCC.getSummaryComputer().compute(pack(sdg, 2), parallel,
+							new CancelAfter(checks));
+					fail("expected the computation to be canceled after " + checks + " checks, parallel: " + parallel);
+				} catch (CancelException e) {
+					// expected
+				}
+			}
+		}
+	}
+}
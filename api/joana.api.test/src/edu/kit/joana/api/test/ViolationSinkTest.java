@@ -0,0 +1,186 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.IFCAnalysis;
+import edu.kit.joana.api.IFCType;
+import edu.kit.joana.api.lattice.LowHighLattice;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.ApiTestException;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.UnaryViolation;
+import edu.kit.joana.ifc.sdg.core.violations.ViolationSink;
+import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
+import joana.api.testdata.toy.pw.PasswordFile;
+
+/**
+ * Checks the {@link ViolationSink} combinators and that the streaming variants of {@link IFCAnalysis#doIFC(IFCType)}
+ * report the same violations, in the same order, and stop as soon as they are asked to.
+ */
+public class ViolationSinkTest {
+
+	private static List<IViolation<SecurityNode>> someViolations(int n) {
+		final List<IViolation<SecurityNode>> vios = new ArrayList<IViolation<SecurityNode>>();
+		for (int i = 0; i < n; i++) {
+			vios.add(new UnaryViolation<SecurityNode, String>(null, "low", "high" + i));
+		}
+		return vios;
+	}
+
+	private static List<IViolation<SecurityNode>> feed(List<IViolation<SecurityNode>> vios, ViolationSink sink) {
+		final List<IViolation<SecurityNode>> fed = new ArrayList<IViolation<SecurityNode>>();
+		for (IViolation<SecurityNode> v : vios) {
+			fed.add(v);
+			if (!sink.accept(v)) {
+				break;
+			}
+		}
+		return fed;
+	}
+
+	@Test
+	public void testInto() {
+		final List<IViolation<SecurityNode>> vios = someViolations(5);
+		final List<IViolation<SecurityNode>> target = new ArrayList<IViolation<SecurityNode>>();
+		assertEquals(vios, feed(vios, ViolationSink.into(target)));
+		assertEquals(vios, target);
+	}
+
+	@Test
+	public void testLimit() {
+		final List<IViolation<SecurityNode>> vios = someViolations(5);
+		for (int limit = 1; limit <= 6; limit++) {
+			final List<IViolation<SecurityNode>> target = new ArrayList<IViolation<SecurityNode>>();
+			final List<IViolation<SecurityNode>> fed = feed(vios, ViolationSink.limit(limit, ViolationSink.into(target)));
+			assertEquals(vios.subList(0, Math.min(limit, vios.size())), target);
+			assertEquals(target, fed);
+		}
+		try {
+			ViolationSink.limit(0, ViolationSink.into(new ArrayList<IViolation<SecurityNode>>()));
+			fail("a limit of 0 must be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testLimitStopsWhenInnerSinkStops() {
+		final List<IViolation<SecurityNode>> vios = someViolations(5);
+		final int[] calls = { 0 };
+		final List<IViolation<SecurityNode>> fed = feed(vios, ViolationSink.limit(3, v -> ++calls[0] < 2));
+		assertEquals(2, fed.size());
+		assertEquals(2, calls[0]);
+	}
+
+	@Test
+	public void testFiltering() {
+		final List<IViolation<SecurityNode>> vios = someViolations(6);
+		final List<IViolation<SecurityNode>> target = new ArrayList<IViolation<SecurityNode>>();
+		final ViolationSink sink = ViolationSink.filtering(v -> vios.indexOf(v) % 2 == 1,
+				ViolationSink.limit(2, ViolationSink.into(target)));
+		final List<IViolation<SecurityNode>> fed = feed(vios, sink);
+		assertEquals(4, fed.size());
+		assertEquals(2, target.size());
+		assertSame(vios.get(1), target.get(0));
+		assertSame(vios.get(3), target.get(1));
+	}
+
+	private static List<String> toStrings(Iterable<? extends IViolation<SecurityNode>> vios) {
+		final List<String> ret = new ArrayList<String>();
+		for (IViolation<SecurityNode> v : vios) {
+			ret.add(v.toString());
+		}
+		return ret;
+	}
+
+	private static void testOverloads(IFCAnalysis ana, IFCType type) {
+		final List<String> expected = toStrings(ana.doIFC(type));
+		assertFalse(type + ": expected a leak", expected.isEmpty());
+
+		final List<IViolation<SecurityNode>> streamed = new ArrayList<IViolation<SecurityNode>>();
+		assertTrue(type.name(), ana.doIFC(type, ViolationSink.into(streamed)));
+		assertEquals(type.name(), expected, toStrings(streamed));
+
+		assertEquals(type.name(), expected.subList(0, 1), toStrings(ana.doIFC(type, 1)));
+		assertEquals(type.name(), expected, toStrings(ana.doIFC(type, expected.size() + 1)));
+
+		final int[] calls = { 0 };
+		assertFalse(type.name(), ana.doIFC(type, v -> {
+			calls[0]++;
+			return false;
+		}));
+		assertEquals(type + ": reported after the sink asked to stop", 1, calls[0]);
+
+		final String last = expected.get(expected.size() - 1);
+		final Optional<IViolation<SecurityNode>> found = ana.findViolation(type, v -> v.toString().equals(last));
+		assertTrue(type.name(), found.isPresent());
+		assertEquals(type.name(), last, found.get().toString());
+		assertFalse(type.name(), ana.findViolation(type, v -> false).isPresent());
+	}
+
+	@Test
+	public void testSequentialProgram() {
+		try {
+			final IFCAnalysis ana = BuildSDG.buldAndUseJavaAnnotations(PasswordFile.class, BuildSDG.top_sequential, false);
+			testOverloads(ana, IFCType.CLASSICAL_NI);
+		} catch (ApiTestException | ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testConcurrentProgram() {
+		try {
+			final SDGProgram prog = FullIFCConcurrentTest.build("conc.ac.AlarmClock", MHPType.PRECISE);
+			final IFCAnalysis ana = FullIFCConcurrentTest.annotate(prog, "conc.ac.Clock.max", "conc.ac.Client.name");
+			testOverloads(ana, IFCType.CLASSICAL_NI);
+			testOverloads(ana, IFCType.LSOD);
+			testOverloads(ana, IFCType.RLSOD);
+		} catch (ApiTestException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * The ORLSOD checkers only know the final level of a node once the fixed-point iteration is done, so the
+	 * streamed violations have to carry the same levels as those of {@link IFCAnalysis#doIFC(IFCType)}.
+	 */
+	@Test
+	public void testORLSODReportsFinalLevels() {
+		try {
+			final IFCAnalysis ana = BuildSDG.buldAndUseJavaAnnotations(de.uni.trier.infsec.core.Setup.class,
+					BuildSDG.top_concurrent, true, LowHighLattice.INSTANCE);
+			testOverloads(ana, IFCType.iRLSOD);
+			testOverloads(ana, IFCType.timingiRLSOD);
+		} catch (ApiTestException | ClassHierarchyException | IOException | UnsoundGraphException | CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.SourceLocation;
+
+/**
+ * Generates random sdgs with procedures, parameters and calls, e.g. for comparing summary computations.
+ * Every procedure is called from one with a lower number, plus random calls, some of them recursive and some with
+ * two targets (dynamic dispatch). The data dependencies inside a procedure are random.
+ */
+public final class RandomCallSDG {
+
+	private final SDG sdg = new SDG("random");
+	private final int firstLibraryProc;
+	private int id = 1;
+
+	private RandomCallSDG(int firstLibraryProc) {
+		this.firstLibraryProc = firstLibraryProc;
+	}
+
+	/**
+	 * @param rnd               source of randomness
+	 * @param procs             number of procedures, procedure 0 is the root
+	 * @param firstLibraryProc  the procedures with this or a higher number are library (primordial) methods
+	 */
+	public static SDG generate(Random rnd, int procs, int firstLibraryProc) {
+		final RandomCallSDG gen = new RandomCallSDG(firstLibraryProc);
+		gen.build(rnd, procs);
+		return gen.sdg;
+	}
+
+	private SDGNode node(SDGNode.Operation op, int proc) {
+		final boolean entry = (op == SDGNode.Operation.ENTRY);
+		final SDGNode n = new SDGNode(id++, op, "n", proc, "I", SourceLocation.UNKNOWN, entry ? "m" + proc : null,
+				-1, null, null, null, null, entry && proc >= firstLibraryProc ? "Primordial" : null);
+		sdg.addVertex(n);
+		return n;
+	}
+
+	private void edge(SDGEdge.Kind kind, SDGNode from, SDGNode to) {
+		sdg.addEdge(kind.newEdge(from, to));
+	}
+
+	private void build(Random rnd, int procs) {
+		final SDGNode[] entries = new SDGNode[procs];
+		final List<List<SDGNode>> formalIns = new ArrayList<>();
+		final List<List<SDGNode>> formalOuts = new ArrayList<>();
+		// nodes of a procedure which may be the source or the target of a data dependency
+		final List<List<SDGNode>> sources = new ArrayList<>();
+		final List<List<SDGNode>> targets = new ArrayList<>();
+		for (int p = 0; p < procs; p++) {
+			entries[p] = node(SDGNode.Operation.ENTRY, p);
+			final List<SDGNode> fis = new ArrayList<>();
+			final List<SDGNode> fos = new ArrayList<>();
+			final List<SDGNode> body = new ArrayList<>();
+			for (int i = 1 + rnd.nextInt(3); i > 0; i--) {
+				final SDGNode fi = node(SDGNode.Operation.FORMAL_IN, p);
+				edge(SDGEdge.Kind.CONTROL_DEP_EXPR, entries[p], fi);
+				fis.add(fi);
+			}
+			for (int i = 1 + rnd.nextInt(2); i > 0; i--) {
+				final SDGNode fo = node(SDGNode.Operation.FORMAL_OUT, p);
+				edge(SDGEdge.Kind.CONTROL_DEP_EXPR, entries[p], fo);
+				fos.add(fo);
+			}
+			final SDGNode exit = node(SDGNode.Operation.EXIT, p);
+			edge(SDGEdge.Kind.CONTROL_DEP_EXPR, entries[p], exit);
+			fos.add(exit);
+			for (int i = 0; i < 4; i++) {
+				final SDGNode n = node(SDGNode.Operation.ASSIGN, p);
+				edge(SDGEdge.Kind.CONTROL_DEP_UNCOND, entries[p], n);
+				body.add(n);
+			}
+			formalIns.add(fis);
+			formalOuts.add(fos);
+			sources.add(new ArrayList<>(fis));
+			sources.get(p).addAll(body);
+			targets.add(new ArrayList<>(fos));
+			targets.get(p).addAll(body);
+		}
+		sdg.setRoot(entries[0]);
+
+		for (int p = 0; p < procs; p++) {
+			final List<int[]> calls = new ArrayList<>();
+			if (p > 0) {
+				calls.add(new int[] { rnd.nextInt(p), p });
+			}
+			for (int c = rnd.nextInt(3); c > 0; c--) {
+				final int callee = (rnd.nextInt(10) == 0 ? 1 + rnd.nextInt(procs - 1) : Math.min(procs - 1, p + 1 + rnd.nextInt(5)));
+				if (callee != 0) {
+					calls.add(new int[] { p, callee });
+				}
+			}
+
+			for (int[] c : calls) {
+				final int caller = c[0];
+				final int callee = c[1];
+				final int callee2 = (rnd.nextInt(3) == 0 && callee + 1 < procs ? callee + 1 : -1);
+				final SDGNode call = node(SDGNode.Operation.CALL, caller);
+				edge(SDGEdge.Kind.CONTROL_DEP_UNCOND, entries[caller], call);
+				edge(SDGEdge.Kind.CALL, call, entries[callee]);
+				if (callee2 >= 0) {
+					edge(SDGEdge.Kind.CALL, call, entries[callee2]);
+				}
+
+				final int ins = Math.max(formalIns.get(callee).size(), callee2 < 0 ? 0 : formalIns.get(callee2).size());
+				for (int i = 0; i < ins; i++) {
+					final SDGNode ai = node(SDGNode.Operation.ACTUAL_IN, caller);
+					edge(SDGEdge.Kind.CONTROL_DEP_EXPR, call, ai);
+					if (i < formalIns.get(callee).size()) {
+						edge(SDGEdge.Kind.PARAMETER_IN, ai, formalIns.get(callee).get(i));
+					}
+					if (callee2 >= 0 && i < formalIns.get(callee2).size()) {
+						edge(SDGEdge.Kind.PARAMETER_IN, ai, formalIns.get(callee2).get(i));
+					}
+					targets.get(caller).add(ai);
+				}
+				final int outs = Math.max(formalOuts.get(callee).size(), callee2 < 0 ? 0 : formalOuts.get(callee2).size());
+				for (int i = 0; i < outs; i++) {
+					final SDGNode ao = node(SDGNode.Operation.ACTUAL_OUT, caller);
+					edge(SDGEdge.Kind.CONTROL_DEP_EXPR, call, ao);
+					if (i < formalOuts.get(callee).size()) {
+						edge(SDGEdge.Kind.PARAMETER_OUT, formalOuts.get(callee).get(i), ao);
+					}
+					if (callee2 >= 0 && i < formalOuts.get(callee2).size()) {
+						edge(SDGEdge.Kind.PARAMETER_OUT, formalOuts.get(callee2).get(i), ao);
+					}
+					sources.get(caller).add(ao);
+				}
+			}
+		}
+
+		for (int p = 0; p < procs; p++) {
+			final List<SDGNode> from = sources.get(p);
+			final List<SDGNode> to = targets.get(p);
+			for (int i = 3 * from.size(); i > 0; i--) {
+				edge(SDGEdge.Kind.DATA_DEP, from.get(rnd.nextInt(from.size())), to.get(rnd.nextInt(to.size())));
+			}
+		}
+	}
+}
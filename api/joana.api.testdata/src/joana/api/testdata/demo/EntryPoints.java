@@ -0,0 +1,37 @@
+package joana.api.testdata.demo;
+
+import edu.kit.joana.ui.annotations.EntryPoint;
+import edu.kit.joana.ui.annotations.Sink;
+import edu.kit.joana.ui.annotations.Source;
+
+public class EntryPoints {
+
+	public static void main(String[] args) {
+		leak();
+		noLeak();
+		implicitLeak();
+	}
+
+	@EntryPoint(tag = "leak")
+	public static void leak() {
+		print(secret());
+	}
+
+	@EntryPoint(tag = "noLeak")
+	public static void noLeak() {
+		print(secret() * 0);
+	}
+
+	@EntryPoint(tag = "implicitLeak")
+	public static void implicitLeak() {
+		if (secret() > 0) {
+			print(1);
+		}
+	}
+
+	@Source(tags = { "leak", "noLeak", "implicitLeak" })
+	public static int secret() { return 42; }
+
+	@Sink(tags = { "leak", "noLeak", "implicitLeak" })
+	public static void print(int i) {}
+}
@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 import com.google.common.collect.ArrayListMultimap;
@@ -63,6 +64,8 @@ import edu.kit.joana.ifc.sdg.core.violations.IIllegalFlow;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
 import edu.kit.joana.ifc.sdg.core.violations.IllegalFlow;
 import edu.kit.joana.ifc.sdg.core.violations.ViolationMapper;
+import edu.kit.joana.ifc.sdg.core.violations.ViolationSink;
+import edu.kit.joana.ifc.sdg.graph.ReachabilityIndex;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
@@ -74,6 +77,7 @@ import edu.kit.joana.ifc.sdg.irlsod.ProbInfComputer;
 import edu.kit.joana.ifc.sdg.irlsod.ThreadModularCDomOracle;
 import edu.kit.joana.ifc.sdg.irlsod.TimingClassificationChecker;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IndexedLattice;
 import edu.kit.joana.ifc.sdg.mhpoptimization.CSDGPreprocessor;
 import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
 import edu.kit.joana.ifc.sdg.util.JavaType;
@@ -98,10 +102,17 @@ public class IFCAnalysis {
 	private SDGProgram program;
 	private IFCAnnotationManager annManager;
 	private IStaticLattice<String> secLattice;
+	/** the lattice the checkers work on: secLattice, or an {@link IndexedLattice} of it */
+	private IStaticLattice<String> compiledLattice;
 	private IFCType ifcType = IFCType.CLASSICAL_NI;
 	private IFC<String> ifc;
 	private boolean timeSensitiveAnalysis = false;
 	private boolean removeRedundantFlows = false;
+	private ForkJoinPool ifcPool = null;
+	private boolean reachabilityPrefilter = false;
+	private ReachabilityIndex reachIndex = null;
+	private SDG reachIndexSDG = null;
+	private int reachIndexModifications = 0;
 	/**
 	 * "" -> match all annotations that have no tags
 	 */
@@ -138,7 +149,7 @@ public class IFCAnalysis {
 		if (this.ifc != null) {
 			this.ifc.setSDG(this.program.getSDG());
 		} else {
-			this.ifc = new PossibilisticNIChecker(this.program.getSDG(), secLattice);
+			this.ifc = new PossibilisticNIChecker(this.program.getSDG(), compiledLattice);
 		}
 	}
 
@@ -164,7 +175,10 @@ public class IFCAnalysis {
 
 		switch (this.ifcType) {
 		case CLASSICAL_NI:
-			this.ifc = new SlicingBasedIFC(this.program.getSDG(), secLattice, new I2PForward(this.program.getSDG()), new I2PBackward(this.program.getSDG()));
+			final SlicingBasedIFC sbIFC = new SlicingBasedIFC(this.program.getSDG(), compiledLattice, I2PForward::new, I2PBackward::new);
+			sbIFC.setPool(ifcPool);
+			sbIFC.setReachabilityIndex(getReachabilityIndex());
+			this.ifc = sbIFC;
 			if (timeSensitiveAnalysis) {
 				if (this.program.getSDG().getThreadsInfo() == null) {
 					CSDGPreprocessor.preprocessSDG(this.program.getSDG());
@@ -176,14 +190,20 @@ public class IFCAnalysis {
 			}
 			break;
 		case LSOD:
-			ConflictScanner lsodScanner = LSODNISlicer.simpleCheck(this.program.getSDG(), secLattice, mhp,
+			ConflictScanner lsodScanner = LSODNISlicer.simpleCheck(this.program.getSDG(), compiledLattice, mhp,
 			this.timeSensitiveAnalysis);
-			this.ifc = new ProbabilisticNIChecker(this.program.getSDG(), secLattice, lsodScanner,
+			final ProbabilisticNIChecker lsodChecker = new ProbabilisticNIChecker(this.program.getSDG(), compiledLattice, lsodScanner,
 					mhp, this.timeSensitiveAnalysis);
+			lsodChecker.setPool(ifcPool);
+			lsodChecker.setReachabilityIndex(getReachabilityIndex());
+			this.ifc = lsodChecker;
 			break;
 		case RLSOD:
-			this.ifc = new ProbabilisticNIChecker(this.program.getSDG(), secLattice, mhp,
+			final ProbabilisticNIChecker rlsodChecker = new ProbabilisticNIChecker(this.program.getSDG(), compiledLattice, mhp,
 					this.timeSensitiveAnalysis);
+			rlsodChecker.setPool(ifcPool);
+			rlsodChecker.setReachabilityIndex(getReachabilityIndex());
+			this.ifc = rlsodChecker;
 			break;
 		case iRLSOD: {
 			final SDG sdg = this.program.getSDG();
@@ -191,7 +211,7 @@ public class IFCAnalysis {
 //			final ProbInfComputer probInf = new CDomProbInfComputer(sdg, tmdo);
 			final ProbInfComputer probInf = new PredProbInfComputer(sdg, mhp);
 //			this.ifc = new ORLSODChecker<String>(sdg, secLattice, probInf, null);
-			this.ifc = new OptORLSODChecker<String>(sdg, secLattice, probInf);
+			this.ifc = new OptORLSODChecker<String>(sdg, compiledLattice, probInf);
 //			this.ifc = new PathBasedORLSODChecker<String>(sdg, secLattice, probInf);
 //			this.ifc = new BetterORLSODChecker<String>(sdg, secLattice, probInf);
 			break;
@@ -199,7 +219,7 @@ public class IFCAnalysis {
 		case timingiRLSOD: {
 			final SDG sdg = this.program.getSDG();
 			final ThreadModularCDomOracle tmdo = new ThreadModularCDomOracle(sdg);
-			this.ifc = new TimingClassificationChecker<String>(sdg, secLattice, mhp, tmdo);
+			this.ifc = new TimingClassificationChecker<String>(sdg, compiledLattice, mhp, tmdo);
 			break;
 		}
 		default:
@@ -215,13 +235,60 @@ public class IFCAnalysis {
 		this.timeSensitiveAnalysis = newTimeSens;
 	}
 
+	/**
+	 * Enables the parallel check of the information sinks (or sources) for {@link IFCType#CLASSICAL_NI},
+	 * {@link IFCType#LSOD} and {@link IFCType#RLSOD}. The reported violations do not depend on the parallelism.
+	 * @param ifcPool the pool to check on, or null to check sequentially (default)
+	 */
+	public void setIFCPool(ForkJoinPool ifcPool) {
+		this.ifcPool = ifcPool;
+	}
+
+	public ForkJoinPool getIFCPool() {
+		return ifcPool;
+	}
+
+	/**
+	 * Enables skipping information sinks (or sources) which are not connected to any source (or sink) they could
+	 * leak from (or to), before they are sliced, for {@link IFCType#CLASSICAL_NI}, {@link IFCType#LSOD} and
+	 * {@link IFCType#RLSOD}. This needs a {@link ReachabilityIndex} of the sdg, which is built once per sdg, and
+	 * again after the sdg has been modified. The reported violations do not depend on this setting.
+	 * @param reachabilityPrefilter whether to skip unconnected endpoints (default: false)
+	 */
+	public void setReachabilityPrefilter(boolean reachabilityPrefilter) {
+		this.reachabilityPrefilter = reachabilityPrefilter;
+	}
+
+	public boolean isReachabilityPrefilter() {
+		return reachabilityPrefilter;
+	}
+
+	private ReachabilityIndex getReachabilityIndex() {
+		if (!reachabilityPrefilter) {
+			return null;
+		}
+		final SDG sdg = this.program.getSDG();
+		// the index has to be rebuilt if edges have been added to or removed from the sdg since
+		if (reachIndexSDG != sdg || reachIndexModifications != sdg.getModificationCount()) {
+			long time = System.currentTimeMillis();
+			reachIndex = ReachabilityIndex.build(sdg);
+			reachIndexSDG = sdg;
+			reachIndexModifications = sdg.getModificationCount();
+			time = System.currentTimeMillis() - time;
+			debug.outln(String.format("Built %s in %d ms.", reachIndex, time));
+		}
+		return reachIndex;
+	}
+
 	public void setLattice(IStaticLattice<String> secLattice) {
 		if (secLattice == null) {
 			throw new IllegalArgumentException();
 		}
 		this.secLattice = secLattice;
+		// lattice operations are answered from precomputed tables, see IndexedLattice
+		this.compiledLattice = IndexedLattice.isIndexable(secLattice) ? IndexedLattice.of(secLattice) : secLattice;
 		if (this.ifc != null) {
-			this.ifc.setLattice(secLattice);
+			this.ifc.setLattice(this.compiledLattice);
 		}
 		clearAllAnnotations();
 	}
@@ -301,6 +368,49 @@ public class IFCAnalysis {
 		return vios;
 	}
 
+	/**
+	 * Do IFC analysis of the specified type and hand each security violation to the given sink as soon as it is found.
+	 * The analysis stops early once the sink asks for it, see {@link IFC#checkIFlow(ViolationSink)}.
+	 * @param ifcType type of IFC analysis to perform
+	 * @param sink receives the security violations and decides whether the analysis goes on
+	 * @return {@code false} iff the sink stopped the analysis
+	 */
+	public boolean doIFC(IFCType ifcType, ViolationSink sink) {
+		assert ifc != null && ifc.getSDG() != null && ifc.getLattice() != null;
+		annManager.applyAllAnnotations();
+		try {
+			setIFCType(ifcType);
+			long time = 0L;
+			time = System.currentTimeMillis();
+			final boolean completed = ifc.checkIFlow(sink);
+			time = System.currentTimeMillis() - time;
+			debug.outln(String.format("IFC Analysis %s after %d ms.", completed ? "finished" : "stopped", time));
+			return completed;
+		} finally {
+			annManager.unapplyAllAnnotations();
+		}
+	}
+
+	/**
+	 * Do IFC analysis of the specified type, but stop as soon as {@code limit} security violations have been found.
+	 * @return at most {@code limit} security violations, in the order they have been found
+	 */
+	public List<IViolation<SecurityNode>> doIFC(IFCType ifcType, int limit) {
+		final List<IViolation<SecurityNode>> vios = new ArrayList<IViolation<SecurityNode>>();
+		doIFC(ifcType, ViolationSink.limit(limit, ViolationSink.into(vios)));
+		return vios;
+	}
+
+	/**
+	 * Do IFC analysis of the specified type until a security violation matching the given filter is found.
+	 * @return the first matching security violation, if there is any
+	 */
+	public Optional<IViolation<SecurityNode>> findViolation(IFCType ifcType, Predicate<? super IViolation<SecurityNode>> filter) {
+		final List<IViolation<SecurityNode>> found = new ArrayList<IViolation<SecurityNode>>(1);
+		doIFC(ifcType, ViolationSink.filtering(filter, ViolationSink.limit(1, ViolationSink.into(found))));
+		return found.stream().findFirst();
+	}
+
 	public TObjectIntMap<? extends IViolation<SDGProgramPart>> doIFCAndGroupByPPPart(IFCType ifcType) {
 		return groupByPPPart(doIFC(ifcType));
 	}
@@ -411,6 +521,10 @@ public class IFCAnalysis {
 		return program;
 	}
 
+	/**
+	 * @return the lattice given to {@link #setLattice(IStaticLattice)} (the checkers may work on an equivalent,
+	 *         precomputed copy of it)
+	 */
 	public IStaticLattice<String> getLattice() {
 		return secLattice;
 	}
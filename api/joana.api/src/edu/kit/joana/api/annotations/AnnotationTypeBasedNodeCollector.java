@@ -294,7 +294,7 @@ public class AnnotationTypeBasedNodeCollector extends SDGProgramPartVisitor<Set<
 			} else if (isParameterNodeOfKind(next, type)) {
 				base.add(next);
 			}
-			for (SDGEdge e : sdg.getOutgoingEdgesOfKindUnsafe(next, SDGEdge.Kind.PARAMETER_STRUCTURE)) {
+			for (SDGEdge e : sdg.outgoingEdgesOfKind(next, SDGEdge.Kind.PARAMETER_STRUCTURE)) {
 				SDGNode succNode = e.getTarget();
 				if (!visited.contains(succNode)) {
 					toDo.add(succNode);
@@ -305,7 +305,7 @@ public class AnnotationTypeBasedNodeCollector extends SDGProgramPartVisitor<Set<
 	}
 
 	private boolean hasFields(SDGNode param) {
-		return !sdg.getOutgoingEdgesOfKindUnsafe(param, SDGEdge.Kind.PARAMETER_STRUCTURE).isEmpty();
+		return sdg.hasOutgoingEdgesOfKind(param, SDGEdge.Kind.PARAMETER_STRUCTURE);
 	}
 
 	private boolean isParameterNodeOfKind(SDGNode param, AnnotationType type) {
@@ -31,7 +31,7 @@ public class AParameter implements Matcher {
 	@Override
 	public boolean matches(SDGNode n, SDG sdg) {
 		boolean rightMethod = false;
-		for (SDGEdge eIn : sdg.getIncomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+		for (SDGEdge eIn : sdg.incomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
 			if (methodMatcher.matches(eIn.getSource(), sdg)) {
 				rightMethod = true;
 				break;
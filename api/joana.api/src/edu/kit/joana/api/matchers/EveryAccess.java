@@ -50,10 +50,10 @@ public abstract class EveryAccess implements Matcher {
 			if (visited.contains(next)) continue;
 			visited.add(next);
 			if (next.getOperation() == op) return true;
-			for (SDGEdge eIn : sdg.getIncomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+			for (SDGEdge eIn : sdg.incomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
 				toDo.push(eIn.getSource());
 			}
-			for (SDGEdge eOut : sdg.getOutgoingEdgesOfKindUnsafe(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+			for (SDGEdge eOut : sdg.outgoingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
 				toDo.push(eOut.getTarget());
 			}
 		}
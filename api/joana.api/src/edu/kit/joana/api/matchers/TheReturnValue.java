@@ -30,7 +30,7 @@ public class TheReturnValue implements Matcher {
 	public boolean matches(SDGNode n, SDG sdg) {
 		if (n.getKind() != relevantKind) return false;
 		if (!BytecodeLocation.RETURN_PARAM.equals(n.getBytecodeName())) return false;
-		for (SDGEdge eIn : sdg.getIncomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+		for (SDGEdge eIn : sdg.incomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
 			if (methodMatcher.matches(eIn.getSource(), sdg)) {
 				return true;
 			}
@@ -0,0 +1,368 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.sdg;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.util.io.IOFactory;
+
+/**
+ * Keeps the result of a previous sdg construction in a directory, together with a fingerprint of the analyzed
+ * program: a hash of every class file on the class path and on the third party library path, and the options of
+ * the {@link SDGConfig} that influence the sdg. If neither changed, the stored sdg is reused and the WALA pipeline
+ * does not run at all. See {@link SDGProgram#createSDGProgram(SDGConfig, File, java.io.PrintStream,
+ * com.ibm.wala.util.MonitorUtil.IProgressMonitor)}.
+ * <p>
+ * Configurations with custom hooks that cannot be fingerprinted (method filter, call graph consumer, context
+ * selector, side effect detector) are not cached, see {@link #isCacheable(SDGConfig)}. Custom
+ * {@link SDGConfig#getFieldHelperOptions() uninitialized field helper options} are not part of the fingerprint
+ * either, so a cache directory must not be shared between configurations that only differ in these. Options
+ * that do not change the sdg (summary cache directory, shared class hierarchy, notifier) are not part of it.
+ * <p>
+ * Reuse is all or nothing: if a single class file changed, the whole sdg is rebuilt.
+ * {@link #getChangedClasses()} only reports what changed, it does not enable reusing individual PDGs.
+ */
+public final class SDGBuildCache {
+
+	private static final String MANIFEST_FILE = "manifest.txt";
+	private static final String SDG_FILE = "sdg.bin";
+
+	private static final String CONFIG = "config";
+	private static final String CLASS = "class";
+	private static final String ANNOTATED = "annotated";
+
+	private final File dir;
+	private final String configHash;
+	/** class name -> hash of its class file, for the current program */
+	private final Map<String, String> classHashes;
+
+	/** the content of the stored manifest, null if there is none */
+	private final String storedConfigHash;
+	private final Map<String, String> storedClassHashes;
+	private final Set<String> storedAnnotatedClasses;
+
+	private SDGBuildCache(File dir, String configHash, Map<String, String> classHashes, String storedConfigHash,
+			Map<String, String> storedClassHashes, Set<String> storedAnnotatedClasses) {
+		this.dir = dir;
+		this.configHash = configHash;
+		this.classHashes = classHashes;
+		this.storedConfigHash = storedConfigHash;
+		this.storedClassHashes = storedClassHashes;
+		this.storedAnnotatedClasses = storedAnnotatedClasses;
+	}
+
+	/**
+	 * @return true iff the sdg built for the given configuration can be cached. Profiled builds are not cached,
+	 *         as they are run for their measurements.
+	 */
+	public static boolean isCacheable(SDGConfig config) {
+		return config.getMethodFilter() == null && config.getCGConsumer() == null
+				&& config.getContextSelector() == null && config.getSideEffectDetectorConfig() == null
+				&& config.getBuildProfile() == null;
+	}
+
+	/**
+	 * Computes the fingerprint of the program described by the given configuration and reads the manifest of a
+	 * previous build from the given directory, if there is one.
+	 */
+	public static SDGBuildCache open(File dir, SDGConfig config) throws IOException {
+		if (!isCacheable(config)) {
+			throw new IllegalArgumentException("configuration cannot be cached: " + config);
+		}
+
+		final Map<String, String> classHashes = new TreeMap<>();
+		final boolean manifestEntries = config.getClasspathAddEntriesFromMANIFEST();
+		final Set<File> visited = new HashSet<>();
+		hashClassPath(config.getClassPath(), manifestEntries, visited, classHashes);
+		if (config.getThirdPartyLibsPath() != null) {
+			hashClassPath(config.getThirdPartyLibsPath(), manifestEntries, visited, classHashes);
+		}
+
+		final File manifest = new File(dir, MANIFEST_FILE);
+		String storedConfigHash = null;
+		final Map<String, String> storedClassHashes = new HashMap<>();
+		final Set<String> storedAnnotatedClasses = new HashSet<>();
+		if (manifest.isFile() && new File(dir, SDG_FILE).isFile()) {
+			try (final BufferedReader in = new BufferedReader(IOFactory.createUTF8ISReader(new FileInputStream(manifest)))) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					final int sep1 = line.indexOf(' ');
+					final int sep2 = line.indexOf(' ', sep1 + 1);
+					if (sep1 < 0) {
+						throw new IOException("malformed line in " + manifest + ": " + line);
+					}
+
+					final String kind = line.substring(0, sep1);
+					if (CONFIG.equals(kind)) {
+						storedConfigHash = line.substring(sep1 + 1);
+					} else if (CLASS.equals(kind) && sep2 > 0) {
+						storedClassHashes.put(line.substring(sep2 + 1), line.substring(sep1 + 1, sep2));
+					} else if (ANNOTATED.equals(kind)) {
+						storedAnnotatedClasses.add(line.substring(sep1 + 1));
+					} else {
+						throw new IOException("malformed line in " + manifest + ": " + line);
+					}
+				}
+			}
+		}
+
+		return new SDGBuildCache(dir, hashConfig(config), classHashes, storedConfigHash, storedClassHashes,
+				storedAnnotatedClasses);
+	}
+
+	/**
+	 * @return true iff a previous build exists for the same configuration and the same class files.
+	 */
+	public boolean isUpToDate() {
+		return configHash.equals(storedConfigHash) && classHashes.equals(storedClassHashes);
+	}
+
+	/**
+	 * @return true iff a previous build exists, but for a different configuration.
+	 */
+	public boolean hasConfigChanged() {
+		return storedConfigHash != null && !configHash.equals(storedConfigHash);
+	}
+
+	/**
+	 * @return the names of all classes that were added, removed or modified since the previous build.
+	 */
+	public Set<String> getChangedClasses() {
+		final Set<String> changed = new TreeSet<>();
+		for (final Map.Entry<String, String> e : classHashes.entrySet()) {
+			if (!e.getValue().equals(storedClassHashes.get(e.getKey()))) {
+				changed.add(e.getKey());
+			}
+		}
+		for (final String cl : storedClassHashes.keySet()) {
+			if (!classHashes.containsKey(cl)) {
+				changed.add(cl);
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * @return the stored sdg. Only valid if {@link #isUpToDate()}.
+	 */
+	public SDG loadSDG() throws IOException {
+		return SDG.readFromBinary(new File(dir, SDG_FILE).getPath(), new SecurityNode.SecurityNodeFactory());
+	}
+
+	/**
+	 * @return the type references of the classes whose annotations were read for the stored sdg.
+	 */
+	public Set<String> getAnnotatedClasses() {
+		return Collections.unmodifiableSet(storedAnnotatedClasses);
+	}
+
+	/**
+	 * Stores the given sdg as the result for the current fingerprint. The manifest is written last, so an
+	 * interrupted store does not leave a manifest that matches a stale sdg file.
+	 */
+	public void store(SDG sdg, Collection<String> annotatedClasses) throws IOException {
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("could not create cache directory " + dir);
+		}
+
+		final File manifest = new File(dir, MANIFEST_FILE);
+		Files.deleteIfExists(manifest.toPath());
+		SDGSerializer.toBinaryFormat(sdg, new File(dir, SDG_FILE).getPath());
+
+		final File tmp = new File(dir, MANIFEST_FILE + ".tmp");
+		try (final PrintWriter out = new PrintWriter(IOFactory.createUTF8OutputStreamWriter(new FileOutputStream(tmp)))) {
+			out.println(CONFIG + " " + configHash);
+			for (final Map.Entry<String, String> e : classHashes.entrySet()) {
+				out.println(CLASS + " " + e.getValue() + " " + e.getKey());
+			}
+			for (final String cl : new TreeSet<>(annotatedClasses)) {
+				out.println(ANNOTATED + " " + cl);
+			}
+		}
+
+		if (!tmp.renameTo(manifest)) {
+			throw new IOException("could not write " + manifest);
+		}
+	}
+
+	private static String hashConfig(SDGConfig config) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(config.getClassPath()).append('\n');
+		sb.append(config.getClasspathAddEntriesFromMANIFEST()).append('\n');
+		sb.append(config.getThirdPartyLibsPath()).append('\n');
+		sb.append(config.getEntryMethod()).append('\n');
+		sb.append(config.getStubs()).append('\n');
+		sb.append(config.getExclusions()).append('\n');
+		sb.append(config.getPruningPolicy().getClass().getName()).append('\n');
+		sb.append(config.getExceptionAnalysis()).append('\n');
+		sb.append(config.getDefaultExceptionMethodState() == null ? null
+				: config.getDefaultExceptionMethodState().getClass().getName()).append('\n');
+		sb.append(config.getIgnoreIndirectFlows()).append('\n');
+		sb.append(config.getFieldPropagation()).append('\n');
+		sb.append(config.getPointsToPrecision()).append('\n');
+		sb.append(config.computeAccessPaths()).append('\n');
+		sb.append(config.computeInterferences()).append('\n');
+		sb.append(config.localKillingDefs()).append('\n');
+		sb.append(config.getMhpType()).append('\n');
+		sb.append(config.computeAllocationSites()).append('\n');
+		sb.append(config.getDynamicDispatchHandling()).append('\n');
+		sb.append(config.isComputeSummaryEdges()).append('\n');
+		sb.append(config.getSummaryComputationType()).append('\n');
+		sb.append(config.isSkipSDGProgramPart()).append('\n');
+		sb.append(config.getControlDependenceVariant()).append('\n');
+		// parallel construction is meant to yield the same sdg, but a cached sdg must not hide a difference
+		sb.append(config.isParallel()).append('\n');
+		sb.append(config.isParallelPDGConstruction()).append('\n');
+
+		final MessageDigest digest = newDigest();
+		return toHex(digest.digest(IOFactory.createUTF8Bytes(sb.toString())));
+	}
+
+	/**
+	 * Hashes all class files of the given class path, which consists of directories and jar files.
+	 * The first occurrence of a class wins, as in the class loader.
+	 */
+	private static void hashClassPath(String classPath, boolean manifestEntries, Set<File> visited,
+			Map<String, String> classHashes) throws IOException {
+		final MessageDigest digest = newDigest();
+		final StringTokenizer tok = new StringTokenizer(classPath, File.pathSeparator);
+		while (tok.hasMoreTokens()) {
+			hashClassPathEntry(new File(tok.nextToken()), manifestEntries, visited, digest, classHashes);
+		}
+	}
+
+	private static void hashClassPathEntry(File entry, boolean manifestEntries, Set<File> visited,
+			MessageDigest digest, Map<String, String> classHashes) throws IOException {
+		if (!visited.add(entry.getCanonicalFile())) {
+			return;
+		}
+
+		if (entry.isDirectory()) {
+			hashDirectory(entry, "", digest, classHashes);
+		} else if (entry.isFile()) {
+			final List<File> referenced = new ArrayList<>();
+			try (final JarFile jar = new JarFile(entry)) {
+				final Enumeration<JarEntry> entries = jar.entries();
+				while (entries.hasMoreElements()) {
+					final JarEntry e = entries.nextElement();
+					if (!e.isDirectory() && e.getName().endsWith(".class")) {
+						final String name = className(e.getName());
+						if (!classHashes.containsKey(name)) {
+							try (final InputStream in = jar.getInputStream(e)) {
+								classHashes.put(name, hash(in, digest));
+							}
+						}
+					}
+				}
+
+				final Manifest manifest = (manifestEntries ? jar.getManifest() : null);
+				final String manifestClassPath =
+						(manifest == null ? null : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH));
+				if (manifestClassPath != null) {
+					for (final String ref : manifestClassPath.trim().split("\\s+")) {
+						referenced.add(new File(entry.getParentFile(), ref));
+					}
+				}
+			}
+
+			for (final File ref : referenced) {
+				// missing manifest entries are ignored, as they are when the class path is set up
+				if (ref.exists()) {
+					hashClassPathEntry(ref, manifestEntries, visited, digest, classHashes);
+				}
+			}
+		} else {
+			throw new IOException("class path entry does not exist: " + entry);
+		}
+	}
+
+	private static void hashDirectory(File dir, String prefix, MessageDigest digest, Map<String, String> classHashes)
+			throws IOException {
+		final File[] files = dir.listFiles();
+		if (files == null) {
+			throw new IOException("could not list " + dir);
+		}
+
+		for (final File f : files) {
+			final String path = prefix + f.getName();
+			if (f.isDirectory()) {
+				hashDirectory(f, path + "/", digest, classHashes);
+			} else if (path.endsWith(".class")) {
+				final String name = className(path);
+				if (!classHashes.containsKey(name)) {
+					try (final InputStream in = new FileInputStream(f)) {
+						classHashes.put(name, hash(in, digest));
+					}
+				}
+			}
+		}
+	}
+
+	private static String className(String path) {
+		return path.substring(0, path.length() - ".class".length()).replace('/', '.');
+	}
+
+	private static String hash(InputStream in, MessageDigest digest) throws IOException {
+		digest.reset();
+		final byte[] buf = new byte[8192];
+		int len;
+		while ((len = in.read(buf)) > 0) {
+			digest.update(buf, 0, len);
+		}
+
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every java platform has to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		final StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(b & 0xf, 16));
+		}
+
+		return sb.toString();
+	}
+}
@@ -73,6 +73,16 @@ public final class SDGBuildPreparation {
 		return ClassHierarchyFactory.make(scope);
 	}
 
+	/**
+	 * Computes a class hierarchy that several builds may share via {@link Config#sharedCha}, e.g. when
+	 * analyzing many entry points of the same program. The hierarchy is only read during SDG construction,
+	 * so it can be handed to builds running concurrently.
+	 */
+	public static SharedClassHierarchy computeSharedClassHierarchy(PrintStream out, Config cfg)
+			throws IOException, ClassHierarchyException {
+		return new SharedClassHierarchy(cfg, computeClassHierarchy(out, cfg));
+	}
+
 	public static List<String> searchMainMethods(PrintStream out, Config cfg) throws IOException, ClassHierarchyException {
 		return searchMethods(out, cfg, true, ".*");
 	}
@@ -281,19 +291,29 @@ public final class SDGBuildPreparation {
 		}
 		final long startTime = System.currentTimeMillis();
 
-		out.print("Setting up analysis scope... ");
+		final AnalysisScope scope;
+		final ClassHierarchy cha;
+		if (cfg.sharedCha != null && cfg.sharedCha.matches(cfg)) {
+			com.ibm.wala.ipa.callgraph.impl.Util.setNativeSpec(cfg.stubs.getNativeSpecFile());
+			cha = cfg.sharedCha.getClassHierarchy();
+			scope = cha.getScope();
 
-		AnalysisScope scope = setUpAnalysisScope(out, cfg);
+			out.println("Reusing shared class hierarchy (" + cha.getNumberOfClasses() + " classes).");
+		} else {
+			out.print("Setting up analysis scope... ");
 
-	    out.println("done.");
+			scope = setUpAnalysisScope(out, cfg);
 
-	    out.print("Creating class hierarchy... ");
+		    out.println("done.");
 
-	    // Klassenhierarchie berechnen
-		ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+		    out.print("Creating class hierarchy... ");
 
+		    // Klassenhierarchie berechnen
+			cha = ClassHierarchyFactory.make(scope);
 
-	    out.println("(" + cha.getNumberOfClasses() + " classes) done.");
+
+		    out.println("(" + cha.getNumberOfClasses() + " classes) done.");
+		}
 
 	    if (cfg.extern != null) {
 	    	cfg.extern.setClassHierarchy(cha);
@@ -375,13 +395,17 @@ public final class SDGBuildPreparation {
 		scfg.localKillingDefs = cfg.localKillingDefs;
 		scfg.computeSummary = cfg.computeSummaryEdges;
 		scfg.summaryComputationType = cfg.summaryComputationType;
+		scfg.summaryCacheDir = cfg.summaryCacheDir;
 		scfg.computeAllocationSites = cfg.computeAllocationSites;
 		scfg.cgConsumer = cfg.cgConsumer;
 		scfg.additionalContextSelector = cfg.ctxSelector;
 		scfg.dynDisp = cfg.ddisp;
 		scfg.doParallel = cfg.isParallel;
+		scfg.doParallelPDGs = cfg.parallelPDGs;
+		scfg.summaryThreads = cfg.summaryThreads;
 		scfg.controlDependenceVariant = cfg.controlDependenceVariant;
 		scfg.fieldHelperOptions = cfg.fieldHelperOptions;
+		scfg.profile = cfg.profile;
 		return Pair.make(startTime, scfg);
 	}
 
@@ -476,6 +500,7 @@ public final class SDGBuildPreparation {
 		public boolean localKillingDefs = true;
 		public boolean computeSummaryEdges = true;
 		public SummaryComputationType summaryComputationType = SummaryComputationType.DEFAULT;
+		public String summaryCacheDir = null;
 		public boolean debugManyGraphsDotOutput = false;
 		public FieldPropagation fieldPropagation;
 		public SideEffectDetectorConfig sideEffects = null;
@@ -485,8 +510,15 @@ public final class SDGBuildPreparation {
 		public ContextSelector ctxSelector = null;
 		public DynamicDispatchHandling ddisp;
 		public boolean isParallel = true;
+		public boolean parallelPDGs = false;
+		public int summaryThreads = 0;
 		public ControlDependenceVariant controlDependenceVariant = SDGBuilder.defaultControlDependenceVariant;
 		public UninitializedFieldHelperOptions fieldHelperOptions = UninitializedFieldHelperOptions.createEmpty();
+		// if set and computed for the same class path, stubs and exclusions, the build reuses this class
+		// hierarchy instead of setting up a new analysis scope
+		public SharedClassHierarchy sharedCha = null;
+		// if set, the phases of the build are recorded in it
+		public SDGBuildProfile profile = null;
 
 		public Config(String name) {
 			this(name, "<no entry defined>", FieldPropagation.OBJ_GRAPH);
@@ -553,5 +585,41 @@ public final class SDGBuildPreparation {
 		}
 	}
 
+	/**
+	 * A class hierarchy together with the parts of the {@link Config} that determine its analysis scope.
+	 */
+	public static final class SharedClassHierarchy {
+		private final String classpath;
+		private final boolean classpathAddEntriesFromMANIFEST;
+		private final String thirdPartyLibPath;
+		private final String exclusions;
+		private final Stubs stubs;
+		private final ClassHierarchy cha;
+
+		private SharedClassHierarchy(Config cfg, ClassHierarchy cha) {
+			this.classpath = cfg.classpath;
+			this.classpathAddEntriesFromMANIFEST = cfg.classpathAddEntriesFromMANIFEST;
+			this.thirdPartyLibPath = cfg.thirdPartyLibPath;
+			this.exclusions = cfg.exclusions;
+			this.stubs = cfg.stubs;
+			this.cha = cha;
+		}
+
+		public ClassHierarchy getClassHierarchy() {
+			return cha;
+		}
+
+		/**
+		 * @return whether a build with the given configuration would set up the same analysis scope
+		 */
+		public boolean matches(Config cfg) {
+			return Objects.equals(classpath, cfg.classpath)
+				&& classpathAddEntriesFromMANIFEST == cfg.classpathAddEntriesFromMANIFEST
+				&& Objects.equals(thirdPartyLibPath, cfg.thirdPartyLibPath)
+				&& Objects.equals(exclusions, cfg.exclusions)
+				&& stubs == cfg.stubs;
+		}
+	}
+
 
 }
@@ -111,7 +111,7 @@ public class SDGClass implements SDGProgramPart {
 		SDGCall newCall = new SDGCall(owner, n.getBytecodeIndex(), n.getLabel(), n.getType(), n.getOperation().toString());
 
 		// add actual parameters
-		for (SDGEdge e : sdg.getOutgoingEdgesOfKindUnsafe(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+		for (SDGEdge e : sdg.outgoingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
 			SDGNode node = e.getTarget();
 			if (node.getKind() == SDGNode.Kind.ACTUAL_IN || node.getKind() == SDGNode.Kind.ACTUAL_OUT) {
 				newCall.addActualParameter(node);
@@ -18,6 +18,7 @@ import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
 import edu.kit.joana.util.LogUtil;
 import edu.kit.joana.util.Stubs;
 import edu.kit.joana.wala.core.CGConsumer;
+import edu.kit.joana.wala.core.SDGBuildProfile;
 import edu.kit.joana.wala.core.SDGBuilder;
 import edu.kit.joana.wala.core.SDGBuilder.ControlDependenceVariant;
 import edu.kit.joana.wala.core.SDGBuilder.DynamicDispatchHandling;
@@ -55,10 +56,15 @@ public class SDGConfig {
 	private DynamicDispatchHandling ddisp = DynamicDispatchHandling.SIMPLE;
 	private boolean computeSummaryEdges = true;
 	private SummaryComputationType summaryComputationType = SummaryComputationType.DEFAULT;
+	private String summaryCacheDir = null;
 	private boolean skipSDGProgramPart = false;
 	private ControlDependenceVariant controlDependenceVariant = SDGBuilder.defaultControlDependenceVariant;
 	private boolean isParallel = true;
+	private boolean parallelPDGConstruction = false;
+	private int summaryThreads = 0;
 	private UninitializedFieldHelperOptions fieldHelperOptions = UninitializedFieldHelperOptions.createEmpty();
+	private SDGBuildPreparation.SharedClassHierarchy sharedClassHierarchy = null;
+	private SDGBuildProfile buildProfile = null;
 
 	public SDGConfig(String classPath, String entryMethod, Stubs stubsPath) {
 		this(classPath, true, entryMethod, stubsPath, ExceptionAnalysis.INTERPROC, FieldPropagation.OBJ_GRAPH, PointsToPrecision.INSTANCE_BASED, false, false, MHPType.NONE);
@@ -94,6 +100,19 @@ public class SDGConfig {
 		return summaryComputationType;
 	}
 
+	/**
+	 * Sets a directory in which the summary edges of library methods are cached across runs. A cache directory can
+	 * be shared by the analyses of different programs.
+	 * @param summaryCacheDir the cache directory, or null to compute all summary edges
+	 */
+	public void setSummaryCacheDir(String summaryCacheDir) {
+		this.summaryCacheDir = summaryCacheDir;
+	}
+
+	public String getSummaryCacheDir() {
+		return summaryCacheDir;
+	}
+
 	public void setSkipSDGProgramPart(final boolean value) {
 		this.skipSDGProgramPart = value;
 	}
@@ -416,6 +435,29 @@ public class SDGConfig {
 		this.isParallel = isParallel;
 	}
 
+	public boolean isParallelPDGConstruction() {
+		return parallelPDGConstruction;
+	}
+
+	/**
+	 * Builds the intraprocedural pdgs in multiple threads, if {@link #isParallel()} is also set. Off by default.
+	 */
+	public void setParallelPDGConstruction(boolean parallelPDGConstruction) {
+		this.parallelPDGConstruction = parallelPDGConstruction;
+	}
+
+	public int getSummaryThreads() {
+		return summaryThreads;
+	}
+
+	/**
+	 * Sets the number of threads of the parallel summary edge computation, which is used if {@link #isParallel()}
+	 * is set. 0 (the default) uses one thread per available processor.
+	 */
+	public void setSummaryThreads(int summaryThreads) {
+		this.summaryThreads = summaryThreads;
+	}
+
 	public UninitializedFieldHelperOptions getFieldHelperOptions() {
 		return fieldHelperOptions;
 	}
@@ -423,4 +465,28 @@ public class SDGConfig {
 	public void setFieldHelperOptions(UninitializedFieldHelperOptions fieldHelperOptions) {
 		this.fieldHelperOptions = fieldHelperOptions;
 	}
+
+	public SDGBuildPreparation.SharedClassHierarchy getSharedClassHierarchy() {
+		return sharedClassHierarchy;
+	}
+
+	/**
+	 * Lets the build reuse a class hierarchy computed once for several entry points of the same program.
+	 * It is ignored if it was computed for a different class path, stubs or exclusions.
+	 */
+	public void setSharedClassHierarchy(SDGBuildPreparation.SharedClassHierarchy sharedClassHierarchy) {
+		this.sharedClassHierarchy = sharedClassHierarchy;
+	}
+
+	public SDGBuildProfile getBuildProfile() {
+		return buildProfile;
+	}
+
+	/**
+	 * Lets the build record the time, allocations and graph sizes of its phases and the slowest pdg builds
+	 * in the given profile, which can be exported as json afterwards. Null (the default) disables profiling.
+	 */
+	public void setBuildProfile(SDGBuildProfile buildProfile) {
+		this.buildProfile = buildProfile;
+	}
 }
@@ -8,6 +8,7 @@
 package edu.kit.joana.api.sdg;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
@@ -44,7 +45,7 @@ import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
 import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
-import edu.kit.joana.ifc.sdg.graph.chopper.NonSameLevelChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.MemoizingNonSameLevelChopper;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
 import edu.kit.joana.ifc.sdg.mhpoptimization.CSDGPreprocessor;
 import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
@@ -172,6 +173,8 @@ public class SDGProgram {
 	private final AnnotationTypeBasedNodeCollector coll;
 	private IClassHierarchy ch;
 	private final Optional<String> entryMethod;
+	/** created on the first chop, see {@link #computeInstructionChop(SDGProgramPart, SDGProgramPart)} */
+	private Chopper chopper;
 
 	private static Logger debug = Log.getLogger(Log.L_API_DEBUG);
 
@@ -251,6 +254,59 @@ public class SDGProgram {
 
 	public static SDGProgram createSDGProgram(SDGConfig config, PrintStream out, IProgressMonitor monitor, OutputStream sdgFileOut)
 			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		return createSDGProgram(config, out, monitor, sdgFileOut, null);
+	}
+
+	/**
+	 * Builds the sdg like {@link #createSDGProgram(SDGConfig, PrintStream, IProgressMonitor)}, but keeps the result
+	 * in the given cache directory. If no class file on the class path and no relevant option of the configuration
+	 * changed since the previous build, the cached sdg is reused and only the class hierarchy is recomputed for
+	 * the annotations. Otherwise, the changed classes are reported and the sdg is rebuilt and cached.
+	 * Configurations that cannot be cached (see {@link SDGBuildCache#isCacheable(SDGConfig)}) are always built.
+	 */
+	public static SDGProgram createSDGProgram(SDGConfig config, File cacheDir, PrintStream out, IProgressMonitor monitor)
+			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		if (!SDGBuildCache.isCacheable(config)) {
+			out.println("configuration cannot be cached, building sdg from scratch.");
+			return createSDGProgram(config, out, monitor, null, null);
+		}
+
+		final SDGBuildCache cache = SDGBuildCache.open(cacheDir, config);
+		if (!cache.isUpToDate()) {
+			if (cache.hasConfigChanged()) {
+				out.println("configuration changed since the cached build, rebuilding sdg.");
+			} else {
+				out.println(cache.getChangedClasses().size() + " classes changed since the cached build, rebuilding sdg.");
+			}
+			return createSDGProgram(config, out, monitor, null, cache);
+		}
+
+		out.println("reusing cached sdg of " + cacheDir);
+		final SDG sdg = cache.loadSDG();
+		final MHPAnalysis mhpAnalysis = config.getMhpType().getMhpAnalysisConstructor().apply(sdg);
+		final SDGProgram ret = new SDGProgram(sdg, mhpAnalysis, config.getEntryMethod());
+		if (config.isSkipSDGProgramPart()) {
+			return ret;
+		}
+
+		final SDGBuildPreparation.Config cfg = makeBuildPreparationConfig(config);
+		final IClassHierarchy ch = cfg.sharedCha != null && cfg.sharedCha.matches(cfg)
+				? cfg.sharedCha.getClassHierarchy() : SDGBuildPreparation.computeClassHierarchy(out, cfg);
+		ret.setClassHierarchy(ch);
+		final Set<String> annotated = cache.getAnnotatedClasses();
+		final List<IClass> classes = new ArrayList<>(annotated.size());
+		for (final IClass cl : ch) {
+			if (annotated.contains(cl.getReference().toString())) {
+				classes.add(cl);
+			}
+		}
+		ret.fillWithAnnotations(ch, classes);
+		return ret;
+	}
+
+	private static SDGProgram createSDGProgram(SDGConfig config, PrintStream out, IProgressMonitor monitor,
+			OutputStream sdgFileOut, SDGBuildCache cache)
+			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
 		monitor.beginTask("build SDG", 20);
 		ConstructionNotifier notifier = config.getNotifier();
 		if (notifier != null) {
@@ -293,13 +349,21 @@ public class SDGProgram {
 		final SDGProgram ret = new SDGProgram(sdg, mhpAnalysis, config.getEntryMethod());
 		ret.setClassHierarchy(buildArtifacts.getClassHierarchy());
 		if (config.isSkipSDGProgramPart()) {
+			if (cache != null) {
+				cache.store(sdg, Collections.emptyList());
+			}
 			return ret;
 		}
 		
 		
 		final IClassHierarchy ch  = buildArtifacts.getClassHierarchy();
 		final CallGraph callGraph = buildArtifacts.getWalaCallGraph(); 
-		ret.fillWithAnnotations(ch, findClassesRelevantForAnnotation(ch, callGraph));
+		final Set<IClass> annotationClasses = findClassesRelevantForAnnotation(ch, callGraph);
+		if (cache != null) {
+			// store before the annotations are read, as fillWithAnnotations does not change the sdg
+			cache.store(sdg, annotationClasses.stream().map(cl -> cl.getReference().toString()).collect(Collectors.toList()));
+		}
+		ret.fillWithAnnotations(ch, annotationClasses);
 		return ret;
 	}
 	
@@ -491,11 +555,16 @@ public class SDGProgram {
 		cfg.ddisp = config.getDynamicDispatchHandling();
 		cfg.computeSummaryEdges = config.isComputeSummaryEdges();
 		cfg.summaryComputationType = config.getSummaryComputationType();
+		cfg.summaryCacheDir = config.getSummaryCacheDir();
 		cfg.computeInterference = config.computeInterferences();
 		cfg.localKillingDefs = config.localKillingDefs();
 		cfg.isParallel = config.isParallel();
+		cfg.parallelPDGs = config.isParallelPDGConstruction();
+		cfg.summaryThreads = config.getSummaryThreads();
 		cfg.controlDependenceVariant = config.getControlDependenceVariant();
 		cfg.fieldHelperOptions = config.getFieldHelperOptions();
+		cfg.sharedCha = config.getSharedClassHierarchy();
+		cfg.profile = config.getBuildProfile();
 		debug.outln(cfg.stubs);
 		return cfg;
 	}
@@ -790,13 +859,17 @@ public class SDGProgram {
 
 	/**
 	 * Given a source and a sink instructions, computes a chop of these two program parts and collects all instructions which are on the way.
-	 * This works only for sequential programs
+	 * This works only for sequential programs. The same-level chops through called procedures are remembered, so
+	 * subsequent chops in this program reuse them until the sdg is modified, e.g. by
+	 * {@link #throwAwayControlDeps(SDG)}.
 	 * @param source source instruction
 	 * @param sink sink instruction
 	 * @return instructions through which information may flow from source to sink
 	 */
 	public Set<SDGInstruction> computeInstructionChop(SDGProgramPart source, SDGProgramPart sink) {
-		Chopper chopper = new NonSameLevelChopper(this.sdg);
+		if (chopper == null) {
+			chopper = new MemoizingNonSameLevelChopper(this.sdg);
+		}
 		AnnotationTypeBasedNodeCollector c = new AnnotationTypeBasedNodeCollector(this.sdg);
 		Collection<SDGNode> chop = chopper.chop(c.collectNodes(source, AnnotationType.SOURCE), c.collectNodes(sink, AnnotationType.SINK));
 		Set<SDGInstruction> ret = new HashSet<SDGInstruction>();
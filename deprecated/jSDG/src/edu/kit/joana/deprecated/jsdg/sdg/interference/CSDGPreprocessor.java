@@ -194,7 +194,7 @@ public class CSDGPreprocessor {
         Set<SDGNode> set = sdg.vertexSet();
 
         for (SDGNode n : set) {
-            if (n != root && n.getProc() == root.getProc() && sdg.getIncomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_FLOW).isEmpty()){
+            if (n != root && n.getProc() == root.getProc() && !sdg.hasIncomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_FLOW)){
                 sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(root, n));
                 // print to stderr to embarrass the sdg creator
                 System.err.println("fix cfg: " + root.getLabel() + " to " + n.getLabel());
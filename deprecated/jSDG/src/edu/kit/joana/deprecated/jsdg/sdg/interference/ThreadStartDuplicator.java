@@ -355,7 +355,7 @@ public class ThreadStartDuplicator {
 
     	SDGNode run = runEntries.get(0);
     	SDGNode n = null;
-    	for (SDGEdge e : icfg.getIncomingEdgesOfKind(run, SDGEdge.Kind.FORK)) {
+    	for (SDGEdge e : icfg.incomingEdgesOfKind(run, SDGEdge.Kind.FORK)) {
     		n = e.getSource();
     		break;
     	}
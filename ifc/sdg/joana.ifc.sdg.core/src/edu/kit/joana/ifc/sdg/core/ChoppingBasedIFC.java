@@ -15,6 +15,7 @@ import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.MemoizingNonSameLevelChopper;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 
@@ -27,13 +28,24 @@ import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
  * </ol>
  * If these two conditions are satisfied, a violation for (s,t) is reported.<p>
  * Note, that this class can only be used to check for possibilistic leaks. To check also for probabilistic leaks, use {@link ProbabilisticNIChecker}.<p>
- * Also, there is no support for declassification, unless the provided chopper is configured appropriately.
+ * Also, there is no support for declassification, unless the provided chopper is configured appropriately.<p>
+ * All pairs are chopped with the same chopper, so a chopper that remembers intermediate results, like the
+ * {@link MemoizingNonSameLevelChopper}, can reuse them for all pairs.
  * @author Martin Mohr
  */
 public class ChoppingBasedIFC extends IFC<String> {
 	
 	private final Chopper chopper;
 	
+	/**
+	 * Instantiates a new ChoppingBasedIFC object, which uses a {@link MemoizingNonSameLevelChopper}.
+	 * @param sdg SDG to perform IFC algorithm on
+	 * @param lattice security lattice to use for IFC algorithm
+	 */
+	public ChoppingBasedIFC(SDG sdg, IStaticLattice<String> lattice) {
+		this(sdg, lattice, new MemoizingNonSameLevelChopper(sdg));
+	}
+	
 	/**
 	 * Instantiates a new ChoppingBasedIFC object.
 	 * @param sdg SDG to perform IFC algorithm on
@@ -21,6 +21,7 @@ import java.util.Collection;
 import edu.kit.joana.ifc.sdg.core.interfaces.ProgressAnnouncer;
 import edu.kit.joana.ifc.sdg.core.interfaces.ProgressListener;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.ViolationSink;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
@@ -55,6 +56,31 @@ public abstract class IFC<L> implements ProgressListener, ProgressAnnouncer {
      */
 	public abstract Collection<? extends IViolation<SecurityNode>> checkIFlow() throws NotInLatticeException;
 
+    /** Wie {@link #checkIFlow()}, gibt aber jede Sicherheitsverletzung an {@code sink} weiter, sobald sie bekannt ist,
+     * und bricht ab, sobald {@code sink} das verlangt. Algorithmen, die Verletzungen schrittweise finden,
+     * ueberschreiben diese Methode; die Standardimplementierung meldet das Ergebnis von {@link #checkIFlow()}.
+     *
+     * @return false, falls {@code sink} den Abbruch verlangt hat.
+     *
+     * @throws NotInLatticeException
+     */
+	public boolean checkIFlow(ViolationSink sink) throws NotInLatticeException {
+		return reportAll(checkIFlow(), sink);
+	}
+
+    /** Gibt die Verletzungen der Reihe nach an {@code sink} weiter, bis {@code sink} den Abbruch verlangt.
+     *
+     * @return false, falls {@code sink} den Abbruch verlangt hat.
+     */
+	protected static boolean reportAll(Collection<? extends IViolation<SecurityNode>> vios, ViolationSink sink) {
+		for (IViolation<SecurityNode> v : vios) {
+			if (!sink.accept(v)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 
     /** Erzeugt eine neue Instanz.
      *
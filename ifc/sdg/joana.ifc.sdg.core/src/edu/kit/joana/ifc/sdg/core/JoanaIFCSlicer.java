@@ -544,7 +544,7 @@ public class JoanaIFCSlicer implements ProgressAnnouncer {
 		if (fSummaryEdge.containsKey(actualOut, actualIn))
 		    return fSummaryEdge.get(actualOut, actualIn);
 
-		for (SDGEdge edge : g.getIncomingEdgesOfKind(actualOut, SDGEdge.Kind.SUMMARY)) {
+		for (SDGEdge edge : g.incomingEdgesOfKind(actualOut, SDGEdge.Kind.SUMMARY)) {
 			SecurityNode source = (SecurityNode) edge.getSource();
 			if (source.equals(actualIn)) {
 				fSummaryEdge.put(actualOut, actualIn, true);
@@ -562,7 +562,7 @@ public class JoanaIFCSlicer implements ProgressAnnouncer {
 	 * @return
 	 */
 	private SecurityNode getVioSummaryNode(SecurityNode actOut) {
-		for (SDGEdge edge : g.getIncomingEdgesOfKind(actOut, SDGEdge.Kind.SUMMARY)) {
+		for (SDGEdge edge : g.incomingEdgesOfKind(actOut, SDGEdge.Kind.SUMMARY)) {
 			SecurityNode source = (SecurityNode) edge.getSource();
 			if (source.getKind() == SecurityNode.Kind.SUMMARY &&
 					fsecVios.get(source) != null) {
@@ -581,7 +581,7 @@ public class JoanaIFCSlicer implements ProgressAnnouncer {
 	 * @return
 	 */
 	private SecurityNode getSummaryNodeBetween(SecurityNode actualIn, SecurityNode actualOut) {
-		for (SDGEdge edge : g.getOutgoingEdgesOfKindUnsafe(actualIn, SDGEdge.Kind.SUMMARY)) {
+		for (SDGEdge edge : g.outgoingEdgesOfKind(actualIn, SDGEdge.Kind.SUMMARY)) {
 			SecurityNode target = (SecurityNode) edge.getTarget();
 			if (target.getKind() == SecurityNode.Kind.SUMMARY) {
 				return target;
@@ -591,7 +591,7 @@ public class JoanaIFCSlicer implements ProgressAnnouncer {
 	}
 
 	private SecurityNode getAnnSummaryNode(SecurityNode actualOut) {
-		for (SDGEdge edge : g.getIncomingEdgesOfKind(actualOut, SDGEdge.Kind.SUMMARY)) {
+		for (SDGEdge edge : g.incomingEdgesOfKind(actualOut, SDGEdge.Kind.SUMMARY)) {
 			SecurityNode source = (SecurityNode) edge.getSource();
 			if (source.getKind() == SecurityNode.Kind.SUMMARY &&
 				fdefNodes.get(source) != null) {
@@ -7,18 +7,32 @@
  */
 package edu.kit.joana.ifc.sdg.core;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import edu.kit.joana.ifc.sdg.core.DirectedSlicer.Direction;
 import edu.kit.joana.ifc.sdg.core.conc.BarrierIFCSlicer;
 import edu.kit.joana.ifc.sdg.core.conc.ProbabilisticNIChecker;
 import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
+import edu.kit.joana.ifc.sdg.core.violations.ViolationSink;
+import edu.kit.joana.ifc.sdg.graph.ReachabilityIndex;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.Iterative2PhaseSlicer;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.Log;
@@ -43,9 +57,21 @@ public class SlicingBasedIFC extends IFC<String> {
 
 	private static final Logger DEBUG = Log.getLogger(Log.L_IFC_DEBUG);
 
+	/**
+	 * Minimal number of endpoints for which all slices are computed in a single pass, if the slicer supports it
+	 * (see {@link Iterative2PhaseSlicer#sliceBatch(java.util.List)}).
+	 */
+	public static final int BATCH_SLICING_THRESHOLD = 16;
+
 	private final DirectedSlicer slicerForw;
 	private final DirectedSlicer slicerBackw;
+	private final Slicer undecoratedForw;
+	private final Slicer undecoratedBackw;
+	private final Function<SDG, ? extends Slicer> forwFactory;
+	private final Function<SDG, ? extends Slicer> backwFactory;
 	private DirectedSlicer slicer;
+	private ForkJoinPool pool = null;
+	private ReachabilityIndex reach = null;
 	
 	/**
 	 * Instantiates a new SlicingBasedIFC algorithm. 
@@ -58,9 +84,53 @@ public class SlicingBasedIFC extends IFC<String> {
 	 * produce wrong results if the given direction is not consistent with the given slicer.
 	 */
 	public SlicingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Slicer slicerForw, Slicer slicerBackw) {
+		this(sdg, lattice, slicerForw, slicerBackw, null, null);
+	}
+
+	/**
+	 * Instantiates a new SlicingBasedIFC algorithm, which creates its slicers with the given factories.
+	 * In contrast to {@link #SlicingBasedIFC(SDG, IStaticLattice, Slicer, Slicer)}, this allows to check the
+	 * endpoints in parallel, see {@link #setPool(ForkJoinPool)}.
+	 * @param sdg the sdg to perform slicing-based IFC on
+	 * @param lattice the security lattice used for IFC
+	 * @param forwFactory creates a forward slicer for a given sdg
+	 * @param backwFactory creates a backward slicer for a given sdg
+	 */
+	public SlicingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Function<SDG, ? extends Slicer> forwFactory,
+			Function<SDG, ? extends Slicer> backwFactory) {
+		this(sdg, lattice, forwFactory.apply(sdg), backwFactory.apply(sdg), forwFactory, backwFactory);
+	}
+
+	private SlicingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Slicer slicerForw, Slicer slicerBackw,
+			Function<SDG, ? extends Slicer> forwFactory, Function<SDG, ? extends Slicer> backwFactory) {
 		super(sdg, lattice);
 		this.slicerForw = DirectedSlicer.decorateWithDirection(slicerForw, Direction.FORWARD);
 		this.slicerBackw = DirectedSlicer.decorateWithDirection(slicerBackw, Direction.BACKWARD);
+		this.undecoratedForw = slicerForw;
+		this.undecoratedBackw = slicerBackw;
+		this.forwFactory = forwFactory;
+		this.backwFactory = backwFactory;
+	}
+
+	/**
+	 * Sets the pool the endpoints are checked on. Each worker thread uses its own slicer instance, the sdg must not
+	 * be modified during {@link #checkIFlow()}. The violations are reported in the same order as in a sequential
+	 * check. Only has an effect if this instance has been created with slicer factories.
+	 * @param pool the pool to use, or null for a sequential check
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets an index which is used to skip endpoints that are not connected to any startpoint they could leak to or
+	 * from, before their slices are computed. The index has to be built on the analyzed sdg and has to cover all
+	 * edges that the slicers follow, which is the case for {@link ReachabilityIndex#build(SDG)} and the slicers of
+	 * Joana. The reported violations do not depend on the index.
+	 * @param reach the index to use, or null to slice every endpoint
+	 */
+	public void setReachabilityIndex(ReachabilityIndex reach) {
+		this.reach = reach;
 	}
 
 	/* (non-Javadoc)
@@ -68,6 +138,26 @@ public class SlicingBasedIFC extends IFC<String> {
 	 */
 	@Override
 	public Collection<ClassifiedViolation> checkIFlow() throws NotInLatticeException {
+		final Collection<ClassifiedViolation> vios = new LinkedList<ClassifiedViolation>();
+		check(vios::add);
+		return vios;
+	}
+
+	/**
+	 * Reports the violations of each endpoint as soon as its slice has been scanned, and slices no further endpoints
+	 * once the sink asks to stop. In a parallel check, the violations are reported in the same order as in a
+	 * sequential check, as soon as all chunks of endpoints before them are done.
+	 */
+	@Override
+	public boolean checkIFlow(ViolationSink sink) throws NotInLatticeException {
+		return check(sink::accept);
+	}
+
+	/**
+	 * @param report receives the violations and returns whether the check shall continue
+	 * @return false iff {@code report} asked to stop
+	 */
+	private boolean check(Predicate<ClassifiedViolation> report) throws NotInLatticeException {
 		this.slicer = slicerBackw;
 		Collection<SecurityNode> sources = collectStartpoints();
 		DEBUG.outln(String.format("[%s] Executing slicing-based IFC on a graph with %d nodes and %d edges.", Calendar.getInstance().getTime(), this.g.vertexSet().size(), this.g.edgeSet().size()));
@@ -77,20 +167,53 @@ public class SlicingBasedIFC extends IFC<String> {
 		DEBUG.outln(String.format("[%s] Collecting sources...", Calendar.getInstance().getTime()));
 		DEBUG.outln(String.format("[%s] done. Collected %d sources.", Calendar.getInstance().getTime(), sources.size()));
 		Collection<SecurityNode> endPoints;
+		Collection<SecurityNode> startPoints;
 		String endpointsStr;
+		Slicer undecorated;
+		Function<SDG, ? extends Slicer> factory;
 		if (sources.size() < sinks.size()) {
 			this.slicer = slicerForw;
+			undecorated = undecoratedForw;
+			factory = forwFactory;
 			endPoints = sources;
+			startPoints = sinks;
 			endpointsStr = "sources";
 			DEBUG.outln(String.format("[%s] Using forward slicing.", Calendar.getInstance().getTime()));
 		} else {
 			this.slicer = slicerBackw;
+			undecorated = undecoratedBackw;
+			factory = backwFactory;
 			endPoints = sinks;
+			startPoints = sources;
 			endpointsStr = "sinks";
 			DEBUG.outln(String.format("[%s] Using backward slicing.", Calendar.getInstance().getTime()));
 		}
-		Collection<ClassifiedViolation> vios = new LinkedList<ClassifiedViolation>();
-		DEBUG.outln(String.format("[%s] slicing each of the %d %s...", Calendar.getInstance().getTime(), endPoints.size(), endpointsStr));
+		if (reach != null) {
+			final int before = endPoints.size();
+			endPoints = filterConnected(endPoints, startPoints);
+			DEBUG.outln(String.format("[%s] %d of %d %s may be connected to a startpoint.", Calendar.getInstance().getTime(), endPoints.size(), before, endpointsStr));
+		}
+		final int[] found = { 0 };
+		final Predicate<ClassifiedViolation> counting = v -> {
+			found[0]++;
+			return report.test(v);
+		};
+		final boolean completed;
+		if (pool != null && factory != null && endPoints.size() > 1) {
+			DEBUG.outln(String.format("[%s] checking the %d %s on %d threads...", Calendar.getInstance().getTime(), endPoints.size(), endpointsStr, pool.getParallelism()));
+			completed = checkIFlowParallel(new ArrayList<SecurityNode>(endPoints), factory, counting);
+		} else if (endPoints.size() >= BATCH_SLICING_THRESHOLD && undecorated instanceof Iterative2PhaseSlicer) {
+			DEBUG.outln(String.format("[%s] slicing all of the %d %s at once...", Calendar.getInstance().getTime(), endPoints.size(), endpointsStr));
+			completed = checkIFlowBatch(new ArrayList<SecurityNode>(endPoints), (Iterative2PhaseSlicer) undecorated, counting);
+		} else {
+			DEBUG.outln(String.format("[%s] slicing each of the %d %s...", Calendar.getInstance().getTime(), endPoints.size(), endpointsStr));
+			completed = checkIFlowSequential(endPoints, counting);
+		}
+		DEBUG.outln(String.format("[%s] %s. Found %d violation(s).", Calendar.getInstance().getTime(), completed ? "done" : "stopped", found[0]));
+		return completed;
+	}
+
+	private boolean checkIFlowSequential(Collection<SecurityNode> endPoints, Predicate<ClassifiedViolation> report) {
 		int count = 0;
 		for (SecurityNode endPoint : endPoints) {
 			count++;
@@ -98,11 +221,125 @@ public class SlicingBasedIFC extends IFC<String> {
 			Collection<SDGNode> slice = slicer.slice(endPoint);
 			DEBUG.outln(String.format("[%s] done. Slice contains %d items", Calendar.getInstance().getTime(), slice.size()));
 			DEBUG.outln(String.format("[%s] scanning for sources...", Calendar.getInstance().getTime()));
-			addPossibleViolations(endPoint, slice, vios);
+			if (!addPossibleViolations(endPoint, slice, report)) {
+				return false;
+			}
 			DEBUG.outln(String.format("[%s] done.", Calendar.getInstance().getTime()));
 		}
-		DEBUG.outln(String.format("[%s] done. Found %d violation(s).", Calendar.getInstance().getTime(), vios.size()));
-		return vios;
+		return true;
+	}
+
+	/**
+	 * Splits the endpoints into chunks, which are checked on the pool with thread-confined slicers. The violations of
+	 * the chunks are reported in chunk order, hence the result does not depend on the scheduling. Once {@code report}
+	 * asks to stop, the chunks that have not been checked yet are cancelled.
+	 */
+	private boolean checkIFlowParallel(final List<SecurityNode> endPoints, final Function<SDG, ? extends Slicer> factory,
+			Predicate<ClassifiedViolation> report) throws NotInLatticeException {
+		final ThreadLocal<Slicer> localSlicer = ThreadLocal.withInitial(() -> factory.apply(g));
+		final int chunkSize = Math.max(1, (endPoints.size() + 4 * pool.getParallelism() - 1) / (4 * pool.getParallelism()));
+		final AtomicBoolean stopped = new AtomicBoolean(false);
+		final List<Future<List<ClassifiedViolation>>> results = new ArrayList<Future<List<ClassifiedViolation>>>();
+		for (int start = 0; start < endPoints.size(); start += chunkSize) {
+			final List<SecurityNode> chunk = endPoints.subList(start, Math.min(start + chunkSize, endPoints.size()));
+			final Callable<List<ClassifiedViolation>> task = () -> {
+				final List<ClassifiedViolation> chunkVios = new LinkedList<ClassifiedViolation>();
+				final Slicer local = localSlicer.get();
+				if (chunk.size() >= BATCH_SLICING_THRESHOLD && local instanceof Iterative2PhaseSlicer) {
+					checkIFlowBatch(chunk, (Iterative2PhaseSlicer) local, chunkVios::add);
+				} else {
+					for (SecurityNode endPoint : chunk) {
+						if (stopped.get()) {
+							break;
+						}
+						addPossibleViolations(endPoint, local.slice(endPoint), chunkVios::add);
+					}
+				}
+				return chunkVios;
+			};
+			results.add(pool.submit(task));
+		}
+
+		try {
+			for (Future<List<ClassifiedViolation>> result : results) {
+				if (!reportChunk(result.get(), report)) {
+					stopped.set(true);
+					return false;
+				}
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof NotInLatticeException) {
+				throw (NotInLatticeException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			for (Future<List<ClassifiedViolation>> result : results) {
+				result.cancel(false);
+			}
+		}
+	}
+
+	private static boolean reportChunk(List<ClassifiedViolation> vios, Predicate<ClassifiedViolation> report) {
+		for (ClassifiedViolation v : vios) {
+			if (!report.test(v)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the slices of all endpoints in a single pass and reports the same violations as slicing each endpoint
+	 * on its own.
+	 */
+	private boolean checkIFlowBatch(List<SecurityNode> endPoints, Iterative2PhaseSlicer batchSlicer, Predicate<ClassifiedViolation> report) {
+		final Map<SDGNode, BitSet> reached = batchSlicer.sliceBatch(endPoints);
+		final List<List<SDGNode>> startPointsInSlice = new ArrayList<List<SDGNode>>(endPoints.size());
+		for (int i = 0; i < endPoints.size(); i++) {
+			startPointsInSlice.add(new LinkedList<SDGNode>());
+		}
+		for (Map.Entry<SDGNode, BitSet> e : reached.entrySet()) {
+			if (!isStartpoint((SecurityNode) e.getKey())) {
+				continue;
+			}
+			final BitSet bs = e.getValue();
+			for (int i = bs.nextSetBit(0); i >= 0; i = bs.nextSetBit(i + 1)) {
+				startPointsInSlice.get(i).add(e.getKey());
+			}
+		}
+		for (int i = 0; i < endPoints.size(); i++) {
+			if (!addPossibleViolations(endPoints.get(i), startPointsInSlice.get(i), report)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the endpoints which may be connected to a startpoint with a level that may leak to or from them
+	 */
+	private Collection<SecurityNode> filterConnected(Collection<SecurityNode> endPoints, Collection<SecurityNode> startPoints) {
+		final boolean backward = slicer.getDirection() == Direction.BACKWARD;
+		Collection<SecurityNode> ret = new LinkedList<SecurityNode>();
+		for (SecurityNode endPoint : endPoints) {
+			for (SecurityNode startPoint : startPoints) {
+				final boolean connected = backward ? reach.mayReach(startPoint, endPoint) : reach.mayReach(endPoint, startPoint);
+				if (connected && getLevel(startPoint) != null && isLeakage(endPoint, startPoint)) {
+					ret.add(endPoint);
+					break;
+				}
+			}
+		}
+		return ret;
 	}
 
 	private Collection<SecurityNode> collectStartpoints() {
@@ -149,19 +386,29 @@ public class SlicingBasedIFC extends IFC<String> {
 		}
 	}
 
-	private void addPossibleViolations(SecurityNode endPoint, Collection<SDGNode> slice, Collection<ClassifiedViolation> vios) {
+	/**
+	 * @return false iff {@code report} asked to stop
+	 */
+	private boolean addPossibleViolations(SecurityNode endPoint, Collection<SDGNode> slice, Predicate<ClassifiedViolation> report) {
 		for (SDGNode n : slice) {
 			SecurityNode sNode = (SecurityNode) n;
 			String secLevelOfOtherEndpoint = getLevel(sNode);
 			String secLevelOfEndpoint = getLevel(endPoint);
 			if (isStartpoint(sNode) && secLevelOfOtherEndpoint != null && isLeakage(endPoint, sNode)) {
+				final ClassifiedViolation vio;
 				if (endPoint.isInformationSource() && sNode.isInformationSink()) {
-					vios.add(ClassifiedViolation.createViolation(sNode, endPoint, secLevelOfOtherEndpoint));
+					vio = ClassifiedViolation.createViolation(sNode, endPoint, secLevelOfOtherEndpoint);
 				} else if (endPoint.isInformationSink() && sNode.isInformationSource()) {
-					vios.add(ClassifiedViolation.createViolation(endPoint, sNode, secLevelOfEndpoint));
+					vio = ClassifiedViolation.createViolation(endPoint, sNode, secLevelOfEndpoint);
+				} else {
+					continue;
+				}
+				if (!report.test(vio)) {
+					return false;
 				}
 			}
 		}
+		return true;
 	}
 
 	private boolean isLeakage(SecurityNode n1, SecurityNode n2) {
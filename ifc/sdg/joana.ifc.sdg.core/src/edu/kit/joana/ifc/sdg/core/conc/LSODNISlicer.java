@@ -177,7 +177,7 @@ public class LSODNISlicer implements ConflictScanner {
 
 	private void collectPossibleDataChannels(Element e, SecurityNode n) {
 		// if n has an incoming data conflict edge, add a violation
-		for (SDGEdge inc : g.getIncomingEdgesOfKind(n,
+		for (SDGEdge inc : g.incomingEdgesOfKind(n,
 				SDGEdge.Kind.CONFLICT_DATA)) {
 			// possible probabilistic data channel
 			if (useOptimization) {
@@ -9,13 +9,16 @@ package edu.kit.joana.ifc.sdg.core.conc;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
 
 import edu.kit.joana.ifc.sdg.core.IFC;
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.core.SlicingBasedIFC;
 import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.ViolationSink;
 import edu.kit.joana.ifc.sdg.core.violations.ViolationTranslator;
+import edu.kit.joana.ifc.sdg.graph.ReachabilityIndex;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PForward;
@@ -37,6 +40,10 @@ public class ProbabilisticNIChecker extends IFC<String> {
 	private final boolean timeSens;
 	
 	private final ConflictScanner prob;
+
+	private ForkJoinPool pool = null;
+
+	private ReachabilityIndex reach = null;
 	
 	/**
 	 * Erzeugt eine neue Instanz.
@@ -80,11 +87,7 @@ public class ProbabilisticNIChecker extends IFC<String> {
 	 */
 	public Collection<? extends IViolation<SecurityNode>> checkIFlow() throws NotInLatticeException {
 		Collection<IViolation<SecurityNode>> ret = new LinkedList<IViolation<SecurityNode>>(); // list to be returned
-		IFC<String> is = new SlicingBasedIFC(g, l, new I2PForward(g), new I2PBackward(g));
-		
-		if (timeSens) {
-			is = new TimeSensitiveIFCDecorator(is);
-		}
+		IFC<String> is = createFlowChecker();
 
 		probCheck = System.currentTimeMillis();
 		ret.addAll(prob.check());
@@ -99,6 +102,42 @@ public class ProbabilisticNIChecker extends IFC<String> {
 
 		return ret;
 	}
+
+	/**
+	 * Reports the probabilistic conflicts first, and only checks the explicit and implicit flows if the sink
+	 * has not asked to stop yet.
+	 */
+	@Override
+	public boolean checkIFlow(ViolationSink sink) throws NotInLatticeException {
+		IFC<String> is = createFlowChecker();
+
+		probCheck = System.currentTimeMillis();
+		final boolean completed = reportAll(prob.check(), sink);
+		probCheck = System.currentTimeMillis() - probCheck;
+		if (!completed) {
+			flowCheck = 0;
+			return false;
+		}
+
+		flowCheck = System.currentTimeMillis();
+		try {
+			return is.checkIFlow(sink);
+		} finally {
+			flowCheck = System.currentTimeMillis() - flowCheck;
+		}
+	}
+
+	private IFC<String> createFlowChecker() {
+		SlicingBasedIFC sbIFC = new SlicingBasedIFC(g, l, I2PForward::new, I2PBackward::new);
+		sbIFC.setPool(pool);
+		sbIFC.setReachabilityIndex(reach);
+		IFC<String> is = sbIFC;
+
+		if (timeSens) {
+			is = new TimeSensitiveIFCDecorator(is);
+		}
+		return is;
+	}
 	
 	public Collection<ClassifiedViolation> translate(Collection<? extends IViolation<SecurityNode>> vios) {
 		ViolationTranslator trans = new ViolationTranslator();
@@ -109,6 +148,24 @@ public class ProbabilisticNIChecker extends IFC<String> {
 		return prob;
 	}
 
+	/**
+	 * Sets the pool on which the possibilistic part of the check is executed, see {@link SlicingBasedIFC#setPool(ForkJoinPool)}.
+	 * The conflict scan is always sequential, as it temporarily modifies the sdg.
+	 * @param pool the pool to use, or null for a sequential check
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets the index which is used to skip unconnected endpoints in the possibilistic part of the check, see
+	 * {@link SlicingBasedIFC#setReachabilityIndex(ReachabilityIndex)}.
+	 * @param reach the index to use, or null to slice every endpoint
+	 */
+	public void setReachabilityIndex(ReachabilityIndex reach) {
+		this.reach = reach;
+	}
+
 	public long probInit;
 	public long probCheck;
 	public long flowCheck;
@@ -32,6 +32,7 @@ import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.Nanda;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.NandaBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPIndex;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.PreciseMHPAnalysis;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
 import edu.kit.joana.util.Maybe;
@@ -206,38 +207,56 @@ public class ProbabilisticNISlicer implements ConflictScanner {
             annotatedNodes.addAll(sinks);
 
             for (SecurityNode m : annotatedNodes) {
-                for (SecurityNode n : annotatedNodes) {
-                    // falls m und n parallel sind, potentieller order-konflikt m -> n
-                    if (mhp.isParallel(m, n)) {
-                    	// teste, ob konflikt harmlos ist
-                    	HashSet<SecurityNode> triggers = trigger(m, n);
-                    	HashSet<SecurityNode> refined = new HashSet<SecurityNode>();
-
-                    	// ermittle mindest-angreifer
-                    	String mLevel = (m.isInformationSink()? m.getRequired() : m.getProvided());
-                    	String nLevel = (n.isInformationSink()? n.getRequired() : n.getProvided());
-                    	String attacker = l.leastUpperBound(mLevel, nLevel);
-
-                    	// jeder bzgl. des Konflikts geheime Trigger ist gefaehrlich (hier kann Information ueber die
-                    	// Ausfuehrungsreihenfolge der am Konflikt beteiligten Knoten fliessen)
-                    	for (SecurityNode t : triggers) {
-                    		// teste, ob t geheime infos hat bzgl. des attackers
-                    		if (!l.leastUpperBound(t.getProvided(), attacker).equals(attacker)) {
-                    			refined.add(t); // geheime Information beeinflusst den Order-Conflict
-                    		}
-                    	}
-
-                    	// wenn refined leer ist, ist der konflikt harmlos (es gibt keine geheimen trigger, also
-                    	// verraet die Ausfuehrungsreihenfolge nichts, was nicht verraten werden soll)
-                    	if (!refined.isEmpty()) {
-    	                	SDGEdge edge = SDGEdge.Kind.CONFLICT_ORDER.newEdge(m, n);
-    	                	orderConflictEdges.add(edge);
-    	                    orderConflicts2Triggers.put(edge, refined);
+                for (SecurityNode n : parallelTo(m, annotatedNodes)) {
+                    // m und n sind parallel, potentieller order-konflikt m -> n
+                	// teste, ob konflikt harmlos ist
+                	HashSet<SecurityNode> triggers = trigger(m, n);
+                	HashSet<SecurityNode> refined = new HashSet<SecurityNode>();
+
+                	// ermittle mindest-angreifer
+                	String mLevel = (m.isInformationSink()? m.getRequired() : m.getProvided());
+                	String nLevel = (n.isInformationSink()? n.getRequired() : n.getProvided());
+                	String attacker = l.leastUpperBound(mLevel, nLevel);
+
+                	// jeder bzgl. des Konflikts geheime Trigger ist gefaehrlich (hier kann Information ueber die
+                	// Ausfuehrungsreihenfolge der am Konflikt beteiligten Knoten fliessen)
+                	for (SecurityNode t : triggers) {
+                		// teste, ob t geheime infos hat bzgl. des attackers
+                		if (!l.leastUpperBound(t.getProvided(), attacker).equals(attacker)) {
+                			refined.add(t); // geheime Information beeinflusst den Order-Conflict
+                		}
+                	}
+
+                	// wenn refined leer ist, ist der konflikt harmlos (es gibt keine geheimen trigger, also
+                	// verraet die Ausfuehrungsreihenfolge nichts, was nicht verraten werden soll)
+                	if (!refined.isEmpty()) {
+	                	SDGEdge edge = SDGEdge.Kind.CONFLICT_ORDER.newEdge(m, n);
+	                	orderConflictEdges.add(edge);
+	                    orderConflicts2Triggers.put(edge, refined);
 //    	                    System.out.println("ORDER CONFLICT: "+m+" <-> "+n);
-                    	}
-                    }
+                	}
+                }
+            }
+        }
+
+        /**
+         * Returns those of the given nodes that may happen in parallel to m. Uses a single bulk query
+         * if the mhp analysis provides an {@link MHPIndex}.
+         */
+        private List<SecurityNode> parallelTo(SecurityNode m, Collection<SecurityNode> nodes) {
+            if (mhp instanceof PreciseMHPAnalysis) {
+                final MHPIndex index = ((PreciseMHPAnalysis) mhp).getIndex();
+                if (index != null && index.isIndexed(m) && nodes.stream().allMatch(index::isIndexed)) {
+                    return index.filterParallel(m, nodes);
+                }
+            }
+            final List<SecurityNode> result = new ArrayList<SecurityNode>();
+            for (SecurityNode n : nodes) {
+                if (mhp.isParallel(m, n)) {
+                    result.add(n);
                 }
             }
+            return result;
         }
 
         /**
@@ -491,7 +510,7 @@ public class ProbabilisticNISlicer implements ConflictScanner {
     	/**
     	 * Is this element influenced by an order conflict, which has been triggered by a secret source
     	 */
-        for (SDGEdge orderConflictEdge : g.getIncomingEdgesOfKind(element.node, SDGEdge.Kind.CONFLICT_ORDER)) {
+        for (SDGEdge orderConflictEdge : g.incomingEdgesOfKind(element.node, SDGEdge.Kind.CONFLICT_ORDER)) {
 
         	// determine minimal attacker
         	String elementLevel = (element.node.isInformationSource() ?
@@ -543,7 +562,7 @@ public class ProbabilisticNISlicer implements ConflictScanner {
         List<SDGEdge> dataConflicts = new LinkedList<>();
 
         for (SDGNode n : slice) {
-            for (SDGEdge e : g.getIncomingEdgesOfKind(n, SDGEdge.Kind.CONFLICT_DATA)) {
+            for (SDGEdge e : g.incomingEdgesOfKind(n, SDGEdge.Kind.CONFLICT_DATA)) {
                 dataConflicts.add(e);
             }
         }
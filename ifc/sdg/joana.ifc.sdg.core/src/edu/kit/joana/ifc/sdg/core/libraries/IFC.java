@@ -415,7 +415,7 @@ public class IFC implements ProgressAnnouncer {
     private Element mapping(Element actOut) {
         SecurityNode formOut = null;
 
-        for (SDGEdge po : g.getIncomingEdgesOfKind(actOut.getNode(), SDGEdge.Kind.PARAMETER_OUT)) {
+        for (SDGEdge po : g.incomingEdgesOfKind(actOut.getNode(), SDGEdge.Kind.PARAMETER_OUT)) {
             formOut = (SecurityNode) po.getSource();
         }
 
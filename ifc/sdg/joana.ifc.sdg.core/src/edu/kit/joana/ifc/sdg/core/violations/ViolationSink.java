@@ -0,0 +1,60 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.core.violations;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import edu.kit.joana.ifc.sdg.core.IFC;
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+
+/**
+ * Receives the violations of an information flow check as soon as they are found, see
+ * {@link IFC#checkIFlow(ViolationSink)}. The sink decides whether the check goes on, which allows to stop a
+ * long-running check after the first (or first few) violations. Violations are always handed to the sink in the
+ * thread that runs the check.
+ */
+@FunctionalInterface
+public interface ViolationSink {
+
+	/**
+	 * @param violation a violation that has just been found
+	 * @return whether the check shall continue. If {@code false}, the check stops as soon as possible and reports
+	 *         no further violations.
+	 */
+	boolean accept(IViolation<SecurityNode> violation);
+
+	/**
+	 * @return a sink which adds all violations to the given collection and never stops the check
+	 */
+	static ViolationSink into(Collection<? super IViolation<SecurityNode>> target) {
+		return v -> {
+			target.add(v);
+			return true;
+		};
+	}
+
+	/**
+	 * @return a sink which passes at most {@code limit} violations to {@code sink} and stops the check as soon as
+	 *         the limit is reached
+	 */
+	static ViolationSink limit(int limit, ViolationSink sink) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive: " + limit);
+		}
+		final int[] seen = { 0 };
+		return v -> sink.accept(v) && ++seen[0] < limit;
+	}
+
+	/**
+	 * @return a sink which passes only the violations matching the given filter to {@code sink}
+	 */
+	static ViolationSink filtering(Predicate<? super IViolation<SecurityNode>> filter, ViolationSink sink) {
+		return v -> !filter.test(v) || sink.accept(v);
+	}
+}
@@ -11,18 +11,31 @@ import java.util.Collection;
 
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.graph.SDG;
-import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.MemoizingNonSameLevelChopper;
 
 
+/**
+ * Chops violations with a {@link MemoizingNonSameLevelChopper}, so the same-level chops through shared procedures
+ * are computed only once for all violations of a graph.
+ */
 public class ChopWrapper {
-    private final RepsRosayChopper chopper;
+    private final MemoizingNonSameLevelChopper chopper;
+    private SDG g;
 
     public ChopWrapper(SDG g) {
-        chopper = new RepsRosayChopper(g);
+        this.g = g;
+        chopper = new MemoizingNonSameLevelChopper(g);
     }
 
+    /**
+     * Sets the graph to chop. The remembered same-level chops are kept as long as the graph stays the same and is
+     * not modified.
+     */
     public void setSDG(SDG g) {
-        chopper.setGraph(g);
+        if (g != this.g) {
+            this.g = g;
+            chopper.setGraph(g);
+        }
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -0,0 +1,418 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.lattice;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.lattice.impl.PowersetLattice;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * A lattice whose elements are numbered <code>0, ..., size() - 1</code>, compiled from an arbitrary
+ * {@link IStaticLattice}. Checkers may store security levels as these indices and use the int operations
+ * {@link #lub(int, int)}, {@link #glb(int, int)} and {@link #isLeq(int, int)}, which never allocate.
+ * <p>
+ * Lattices with at most {@link #MAX_TABLE_SIZE} elements are compiled into lub and glb tables, so that all
+ * operations take constant time. Powerset lattices over at most {@link #MAX_POWERSET_BITS} elements are encoded
+ * as bit masks. Other large lattices are encoded by the bitsets of the upper and lower sets of their elements.
+ * <p>
+ * The methods of {@link IStaticLattice} are a thin adapter that maps the elements to their indices and back, so an
+ * indexed lattice can replace the lattice it was compiled from.
+ *
+ * @param <ElementType>
+ *            the type of the elements contained in the lattice.
+ */
+public abstract class IndexedLattice<ElementType> implements IStaticLattice<ElementType> {
+
+	/** lattices up to this size are compiled into lub and glb tables */
+	public static final int MAX_TABLE_SIZE = 1024;
+
+	/** powerset lattices over up to this many elements are encoded as int bit masks */
+	public static final int MAX_POWERSET_BITS = 30;
+
+	/** larger lattices up to this size are encoded by the bitsets of their upper and lower sets */
+	public static final int MAX_BITSET_SIZE = 1 << 13;
+
+	/**
+	 * @return <code>true</code> iff {@link #of(IStaticLattice)} can compile the given lattice.
+	 */
+	public static boolean isIndexable(IStaticLattice<?> lattice) {
+		if (lattice instanceof IndexedLattice) {
+			return true;
+		}
+		if (lattice instanceof PowersetLattice
+				&& ((PowersetLattice<?>) lattice).getTop().size() <= MAX_POWERSET_BITS) {
+			return true;
+		}
+		return lattice.getElements().size() <= MAX_BITSET_SIZE;
+	}
+
+	/**
+	 * Compiles the given lattice, or returns it if it is indexed already.
+	 * @param lattice a lattice with a unique top and bottom element
+	 * @return an indexed lattice with the same elements and order as <code>lattice</code>
+	 * @throws InvalidLatticeException if <code>lattice</code> is not a lattice
+	 * @throws IllegalArgumentException if <code>lattice</code> is too large, see {@link #isIndexable(IStaticLattice)}
+	 */
+	public static <ElementType> IndexedLattice<ElementType> of(IStaticLattice<ElementType> lattice) {
+		if (lattice instanceof IndexedLattice) {
+			return (IndexedLattice<ElementType>) lattice;
+		}
+		if (lattice instanceof PowersetLattice
+				&& ((PowersetLattice<?>) lattice).getTop().size() <= MAX_POWERSET_BITS) {
+			@SuppressWarnings("unchecked")
+			final IndexedLattice<ElementType> ret =
+					(IndexedLattice<ElementType>) powersetOf((PowersetLattice<?>) lattice);
+			return ret;
+		}
+
+		final List<ElementType> elements = new ArrayList<ElementType>(lattice.getElements());
+		if (elements.size() <= MAX_TABLE_SIZE) {
+			return new TableLattice<ElementType>(lattice, elements);
+		} else if (elements.size() <= MAX_BITSET_SIZE) {
+			return new BitsetLattice<ElementType>(lattice, elements);
+		} else {
+			throw new IllegalArgumentException("lattice too large to be indexed: " + elements.size() + " elements");
+		}
+	}
+
+	private static <T> IndexedLattice<Set<T>> powersetOf(PowersetLattice<T> lattice) {
+		return new PowersetMaskLattice<T>(lattice);
+	}
+
+	/**
+	 * @return the number of elements of the lattice.
+	 */
+	public abstract int size();
+
+	/**
+	 * @return the index of the given element.
+	 * @throws NotInLatticeException if the element is not in the lattice
+	 */
+	public abstract int indexOf(ElementType element) throws NotInLatticeException;
+
+	/**
+	 * @return the element with the given index.
+	 */
+	public abstract ElementType elementAt(int index);
+
+	/**
+	 * @return the index of the unique top element.
+	 */
+	public abstract int top();
+
+	/**
+	 * @return the index of the unique bottom element.
+	 */
+	public abstract int bottom();
+
+	/**
+	 * @return the index of the least upper bound of the elements with the given indices.
+	 */
+	public abstract int lub(int s, int t);
+
+	/**
+	 * @return the index of the greatest lower bound of the elements with the given indices.
+	 */
+	public abstract int glb(int s, int t);
+
+	/**
+	 * @return <code>true</code> iff the element with index <code>s</code> is lower than or equal to the
+	 * element with index <code>t</code>.
+	 */
+	public abstract boolean isLeq(int s, int t);
+
+	@Override
+	public ElementType greatestLowerBound(ElementType s, ElementType t) throws NotInLatticeException {
+		return elementAt(glb(indexOf(s), indexOf(t)));
+	}
+
+	@Override
+	public ElementType leastUpperBound(ElementType s, ElementType t) throws NotInLatticeException {
+		return elementAt(lub(indexOf(s), indexOf(t)));
+	}
+
+	@Override
+	public ElementType getTop() throws InvalidLatticeException {
+		return elementAt(top());
+	}
+
+	@Override
+	public ElementType getBottom() throws InvalidLatticeException {
+		return elementAt(bottom());
+	}
+
+	@Override
+	public boolean isLeq(ElementType l1, ElementType l2) {
+		return isLeq(indexOf(l1), indexOf(l2));
+	}
+
+	/**
+	 * Base class of the encodings which number the elements of the lattice explicitly.
+	 */
+	private abstract static class EnumeratedLattice<ElementType> extends IndexedLattice<ElementType> {
+		protected final List<ElementType> elements;
+		protected final TObjectIntMap<ElementType> indices;
+
+		EnumeratedLattice(List<ElementType> elements) {
+			this.elements = Collections.unmodifiableList(elements);
+			this.indices = new TObjectIntHashMap<ElementType>(elements.size(), 0.5f, -1);
+			for (int i = 0; i < elements.size(); i++) {
+				if (indices.put(elements.get(i), i) != -1) {
+					throw new InvalidLatticeException("duplicate lattice element " + elements.get(i));
+				}
+			}
+		}
+
+		@Override
+		public int size() {
+			return elements.size();
+		}
+
+		@Override
+		public int indexOf(ElementType element) throws NotInLatticeException {
+			final int index = indices.get(element);
+			if (index < 0) {
+				throw new NotInLatticeException("not in lattice: " + element);
+			}
+			return index;
+		}
+
+		@Override
+		public ElementType elementAt(int index) {
+			return elements.get(index);
+		}
+
+		@Override
+		public Collection<ElementType> getElements() {
+			return elements;
+		}
+	}
+
+	/**
+	 * Stores the lub and glb of all pairs of elements.
+	 */
+	private static final class TableLattice<ElementType> extends EnumeratedLattice<ElementType> {
+		private final short[][] lub;
+		private final short[][] glb;
+		private final int top;
+		private final int bottom;
+
+		TableLattice(IStaticLattice<ElementType> lattice, List<ElementType> elements) {
+			super(elements);
+			final int n = elements.size();
+			this.lub = new short[n][n];
+			this.glb = new short[n][n];
+			for (int i = 0; i < n; i++) {
+				final ElementType e1 = elements.get(i);
+				for (int j = i; j < n; j++) {
+					final ElementType e2 = elements.get(j);
+					lub[i][j] = lub[j][i] = (short) indexOf(lattice.leastUpperBound(e1, e2));
+					glb[i][j] = glb[j][i] = (short) indexOf(lattice.greatestLowerBound(e1, e2));
+				}
+			}
+			this.top = indexOf(lattice.getTop());
+			this.bottom = indexOf(lattice.getBottom());
+		}
+
+		@Override
+		public int top() {
+			return top;
+		}
+
+		@Override
+		public int bottom() {
+			return bottom;
+		}
+
+		@Override
+		public int lub(int s, int t) {
+			return lub[s][t];
+		}
+
+		@Override
+		public int glb(int s, int t) {
+			return glb[s][t];
+		}
+
+		@Override
+		public boolean isLeq(int s, int t) {
+			return lub[s][t] == t;
+		}
+	}
+
+	/**
+	 * Stores the upper and lower set of every element as a bitset. The lub of two elements is the unique element
+	 * whose upper set is the intersection of their upper sets, dually for the glb.
+	 */
+	private static final class BitsetLattice<ElementType> extends EnumeratedLattice<ElementType> {
+		private final long[][] upper;
+		private final long[][] lower;
+		private final int[] upperSize;
+		private final int[] lowerSize;
+		private final int top;
+		private final int bottom;
+
+		BitsetLattice(IStaticLattice<ElementType> lattice, List<ElementType> elements) {
+			super(elements);
+			final int n = elements.size();
+			final int words = (n + 63) >>> 6;
+			this.upper = new long[n][words];
+			this.lower = new long[n][words];
+			this.upperSize = new int[n];
+			this.lowerSize = new int[n];
+			for (int i = 0; i < n; i++) {
+				final ElementType e1 = elements.get(i);
+				for (int j = 0; j < n; j++) {
+					if (lattice.isLeq(e1, elements.get(j))) {
+						upper[i][j >>> 6] |= 1L << j;
+						lower[j][i >>> 6] |= 1L << i;
+						upperSize[i]++;
+						lowerSize[j]++;
+					}
+				}
+			}
+			this.top = indexOf(lattice.getTop());
+			this.bottom = indexOf(lattice.getBottom());
+		}
+
+		private static int bound(long[] s, long[] t, int[] sizes) {
+			int size = 0;
+			for (int w = 0; w < s.length; w++) {
+				size += Long.bitCount(s[w] & t[w]);
+			}
+			for (int w = 0; w < s.length; w++) {
+				long common = s[w] & t[w];
+				while (common != 0) {
+					final int c = (w << 6) + Long.numberOfTrailingZeros(common);
+					if (sizes[c] == size) {
+						return c;
+					}
+					common &= common - 1;
+				}
+			}
+			throw new InvalidLatticeException("Graph is not a lattice");
+		}
+
+		@Override
+		public int top() {
+			return top;
+		}
+
+		@Override
+		public int bottom() {
+			return bottom;
+		}
+
+		@Override
+		public int lub(int s, int t) {
+			return bound(upper[s], upper[t], upperSize);
+		}
+
+		@Override
+		public int glb(int s, int t) {
+			return bound(lower[s], lower[t], lowerSize);
+		}
+
+		@Override
+		public boolean isLeq(int s, int t) {
+			return (upper[s][t >>> 6] & (1L << t)) != 0;
+		}
+	}
+
+	/**
+	 * Encodes a set by the bit mask of its members.
+	 */
+	private static final class PowersetMaskLattice<T> extends IndexedLattice<Set<T>> {
+		private final PowersetLattice<T> lattice;
+		private final List<T> members;
+		private final TObjectIntMap<T> bits;
+
+		PowersetMaskLattice(PowersetLattice<T> lattice) {
+			this.lattice = lattice;
+			this.members = new ArrayList<T>(lattice.getTop());
+			this.bits = new TObjectIntHashMap<T>(members.size(), 0.5f, -1);
+			for (int i = 0; i < members.size(); i++) {
+				bits.put(members.get(i), i);
+			}
+		}
+
+		@Override
+		public int size() {
+			return 1 << members.size();
+		}
+
+		@Override
+		public int indexOf(Set<T> element) throws NotInLatticeException {
+			int mask = 0;
+			for (T x : element) {
+				final int bit = bits.get(x);
+				if (bit < 0) {
+					throw new NotInLatticeException("not in lattice: " + element);
+				}
+				mask |= 1 << bit;
+			}
+			return mask;
+		}
+
+		@Override
+		public Set<T> elementAt(int index) {
+			final Set<T> ret = new LinkedHashSet<T>();
+			for (int mask = index; mask != 0; mask &= mask - 1) {
+				ret.add(members.get(Integer.numberOfTrailingZeros(mask)));
+			}
+			return ret;
+		}
+
+		@Override
+		public int top() {
+			return size() - 1;
+		}
+
+		@Override
+		public int bottom() {
+			return 0;
+		}
+
+		@Override
+		public int lub(int s, int t) {
+			return s | t;
+		}
+
+		@Override
+		public int glb(int s, int t) {
+			return s & t;
+		}
+
+		@Override
+		public boolean isLeq(int s, int t) {
+			return (s & ~t) == 0;
+		}
+
+		@Override
+		public Collection<Set<T>> getElements() {
+			return lattice.getElements();
+		}
+
+		@Override
+		public Collection<Set<T>> collectAllGreaterElements(Set<T> s) {
+			return lattice.collectAllGreaterElements(s);
+		}
+
+		@Override
+		public Collection<Set<T>> collectAllLowerElements(Set<T> s) {
+			return lattice.collectAllLowerElements(s);
+		}
+	}
+}
@@ -14,19 +14,23 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import com.google.common.collect.ImmutableTable;
-import com.google.common.collect.ImmutableTable.Builder;
-import com.google.common.collect.Table;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 
 /**
+ * Names the elements of a lattice by their string representation. The indices and lattice operations are those
+ * of an {@link IndexedLattice} compiled from the original lattice.
+ *
  * @author Martin Hecker <martin.hecker@kit.edu>
  */
-public class PrecomputedLattice<ElementType> implements IStaticLattice<String> {
+public class PrecomputedLattice<ElementType> extends IndexedLattice<String> {
 
 	private final Set<String> elements;
 	private final Map<ElementType, String> fromOriginal;
-	private final Table<String, String, String> glb;
-	private final Table<String, String, String> lub;
+	private final IndexedLattice<ElementType> indexed;
+	/** the name of each element of {@link #indexed}, by index */
+	private final String[] names;
+	private final TObjectIntMap<String> indices;
 	private final String top;
 	private final String bottom;
 	
@@ -45,35 +49,60 @@ public class PrecomputedLattice<ElementType> implements IStaticLattice<String> {
 				Collectors.toMap(Function.identity(),Object::toString)
 			);
 		
-		final Builder<String, String, String> glbBuilder = new ImmutableTable.Builder<>();
-		final Builder<String, String, String> lubBuilder = new ImmutableTable.Builder<>();
-		for (ElementType e1 : latticeElements) {
-			for (ElementType e2 : latticeElements) {
-				glbBuilder.put(e1.toString(), e2.toString(), lattice.greatestLowerBound(e1, e2).toString());
-				lubBuilder.put(e1.toString(), e2.toString(), lattice.leastUpperBound(e1, e2).toString());
-			}
+		this.indexed = IndexedLattice.of(lattice);
+		this.names = new String[indexed.size()];
+		this.indices = new TObjectIntHashMap<String>(names.length, 0.5f, -1);
+		for (ElementType e : latticeElements) {
+			final int i = indexed.indexOf(e);
+			names[i] = fromOriginal.get(e);
+			indices.put(names[i], i);
 		}
-		
-		this.glb = glbBuilder.build();
-		this.lub = lubBuilder.build();
-		this.top    = lattice.getTop().toString();
-		this.bottom = lattice.getBottom().toString();
+		this.top    = names[indexed.top()];
+		this.bottom = names[indexed.bottom()];
 	}
 	
-	/* (non-Javadoc)
-	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#greatestLowerBound(java.lang.Object, java.lang.Object)
-	 */
 	@Override
-	public String greatestLowerBound(String s, String t) throws NotInLatticeException {
-		return glb.get(s, t);
+	public int size() {
+		return names.length;
+	}
+
+	@Override
+	public int indexOf(String s) throws NotInLatticeException {
+		final int index = indices.get(s);
+		if (index < 0) {
+			throw new NotInLatticeException("not in lattice: " + s);
+		}
+		return index;
+	}
+
+	@Override
+	public String elementAt(int index) {
+		return names[index];
+	}
+
+	@Override
+	public int top() {
+		return indexed.top();
+	}
+
+	@Override
+	public int bottom() {
+		return indexed.bottom();
+	}
+
+	@Override
+	public int lub(int s, int t) {
+		return indexed.lub(s, t);
+	}
+
+	@Override
+	public int glb(int s, int t) {
+		return indexed.glb(s, t);
 	}
 
-	/* (non-Javadoc)
-	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#leastUpperBound(java.lang.Object, java.lang.Object)
-	 */
 	@Override
-	public String leastUpperBound(String s, String t) throws NotInLatticeException {
-		return lub.get(s, t);
+	public boolean isLeq(int s, int t) {
+		return indexed.isLeq(s, t);
 	}
 
 	/* (non-Javadoc)
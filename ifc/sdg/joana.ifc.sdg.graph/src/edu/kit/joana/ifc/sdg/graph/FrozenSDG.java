@@ -0,0 +1,282 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of an {@link SDG} in compressed sparse row (CSR) layout, intended for read-only
+ * algorithms like slicing that traverse the graph many times.
+ * <p>
+ * Nodes are addressed by a dense index from 0 to {@link #getNumberOfNodes()} - 1, in ascending order of their ids.
+ * The incoming and outgoing edges of node i are stored in the ranges [{@link #inStart(int) inStart(i)},
+ * {@link #inEnd(int) inEnd(i)}) and [{@link #outStart(int) outStart(i)}, {@link #outEnd(int) outEnd(i)}) of
+ * flat arrays, which hold the index of the adjacent node and the ordinal of the edge kind. Edge kinds can be
+ * filtered with the bitmasks created by {@link #kindMask(SDGEdge.Kind...)}.
+ * <p>
+ * Edge labels and other edge attributes are not part of the snapshot. Changes to the SDG after freezing are not
+ * reflected.
+ */
+public final class FrozenSDG {
+
+	private static final SDGEdge.Kind[] KINDS = SDGEdge.Kind.values();
+
+	static {
+		// kinds have to fit into a long bitmask
+		assert KINDS.length <= Long.SIZE;
+	}
+
+	private final String name;
+	private final SDGNode[] nodes;
+	private final int[] proc;
+	/** maps node ids to node indices, -1 for ids that are not part of the graph */
+	private final int[] id2index;
+
+	private final int[] outOffset;
+	private final int[] outAdjacent;
+	private final byte[] outKind;
+
+	private final int[] inOffset;
+	private final int[] inAdjacent;
+	private final byte[] inKind;
+
+	private FrozenSDG(final String name, final SDGNode[] nodes, final int[] proc, final int[] id2index,
+			final int[] outOffset, final int[] outAdjacent, final byte[] outKind,
+			final int[] inOffset, final int[] inAdjacent, final byte[] inKind) {
+		this.name = name;
+		this.nodes = nodes;
+		this.proc = proc;
+		this.id2index = id2index;
+		this.outOffset = outOffset;
+		this.outAdjacent = outAdjacent;
+		this.outKind = outKind;
+		this.inOffset = inOffset;
+		this.inAdjacent = inAdjacent;
+		this.inKind = inKind;
+	}
+
+	/**
+	 * Creates a snapshot of the given sdg.
+	 */
+	public static FrozenSDG freeze(final SDG sdg) {
+		final SDGNode[] nodes = sdg.vertexSet().toArray(new SDGNode[sdg.vertexSet().size()]);
+		Arrays.sort(nodes, Comparator.comparingInt(SDGNode::getId));
+
+		int maxId = -1;
+		for (final SDGNode n : nodes) {
+			if (n.getId() < 0) {
+				throw new IllegalArgumentException("negative node id: " + n);
+			}
+			maxId = Math.max(maxId, n.getId());
+		}
+
+		final int[] id2index = new int[maxId + 1];
+		Arrays.fill(id2index, -1);
+		final int[] proc = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			id2index[nodes[i].getId()] = i;
+			proc[i] = nodes[i].getProc();
+		}
+
+		final int[] outOffset = new int[nodes.length + 1];
+		final int[] inOffset = new int[nodes.length + 1];
+		for (int i = 0; i < nodes.length; i++) {
+			outOffset[i + 1] = outOffset[i] + sdg.outDegreeOf(nodes[i]);
+			inOffset[i + 1] = inOffset[i] + sdg.inDegreeOf(nodes[i]);
+		}
+
+		final int[] outAdjacent = new int[outOffset[nodes.length]];
+		final byte[] outKind = new byte[outAdjacent.length];
+		final int[] inAdjacent = new int[inOffset[nodes.length]];
+		final byte[] inKind = new byte[inAdjacent.length];
+		for (int i = 0; i < nodes.length; i++) {
+			int pos = outOffset[i];
+			for (final SDGEdge e : sdg.outgoingEdgesOf(nodes[i])) {
+				outAdjacent[pos] = id2index[e.getTarget().getId()];
+				outKind[pos] = (byte) e.getKind().ordinal();
+				pos++;
+			}
+			assert pos == outOffset[i + 1];
+
+			pos = inOffset[i];
+			for (final SDGEdge e : sdg.incomingEdgesOf(nodes[i])) {
+				inAdjacent[pos] = id2index[e.getSource().getId()];
+				inKind[pos] = (byte) e.getKind().ordinal();
+				pos++;
+			}
+			assert pos == inOffset[i + 1];
+		}
+
+		return new FrozenSDG(sdg.getName(), nodes, proc, id2index, outOffset, outAdjacent, outKind,
+				inOffset, inAdjacent, inKind);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getNumberOfNodes() {
+		return nodes.length;
+	}
+
+	public int getNumberOfEdges() {
+		return outAdjacent.length;
+	}
+
+	public SDGNode getNode(final int index) {
+		return nodes[index];
+	}
+
+	/**
+	 * @return the index of the given node, or -1 if the node is not part of this graph.
+	 */
+	public int indexOf(final SDGNode node) {
+		final int id = node.getId();
+		if (id < 0 || id >= id2index.length) {
+			return -1;
+		}
+
+		final int index = id2index[id];
+		return (index >= 0 && nodes[index] == node ? index : -1);
+	}
+
+	/**
+	 * @return the indices of the given nodes.
+	 * @throws IllegalArgumentException if a node is not part of this graph.
+	 */
+	public int[] indicesOf(final Collection<SDGNode> nodes) {
+		final int[] indices = new int[nodes.size()];
+		int num = 0;
+		for (final SDGNode n : nodes) {
+			final int index = indexOf(n);
+			if (index < 0) {
+				throw new IllegalArgumentException(n + " is not part of " + this);
+			}
+			indices[num++] = index;
+		}
+
+		return indices;
+	}
+
+	/**
+	 * @return the nodes with the given indices.
+	 */
+	public Set<SDGNode> nodesOf(final BitSet indices) {
+		final Set<SDGNode> result = new HashSet<SDGNode>(indices.cardinality() * 4 / 3 + 1);
+		for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+			result.add(nodes[i]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the procedure id of the node with the given index.
+	 */
+	public int getProc(final int index) {
+		return proc[index];
+	}
+
+	public int outStart(final int index) {
+		return outOffset[index];
+	}
+
+	public int outEnd(final int index) {
+		return outOffset[index + 1];
+	}
+
+	/**
+	 * @param edge position of an outgoing edge, between outStart and outEnd of its source.
+	 * @return the index of the target node of the edge.
+	 */
+	public int outTarget(final int edge) {
+		return outAdjacent[edge];
+	}
+
+	/**
+	 * @param edge position of an outgoing edge, between outStart and outEnd of its source.
+	 * @return the ordinal of the kind of the edge.
+	 */
+	public int outKind(final int edge) {
+		return outKind[edge];
+	}
+
+	public int inStart(final int index) {
+		return inOffset[index];
+	}
+
+	public int inEnd(final int index) {
+		return inOffset[index + 1];
+	}
+
+	/**
+	 * @param edge position of an incoming edge, between inStart and inEnd of its target.
+	 * @return the index of the source node of the edge.
+	 */
+	public int inSource(final int edge) {
+		return inAdjacent[edge];
+	}
+
+	/**
+	 * @param edge position of an incoming edge, between inStart and inEnd of its target.
+	 * @return the ordinal of the kind of the edge.
+	 */
+	public int inKind(final int edge) {
+		return inKind[edge];
+	}
+
+	public static SDGEdge.Kind kind(final int ordinal) {
+		return KINDS[ordinal];
+	}
+
+	public static long kindMask(final SDGEdge.Kind... kinds) {
+		long mask = 0L;
+		for (final SDGEdge.Kind k : kinds) {
+			mask |= 1L << k.ordinal();
+		}
+
+		return mask;
+	}
+
+	public static long kindMask(final Collection<SDGEdge.Kind> kinds) {
+		long mask = 0L;
+		for (final SDGEdge.Kind k : kinds) {
+			mask |= 1L << k.ordinal();
+		}
+
+		return mask;
+	}
+
+	/**
+	 * @return a bitmask of all kinds that are program dependencies, see {@link SDGEdge.Kind#isSDGEdge()}.
+	 */
+	public static long sdgKindMask() {
+		long mask = 0L;
+		for (final SDGEdge.Kind k : KINDS) {
+			if (k.isSDGEdge()) {
+				mask |= 1L << k.ordinal();
+			}
+		}
+
+		return mask;
+	}
+
+	public static boolean inMask(final long mask, final int kindOrdinal) {
+		return (mask & (1L << kindOrdinal)) != 0;
+	}
+
+	@Override
+	public String toString() {
+		return "frozen sdg " + name + " (" + nodes.length + " nodes, " + outAdjacent.length + " edges)";
+	}
+}
@@ -12,9 +12,11 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -25,7 +27,9 @@ import org.jgrapht.EdgeFactory;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.ISCRBuilder;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.FoldedCFG;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
+import edu.kit.joana.util.graph.AbstractBaseGraph;
 import edu.kit.joana.util.graph.AbstractBaseGraph.DirectedEdgeContainer;
+import edu.kit.joana.util.graph.AbstractBaseGraph.EdgeGroups;
 import edu.kit.joana.util.graph.AbstractJoanaGraph;
 import gnu.trove.map.hash.TIntObjectHashMap;
 
@@ -184,6 +188,13 @@ public abstract class JoanaGraph extends AbstractJoanaGraph<SDGNode, SDGEdge> {
   	    return id2node.get(id);
     }
 
+    /**
+     * Makes room for the given number of nodes in the id lookup of {@link #getNode(int)}.
+     */
+    protected void ensureNodeCapacity(int numberOfNodes) {
+    	id2node.ensureCapacity(numberOfNodes);
+    }
+
     /**
      * @return the name of the graph. Can be null.
      */
@@ -198,6 +209,90 @@ public abstract class JoanaGraph extends AbstractJoanaGraph<SDGNode, SDGEdge> {
     	this.name = name;
     }
 
+    /**
+     * Groups the edges by the priority of their kind, which is unique per kind and determines the order of the
+     * edge arrays of a vertex (see {@link SDGEdge#hashCode()}).
+     */
+    private static final EdgeGroups<SDGEdge> KINDS = e -> e.getKind().getPriority();
+
+    /**
+     * Returns the range of the outgoing edges of a given kind within {@link #outgoingEdgesOfUnsafe(Object)},
+     * packed into a long, see {@link AbstractBaseGraph#rangeFrom(long)} and {@link AbstractBaseGraph#rangeTo(long)}.
+     * The range is found via an index of per-kind start offsets, which is kept by the vertex.
+     *
+     * @param node  The vertex whose edges are needed.
+     * @param kind  The demanded kind of edges.
+     */
+    public long outgoingRangeOfKind(SDGNode node, SDGEdge.Kind kind) {
+    	return outgoingEdgesRange(node, KINDS, kind.getPriority());
+    }
+
+    /**
+     * Returns the range of the incoming edges of a given kind within {@link #incomingEdgesOfUnsafe(Object)},
+     * see {@link #outgoingRangeOfKind(SDGNode, SDGEdge.Kind)}.
+     *
+     * @param node  The vertex whose edges are needed.
+     * @param kind  The demanded kind of edges.
+     */
+    public long incomingRangeOfKind(SDGNode node, SDGEdge.Kind kind) {
+    	return incomingEdgesRange(node, KINDS, kind.getPriority());
+    }
+
+    /**
+     * Returns a view of the outgoing edges of a given kind of a given vertex. The view neither copies nor filters
+     * the edges of other kinds, and it reflects the edges at the time of the call, so the graph may be modified
+     * while iterating it.
+     *
+     * @param node  The vertex whose edges are needed.
+     * @param kind  The demanded kind of edges.
+     */
+    public EdgeView outgoingEdgesOfKind(SDGNode node, SDGEdge.Kind kind) {
+    	final SDGEdge[] outgoing = outgoingEdgesOfUnsafe(node);
+    	if (outgoing == null) return EdgeView.EMPTY;
+    	final long range = outgoingEdgesRange(node, outgoing, KINDS, kind.getPriority());
+    	return new EdgeView(outgoing, rangeFrom(range), rangeTo(range), EdgeView.ALL_KINDS);
+    }
+
+    /**
+     * Returns a view of the incoming edges of a given kind of a given vertex,
+     * see {@link #outgoingEdgesOfKind(SDGNode, SDGEdge.Kind)}.
+     *
+     * @param node  The vertex whose edges are needed.
+     * @param kind  The demanded kind of edges.
+     */
+    public EdgeView incomingEdgesOfKind(SDGNode node, SDGEdge.Kind kind) {
+    	final SDGEdge[] incoming = incomingEdgesOfUnsafe(node);
+    	if (incoming == null) return EdgeView.EMPTY;
+    	final long range = incomingEdgesRange(node, incoming, KINDS, kind.getPriority());
+    	return new EdgeView(incoming, rangeFrom(range), rangeTo(range), EdgeView.ALL_KINDS);
+    }
+
+    /**
+     * Returns a view of the outgoing edges of a given vertex whose kinds are in a given set,
+     * see {@link #outgoingEdgesOfKind(SDGNode, SDGEdge.Kind)}.
+     *
+     * @param node      The vertex whose edges are needed.
+     * @param kindMask  The demanded kinds of edges, see {@link FrozenSDG#kindMask(SDGEdge.Kind...)}.
+     */
+    public EdgeView outgoingEdgesOfKinds(SDGNode node, long kindMask) {
+    	final SDGEdge[] outgoing = outgoingEdgesOfUnsafe(node);
+    	if (outgoing == null) return EdgeView.EMPTY;
+    	return new EdgeView(outgoing, 0, outgoing.length, kindMask);
+    }
+
+    /**
+     * Returns a view of the incoming edges of a given vertex whose kinds are in a given set,
+     * see {@link #outgoingEdgesOfKind(SDGNode, SDGEdge.Kind)}.
+     *
+     * @param node      The vertex whose edges are needed.
+     * @param kindMask  The demanded kinds of edges, see {@link FrozenSDG#kindMask(SDGEdge.Kind...)}.
+     */
+    public EdgeView incomingEdgesOfKinds(SDGNode node, long kindMask) {
+    	final SDGEdge[] incoming = incomingEdgesOfUnsafe(node);
+    	if (incoming == null) return EdgeView.EMPTY;
+    	return new EdgeView(incoming, 0, incoming.length, kindMask);
+    }
+
     /**
      * Checks whether a given vertex has outgoing edges of a given kind.
      * @param node  The vertex to check.
@@ -205,13 +300,8 @@ public abstract class JoanaGraph extends AbstractJoanaGraph<SDGNode, SDGEdge> {
      * @return `true' if node has outgoing edges of kind `kind'.
      */
     public boolean hasOutgoingEdgesOfKind(SDGNode node, SDGEdge.Kind kind) {
-    	for (SDGEdge e : outgoingEdgesOf(node)) {
-    		if (e.getKind() == kind) {
-    			return true;
-    		}
-    	}
-
-    	return false;
+    	final long range = outgoingRangeOfKind(node, kind);
+    	return rangeFrom(range) < rangeTo(range);
     }
 
     /**
@@ -221,24 +311,7 @@ public abstract class JoanaGraph extends AbstractJoanaGraph<SDGNode, SDGEdge> {
      * @param kind  The demanded kind of edges.
      */
     public List<SDGEdge> getOutgoingEdgesOfKindUnsafe(SDGNode node, SDGEdge.Kind kind) {
-    	int lastPriority = -1;
-    	boolean kindReached = false;
-    	SDGEdge[] outgoing = outgoingEdgesOfUnsafe(node);
-    	List<SDGEdge> res = new ArrayList<>(outgoing.length);
-    	for (SDGEdge e : outgoing) {
-    		if (e == null) continue;
-    		assert e.getKind().getPriority() >= lastPriority;
-    		assert (lastPriority = e.getKind().getPriority()) >= 0;
-    		
-    		boolean isKind = e.getKind() == kind; 
-    		if (isKind) {
-    			res.add(e);
-    			kindReached = true;
-    		}
-    		if (!isKind && kindReached) break;
-    	}
-
-    	return res;
+    	return outgoingEdgesOfKind(node, kind).toList();
     }
     
     /**
@@ -248,16 +321,7 @@ public abstract class JoanaGraph extends AbstractJoanaGraph<SDGNode, SDGEdge> {
      * @param kind  The demanded kind of edges.
      */
     public List<SDGEdge> getOutgoingEdgesOfKind(SDGNode node, SDGEdge.Kind kind) {
-    	Set<SDGEdge> outgoing = outgoingEdgesOf(node);
-    	List<SDGEdge> res = new ArrayList<>(outgoing.size());
-    	for (SDGEdge e : outgoing) {
-    		if (e == null) continue;
-    		if (e.getKind() == kind) {
-    			res.add(e);
-    		}
-    	}
-
-    	return res;
+    	return outgoingEdgesOfKind(node, kind).toList();
     }
 
     /**
@@ -268,13 +332,8 @@ public abstract class JoanaGraph extends AbstractJoanaGraph<SDGNode, SDGEdge> {
      * @return `true' if node has incoming edges of kind `kind'.
      */
     public boolean hasIncomingEdgesOfKind(SDGNode node, SDGEdge.Kind kind) {
-    	for (SDGEdge e : incomingEdgesOf(node)) {
-    		if (e.getKind() == kind) {
-    			return true;
-    		}
-    	}
-
-    	return false;
+    	final long range = incomingRangeOfKind(node, kind);
+    	return rangeFrom(range) < rangeTo(range);
     }
 
     /**
@@ -284,15 +343,71 @@ public abstract class JoanaGraph extends AbstractJoanaGraph<SDGNode, SDGEdge> {
      * @param kind  The demanded kind of edges.
      */
     public List<SDGEdge> getIncomingEdgesOfKind(SDGNode node, SDGEdge.Kind kind) {
-    	LinkedList<SDGEdge> res = new LinkedList<SDGEdge>();
+    	return incomingEdgesOfKind(node, kind).toList();
+    }
 
-    	for (SDGEdge e : incomingEdgesOf(node)) {
-    		if (e.getKind() == kind) {
-    			res.add(e);
-    		}
+    /**
+     * A view of a range of an edge array, restricted to a set of edge kinds. Iterating it does not copy the edges,
+     * and each call of {@link #iterator()} starts a new, independent iteration.
+     */
+    public static final class EdgeView implements Iterable<SDGEdge> {
+    	private static final long ALL_KINDS = -1L;
+    	private static final EdgeView EMPTY = new EdgeView(new SDGEdge[0], 0, 0, ALL_KINDS);
+
+    	private final SDGEdge[] edges;
+    	private final int from;
+    	private final int to;
+    	private final long kindMask;
+
+    	private EdgeView(SDGEdge[] edges, int from, int to, long kindMask) {
+    		this.edges = edges;
+    		this.from = from;
+    		this.to = to;
+    		this.kindMask = kindMask;
     	}
 
-    	return res;
+    	private int advance(int i) {
+    		while (i < to && (edges[i] == null || !FrozenSDG.inMask(kindMask, edges[i].getKind().ordinal()))) i++;
+    		return i;
+    	}
+
+    	@Override
+    	public Iterator<SDGEdge> iterator() {
+    		return new Iterator<SDGEdge>() {
+    			private int next = advance(from);
+
+    			@Override
+    			public boolean hasNext() {
+    				return next < to;
+    			}
+
+    			@Override
+    			public SDGEdge next() {
+    				if (next >= to) throw new NoSuchElementException();
+    				final SDGEdge e = edges[next];
+    				next = advance(next + 1);
+    				return e;
+    			}
+    		};
+    	}
+
+    	/**
+    	 * @return whether the view contains no edges
+    	 */
+    	public boolean isEmpty() {
+    		return advance(from) >= to;
+    	}
+
+    	/**
+    	 * @return a new, modifiable list of the edges of this view
+    	 */
+    	public List<SDGEdge> toList() {
+    		final List<SDGEdge> res = new ArrayList<>(to - from);
+    		for (int i = advance(from); i < to; i = advance(i + 1)) {
+    			res.add(edges[i]);
+    		}
+    		return res;
+    	}
     }
 
    @Override
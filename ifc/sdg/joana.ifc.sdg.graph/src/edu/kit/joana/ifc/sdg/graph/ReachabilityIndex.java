@@ -0,0 +1,310 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.util.Arrays;
+
+/**
+ * Answers in constant time whether a node may reach another node along the edges of an {@link SDG}, in order to rule
+ * out pairs of nodes before any slicing is done.
+ * <p>
+ * The index is computed on the condensation of the graph, i.e. the acyclic graph of its strongly connected components.
+ * Components are numbered in the order they are found by Tarjan's algorithm, so a component can only reach components
+ * with a smaller number. In addition, each component carries a number of interval labels [low, rank] from depth-first
+ * traversals with different child orders, where rank is the post-order number of the component and low the smallest
+ * rank of its descendants. If a component reaches another one, each interval of the former contains the respective
+ * interval of the latter (see Yildirim et al., "GRAIL: Scalable Reachability Index for Large Graphs", VLDB 2010).
+ * <p>
+ * Hence, a negative answer of {@link #mayReach(SDGNode, SDGNode)} is exact, while a positive answer may be wrong.
+ * Reachability ignores calling contexts, so it is an over-approximation of every slicer that follows (a subset of) the
+ * indexed edges. Summary edges are indexed like all other program dependencies, so they do not add any imprecision.
+ * Nodes are identified by their id, nodes that were not part of the graph when the index was built may reach anything.
+ */
+public final class ReachabilityIndex {
+
+	/** number of interval labels per component if nothing else is specified */
+	public static final int DEFAULT_LABELS = 3;
+
+	/** maps node ids to the number of their component, -1 for ids that are not part of the graph */
+	private final int[] compOfId;
+	private final int numberOfComponents;
+	private final int numberOfLabels;
+	/** the i-th label of component c is [labels[2 * (c * numberOfLabels + i)], labels[2 * (c * numberOfLabels + i) + 1]] */
+	private final int[] labels;
+
+	private ReachabilityIndex(final int[] compOfId, final int numberOfComponents, final int numberOfLabels,
+			final int[] labels) {
+		this.compOfId = compOfId;
+		this.numberOfComponents = numberOfComponents;
+		this.numberOfLabels = numberOfLabels;
+		this.labels = labels;
+	}
+
+	/**
+	 * Builds an index of the program dependencies of the given sdg (see {@link SDGEdge.Kind#isSDGEdge()}), which
+	 * covers all edges followed by the slicers of Joana.
+	 */
+	public static ReachabilityIndex build(final SDG sdg) {
+		return build(FrozenSDG.freeze(sdg), FrozenSDG.sdgKindMask(), DEFAULT_LABELS);
+	}
+
+	/**
+	 * @param graph the graph to index
+	 * @param kindMask the edges to index, see {@link FrozenSDG#kindMask(SDGEdge.Kind...)}
+	 * @param numberOfLabels number of interval labels per component. More labels rule out more pairs, but each one
+	 *        needs another traversal of the condensation and two ints per component.
+	 */
+	public static ReachabilityIndex build(final FrozenSDG graph, final long kindMask, final int numberOfLabels) {
+		if (numberOfLabels < 0) {
+			throw new IllegalArgumentException("negative number of labels: " + numberOfLabels);
+		}
+		final int[] comp = new int[graph.getNumberOfNodes()];
+		final int numberOfComponents = computeComponents(graph, kindMask, comp);
+
+		// successors of each component in the condensation, without duplicates
+		final int[] succStart = new int[numberOfComponents + 1];
+		final int[] succ = computeCondensation(graph, kindMask, comp, numberOfComponents, succStart);
+
+		final int[] labels = new int[2 * numberOfComponents * numberOfLabels];
+		for (int i = 0; i < numberOfLabels; i++) {
+			computeLabels(succStart, succ, numberOfComponents, i, numberOfLabels, labels);
+		}
+
+		int maxId = -1;
+		for (int v = 0; v < graph.getNumberOfNodes(); v++) {
+			maxId = Math.max(maxId, graph.getNode(v).getId());
+		}
+		final int[] compOfId = new int[maxId + 1];
+		Arrays.fill(compOfId, -1);
+		for (int v = 0; v < graph.getNumberOfNodes(); v++) {
+			compOfId[graph.getNode(v).getId()] = comp[v];
+		}
+
+		return new ReachabilityIndex(compOfId, numberOfComponents, numberOfLabels, labels);
+	}
+
+	/**
+	 * Tarjan's algorithm without recursion. Components are numbered in the order they are completed, which is a
+	 * reverse topological order of the condensation.
+	 * @return the number of components
+	 */
+	private static int computeComponents(final FrozenSDG graph, final long kindMask, final int[] comp) {
+		final int n = graph.getNumberOfNodes();
+		final int[] index = new int[n];
+		final int[] low = new int[n];
+		Arrays.fill(index, -1);
+		Arrays.fill(comp, -1);
+		// visited nodes without a component are exactly the nodes on the tarjan stack
+		final int[] stack = new int[n];
+		int stackSize = 0;
+		final int[] callNode = new int[n];
+		final int[] callEdge = new int[n];
+		int depth = 0;
+		int counter = 0;
+		int numberOfComponents = 0;
+		for (int root = 0; root < n; root++) {
+			if (index[root] >= 0) {
+				continue;
+			}
+			index[root] = low[root] = counter++;
+			stack[stackSize++] = root;
+			callNode[depth] = root;
+			callEdge[depth] = graph.outStart(root);
+			depth++;
+			while (depth > 0) {
+				final int v = callNode[depth - 1];
+				int e = callEdge[depth - 1];
+				final int end = graph.outEnd(v);
+				while (e < end && !FrozenSDG.inMask(kindMask, graph.outKind(e))) {
+					e++;
+				}
+				if (e < end) {
+					callEdge[depth - 1] = e + 1;
+					final int w = graph.outTarget(e);
+					if (index[w] < 0) {
+						index[w] = low[w] = counter++;
+						stack[stackSize++] = w;
+						callNode[depth] = w;
+						callEdge[depth] = graph.outStart(w);
+						depth++;
+					} else if (comp[w] < 0) {
+						low[v] = Math.min(low[v], index[w]);
+					}
+				} else {
+					depth--;
+					if (low[v] == index[v]) {
+						int w;
+						do {
+							w = stack[--stackSize];
+							comp[w] = numberOfComponents;
+						} while (w != v);
+						numberOfComponents++;
+					}
+					if (depth > 0) {
+						final int u = callNode[depth - 1];
+						low[u] = Math.min(low[u], low[v]);
+					}
+				}
+			}
+		}
+		return numberOfComponents;
+	}
+
+	/**
+	 * @return the successors of component c in the condensation, in the range [succStart[c], succStart[c + 1])
+	 */
+	private static int[] computeCondensation(final FrozenSDG graph, final long kindMask, final int[] comp,
+			final int numberOfComponents, final int[] succStart) {
+		// group the nodes by component
+		final int[] nodeStart = new int[numberOfComponents + 1];
+		for (final int c : comp) {
+			nodeStart[c + 1]++;
+		}
+		for (int c = 0; c < numberOfComponents; c++) {
+			nodeStart[c + 1] += nodeStart[c];
+		}
+		final int[] nodes = new int[comp.length];
+		final int[] fill = Arrays.copyOf(nodeStart, numberOfComponents);
+		for (int v = 0; v < comp.length; v++) {
+			nodes[fill[comp[v]]++] = v;
+		}
+
+		final int[] lastSeenFrom = new int[numberOfComponents];
+		Arrays.fill(lastSeenFrom, -1);
+		int[] succ = new int[Math.max(16, numberOfComponents)];
+		int size = 0;
+		for (int c = 0; c < numberOfComponents; c++) {
+			succStart[c] = size;
+			for (int i = nodeStart[c]; i < nodeStart[c + 1]; i++) {
+				final int v = nodes[i];
+				for (int e = graph.outStart(v); e < graph.outEnd(v); e++) {
+					if (!FrozenSDG.inMask(kindMask, graph.outKind(e))) {
+						continue;
+					}
+					final int d = comp[graph.outTarget(e)];
+					if (d == c || lastSeenFrom[d] == c) {
+						continue;
+					}
+					lastSeenFrom[d] = c;
+					if (size == succ.length) {
+						succ = Arrays.copyOf(succ, 2 * size);
+					}
+					succ[size++] = d;
+				}
+			}
+		}
+		succStart[numberOfComponents] = size;
+		return Arrays.copyOf(succ, size);
+	}
+
+	/**
+	 * Computes the labels of the given traversal. The roots are visited in topological order, the successors of
+	 * a component starting at an offset that depends on the traversal.
+	 */
+	private static void computeLabels(final int[] succStart, final int[] succ, final int numberOfComponents,
+			final int traversal, final int numberOfLabels, final int[] labels) {
+		final boolean[] visited = new boolean[numberOfComponents];
+		final int[] low = new int[numberOfComponents];
+		final int[] callComp = new int[numberOfComponents];
+		final int[] callStep = new int[numberOfComponents];
+		int depth = 0;
+		int rank = 0;
+		for (int root = numberOfComponents - 1; root >= 0; root--) {
+			if (visited[root]) {
+				continue;
+			}
+			visited[root] = true;
+			low[root] = Integer.MAX_VALUE;
+			callComp[depth] = root;
+			callStep[depth] = 0;
+			depth++;
+			while (depth > 0) {
+				final int c = callComp[depth - 1];
+				final int degree = succStart[c + 1] - succStart[c];
+				final int step = callStep[depth - 1];
+				if (step < degree) {
+					callStep[depth - 1] = step + 1;
+					final int d = succ[succStart[c] + (step + firstStep(c, traversal, degree)) % degree];
+					if (!visited[d]) {
+						visited[d] = true;
+						low[d] = Integer.MAX_VALUE;
+						callComp[depth] = d;
+						callStep[depth] = 0;
+						depth++;
+					} else {
+						// d is finished already, as the condensation is acyclic
+						low[c] = Math.min(low[c], low[d]);
+					}
+				} else {
+					depth--;
+					low[c] = Math.min(low[c], rank);
+					final int pos = 2 * (c * numberOfLabels + traversal);
+					labels[pos] = low[c];
+					labels[pos + 1] = rank;
+					rank++;
+					if (depth > 0) {
+						final int p = callComp[depth - 1];
+						low[p] = Math.min(low[p], low[c]);
+					}
+				}
+			}
+		}
+	}
+
+	private static int firstStep(final int comp, final int traversal, final int degree) {
+		if (traversal == 0) {
+			return 0;
+		}
+		// a cheap hash of the component and the traversal, so the traversals use different child orders
+		final int h = (comp + 1) * 0x9E3779B9 ^ traversal * 0x85EBCA6B;
+		return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % degree;
+	}
+
+	public int getNumberOfComponents() {
+		return numberOfComponents;
+	}
+
+	/**
+	 * @return whether {@code from} reaches {@code to} or may do so. If this returns {@code false}, there is no
+	 *         path from {@code from} to {@code to}.
+	 */
+	public boolean mayReach(final SDGNode from, final SDGNode to) {
+		final int fromId = from.getId();
+		final int toId = to.getId();
+		if (fromId < 0 || fromId >= compOfId.length || toId < 0 || toId >= compOfId.length) {
+			return true;
+		}
+		final int c = compOfId[fromId];
+		final int d = compOfId[toId];
+		if (c < 0 || d < 0) {
+			return true;
+		}
+		return mayReachComponent(c, d);
+	}
+
+	private boolean mayReachComponent(final int c, final int d) {
+		if (c == d) {
+			return true;
+		} else if (c < d) {
+			return false;
+		}
+		final int cPos = 2 * c * numberOfLabels;
+		final int dPos = 2 * d * numberOfLabels;
+		for (int i = 0; i < 2 * numberOfLabels; i += 2) {
+			if (labels[dPos + i] < labels[cPos + i] || labels[dPos + i + 1] > labels[cPos + i + 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "reachability index (" + numberOfComponents + " components, " + numberOfLabels + " labels)";
+	}
+}
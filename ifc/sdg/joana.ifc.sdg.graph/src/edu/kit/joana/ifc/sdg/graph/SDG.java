@@ -15,10 +15,14 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
@@ -92,6 +96,16 @@ public class SDG extends JoanaGraph implements Cloneable {
         this.joanaCompiler = false;
     }
 
+    /**
+     * Creates an empty SDG with a name, which is sized for nodes with ids in [0, nodeIdCapacity), so these nodes can be
+     * added without growing the node tables.
+     */
+    public SDG(String name, int nodeIdCapacity) {
+        super(name, () -> new SimpleVector<>(5, nodeIdCapacity));
+        this.joanaCompiler = false;
+        ensureNodeCapacity(nodeIdCapacity);
+    }
+
 	/**
 	 * Returns a shallow copy of this SDG.
      */
@@ -172,14 +186,12 @@ public class SDG extends JoanaGraph implements Cloneable {
             while(true){
                 // the loop terminates because control-expression graphs are acyclic and because we
                 // ensured at the beginning of this method that a call node will be reached
-                for(SDGEdge e : incomingEdgesOf(n)){
-                    if(e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR){
-                        if(e.getSource().getKind() == SDGNode.Kind.CALL){
-                            return e.getSource();
-                        }
-                        n = e.getSource();
-                        break;
+                for(SDGEdge e : incomingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_EXPR)){
+                    if(e.getSource().getKind() == SDGNode.Kind.CALL){
+                        return e.getSource();
                     }
+                    n = e.getSource();
+                    break;
                  }
             }
         }
@@ -268,7 +280,7 @@ public class SDG extends JoanaGraph implements Cloneable {
     	while(!wl.isEmpty()) {
     		SDGNode next = wl.poll();
 
-    		for (SDGEdge e : getOutgoingEdgesOfKindUnsafe(next, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+    		for (SDGEdge e : outgoingEdgesOfKind(next, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
     			if (result.add(e.getTarget())) {
     				wl.add(e.getTarget());
     			}
@@ -371,7 +383,7 @@ public class SDG extends JoanaGraph implements Cloneable {
     	if (exitCache.get(node.getProc()) == null) {
 	        SDGNode entry = getEntry(node);
 	        SDGNode exit = null;
-        	for (SDGEdge e : getOutgoingEdgesOfKindUnsafe(entry, SDGEdge.Kind.CONTROL_FLOW)) {
+        	for (SDGEdge e : outgoingEdgesOfKind(entry, SDGEdge.Kind.CONTROL_FLOW)) {
         		if (e.getTarget().getKind() == SDGNode.Kind.EXIT) {
         			exitCache.put(node.getProc(), e.getTarget());
         			exit = e.getTarget();
@@ -404,10 +416,10 @@ public class SDG extends JoanaGraph implements Cloneable {
 
 		for (SDGNode n : vertexSet()) {
 			if (n.getKind() == SDGNode.Kind.CALL) {
-				List<SDGEdge> l = getOutgoingEdgesOfKindUnsafe(n, SDGEdge.Kind.CONTROL_FLOW);
+				Iterator<SDGEdge> l = outgoingEdgesOfKind(n, SDGEdge.Kind.CONTROL_FLOW).iterator();
 //				if (l.size() != 1) throw new RuntimeException(); // irregular SDG
-				if (l.isEmpty()) continue;
-				result.add(new SDGNodeTuple(n, l.get(0).getTarget()));
+				if (!l.hasNext()) continue;
+				result.add(new SDGNodeTuple(n, l.next().getTarget()));
 			}
 		}
 
@@ -913,6 +925,38 @@ public class SDG extends JoanaGraph implements Cloneable {
     	return sdg;
     }
 
+    /**
+     * Read in a graph from a file in the binary format written by
+     * {@link SDGSerializer#toBinaryFormat(SDG, FileChannel)}. The file is memory mapped, no parsing is necessary.
+     * @param sdgFile file which is read
+     * @throws IOException if file does not exist or is not a binary sdg file
+     * @return a SDG representation of the file
+     */
+    public static SDG readFromBinary(final String sdgFile) throws IOException {
+    	return readFromBinary(sdgFile, null);
+    }
+
+    /**
+     * Read in a graph from a file in the binary format written by
+     * {@link SDGSerializer#toBinaryFormat(SDG, FileChannel)}. The file is memory mapped, no parsing is necessary.
+     * @param sdgFile file which is read
+     * @param nodeFactory factory that is used to create SDGNodes
+     * @throws IOException if file does not exist or is not a binary sdg file
+     * @return a SDG representation of the file
+     */
+    public static SDG readFromBinary(final String sdgFile, final SDGNode.NodeFactory nodeFactory)
+    		throws IOException {
+    	final SDG sdg;
+    	try (final FileChannel channel = FileChannel.open(Paths.get(sdgFile), StandardOpenOption.READ)) {
+    		sdg = SDGBinaryFormat.read(channel, nodeFactory);
+    	}
+    	final int sepIndex = sdgFile.lastIndexOf(File.separator);
+    	final String fileName = (sepIndex > 0 ? sdgFile.substring(sepIndex) : sdgFile);
+    	sdg.setFileName(fileName);
+
+    	return sdg;
+    }
+
 	/**
 	 * Parses a graph, using the ANTLR grammar <code>SDG_.g</code>
 	 *
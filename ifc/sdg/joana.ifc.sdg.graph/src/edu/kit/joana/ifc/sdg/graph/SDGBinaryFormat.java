@@ -0,0 +1,597 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode.NodeFactory;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
+import edu.kit.joana.util.SourceLocation;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Compact binary representation of an SDG. It is meant as a drop-in alternative to the textual .pdg format of
+ * {@link SDGSerializer#toPDGFormat(JoanaGraph, java.io.PrintWriter)} for large graphs that are loaded again and again:
+ * No lexing or parsing is necessary, the file is read through a memory mapped {@link FileChannel}.
+ *
+ * Layout (all integers are LEB128 varints, signed values are zigzag encoded):
+ * <pre>
+ *   magic "JSDG" (4 bytes) | format version
+ *   flags (joana compiler, name present, root present) | name | root id
+ *   string table: count, (length, utf-8 bytes)*    -- index 0 is reserved for null
+ *   nodes:        count, node*                     -- sorted by id, ids delta encoded
+ *   edges:        per node in the same order: count, (kind, target id delta, label)*
+ *   threads:      count, thread instance*
+ * </pre>
+ * Labels, types, bytecode names, class loaders, source file names and local variable names are stored once in the
+ * string table and referenced by index. Writing a graph and reading it back yields a graph with the same textual
+ * .pdg representation.
+ *
+ * @see SDG#readFromBinary(String)
+ * @see SDGSerializer#toBinaryFormat(SDG, FileChannel)
+ */
+public final class SDGBinaryFormat {
+
+	public static final String FILE_SUFFIX = ".pdgb";
+
+	private static final byte[] MAGIC = { 'J', 'S', 'D', 'G' };
+	private static final int VERSION = 1;
+
+	/* header flags */
+	private static final int H_JCOMP = 1;
+	private static final int H_NAME = 2;
+	private static final int H_ROOT = 4;
+
+	/* node attribute flags */
+	private static final int N_SOURCE = 1;
+	private static final int N_ALLOC_SITES = 2;
+	private static final int N_ALIAS_DATA = 4;
+	private static final int N_LOCAL_DEFS = 8;
+	private static final int N_LOCAL_USES = 16;
+
+	/* size of a single mapped window, mappings are limited to Integer.MAX_VALUE bytes */
+	private static final long MAP_WINDOW = 1L << 28;
+
+	private static final SDGNode.Kind[] NODE_KINDS = SDGNode.Kind.values();
+	private static final SDGNode.Operation[] OPERATIONS = SDGNode.Operation.values();
+	private static final SDGEdge.Kind[] EDGE_KINDS = SDGEdge.Kind.values();
+
+	private SDGBinaryFormat() {}
+
+	/* ********* */
+	/*  WRITING  */
+
+	public static void write(final SDG sdg, final FileChannel channel) throws IOException {
+		// the channel is owned by the caller, so the stream is flushed but never closed
+		write(sdg, Channels.newOutputStream(channel));
+	}
+
+	public static void write(final SDG sdg, final OutputStream os) throws IOException {
+		final Output out = new Output(new BufferedOutputStream(os, 1 << 16));
+		final List<SDGNode> nodes = new ArrayList<SDGNode>(sdg.vertexSet());
+		nodes.sort(SDGNode.getIDComparator());
+		final Map<String, Integer> strings = collectStrings(sdg, nodes);
+
+		out.bytes(MAGIC);
+		out.uvarint(VERSION);
+		int flags = 0;
+		if (sdg.getJoanaCompiler()) flags |= H_JCOMP;
+		if (sdg.getName() != null) flags |= H_NAME;
+		if (sdg.getRoot() != null) flags |= H_ROOT;
+		out.uvarint(flags);
+		if (sdg.getName() != null) {
+			out.string(sdg.getName());
+		}
+		if (sdg.getRoot() != null) {
+			out.svarint(sdg.getRoot().getId());
+		}
+
+		out.uvarint(strings.size());
+		for (final String str : strings.keySet()) {
+			out.string(str);
+		}
+
+		out.uvarint(nodes.size());
+		int lastId = 0;
+		for (final SDGNode n : nodes) {
+			out.svarint(n.getId() - lastId);
+			lastId = n.getId();
+			writeNode(out, n, strings);
+		}
+
+		final Comparator<SDGEdge> byKindAndTarget = new Comparator<SDGEdge>() {
+			@Override
+			public int compare(SDGEdge o1, SDGEdge o2) {
+				final int byKind = o1.getKind().compareTo(o2.getKind());
+				if (byKind != 0) return byKind;
+
+				return Integer.compare(o1.getTarget().getId(), o2.getTarget().getId());
+			}
+		};
+		for (final SDGNode n : nodes) {
+			final Set<SDGEdge> outgoing = sdg.outgoingEdgesOf(n);
+			final SDGEdge[] sorted = outgoing.toArray(new SDGEdge[outgoing.size()]);
+			Arrays.sort(sorted, byKindAndTarget);
+			out.uvarint(sorted.length);
+			for (final SDGEdge e : sorted) {
+				out.uvarint(e.getKind().ordinal());
+				out.svarint(e.getTarget().getId() - n.getId());
+				out.uvarint(index(strings, e.getLabel()));
+			}
+		}
+
+		final ThreadsInformation tinfo = sdg.getThreadsInfo();
+		if (tinfo == null) {
+			out.uvarint(0);
+		} else {
+			out.uvarint(tinfo.getNumberOfThreads());
+			for (final ThreadInstance ti : tinfo) {
+				writeThread(out, ti);
+			}
+		}
+
+		out.flush();
+	}
+
+	private static void writeNode(final Output out, final SDGNode n, final Map<String, Integer> strings)
+			throws IOException {
+		final SourceLocation loc = n.getSourceLocation();
+		final int[] allocSites = n.getAllocationSites();
+		final TIntSet aliasData = n.getAliasDataSources();
+		final String[] localDefs = n.getLocalDefNames();
+		final String[] localUses = n.getLocalUseNames();
+
+		int flags = 0;
+		if (loc != SourceLocation.UNKNOWN) flags |= N_SOURCE;
+		if (allocSites != null) flags |= N_ALLOC_SITES;
+		if (aliasData != null) flags |= N_ALIAS_DATA;
+		if (localDefs != null) flags |= N_LOCAL_DEFS;
+		if (localUses != null) flags |= N_LOCAL_USES;
+
+		out.uvarint(flags);
+		out.uvarint(n.getKind().ordinal());
+		out.uvarint(n.getOperation().ordinal());
+		out.svarint(n.getProc());
+		out.uvarint(index(strings, n.getLabel()));
+		out.uvarint(index(strings, n.getType()));
+		out.uvarint(index(strings, n.getBytecodeName()));
+		out.svarint(n.getBytecodeIndex());
+		out.uvarint(index(strings, n.getClassLoader()));
+		out.uvarint(index(strings, n.getUnresolvedCallTarget()));
+
+		if (loc != SourceLocation.UNKNOWN) {
+			out.uvarint(index(strings, loc.getSourceFile()));
+			out.uvarint(loc.getStartRow());
+			out.uvarint(loc.getStartColumn());
+			out.uvarint(loc.getEndRow());
+			out.uvarint(loc.getEndColumn());
+		}
+
+		final int[] threads = n.getThreadNumbers();
+		out.intArray(threads == null ? new int[0] : threads);
+
+		if (allocSites != null) {
+			out.intArray(allocSites);
+		}
+
+		if (aliasData != null) {
+			out.uvarint(aliasData.size());
+			for (final TIntIterator it = aliasData.iterator(); it.hasNext();) {
+				out.svarint(it.next());
+			}
+		}
+
+		if (localDefs != null) {
+			out.stringRefs(localDefs, strings);
+		}
+
+		if (localUses != null) {
+			out.stringRefs(localUses, strings);
+		}
+	}
+
+	private static void writeThread(final Output out, final ThreadInstance ti) throws IOException {
+		out.svarint(ti.getId());
+		out.svarint(ti.getEntry().getId());
+		out.svarint(ti.getExit().getId());
+		out.uvarint(ti.getFork() == null ? 0 : 1);
+		if (ti.getFork() != null) {
+			out.svarint(ti.getFork().getId());
+		}
+		out.nodeIds(ti.getJoins());
+		out.nodeIds(ti.getThreadContext());
+		out.uvarint(ti.isDynamic() ? 1 : 0);
+	}
+
+	private static Map<String, Integer> collectStrings(final SDG sdg, final List<SDGNode> nodes) {
+		final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+		for (final SDGNode n : nodes) {
+			intern(strings, n.getLabel());
+			intern(strings, n.getType());
+			intern(strings, n.getBytecodeName());
+			intern(strings, n.getClassLoader());
+			intern(strings, n.getUnresolvedCallTarget());
+			if (n.getSourceLocation() != SourceLocation.UNKNOWN) {
+				intern(strings, n.getSourceLocation().getSourceFile());
+			}
+			if (n.getLocalDefNames() != null) {
+				for (final String name : n.getLocalDefNames()) {
+					intern(strings, name);
+				}
+			}
+			if (n.getLocalUseNames() != null) {
+				for (final String name : n.getLocalUseNames()) {
+					intern(strings, name);
+				}
+			}
+			for (final SDGEdge e : sdg.outgoingEdgesOf(n)) {
+				intern(strings, e.getLabel());
+			}
+		}
+
+		return strings;
+	}
+
+	private static void intern(final Map<String, Integer> strings, final String str) {
+		if (str != null && !strings.containsKey(str)) {
+			// index 0 is reserved for null
+			strings.put(str, strings.size() + 1);
+		}
+	}
+
+	private static int index(final Map<String, Integer> strings, final String str) {
+		return (str == null ? 0 : strings.get(str));
+	}
+
+	/* ********* */
+	/*  READING  */
+
+	public static SDG read(final FileChannel channel) throws IOException {
+		return read(channel, null);
+	}
+
+	public static SDG read(final FileChannel channel, final NodeFactory nodeFactory) throws IOException {
+		final NodeFactory nodeFact = (nodeFactory == null ? new SDGNode.SDGNodeFactory() : nodeFactory);
+		final Logger log = Log.getLogger(Log.L_SDG_GRAPH_PARSE_INFO);
+		final long startTime = System.currentTimeMillis();
+		final Input in = new Input(channel);
+
+		final SDG sdg;
+		try {
+			sdg = read(in, nodeFact);
+		} finally {
+			SourceLocation.clearSourceLocationPool();
+		}
+
+		sdg.trimToSize();
+
+		if (log.isEnabled()) {
+			log.outln("read binary " + (sdg.getName() == null ? "sdg" : sdg.getName()) + " with "
+				+ sdg.vertexSet().size() + " nodes and " + sdg.edgeSet().size() + " edges in "
+				+ (System.currentTimeMillis() - startTime) + "ms.");
+		}
+
+		return sdg;
+	}
+
+	private static SDG read(final Input in, final NodeFactory nodeFact) throws IOException {
+		for (final byte b : MAGIC) {
+			if (in.get() != b) {
+				throw new IOException("Not a binary SDG file.");
+			}
+		}
+
+		final int version = in.uvarint();
+		if (version != VERSION) {
+			throw new IOException("Unsupported binary SDG format version " + version + ", expected " + VERSION + ".");
+		}
+
+		final int flags = in.uvarint();
+		final String name = ((flags & H_NAME) != 0 ? in.string() : null);
+		final int rootId = ((flags & H_ROOT) != 0 ? in.svarint() : 0);
+
+		final SDG sdg = (name == null ? new SDG() : new SDG(name));
+		sdg.setJoanaCompiler((flags & H_JCOMP) != 0);
+
+		final int numStrings = in.uvarint();
+		final String[] strings = new String[numStrings + 1];
+		for (int i = 1; i <= numStrings; i++) {
+			strings[i] = in.string();
+		}
+
+		final int numNodes = in.uvarint();
+		final SDGNode[] nodes = new SDGNode[numNodes];
+		int lastId = 0;
+		for (int i = 0; i < numNodes; i++) {
+			lastId += in.svarint();
+			nodes[i] = readNode(in, lastId, strings, nodeFact);
+			sdg.addVertex(nodes[i]);
+		}
+
+		for (final SDGNode from : nodes) {
+			final int numEdges = in.uvarint();
+			for (int i = 0; i < numEdges; i++) {
+				final SDGEdge.Kind kind = EDGE_KINDS[in.uvarint()];
+				final SDGNode to = sdg.getNode(from.getId() + in.svarint());
+				final String label = strings[in.uvarint()];
+				final SDGEdge edge = (label != null
+					? new LabeledSDGEdge(from, to, kind, label)
+					: kind.newEdge(from, to));
+				sdg.addEdge(edge);
+			}
+		}
+
+		final int numThreads = in.uvarint();
+		if (numThreads > 0) {
+			final LinkedList<ThreadInstance> threads = new LinkedList<ThreadInstance>();
+			for (int i = 0; i < numThreads; i++) {
+				threads.add(readThread(in, sdg));
+			}
+			sdg.setThreadsInfo(new ThreadsInformation(threads));
+		}
+
+		if ((flags & H_ROOT) != 0) {
+			sdg.setRoot(sdg.getNode(rootId));
+		}
+
+		return sdg;
+	}
+
+	private static SDGNode readNode(final Input in, final int id, final String[] strings, final NodeFactory nodeFact)
+			throws IOException {
+		final int flags = in.uvarint();
+		final SDGNode.Kind kind = NODE_KINDS[in.uvarint()];
+		final SDGNode.Operation op = OPERATIONS[in.uvarint()];
+		final int proc = in.svarint();
+		final String label = strings[in.uvarint()];
+		final String type = strings[in.uvarint()];
+		final String bcName = strings[in.uvarint()];
+		final int bcIndex = in.svarint();
+		final String clsLoader = strings[in.uvarint()];
+		final String unresolvedCallTarget = strings[in.uvarint()];
+
+		SourceLocation loc = SourceLocation.UNKNOWN;
+		if ((flags & N_SOURCE) != 0) {
+			final String file = strings[in.uvarint()];
+			final int sr = in.uvarint();
+			final int sc = in.uvarint();
+			final int er = in.uvarint();
+			final int ec = in.uvarint();
+			loc = SourceLocation.getLocation(file, sr, sc, er, ec);
+		}
+
+		final int[] threads = in.intArray();
+		final int[] allocSites = ((flags & N_ALLOC_SITES) != 0 ? in.intArray() : null);
+
+		TIntSet aliasData = null;
+		if ((flags & N_ALIAS_DATA) != 0) {
+			final int size = in.uvarint();
+			aliasData = new TIntHashSet(size);
+			for (int i = 0; i < size; i++) {
+				aliasData.add(in.svarint());
+			}
+		}
+
+		final String[] localDefs = ((flags & N_LOCAL_DEFS) != 0 ? in.stringRefs(strings) : null);
+		final String[] localUses = ((flags & N_LOCAL_USES) != 0 ? in.stringRefs(strings) : null);
+
+		final SDGNode n = nodeFact.createNode(op, findKindId(op, kind), id, label, proc, type, loc, bcName, bcIndex,
+				localDefs, localUses, unresolvedCallTarget, allocSites, clsLoader);
+
+		if (aliasData != null) {
+			n.setAliasDataSources(aliasData);
+		}
+
+		n.setThreadNumbers(threads);
+
+		return n;
+	}
+
+	private static ThreadInstance readThread(final Input in, final SDG sdg) throws IOException {
+		final int id = in.svarint();
+		final SDGNode entry = sdg.getNode(in.svarint());
+		final SDGNode exit = sdg.getNode(in.svarint());
+		final SDGNode fork = (in.uvarint() != 0 ? sdg.getNode(in.svarint()) : null);
+		final LinkedList<SDGNode> joins = in.nodes(sdg);
+		final LinkedList<SDGNode> context = in.nodes(sdg);
+		final boolean dynamic = in.uvarint() != 0;
+
+		return new ThreadInstance(id, entry, exit, fork, joins, context, dynamic);
+	}
+
+	private static int findKindId(final SDGNode.Operation op, final SDGNode.Kind kind) {
+		final SDGNode.Kind[] kinds = op.getCorrespondingKind();
+		for (int id = 0; id < kinds.length; id++) {
+			if (kind == kinds[id]) {
+				return id;
+			}
+		}
+
+		// same fallback as the text parsers: default to first kind
+		return 0;
+	}
+
+	/* ************** */
+	/*  LOW LEVEL IO  */
+
+	private static final class Output {
+		private final OutputStream out;
+
+		private Output(final OutputStream out) {
+			this.out = out;
+		}
+
+		private void bytes(final byte[] b) throws IOException {
+			out.write(b);
+		}
+
+		private void uvarint(int value) throws IOException {
+			while ((value & ~0x7F) != 0) {
+				out.write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.write(value);
+		}
+
+		private void svarint(final int value) throws IOException {
+			uvarint((value << 1) ^ (value >> 31));
+		}
+
+		private void string(final String str) throws IOException {
+			final byte[] utf8 = str.getBytes(StandardCharsets.UTF_8);
+			uvarint(utf8.length);
+			out.write(utf8);
+		}
+
+		private void intArray(final int[] values) throws IOException {
+			uvarint(values.length);
+			for (final int v : values) {
+				svarint(v);
+			}
+		}
+
+		private void stringRefs(final String[] values, final Map<String, Integer> strings) throws IOException {
+			uvarint(values.length);
+			for (final String v : values) {
+				uvarint(index(strings, v));
+			}
+		}
+
+		private void nodeIds(final Collection<SDGNode> nodes) throws IOException {
+			uvarint(nodes.size());
+			for (final Iterator<SDGNode> it = nodes.iterator(); it.hasNext();) {
+				svarint(it.next().getId());
+			}
+		}
+
+		private void flush() throws IOException {
+			out.flush();
+		}
+	}
+
+	/**
+	 * Reads from a file channel through a sliding window of memory mapped buffers. Only one window is mapped at a
+	 * time, so files larger than 2GB are supported.
+	 */
+	private static final class Input {
+		private final FileChannel channel;
+		private final long size;
+		private long windowStart = 0;
+		private MappedByteBuffer window;
+
+		private Input(final FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+			map(channel.position());
+		}
+
+		private void map(final long start) throws IOException {
+			this.windowStart = start;
+			this.window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAP_WINDOW, size - start));
+		}
+
+		private void ensureRemaining() throws IOException {
+			if (!window.hasRemaining()) {
+				final long next = windowStart + window.limit();
+				if (next >= size) {
+					throw new EOFException("unexpected end of binary SDG file.");
+				}
+				map(next);
+			}
+		}
+
+		private byte get() throws IOException {
+			ensureRemaining();
+			return window.get();
+		}
+
+		private int uvarint() throws IOException {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = get();
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+
+			return value;
+		}
+
+		private int svarint() throws IOException {
+			final int raw = uvarint();
+			return (raw >>> 1) ^ -(raw & 1);
+		}
+
+		private String string() throws IOException {
+			final int length = uvarint();
+			final byte[] utf8 = new byte[length];
+			int pos = 0;
+			while (pos < length) {
+				ensureRemaining();
+				final int chunk = Math.min(length - pos, window.remaining());
+				window.get(utf8, pos, chunk);
+				pos += chunk;
+			}
+
+			return new String(utf8, StandardCharsets.UTF_8);
+		}
+
+		private int[] intArray() throws IOException {
+			final int length = uvarint();
+			final int[] values = new int[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = svarint();
+			}
+
+			return values;
+		}
+
+		private String[] stringRefs(final String[] strings) throws IOException {
+			final int length = uvarint();
+			final String[] values = new String[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = strings[uvarint()];
+			}
+
+			return values;
+		}
+
+		private LinkedList<SDGNode> nodes(final SDG sdg) throws IOException {
+			final int length = uvarint();
+			final LinkedList<SDGNode> nodes = new LinkedList<SDGNode>();
+			for (int i = 0; i < length; i++) {
+				nodes.add(sdg.getNode(svarint()));
+			}
+
+			return nodes;
+		}
+	}
+}
@@ -11,9 +11,13 @@
  */
 package edu.kit.joana.ifc.sdg.graph;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -50,6 +54,21 @@ public final class SDGSerializer {
     	toPDGFormat(g, pw);
     }
 
+    /**
+     * Writes the sdg in the binary format of {@link SDGBinaryFormat}. Use {@link SDG#readFromBinary(String)} to read
+     * it back in.
+     */
+    public static void toBinaryFormat(SDG g, String fileName) throws IOException {
+    	try (final FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+    			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+    		toBinaryFormat(g, channel);
+    	}
+    }
+
+    public static void toBinaryFormat(SDG g, FileChannel channel) throws IOException {
+    	SDGBinaryFormat.write(g, channel);
+    }
+
     public static void toPDGFormat(JoanaGraph g, PrintWriter pw) {
         pw.print("SDG ");
 
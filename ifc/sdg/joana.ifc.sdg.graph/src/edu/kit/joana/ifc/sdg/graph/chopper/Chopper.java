@@ -15,6 +15,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.TreeSet;
 
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
@@ -37,6 +38,10 @@ import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
  * @author Dennis Giffhorn
  */
 public abstract class Chopper {
+	private static final long CALL_OR_FORK = FrozenSDG.kindMask(SDGEdge.Kind.CALL, SDGEdge.Kind.FORK);
+	private static final long PARAMETER_IN_OR_FORK_IN = FrozenSDG.kindMask(SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.FORK_IN);
+	private static final long PARAMETER_OUT_OR_FORK_OUT = FrozenSDG.kindMask(SDGEdge.Kind.PARAMETER_OUT, SDGEdge.Kind.FORK_OUT);
+
 	protected SDG sdg;
 
 	/**
@@ -252,47 +257,41 @@ public abstract class Chopper {
 
     		/* map the actual parameters and the call nodes to the formal parameters and the entry nodes */
 
-    		for (SDGEdge e : sdg.outgoingEdgesOf(c.entry)) {
-    			if (e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.FORK) {
-    				SDGNode entry = e.getTarget();
-    				CallEntry key = new CallEntry(c.entry, entry.getProc());
-    				Criterion d = new Criterion(c.entry);
-    				result.put(key, d);
-    			}
+    		for (SDGEdge e : sdg.outgoingEdgesOfKinds(c.entry, CALL_OR_FORK)) {
+    			SDGNode entry = e.getTarget();
+    			CallEntry key = new CallEntry(c.entry, entry.getProc());
+    			Criterion d = new Criterion(c.entry);
+    			result.put(key, d);
     		}
 
     		for (SDGNode n : c.source) {
     			if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
-    				for (SDGEdge e : sdg.outgoingEdgesOf(n)) {
-    					if (e.getKind() == SDGEdge.Kind.PARAMETER_IN || e.getKind() == SDGEdge.Kind.FORK_IN) {
-    						SDGNode formIn = e.getTarget();
-    						CallEntry key = new CallEntry(c.entry, formIn.getProc());
+    				for (SDGEdge e : sdg.outgoingEdgesOfKinds(n, PARAMETER_IN_OR_FORK_IN)) {
+    					SDGNode formIn = e.getTarget();
+    					CallEntry key = new CallEntry(c.entry, formIn.getProc());
 
-    						Criterion d = result.get(key);
+    					Criterion d = result.get(key);
 
-    						if (d != null) {
-    							d.source.add(formIn);
+    					if (d != null) {
+    						d.source.add(formIn);
 
-    						} else {
-    							throw new RuntimeException("kein criterion fuer ("+n +", "+formIn+")");
-    						}
+    					} else {
+    						throw new RuntimeException("kein criterion fuer ("+n +", "+formIn+")");
     					}
     				}
 
     			} else if (n.getKind() == SDGNode.Kind.CALL) {
-    				for (SDGEdge e : sdg.outgoingEdgesOf(n)) {
-    					if (e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.FORK) {
-    						SDGNode entry = e.getTarget();
-    						CallEntry key = new CallEntry(c.entry, entry.getProc());
+    				for (SDGEdge e : sdg.outgoingEdgesOfKinds(n, CALL_OR_FORK)) {
+    					SDGNode entry = e.getTarget();
+    					CallEntry key = new CallEntry(c.entry, entry.getProc());
 
-    						Criterion d = result.get(key);
+    					Criterion d = result.get(key);
 
-    						if (d != null) {
-    							d.source.add(entry);
+    					if (d != null) {
+    						d.source.add(entry);
 
-    						} else {
-    							throw new RuntimeException("kein criterion fuer ("+n +", "+entry+")");
-    						}
+    					} else {
+    						throw new RuntimeException("kein criterion fuer ("+n +", "+entry+")");
     					}
     				}
     			}
@@ -300,19 +299,17 @@ public abstract class Chopper {
 
     		for (SDGNode n : c.target) {
     			if (n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
-    				for (SDGEdge e : sdg.incomingEdgesOf(n)) {
-    					if (e.getKind() == SDGEdge.Kind.PARAMETER_OUT || e.getKind() == SDGEdge.Kind.FORK_OUT) {
-    						SDGNode formOut = e.getSource();
-    						CallEntry key = new CallEntry(c.entry, formOut.getProc());
+    				for (SDGEdge e : sdg.incomingEdgesOfKinds(n, PARAMETER_OUT_OR_FORK_OUT)) {
+    					SDGNode formOut = e.getSource();
+    					CallEntry key = new CallEntry(c.entry, formOut.getProc());
 
-    						Criterion d = result.get(key);
+    					Criterion d = result.get(key);
 
-    						if (d != null) {
-    							d.target.add(formOut);
+    					if (d != null) {
+    						d.target.add(formOut);
 
-    						} else {
-    							throw new RuntimeException("kein criterion fuer ("+n +", "+formOut+") "+c.entry+" "+formOut.getProc());
-    						}
+    					} else {
+    						throw new RuntimeException("kein criterion fuer ("+n +", "+formOut+") "+c.entry+" "+formOut.getProc());
     					}
     				}
     			}
@@ -0,0 +1,237 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.chopper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+
+/**
+ * MemoizingNonSameLevelChopper is a context-sensitive unbound chopper for sequential programs, which computes the
+ * same chops as the {@link NonSameLevelChopper}.
+ *
+ * Like the {@link NonSameLevelChopper}, it extends a truncated chop by the same-level chops through the called
+ * procedures, which are computed with intra-procedural chops for the ({formal-in, entry} / {formal-out}) criteria of
+ * the call sites in the chop. The intra-procedural chop of such a criterion and the criteria of the call sites in it
+ * only depend on the criterion, so they are remembered across all calls of {@link #chop(Collection, Collection)}.
+ * Hence, if many chops run through the same procedures - as when chopping every source with every sink of an
+ * IFC check - each same-level chop is only computed once.
+ *
+ * The remembered chops are dropped when the graph is set again, see {@link #clearCache()}, and when vertices or edges
+ * of the graph have been added or removed since they were computed, see {@link SDG#getModificationCount()}.
+ * Not thread-safe.
+ */
+public class MemoizingNonSameLevelChopper extends Chopper {
+	/** A truncated unbound chopper */
+	private TruncatedNonSameLevelChopper truncated;
+	/** An intra-procedural chopper for the same-level chops. */
+	private IntraproceduralChopper intraChopper;
+	/** The same-level chops computed so far. Initialized by {@link #onSetGraph()}, which runs before the field
+	 * initializers of this class. */
+	private Map<SameLevelCriterion, SameLevelChop> cache;
+	/** The modification count of the graph the remembered chops were computed for. */
+	private int cachedModifications;
+
+	private long hits;
+	private long misses;
+
+	/**
+     * Instantiates a MemoizingNonSameLevelChopper with a SDG.
+     *
+     * @param g   A SDG. Can be null. Must not be a cSDG.
+     */
+    public MemoizingNonSameLevelChopper(SDG g) {
+        super(g);
+    }
+
+    /**
+     * Re-initializes the two choppers and drops all remembered same-level chops.
+     * Triggered by {@link Chopper#setGraph(SDG)}.
+     */
+    protected void onSetGraph() {
+        if (truncated == null) {
+            truncated = new TruncatedNonSameLevelChopper(sdg);
+
+        } else {
+            truncated.setGraph(sdg);
+        }
+
+        if (intraChopper == null) {
+        	intraChopper = new IntraproceduralChopper(sdg);
+
+        } else {
+        	intraChopper.setGraph(sdg);
+        }
+
+        cache = new HashMap<SameLevelCriterion, SameLevelChop>();
+        cachedModifications = modificationCount();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Drops all remembered same-level chops, e.g. after the graph has been modified.
+     */
+    public void clearCache() {
+    	cache.clear();
+    	cachedModifications = modificationCount();
+    	hits = 0;
+    	misses = 0;
+    }
+
+    /**
+     * @return the number of remembered same-level chops
+     */
+    public int getCacheSize() {
+    	return cache.size();
+    }
+
+    /**
+     * @return how often a same-level chop has been taken from the cache since the last {@link #clearCache()}
+     */
+    public long getCacheHits() {
+    	return hits;
+    }
+
+    /**
+     * @return how often a same-level chop has been computed since the last {@link #clearCache()}
+     */
+    public long getCacheMisses() {
+    	return misses;
+    }
+
+    /**
+     * Computes a context-sensitive unbound chop from <code>sourceSet</code> to <code>sinkSet</code>.
+     *
+     * @param sourceSet  The source criterion set. Should not contain null, should not be empty.
+     * @param sinkSet    The target criterion set. Should not contain null, should not be empty.
+     * @return           The chop (a HashSet).
+     */
+    public Collection<SDGNode> chop(Collection<SDGNode> sourceSet, Collection<SDGNode> sinkSet) {
+        if (modificationCount() != cachedModifications) {
+        	// e.g. control dependencies have been removed since the remembered chops were computed
+        	clearCache();
+        }
+        Collection<SDGNode> chop = truncated.chop(sourceSet, sinkSet);
+        sameLevelChopsAux(chop);
+        return chop;
+    }
+
+    private int modificationCount() {
+    	return sdg == null ? 0 : sdg.getModificationCount();
+    }
+
+    /**
+     * Collects the nodes lying on non-truncated paths from the source criterion to the target criterion.
+     * The nodes are added to the given chop.
+     *
+     * @param chop  The truncated unbound chop.
+     */
+    private void sameLevelChopsAux(Collection<SDGNode> chop) {
+    	LinkedList<SameLevelCriterion> worklist = new LinkedList<SameLevelCriterion>();
+    	Set<SameLevelCriterion> visited = new HashSet<SameLevelCriterion>();
+    	for (Criterion c : getSummarySites(chop)) {
+    		worklist.add(new SameLevelCriterion(c));
+    	}
+
+    	while (!worklist.isEmpty()) {
+    		SameLevelCriterion next = worklist.poll();
+
+    		if (visited.add(next)) {
+    			SameLevelChop slc = sameLevelChop(next);
+    			chop.addAll(Arrays.asList(slc.nodes));
+    			worklist.addAll(Arrays.asList(slc.callees));
+    		}
+    	}
+    }
+
+    /**
+     * @return the intra-procedural chop of the given criterion together with the criteria of its call sites, either
+     *         remembered or computed
+     */
+    private SameLevelChop sameLevelChop(SameLevelCriterion criterion) {
+    	SameLevelChop slc = cache.get(criterion);
+
+    	if (slc != null) {
+    		hits++;
+    		return slc;
+    	}
+
+    	misses++;
+    	// the intra-procedural chopper modifies its source set
+    	Collection<SDGNode> nodes = intraChopper.chop(new ArrayList<SDGNode>(Arrays.asList(criterion.source)),
+    			Arrays.asList(criterion.target));
+    	Collection<Criterion> sites = getSummarySites(nodes);
+    	SameLevelCriterion[] callees = new SameLevelCriterion[sites.size()];
+    	int i = 0;
+    	for (Criterion c : sites) {
+    		callees[i++] = new SameLevelCriterion(c);
+    	}
+
+    	slc = new SameLevelChop(nodes.toArray(new SDGNode[nodes.size()]), callees);
+    	cache.put(criterion, slc);
+    	return slc;
+    }
+
+    /**
+     * A ({formal-in, entry} / {formal-out}) criterion of a same-level chop. In contrast to {@link Criterion}, the
+     * call site is not part of the criterion, so all call sites of a procedure share the same-level chops.
+     *
+     * Implements <code>hashCode</code> and <code>equals</code> consistent with the Java coding conventions.
+     */
+    private static final class SameLevelCriterion {
+    	/** ordered by id, as given by the {@link Criterion} */
+    	private final SDGNode[] source;
+    	private final SDGNode[] target;
+    	private final int hashCode;
+
+    	private SameLevelCriterion(Criterion c) {
+    		source = c.source.toArray(new SDGNode[c.source.size()]);
+    		target = c.target.toArray(new SDGNode[c.target.size()]);
+    		hashCode = 31 * Arrays.hashCode(source) + Arrays.hashCode(target);
+    	}
+
+    	public boolean equals(Object o) {
+    		if (o instanceof SameLevelCriterion) {
+    			SameLevelCriterion c = (SameLevelCriterion) o;
+    			return hashCode == c.hashCode && Arrays.equals(source, c.source) && Arrays.equals(target, c.target);
+    		}
+    		return false;
+    	}
+
+    	public int hashCode() {
+    		return hashCode;
+    	}
+
+    	public String toString() {
+    		return "({" + Arrays.toString(source) + "}, {" + Arrays.toString(target) + "})";
+    	}
+    }
+
+    /**
+     * An intra-procedural chop and the criteria of the call sites in it.
+     */
+    private static final class SameLevelChop {
+    	private final SDGNode[] nodes;
+    	private final SameLevelCriterion[] callees;
+
+    	private SameLevelChop(SDGNode[] nodes, SameLevelCriterion[] callees) {
+    		this.nodes = nodes;
+    		this.callees = callees;
+    	}
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+
+/**
+ * {@link ContextInsensitiveForward} on a {@link FrozenSDG}.
+ */
+public class FrozenContextInsensitiveForward extends FrozenContextInsensitiveSlicer {
+
+    public FrozenContextInsensitiveForward(FrozenSDG graph, Set<SDGEdge.Kind> omit) {
+        super(graph, omit);
+    }
+
+    public FrozenContextInsensitiveForward(FrozenSDG graph) {
+        super(graph);
+    }
+
+    protected boolean isBackward() {
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * The slicer of {@link ContextInsensitiveSlicer}, running on a {@link FrozenSDG}.
+ */
+public abstract class FrozenContextInsensitiveSlicer implements Slicer {
+
+	protected Set<SDGEdge.Kind> omittedEdges = SDGEdge.Kind.threadEdges();
+	protected FrozenSDG g;
+
+	protected FrozenContextInsensitiveSlicer(FrozenSDG graph, Set<SDGEdge.Kind> omit) {
+		this.g = graph;
+		this.omittedEdges = omit;
+	}
+
+	protected FrozenContextInsensitiveSlicer(FrozenSDG graph) {
+		this.g = graph;
+	}
+
+	/**
+	 * Freezes the given graph. Prefer {@link #setGraph(FrozenSDG)} if a snapshot already exists.
+	 */
+	public void setGraph(SDG graph) {
+		this.g = FrozenSDG.freeze(graph);
+	}
+
+	public void setGraph(FrozenSDG graph) {
+		this.g = graph;
+	}
+
+	public void setOmittedEdges(Set<SDGEdge.Kind> omit) {
+		this.omittedEdges = omit;
+	}
+
+	public Collection<SDGNode> slice(SDGNode criterion) {
+		return slice(Collections.singleton(criterion));
+	}
+
+	public Collection<SDGNode> slice(Collection<SDGNode> criteria) {
+		return g.nodesOf(slice(g.indicesOf(criteria)));
+	}
+
+	/**
+	 * Computes the slice for the given node indices of the frozen graph.
+	 * @return the node indices of the slice.
+	 */
+	public BitSet slice(final int[] criteria) {
+		final long follow = FrozenSDG.sdgKindMask() & ~FrozenSDG.kindMask(omittedEdges);
+		final BitSet slice = new BitSet(g.getNumberOfNodes());
+		// each node is pushed at most once
+		final int[] worklist = new int[g.getNumberOfNodes()];
+		int size = 0;
+
+		for (final int c : criteria) {
+			if (!slice.get(c)) {
+				slice.set(c);
+				worklist[size++] = c;
+			}
+		}
+
+		while (size > 0) {
+			final int w = worklist[--size];
+			final int start = (isBackward() ? g.inStart(w) : g.outStart(w));
+			final int end = (isBackward() ? g.inEnd(w) : g.outEnd(w));
+
+			for (int e = start; e < end; e++) {
+				if (!FrozenSDG.inMask(follow, isBackward() ? g.inKind(e) : g.outKind(e))) {
+					continue;
+				}
+
+				final int v = (isBackward() ? g.inSource(e) : g.outTarget(e));
+				if (!slice.get(v)) {
+					slice.set(v);
+					worklist[size++] = v;
+				}
+			}
+		}
+
+		return slice;
+	}
+
+	/**
+	 * @return true if incoming edges are traversed, false for outgoing edges.
+	 */
+	protected abstract boolean isBackward();
+}
@@ -0,0 +1,155 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * The standard 2-phase slicer of {@link SummarySlicer}, running on a {@link FrozenSDG}. Computes the same slices,
+ * but works on node indices and edge kind bitmasks instead of node and edge objects.
+ */
+public abstract class FrozenSummarySlicer implements Slicer {
+
+	private static final long DATA_KINDS =
+			FrozenSDG.kindMask(SDGEdge.Kind.DATA_DEP, SDGEdge.Kind.DATA_HEAP, SDGEdge.Kind.DATA_ALIAS);
+	private static final long INTERFERENCE_KINDS = FrozenSDG.kindMask(SDGEdge.Kind.INTERFERENCE);
+
+	protected Set<SDGEdge.Kind> omittedEdges = EnumSet.copyOf(SDGEdge.Kind.threadEdges());
+	protected FrozenSDG g;
+
+	public FrozenSummarySlicer(FrozenSDG graph, Set<SDGEdge.Kind> omit) {
+		this.g = graph;
+		this.omittedEdges = omit;
+	}
+
+	public FrozenSummarySlicer(FrozenSDG graph) {
+		this.g = graph;
+	}
+
+	public void addToOmit(SDGEdge.Kind kind) {
+		this.omittedEdges.add(kind);
+	}
+
+	public void setOmittedEdges(Set<SDGEdge.Kind> omit) {
+		this.omittedEdges = omit;
+	}
+
+	/**
+	 * Freezes the given graph. Prefer {@link #setGraph(FrozenSDG)} if a snapshot already exists.
+	 */
+	public void setGraph(SDG graph) {
+		this.g = FrozenSDG.freeze(graph);
+	}
+
+	public void setGraph(FrozenSDG graph) {
+		this.g = graph;
+	}
+
+	public Collection<SDGNode> slice(SDGNode criterion) {
+		return slice(Collections.singleton(criterion));
+	}
+
+	public Collection<SDGNode> slice(Collection<SDGNode> criteria) {
+		return g.nodesOf(slice(g.indicesOf(criteria)));
+	}
+
+	/**
+	 * Computes the slice for the given node indices of the frozen graph.
+	 * @return the node indices of the slice.
+	 */
+	public BitSet slice(final int[] criteria) {
+		final long follow = FrozenSDG.sdgKindMask() & ~FrozenSDG.kindMask(omittedEdges);
+		final long phase1Save = phase1SaveInOtherWorklist();
+		final long phase2Follow = follow & ~phase2Excluded();
+		final BitSet slice = new BitSet(g.getNumberOfNodes());
+
+		// each node enters a worklist at most once, so plain arrays suffice as fifo queues.
+		// The traversal order is the one of SummarySlicer, as the result depends on it.
+		int[] worklist = new int[g.getNumberOfNodes()];
+		int head = 0;
+		int tail = 0;
+		int[] next = new int[g.getNumberOfNodes()];
+		int nextTail = 0;
+
+		for (final int c : criteria) {
+			if (!slice.get(c)) {
+				slice.set(c);
+				worklist[tail++] = c;
+			}
+		}
+
+		boolean phase1 = true;
+		while (head < tail) {
+			while (head < tail) {
+				final int w = worklist[head++];
+				final int start = (isBackward() ? g.inStart(w) : g.outStart(w));
+				final int end = (isBackward() ? g.inEnd(w) : g.outEnd(w));
+
+				for (int e = start; e < end; e++) {
+					final int kind = (isBackward() ? g.inKind(e) : g.outKind(e));
+					if (!FrozenSDG.inMask(follow, kind)) {
+						continue;
+					}
+
+					final int v = (isBackward() ? g.inSource(e) : g.outTarget(e));
+					if (slice.get(v)) {
+						continue;
+					}
+
+					if (phase1 ? FrozenSDG.inMask(phase1Save, kind) : phase2SaveInOtherWorklist(kind, w, v)) {
+						slice.set(v);
+						next[nextTail++] = v;
+					} else if (phase1 || FrozenSDG.inMask(phase2Follow, kind)) {
+						slice.set(v);
+						worklist[tail++] = v;
+					}
+				}
+			}
+
+			// swap worklists and phases
+			final int[] tmp = worklist;
+			worklist = next;
+			head = 0;
+			tail = nextTail;
+			next = tmp;
+			nextTail = 0;
+			phase1 = false;
+		}
+
+		return slice;
+	}
+
+	private boolean phase2SaveInOtherWorklist(final int kind, final int from, final int to) {
+		return FrozenSDG.inMask(INTERFERENCE_KINDS, kind)
+				|| (FrozenSDG.inMask(DATA_KINDS, kind) && g.getProc(from) != g.getProc(to));
+	}
+
+	/**
+	 * @return true if incoming edges are traversed, false for outgoing edges.
+	 */
+	protected abstract boolean isBackward();
+
+	/**
+	 * @return kind bitmask of the edges that lead to the second phase.
+	 */
+	protected abstract long phase1SaveInOtherWorklist();
+
+	/**
+	 * @return kind bitmask of the edges that are not traversed in the second phase.
+	 */
+	protected abstract long phase2Excluded();
+}
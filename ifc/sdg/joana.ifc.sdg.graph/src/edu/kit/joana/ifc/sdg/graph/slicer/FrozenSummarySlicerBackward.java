@@ -0,0 +1,42 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+
+/**
+ * {@link SummarySlicerBackward} on a {@link FrozenSDG}.
+ */
+public class FrozenSummarySlicerBackward extends FrozenSummarySlicer {
+
+    private static final long PHASE1_SAVE = FrozenSDG.kindMask(SDGEdge.Kind.PARAMETER_OUT);
+    private static final long PHASE2_EXCLUDED = FrozenSDG.kindMask(SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.CALL);
+
+    public FrozenSummarySlicerBackward(FrozenSDG graph, Set<SDGEdge.Kind> omit) {
+        super(graph, omit);
+    }
+
+    public FrozenSummarySlicerBackward(FrozenSDG graph) {
+        super(graph);
+    }
+
+    protected boolean isBackward() {
+        return true;
+    }
+
+    protected long phase1SaveInOtherWorklist() {
+        return PHASE1_SAVE;
+    }
+
+    protected long phase2Excluded() {
+        return PHASE2_EXCLUDED;
+    }
+}
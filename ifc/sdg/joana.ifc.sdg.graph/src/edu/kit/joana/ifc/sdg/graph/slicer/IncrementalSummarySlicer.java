@@ -146,11 +146,11 @@ public abstract class IncrementalSummarySlicer implements Slicer {
 	private void addSummaries(SDGEdge currentPathEdge) {
 		// transitive dependence found
 		// connect corresponding actual-in and actual-out nodes
-		for (SDGEdge pi : graph.getIncomingEdgesOfKind(reachedNode(currentPathEdge), SDGEdge.Kind.PARAMETER_IN)) {
+		for (SDGEdge pi : graph.incomingEdgesOfKind(reachedNode(currentPathEdge), SDGEdge.Kind.PARAMETER_IN)) {
 			SDGNode ai = pi.getSource();
 
 			SDGNode root = root(ai);
-			for (SDGEdge po : graph.getOutgoingEdgesOfKindUnsafe(startedNode(currentPathEdge), SDGEdge.Kind.PARAMETER_OUT)) {
+			for (SDGEdge po : graph.outgoingEdgesOfKind(startedNode(currentPathEdge), SDGEdge.Kind.PARAMETER_OUT)) {
 				SDGNode ao = po.getTarget();
 
 				if (root == root(ao)) {
@@ -0,0 +1,284 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.StaticContextManager;
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * The context-sensitive slicer of {@link ContextSlicer} with static contexts, computing the same slices.
+ * <p>
+ * Contexts are not materialized as objects: a context is a node id together with the id of a call string
+ * interned by the {@link StaticContextManager}. The worklists are int ring buffers, the visited contexts
+ * are kept in a primitive long set and the slice in a bitset indexed by node id.
+ */
+public abstract class IntContextSlicer implements Slicer {
+
+	protected Set<SDGEdge.Kind> omittedEdges = SDGEdge.Kind.threadEdges();
+	protected SDG sdg;
+	protected StaticContextManager conMan;
+	/** maps node ids to nodes */
+	private SDGNode[] nodes;
+	/** caches the call sites of interprocedural edges, as they are looked up again in every slice */
+	private final THashMap<SDGEdge, SDGNodeTuple> callSites = new THashMap<SDGEdge, SDGNodeTuple>();
+
+	protected IntContextSlicer(SDG graph) {
+		if (graph != null) {
+			setGraph(graph);
+		}
+	}
+
+	protected IntContextSlicer(SDG graph, Set<SDGEdge.Kind> omit) {
+		omittedEdges = omit;
+
+		if (graph != null) {
+			setGraph(graph);
+		}
+	}
+
+	protected abstract Collection<SDGEdge> getEdges(SDGNode n);
+
+	protected abstract SDGNode getAdjacentNode(SDGEdge e);
+
+	protected abstract boolean isAscendingEdge(SDGEdge.Kind k);
+
+	protected abstract boolean isDescendingEdge(SDGEdge.Kind k);
+
+	public void setGraph(SDG graph) {
+		sdg = graph;
+		conMan = StaticContextManager.create(sdg);
+		callSites.clear();
+
+		int maxId = -1;
+		for (SDGNode n : sdg.vertexSet()) {
+			if (n.getId() < 0) {
+				throw new IllegalArgumentException("negative node id: " + n);
+			}
+			maxId = Math.max(maxId, n.getId());
+		}
+
+		nodes = new SDGNode[maxId + 1];
+		for (SDGNode n : sdg.vertexSet()) {
+			nodes[n.getId()] = n;
+		}
+	}
+
+	public Collection<SDGNode> slice(SDGNode criterion) {
+		return slice(Collections.singleton(criterion));
+	}
+
+	public Collection<SDGNode> slice(Collection<SDGNode> criteria) {
+		final BitSet slice = sliceIds(criteria);
+		final Set<SDGNode> result = new HashSet<SDGNode>(slice.cardinality() * 4 / 3 + 1);
+		for (int i = slice.nextSetBit(0); i >= 0; i = slice.nextSetBit(i + 1)) {
+			result.add(nodes[i]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Computes the slice for the given criteria.
+	 * @return the ids of the nodes in the slice.
+	 */
+	public BitSet sliceIds(Collection<SDGNode> criteria) {
+		final BitSet slice = new BitSet(nodes.length);
+		final TLongHashSet visited = new TLongHashSet();
+		final ContextQueue worklist1 = new ContextQueue();
+		final ContextQueue worklist2 = new ContextQueue();
+		final int[] ascended = new int[2];
+
+		// init worklist with all contexts of the criteria; a context occurring in several threads is added once
+		final TLongHashSet initial = new TLongHashSet();
+		for (SDGNode c : criteria) {
+			for (int thread : c.getThreadNumbers()) {
+				for (int cs : conMan.getCallStringIdsOf(c, thread)) {
+					if (initial.add(key(c.getId(), cs))) {
+						worklist1.add(c.getId(), cs, thread);
+					}
+				}
+			}
+		}
+
+		// phase 1
+		while (!worklist1.isEmpty()) {
+			final int nextId = worklist1.node();
+			final int nextCs = worklist1.callString();
+			final int nextThread = worklist1.thread();
+			worklist1.poll();
+			slice.set(nextId);
+
+			for (SDGEdge e : getEdges(nodes[nextId])) {
+				if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
+					continue;
+				}
+
+				final SDGNode n = getAdjacentNode(e);
+				final int nId = n.getId();
+
+				if ((e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.PARAMETER_IN)
+						&& n.getKind() == SDGNode.Kind.FORMAL_OUT) {
+					// the class initializer special case of ContextSlicer
+					for (int cs : conMan.getCallStringIdsOf(n, 0)) {
+						if (visited.add(key(nId, cs))) {
+							worklist1.add(nId, cs, 0);
+						}
+					}
+
+				} else if (isAscendingEdge(e.getKind())) {
+					// go to the calling procedure
+					if (n.isInThread(nextThread) && conMan.isInCallingProcedure(nextCs, n)) {
+						conMan.ascend(getCallSite(e), nextCs, ascended);
+
+						for (int cs : ascended) {
+							if (cs >= 0 && visited.add(key(nId, cs))) {
+								worklist1.add(nId, cs, nextThread);
+							}
+						}
+					}
+
+				} else if (isDescendingEdge(e.getKind())) {
+					// go to the called procedure
+					final int cs = conMan.descend(getCallSite(e), nextCs);
+
+					if (visited.add(key(nId, cs))) {
+						worklist2.add(nId, cs, nextThread);
+					}
+
+				} else {
+					// intra-procedural traversal
+					if (visited.add(key(nId, nextCs))) {
+						worklist1.add(nId, nextCs, nextThread);
+					}
+				}
+			}
+		}
+
+		// phase 2
+		while (!worklist2.isEmpty()) {
+			final int nextId = worklist2.node();
+			final int nextCs = worklist2.callString();
+			final int nextThread = worklist2.thread();
+			worklist2.poll();
+			slice.set(nextId);
+
+			for (SDGEdge e : getEdges(nodes[nextId])) {
+				if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
+					continue;
+				}
+
+				final int nId = getAdjacentNode(e).getId();
+
+				if (isAscendingEdge(e.getKind())) {
+					// skip
+
+				} else if (isDescendingEdge(e.getKind())) {
+					// go to the called procedure
+					final int cs = conMan.descend(getCallSite(e), nextCs);
+
+					if (visited.add(key(nId, cs))) {
+						worklist2.add(nId, cs, nextThread);
+					}
+
+				} else {
+					// intra-procedural traversal
+					if (visited.add(key(nId, nextCs))) {
+						worklist2.add(nId, nextCs, nextThread);
+					}
+				}
+			}
+		}
+
+		return slice;
+	}
+
+	private SDGNodeTuple getCallSite(SDGEdge e) {
+		SDGNodeTuple callSite = callSites.get(e);
+		if (callSite == null) {
+			callSite = sdg.getCallEntryFor(e);
+			callSites.put(e, callSite);
+		}
+
+		return callSite;
+	}
+
+	/**
+	 * Contexts are equal iff node and call string are equal, see {@link StaticContextManager.StaticContext#equals(Object)}.
+	 */
+	private static long key(int nodeId, int callString) {
+		return ((long) nodeId << 32) | (callString & 0xffffffffL);
+	}
+
+	/**
+	 * A growable fifo ring buffer of (node id, call string id, thread) triples.
+	 */
+	private static final class ContextQueue {
+		private int[] elements = new int[3 * 64];
+		private int head = 0;
+		private int size = 0;
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		int node() {
+			return elements[head];
+		}
+
+		int callString() {
+			return elements[head + 1];
+		}
+
+		int thread() {
+			return elements[head + 2];
+		}
+
+		void poll() {
+			head += 3;
+			if (head == elements.length) {
+				head = 0;
+			}
+			size -= 3;
+		}
+
+		void add(int node, int callString, int thread) {
+			if (size == elements.length) {
+				grow();
+			}
+
+			int tail = head + size;
+			if (tail >= elements.length) {
+				tail -= elements.length;
+			}
+			elements[tail] = node;
+			elements[tail + 1] = callString;
+			elements[tail + 2] = thread;
+			size += 3;
+		}
+
+		private void grow() {
+			final int[] larger = new int[elements.length * 2];
+			final int firstPart = Math.min(size, elements.length - head);
+			System.arraycopy(elements, head, larger, 0, firstPart);
+			System.arraycopy(elements, 0, larger, firstPart, size - firstPart);
+			elements = larger;
+			head = 0;
+		}
+	}
+}
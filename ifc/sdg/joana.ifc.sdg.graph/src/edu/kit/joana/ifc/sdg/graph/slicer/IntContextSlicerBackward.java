@@ -0,0 +1,45 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Collection;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * {@link IntContextSlicer} computing the slices of {@link ContextSlicerBackward#newStaticContextSlicerBackward(SDG)}.
+ */
+public class IntContextSlicerBackward extends IntContextSlicer {
+
+	public IntContextSlicerBackward(SDG graph) {
+		super(graph);
+	}
+
+	public IntContextSlicerBackward(SDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	protected boolean isAscendingEdge(SDGEdge.Kind k) {
+		return k == SDGEdge.Kind.CALL || k == SDGEdge.Kind.PARAMETER_IN;
+	}
+
+	protected boolean isDescendingEdge(SDGEdge.Kind k) {
+		return k == SDGEdge.Kind.PARAMETER_OUT;
+	}
+
+	protected SDGNode getAdjacentNode(SDGEdge e) {
+		return e.getSource();
+	}
+
+	protected Collection<SDGEdge> getEdges(SDGNode n) {
+		return sdg.incomingEdgesOf(n);
+	}
+}
@@ -120,7 +120,7 @@ public class CFGJoinSensitiveForward extends CFGForward {
             for (SDGEdge call : g.incomingEdgesOf(entry)) {
                 SDGNode callSite = call.getSource();
                 assert callSite.getKind() == SDGNode.Kind.CALL;
-                for (SDGEdge e : g.getOutgoingEdgesOfKindUnsafe(callSite, SDGEdge.Kind.CONTROL_FLOW)) {
+                for (SDGEdge e : g.outgoingEdgesOfKind(callSite, SDGEdge.Kind.CONTROL_FLOW)) {
                 	if ("CALL_RET".equals(e.getTarget().getLabel())) {
                 		deact.add(e);
                 	}
@@ -137,8 +137,8 @@ public class CFGJoinSensitiveForward extends CFGForward {
         	SDGNodeTuple next = worklist.poll();
 
             if (next.getFirstNode().getKind() == SDGNode.Kind.ENTRY) {
-                for (SDGEdge pi : g.getIncomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.CALL)) {
-                    for (SDGEdge po : g.getOutgoingEdgesOfKindUnsafe(next.getSecondNode(), SDGEdge.Kind.RETURN)) {
+                for (SDGEdge pi : g.incomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.CALL)) {
+                    for (SDGEdge po : g.outgoingEdgesOfKind(next.getSecondNode(), SDGEdge.Kind.RETURN)) {
                         SDGEdge unblock = null;
 
                         for (SDGEdge su : deact) {
@@ -248,7 +248,7 @@ public class CFGJoinSensitiveForward extends CFGForward {
             for (SDGEdge call : g.incomingEdgesOf(entry)) {
                 SDGNode callSite = call.getSource();
                 assert callSite.getKind() == SDGNode.Kind.CALL;
-                for (SDGEdge e : g.getOutgoingEdgesOfKindUnsafe(callSite, SDGEdge.Kind.CONTROL_FLOW)) {
+                for (SDGEdge e : g.outgoingEdgesOfKind(callSite, SDGEdge.Kind.CONTROL_FLOW)) {
                 	if ("CALL_RET".equals(e.getTarget().getLabel())) {
                 		assert e.getKind() == SDGEdge.Kind.CONTROL_FLOW;
                 		assert e.getLabel() == null;
@@ -267,8 +267,8 @@ public class CFGJoinSensitiveForward extends CFGForward {
         	SDGNodeTuple next = worklist.poll();
 
             if (next.getFirstNode().getKind() == SDGNode.Kind.ENTRY) {
-                for (SDGEdge pi : g.getIncomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.CALL)) {
-                    for (SDGEdge po : g.getOutgoingEdgesOfKindUnsafe(next.getSecondNode(), SDGEdge.Kind.RETURN)) {
+                for (SDGEdge pi : g.incomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.CALL)) {
+                    for (SDGEdge po : g.outgoingEdgesOfKind(next.getSecondNode(), SDGEdge.Kind.RETURN)) {
                         SDGEdge unblock = null;
 
                         final SDGEdge su =  SDGEdge.Kind.CONTROL_FLOW.newEdge(pi.getSource(), po.getTarget()); 
@@ -0,0 +1,40 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.conc;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+
+/**
+ * {@link I2PBackward} on a {@link FrozenSDG}.
+ */
+public class FrozenI2PBackward extends FrozenIterative2PhaseSlicer {
+
+    private static final long PHASE1_SAVE = FrozenSDG.kindMask(SDGEdge.Kind.PARAMETER_OUT);
+    private static final long PHASE2_FOLLOW = ~FrozenSDG.kindMask(SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.CALL);
+
+    public FrozenI2PBackward(FrozenSDG graph) {
+        super(graph);
+    }
+
+    protected boolean isBackward() {
+        return true;
+    }
+
+    protected long phase1Follow() {
+        return ~0L;
+    }
+
+    protected long phase1SaveInOtherWorklist() {
+        return PHASE1_SAVE;
+    }
+
+    protected long phase2Follow() {
+        return PHASE2_FOLLOW;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.conc;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+
+/**
+ * The slicer of {@link Iterative2PhaseSlicer}, running on a {@link FrozenSDG}. Computes the same slices, but keeps
+ * the phase of each node in a byte array and the worklist in an int array.
+ * <p>
+ * The phase of a node only grows from unvisited to phase 2 to phase 1 and a node is traversed again whenever its
+ * phase grows, so the slice does not depend on the order of the worklist.
+ */
+public abstract class FrozenIterative2PhaseSlicer implements Slicer {
+
+	private static final byte UNVISITED = 0;
+	private static final byte PHASE1 = 1;
+	private static final byte PHASE2 = 2;
+
+	private static final long SDG_KINDS = FrozenSDG.sdgKindMask();
+	private static final long THREAD_KINDS = FrozenSDG.kindMask(SDGEdge.Kind.threadEdges());
+
+	protected FrozenSDG g;
+
+	protected FrozenIterative2PhaseSlicer(FrozenSDG graph) {
+		this.g = graph;
+	}
+
+	/**
+	 * Freezes the given graph. Prefer {@link #setGraph(FrozenSDG)} if a snapshot already exists.
+	 */
+	public void setGraph(SDG graph) {
+		this.g = FrozenSDG.freeze(graph);
+	}
+
+	public void setGraph(FrozenSDG graph) {
+		this.g = graph;
+	}
+
+	public Collection<SDGNode> slice(SDGNode criterion) {
+		return slice(Collections.singleton(criterion));
+	}
+
+	public Collection<SDGNode> slice(Collection<SDGNode> criteria) {
+		return g.nodesOf(slice(g.indicesOf(criteria)));
+	}
+
+	/**
+	 * Computes the slice for the given node indices of the frozen graph.
+	 * @return the node indices of the slice.
+	 */
+	public BitSet slice(final int[] criteria) {
+		final long phase1Follow = SDG_KINDS & phase1Follow();
+		final long phase1Save = phase1SaveInOtherWorklist();
+		final long phase2Follow = SDG_KINDS & phase2Follow();
+		final byte[] phase = new byte[g.getNumberOfNodes()];
+		int[] worklist = new int[Math.max(16, criteria.length)];
+		int size = 0;
+
+		for (final int c : criteria) {
+			if (phase[c] == UNVISITED) {
+				phase[c] = PHASE1;
+				if (size == worklist.length) {
+					worklist = Arrays.copyOf(worklist, size * 2);
+				}
+				worklist[size++] = c;
+			}
+		}
+
+		while (size > 0) {
+			final int w = worklist[--size];
+			final byte current = phase[w];
+			final long follow = (current == PHASE1 ? phase1Follow : phase2Follow);
+			final int start = (isBackward() ? g.inStart(w) : g.outStart(w));
+			final int end = (isBackward() ? g.inEnd(w) : g.outEnd(w));
+
+			for (int e = start; e < end; e++) {
+				final int kind = (isBackward() ? g.inKind(e) : g.outKind(e));
+				if (!FrozenSDG.inMask(follow, kind)) {
+					continue;
+				}
+
+				final byte reached;
+				if (current == PHASE1) {
+					reached = (FrozenSDG.inMask(phase1Save, kind) ? PHASE2 : PHASE1);
+				} else {
+					reached = (FrozenSDG.inMask(THREAD_KINDS, kind) ? PHASE1 : PHASE2);
+				}
+
+				final int v = (isBackward() ? g.inSource(e) : g.outTarget(e));
+				if (phase[v] == UNVISITED || (phase[v] == PHASE2 && reached == PHASE1)) {
+					phase[v] = reached;
+					if (size == worklist.length) {
+						worklist = Arrays.copyOf(worklist, size * 2);
+					}
+					worklist[size++] = v;
+				}
+			}
+		}
+
+		final BitSet slice = new BitSet(phase.length);
+		for (int i = 0; i < phase.length; i++) {
+			if (phase[i] != UNVISITED) {
+				slice.set(i);
+			}
+		}
+
+		return slice;
+	}
+
+	/**
+	 * @return true if incoming edges are traversed, false for outgoing edges.
+	 */
+	protected abstract boolean isBackward();
+
+	/**
+	 * @return kind bitmask of the edges traversed in the first phase.
+	 */
+	protected abstract long phase1Follow();
+
+	/**
+	 * @return kind bitmask of the edges that lead from the first to the second phase.
+	 */
+	protected abstract long phase1SaveInOtherWorklist();
+
+	/**
+	 * @return kind bitmask of the edges traversed in the second phase.
+	 */
+	protected abstract long phase2Follow();
+}
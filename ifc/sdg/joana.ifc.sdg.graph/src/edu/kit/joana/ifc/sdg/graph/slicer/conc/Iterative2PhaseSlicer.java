@@ -15,11 +15,16 @@
 package edu.kit.joana.ifc.sdg.graph.slicer.conc;
 
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
@@ -128,6 +133,128 @@ public abstract class Iterative2PhaseSlicer implements Slicer {
         return slice.keySet();
     }
 
+    /**
+     * Computes the slices of all given criteria in a single pass. Instead of a phase per node, each node carries
+     * two bitsets of criterion indices, one for each phase, which are propagated until a fixed point is reached.
+     * The result is the same as slicing each criterion separately, as phase 1 dominates phase 2:
+     * a node that is reached in phase 1 is traversed at least as far as in phase 2.
+     *
+     * @param criteria  The slicing criteria.
+     * @return          Maps each node of the union of all slices to the indices of the criteria whose slice
+     *                  contains the node.
+     */
+    public Map<SDGNode, BitSet> sliceBatch(List<? extends SDGNode> criteria) {
+        final Map<SDGNode, BitSet> marked1 = new HashMap<SDGNode, BitSet>();
+        final Map<SDGNode, BitSet> marked2 = new HashMap<SDGNode, BitSet>();
+        // criteria that have reached a node but have not yet been propagated from there
+        final Map<SDGNode, BitSet> delta1 = new HashMap<SDGNode, BitSet>();
+        final Map<SDGNode, BitSet> delta2 = new HashMap<SDGNode, BitSet>();
+        final LinkedHashSet<SDGNode> worklist = new LinkedHashSet<SDGNode>();
+        final Phase phase1 = phase1();
+        final Phase phase2 = phase2();
+        final BitSet scratch = new BitSet(criteria.size());
+
+        for (int i = 0; i < criteria.size(); i++) {
+            final SDGNode c = criteria.get(i);
+            final BitSet single = new BitSet();
+            single.set(i);
+            mark(c, single, marked1, delta1, null, scratch);
+            worklist.add(c);
+        }
+
+        while (!worklist.isEmpty()) {
+            final Iterator<SDGNode> it = worklist.iterator();
+            final SDGNode next = it.next();
+            it.remove();
+
+            final BitSet current1 = delta1.remove(next);
+            final BitSet current2 = delta2.remove(next);
+            if (current2 != null && marked1.containsKey(next)) {
+                // already propagated in phase 1
+                current2.andNot(marked1.get(next));
+            }
+            final boolean has1 = current1 != null && !current1.isEmpty();
+            final boolean has2 = current2 != null && !current2.isEmpty();
+
+            for (SDGEdge e : edgesToTraverse(next)) {
+                if (!e.getKind().isSDGEdge()) continue;
+
+                final SDGNode adjacent = reachedNode(e);
+                boolean changed = false;
+
+                if (has1 && phase1.follow(e)) {
+                    if (phase1.saveInOtherWorklist(e)) {
+                        changed |= mark(adjacent, current1, marked2, delta2, marked1, scratch);
+                    } else {
+                        changed |= mark(adjacent, current1, marked1, delta1, null, scratch);
+                    }
+                }
+
+                if (has2 && phase2.follow(e)) {
+                    if (e.getKind().isThreadEdge()) {
+                        changed |= mark(adjacent, current2, marked1, delta1, null, scratch);
+                    } else {
+                        changed |= mark(adjacent, current2, marked2, delta2, marked1, scratch);
+                    }
+                }
+
+                if (changed) {
+                    worklist.add(adjacent);
+                }
+            }
+        }
+
+        final Map<SDGNode, BitSet> result = marked1;
+        for (Map.Entry<SDGNode, BitSet> e : marked2.entrySet()) {
+            final BitSet bs = result.get(e.getKey());
+            if (bs == null) {
+                result.put(e.getKey(), e.getValue());
+            } else {
+                bs.or(e.getValue());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the criteria to the marks of the node, unless they are already contained in marked or in dominating.
+     * The scratch set is overwritten; a new set is only allocated when the node gets its first mark or delta.
+     * @return true iff new criteria have been added.
+     */
+    private static boolean mark(SDGNode node, BitSet criteria, Map<SDGNode, BitSet> marked,
+            Map<SDGNode, BitSet> delta, Map<SDGNode, BitSet> dominating, BitSet scratch) {
+        scratch.clear();
+        scratch.or(criteria);
+        final BitSet old = marked.get(node);
+        if (old != null) {
+            scratch.andNot(old);
+        }
+        if (dominating != null) {
+            final BitSet dom = dominating.get(node);
+            if (dom != null) {
+                scratch.andNot(dom);
+            }
+        }
+        if (scratch.isEmpty()) {
+            return false;
+        }
+
+        if (old == null) {
+            marked.put(node, (BitSet) scratch.clone());
+        } else {
+            old.or(scratch);
+        }
+        final BitSet d = delta.get(node);
+        if (d == null) {
+            delta.put(node, (BitSet) scratch.clone());
+        } else {
+            d.or(scratch);
+        }
+
+        return true;
+    }
+
     /**
      * Computes a forward slice restricted to a given set of nodes.
      *
@@ -595,7 +595,7 @@ public class Slicer implements edu.kit.joana.ifc.sdg.graph.slicer.Slicer {
         loop:
             while (!worklist.isEmpty()) {
                 SDGNode next = worklist.poll();
-                for (SDGEdge cf : foldedIcfg.getIncomingEdgesOfKind(next, SDGEdge.Kind.CONTROL_FLOW)) {
+                for (SDGEdge cf : foldedIcfg.incomingEdgesOfKind(next, SDGEdge.Kind.CONTROL_FLOW)) {
                     if (cf.getSource().getKind() == SDGNode.Kind.FOLDED
                             && cf.getSource().getLabel() == GraphFolder.FOLDED_CALL) {
 
@@ -289,7 +289,7 @@ public class Krinke implements edu.kit.joana.ifc.sdg.graph.slicer.Slicer {
         loop:
             while (!worklist.isEmpty()) {
                 SDGNode next = worklist.poll();
-                for (SDGEdge cf : foldedIcfg.getIncomingEdgesOfKind(next, SDGEdge.Kind.CONTROL_FLOW)) {
+                for (SDGEdge cf : foldedIcfg.incomingEdgesOfKind(next, SDGEdge.Kind.CONTROL_FLOW)) {
                     if (cf.getSource().getKind() == SDGNode.Kind.FOLDED
                             && cf.getSource().getLabel() == GraphFolder.FOLDED_CALL) {
 
@@ -182,9 +182,12 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 		private final LinkedList<SDGNode> calls;
 		private final THashMap<SDGNodeTuple, CallString> asc;  // call edge -> call string
 		private final THashMap<SDGNodeTuple, CallString> desc; // call edge -> call string
+		/** unique, dense id of this call string, see {@link StaticContextManager#getNumberOfCallStrings()} */
+		private final int id;
 
-		CallString (LinkedList<SDGNode> stack) {
+		CallString (LinkedList<SDGNode> stack, int id) {
 			calls = stack;
+			this.id = id;
 			asc = new THashMap<SDGNodeTuple, CallString>();
 			desc = new THashMap<SDGNodeTuple, CallString>();
 		}
@@ -252,7 +255,7 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 
 				// update the unique call strings map
 				if (s == null) {
-					s = new CallString(c.getCallStack());
+					s = new CallString(c.getCallStack(), unique.size());
 					unique.put(c.getCallStack(), s);
 				}
 
@@ -316,7 +319,11 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 	public static StaticContextManager create(SDG g, CallGraph c, FoldedCallGraph fc) {
 		ContextCreator cc = new ContextCreator(g, c, fc);
 		cc.execute();
-		return new StaticContextManager(fc, cc.map);
+		final CallString[] callStrings = new CallString[cc.unique.size()];
+		for (CallString s : cc.unique.values()) {
+			callStrings[s.id] = s;
+		}
+		return new StaticContextManager(fc, cc.map, callStrings);
 	}
 
 	public static StaticContextManager create(SDG sdg) {
@@ -331,10 +338,14 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 
 	private final FoldedCallGraph foldedCall;
 	private final TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>> procsThreadsCallStrings;
+	/** all call strings, indexed by their id */
+	private final CallString[] callStrings;
 
-	private StaticContextManager(FoldedCallGraph fc, TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>> map) {
+	private StaticContextManager(FoldedCallGraph fc, TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>> map,
+			CallString[] callStrings) {
 		foldedCall = fc;
 		procsThreadsCallStrings = map;
+		this.callStrings = callStrings;
 	}
 
 
@@ -412,6 +423,103 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 	}
 
 
+	/* ****************************************************************** */
+	/* interned call strings: a context is a node plus a call string id. */
+	/* These methods do not allocate context objects.                    */
+
+	/**
+	 * @return the number of distinct call strings. Call string ids range from 0 to this number - 1.
+	 */
+	public int getNumberOfCallStrings() {
+		return callStrings.length;
+	}
+
+	/**
+	 * @return the id of the call string of the given context.
+	 */
+	public int getCallStringId(StaticContext con) {
+		return con.stack.id;
+	}
+
+	/**
+	 * Creates a context object for a node and an interned call string.
+	 */
+	public StaticContext getContext(SDGNode node, int callString, int thread) {
+		return new StaticContext(node, callStrings[callString], thread);
+	}
+
+	/** Retrieves the ids of the call strings of the given node inside the given thread.
+	 * Corresponds to {@link #getContextsOf(SDGNode, int)}.
+	 */
+	public int[] getCallStringIdsOf(SDGNode node, int thread) {
+		final LinkedList<CallString> l = procsThreadsCallStrings.get(node.getProc()).get(thread);
+		final int[] ids = new int[l.size()];
+		int i = 0;
+		for (CallString s : l) {
+			ids[i++] = s.id;
+		}
+
+		return ids;
+	}
+
+	/**
+	 * @see StaticContext#isInCallingProcedure(SDGNode)
+	 */
+	public boolean isInCallingProcedure(int callString, SDGNode n) {
+		final CallString stack = callStrings[callString];
+		if (stack.isEmpty()) {
+			return false;
+		} else if (stack.peek().getProc() < 0) {
+			// fold node - could be true
+			return true;
+		} else {
+			return stack.peek().getProc() == n.getProc();
+		}
+	}
+
+	/** Id based version of {@link #descend(SDGNode, SDGNodeTuple, StaticContext)}.
+	 *
+	 * @return the id of the call string in the called procedure.
+	 */
+	public int descend(SDGNodeTuple callSite, int callString) {
+		final CallString stack = callStrings[callString];
+		if (foldedCall.isFolded(callSite.getFirstNode())
+				&& stack.peek() == this.foldedCall.map(callSite.getFirstNode())) {
+			return callString;
+		}
+
+		final CallString called = stack.desc.get(callSite);
+		if (called == null) {
+			throw new RuntimeException("no call string for call site " + callSite + " below " + stack);
+		}
+
+		return called.id;
+	}
+
+	/** Id based version of {@link #ascend(SDGNode, SDGNodeTuple, StaticContext)}.
+	 * The first element of the result is the call string id for a recursive call site, the second one
+	 * the id of the call string of the calling procedure. Missing elements are set to -1.
+	 *
+	 * @param result  array of length 2, filled with the resulting call string ids.
+	 */
+	public void ascend(SDGNodeTuple callSite, int callString, int[] result) {
+		result[0] = -1;
+		result[1] = -1;
+		final CallString stack = callStrings[callString];
+
+		if (stack.isEmpty() || foldedCall.map(callSite.getFirstNode()) == stack.peek()) {
+			if (foldedCall.isFolded(callSite.getFirstNode())) {
+				result[0] = callString;
+			}
+
+			final CallString caller = stack.asc.get(callSite);
+			if (caller != null) {
+				result[1] = caller.id;
+			}
+		}
+	}
+
+
 	/* DEBUG */
 	public static void main(String[] args) throws IOException {
 		for (String file : PDGs.pdgs2) {
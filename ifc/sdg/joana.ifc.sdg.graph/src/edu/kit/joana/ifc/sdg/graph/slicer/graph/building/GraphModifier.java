@@ -227,7 +227,7 @@ public final class GraphModifier {
 
                 // deflect edges at dummy return sites
                 // change the source of outgoing CF edges of call sites to the corresponding return site
-                for (SDGEdge cf : icfg.getOutgoingEdgesOfKindUnsafe(n, SDGEdge.Kind.CONTROL_FLOW)) {
+                for (SDGEdge cf : icfg.outgoingEdgesOfKind(n, SDGEdge.Kind.CONTROL_FLOW)) {
 
                     add.add( SDGEdge.Kind.CONTROL_FLOW.newEdge(dummy, cf.getTarget()));
                     remove.add(cf);
@@ -328,7 +328,7 @@ public final class GraphModifier {
             SDGNode next = worklist.poll();
 
             // traverse the parameter node trees down to the leaves
-            for (SDGEdge edge : sdg.getOutgoingEdgesOfKindUnsafe(next, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+            for (SDGEdge edge : sdg.outgoingEdgesOfKind(next, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
                 SDGNode target = edge.getTarget();
 
                 // save the reached node in the suiting list
@@ -524,7 +524,7 @@ public final class GraphModifier {
         while (!worklist.isEmpty()) {
             SDGNode next = worklist.poll();
 
-            for (SDGEdge edge : sdg.getOutgoingEdgesOfKindUnsafe(next, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+            for (SDGEdge edge : sdg.outgoingEdgesOfKind(next, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
                 SDGNode target = edge.getTarget();
 
                 list.addLast(target);
@@ -719,8 +719,8 @@ public final class GraphModifier {
         	SDGNodeTuple next = worklist.poll();
 
             if (next.getFirstNode().getKind() == SDGNode.Kind.FORMAL_IN) {
-                for (SDGEdge pi : sdg.getIncomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.PARAMETER_IN)) {
-                    for (SDGEdge po : sdg.getOutgoingEdgesOfKindUnsafe(next.getSecondNode(), SDGEdge.Kind.PARAMETER_OUT)) {
+                for (SDGEdge pi : sdg.incomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.PARAMETER_IN)) {
+                    for (SDGEdge po : sdg.outgoingEdgesOfKind(next.getSecondNode(), SDGEdge.Kind.PARAMETER_OUT)) {
                         SDGEdge unblock = null;
 
                         for (SDGEdge su : deact) {
@@ -778,7 +778,7 @@ public final class GraphModifier {
                     }
                 }
 
-                for (SDGEdge su : sdg.getIncomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.SUMMARY)) {
+                for (SDGEdge su : sdg.incomingEdgesOfKind(next.getFirstNode(), SDGEdge.Kind.SUMMARY)) {
                 	SDGNodeTuple np = new SDGNodeTuple(su.getSource(), next.getSecondNode());
 
                     if (!barrier.contains(su.getSource())
@@ -159,7 +159,7 @@ public final class ICFGBuilder {
         		if (exit == null) {
         			System.out.println(n+" has no exit");
 
-        		} else if (!sdg.getOutgoingEdgesOfKindUnsafe(exit, SDGEdge.Kind.CONTROL_FLOW).isEmpty()) {
+        		} else if (sdg.hasOutgoingEdgesOfKind(exit, SDGEdge.Kind.CONTROL_FLOW)) {
         			System.out.println(exit+" is not an exit");
         			fs.addAll(sdg.getOutgoingEdgesOfKindUnsafe(exit, SDGEdge.Kind.CONTROL_FLOW));
         		}
@@ -240,7 +240,7 @@ public final class ICFGBuilder {
     				} catch (InterruptedException e1) { }
     				System.exit(1);
 
-        		} else if (!sdg.getOutgoingEdgesOfKindUnsafe(exit, SDGEdge.Kind.CONTROL_FLOW).isEmpty()) {
+        		} else if (sdg.hasOutgoingEdgesOfKind(exit, SDGEdge.Kind.CONTROL_FLOW)) {
             		System.out.println("\nControl Flow Graph is damaged!");
             		System.out.println("Terminating the Process...");
             		try {
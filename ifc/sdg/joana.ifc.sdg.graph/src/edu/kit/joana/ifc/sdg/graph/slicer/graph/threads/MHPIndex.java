@@ -0,0 +1,293 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import com.ibm.wala.util.intset.IntIterator;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * Compact form of a {@link PreciseMHPAnalysis} for answering many queries. Each node of the control flow graph
+ * is mapped to the ids of its thread regions via plain int arrays, and the regions that may happen in parallel
+ * to a region are stored as a row of {@code long} words, so a query needs neither map lookups nor iterators.
+ * The rows already include the rule that regions of the same non-dynamic thread are never parallel.<br>
+ * Nodes that are not part of the control flow graph the regions were computed on are not indexed, see
+ * {@link #isIndexed(SDGNode)}.
+ */
+public final class MHPIndex {
+
+	/** indices whose region rows would need more words are not built, see {@link #fits(int)} */
+	public static final long MAX_ROW_WORDS = 1L << 24;
+
+	private final int numberOfRegions;
+	private final int words;
+	/** row r occupies words [r * words, (r + 1) * words) */
+	private final long[] rows;
+
+	/** node id -> node, null for nodes that are not indexed */
+	private final SDGNode[] nodes;
+	/** the regions of node id i are regionIds[nodeStart[i] .. nodeStart[i + 1]), in the order of its thread numbers */
+	private final int[] nodeStart;
+	private final int[] regionIds;
+
+	/** the node ids of region r are regionNodes[regionStart[r] .. regionStart[r + 1]) */
+	private final int[] regionStart;
+	private final int[] regionNodes;
+
+	private MHPIndex(int numberOfRegions, long[] rows, SDGNode[] nodes, int[] nodeStart, int[] regionIds,
+			int[] regionStart, int[] regionNodes) {
+		this.numberOfRegions = numberOfRegions;
+		this.words = words(numberOfRegions);
+		this.rows = rows;
+		this.nodes = nodes;
+		this.nodeStart = nodeStart;
+		this.regionIds = regionIds;
+		this.regionStart = regionStart;
+		this.regionNodes = regionNodes;
+	}
+
+	private static int words(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	/**
+	 * @return whether the region rows for the given number of regions stay below {@link #MAX_ROW_WORDS}
+	 */
+	public static boolean fits(int numberOfRegions) {
+		return (long) numberOfRegions * words(numberOfRegions) <= MAX_ROW_WORDS;
+	}
+
+	/**
+	 * @param regionMap parallelism of thread regions as computed by the mhp analysis
+	 * @param info thread information of the analyzed program
+	 * @param regions thread regions of the analyzed program
+	 * @param cfgNodes the nodes to index
+	 */
+	static MHPIndex create(IBitMatrix<ThreadRegion> regionMap, ThreadsInformation info, ThreadRegions regions,
+			Collection<SDGNode> cfgNodes) {
+		final int numberOfRegions = regions.size();
+		final int words = words(numberOfRegions);
+		final long[] rows = new long[numberOfRegions * words];
+		for (final ThreadRegion r : regions) {
+			final int offset = r.getID() * words;
+			final boolean sameThreadIsSequential = !info.isDynamic(r.getThread());
+			for (final IntIterator it = regionMap.onCol(r.getID()); it.hasNext(); ) {
+				final int s = it.next();
+				if (sameThreadIsSequential && regions.getThreadRegion(s).getThread() == r.getThread()) {
+					continue;
+				}
+				rows[offset + (s >>> 6)] |= 1L << s;
+			}
+		}
+
+		int maxId = -1;
+		int numberOfEntries = 0;
+		for (final SDGNode n : cfgNodes) {
+			maxId = Math.max(maxId, n.getId());
+			numberOfEntries += n.getThreadNumbers().length;
+		}
+		final SDGNode[] nodes = new SDGNode[maxId + 1];
+		final int[][] regionsOfNode = new int[maxId + 1][];
+		final int[] regionSize = new int[numberOfRegions];
+		nodes:
+		for (final SDGNode n : cfgNodes) {
+			final int[] threads = n.getThreadNumbers();
+			final int[] ids = new int[threads.length];
+			for (int i = 0; i < threads.length; i++) {
+				final ThreadRegion r = regions.getThreadRegion(n, threads[i]);
+				if (r == null) {
+					numberOfEntries -= threads.length;
+					continue nodes;
+				}
+				ids[i] = r.getID();
+			}
+			nodes[n.getId()] = n;
+			regionsOfNode[n.getId()] = ids;
+			for (final int id : ids) {
+				regionSize[id]++;
+			}
+		}
+
+		final int[] nodeStart = new int[maxId + 2];
+		final int[] regionIds = new int[numberOfEntries];
+		int pos = 0;
+		for (int id = 0; id <= maxId; id++) {
+			nodeStart[id] = pos;
+			if (regionsOfNode[id] != null) {
+				System.arraycopy(regionsOfNode[id], 0, regionIds, pos, regionsOfNode[id].length);
+				pos += regionsOfNode[id].length;
+			}
+		}
+		nodeStart[maxId + 1] = pos;
+
+		final int[] regionStart = new int[numberOfRegions + 1];
+		for (int r = 0; r < numberOfRegions; r++) {
+			regionStart[r + 1] = regionStart[r] + regionSize[r];
+		}
+		final int[] regionNodes = new int[pos];
+		final int[] fill = new int[numberOfRegions];
+		for (int id = 0; id <= maxId; id++) {
+			for (int i = nodeStart[id]; i < nodeStart[id + 1]; i++) {
+				final int r = regionIds[i];
+				regionNodes[regionStart[r] + fill[r]++] = id;
+			}
+		}
+
+		return new MHPIndex(numberOfRegions, rows, nodes, nodeStart, regionIds, regionStart, regionNodes);
+	}
+
+	public int getNumberOfRegions() {
+		return numberOfRegions;
+	}
+
+	/**
+	 * @return whether the thread regions of the given node are known to this index
+	 */
+	public boolean isIndexed(SDGNode n) {
+		final int id = n.getId();
+		return id >= 0 && id < nodes.length && nodes[id] == n;
+	}
+
+	/**
+	 * @return the id of the thread region of the given node in the given thread, or -1 if the node is not indexed
+	 *         or not part of that thread
+	 */
+	public int getRegion(SDGNode n, int thread) {
+		if (!isIndexed(n)) {
+			return -1;
+		}
+		final int[] threads = n.getThreadNumbers();
+		final int start = nodeStart[n.getId()];
+		for (int i = 0; i < threads.length; i++) {
+			if (threads[i] == thread) {
+				return regionIds[start + i];
+			}
+		}
+		return -1;
+	}
+
+	public boolean isParallel(int r, int s) {
+		return (rows[r * words + (s >>> 6)] & (1L << s)) != 0;
+	}
+
+	/**
+	 * Same as {@link PreciseMHPAnalysis#isParallel(SDGNode, SDGNode)}. Both nodes have to be indexed.
+	 */
+	public boolean isParallel(SDGNode m, SDGNode n) {
+		final int mStart = nodeStart[m.getId()], mEnd = nodeStart[m.getId() + 1];
+		final int nStart = nodeStart[n.getId()], nEnd = nodeStart[n.getId() + 1];
+		for (int i = mStart; i < mEnd; i++) {
+			final int offset = regionIds[i] * words;
+			for (int j = nStart; j < nEnd; j++) {
+				final int s = regionIds[j];
+				if ((rows[offset + (s >>> 6)] & (1L << s)) != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether any region of the given (indexed) node may happen in parallel to the region {@code s}
+	 */
+	public boolean isParallel(SDGNode m, int s) {
+		final int word = s >>> 6;
+		final long bit = 1L << s;
+		for (int i = nodeStart[m.getId()]; i < nodeStart[m.getId() + 1]; i++) {
+			if ((rows[regionIds[i] * words + word] & bit) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Calls the consumer for each region that may happen in parallel to region {@code r}, in ascending order.
+	 */
+	public void forEachParallelRegion(int r, IntConsumer consumer) {
+		final int offset = r * words;
+		for (int w = 0; w < words; w++) {
+			long word = rows[offset + w];
+			while (word != 0) {
+				consumer.accept((w << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+	}
+
+	/**
+	 * @return whether some region that may happen in parallel to region {@code r} is contained in {@code regions}
+	 */
+	public boolean anyParallelRegion(int r, BitSet regions) {
+		final int offset = r * words;
+		for (int s = regions.nextSetBit(0); s >= 0; s = regions.nextSetBit(s + 1)) {
+			if ((rows[offset + (s >>> 6)] & (1L << s)) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the union of the regions that may happen in parallel to any region of the given (indexed) node
+	 */
+	public BitSet parallelRegions(SDGNode n) {
+		final long[] union = new long[words];
+		for (int i = nodeStart[n.getId()]; i < nodeStart[n.getId() + 1]; i++) {
+			final int offset = regionIds[i] * words;
+			for (int w = 0; w < words; w++) {
+				union[w] |= rows[offset + w];
+			}
+		}
+		return BitSet.valueOf(union);
+	}
+
+	/**
+	 * @return all indexed nodes that may happen in parallel to the given (indexed) node
+	 */
+	public List<SDGNode> parallelNodes(SDGNode n) {
+		final BitSet regions = parallelRegions(n);
+		final BitSet ids = new BitSet(nodes.length);
+		for (int r = regions.nextSetBit(0); r >= 0; r = regions.nextSetBit(r + 1)) {
+			for (int i = regionStart[r]; i < regionStart[r + 1]; i++) {
+				ids.set(regionNodes[i]);
+			}
+		}
+		final List<SDGNode> result = new ArrayList<>(ids.cardinality());
+		for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+			result.add(nodes[id]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return those of the given candidates that may happen in parallel to the given (indexed) node. Candidates
+	 *         have to be indexed as well.
+	 */
+	public <T extends SDGNode> List<T> filterParallel(SDGNode n, Collection<T> candidates) {
+		final long[] union = parallelRegions(n).toLongArray();
+		final List<T> result = new ArrayList<>();
+		for (final T m : candidates) {
+			for (int i = nodeStart[m.getId()]; i < nodeStart[m.getId() + 1]; i++) {
+				final int w = regionIds[i] >>> 6;
+				if (w < union.length && (union[w] & (1L << regionIds[i])) != 0) {
+					result.add(m);
+					break;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.RandomAccess;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -62,6 +63,8 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
     private final IBitMatrix<ThreadRegion> threadRegionMap;
     private final ThreadRegions regions;
     private Map<Integer, Collection<ThreadRegion>> mayExist;
+    private volatile MHPIndex index;
+    private volatile boolean indexUnavailable = false;
 
     private PreciseMHPAnalysis(ThreadsInformation info, IBitMatrix<ThreadRegion> map, ThreadRegions regions) {
         this.info = info;
@@ -89,6 +92,43 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
 		return regions.getThreadRegion(id);
 	}
 
+    /**
+     * Returns the index used to answer the node and region queries of this analysis, computing it on first use.
+     * It gives access to bulk queries like {@link MHPIndex#parallelNodes(SDGNode)} and
+     * {@link MHPIndex#filterParallel(SDGNode, Collection)}.
+     *
+     * @return the index, or {@code null} if there are too many thread regions to index them
+     */
+    public MHPIndex getIndex() {
+        MHPIndex result = index;
+        if (result == null && !indexUnavailable) {
+            synchronized (this) {
+                result = index;
+                if (result == null && !indexUnavailable) {
+                    if (MHPIndex.fits(regions.size())) {
+                        result = MHPIndex.create(threadRegionMap, info, regions, regions.getICFG().vertexSet());
+                        assert verifyIndex(result);
+                        index = result;
+                    } else {
+                        indexUnavailable = true;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean verifyIndex(MHPIndex index) {
+        for (ThreadRegion r : regions) {
+            for (ThreadRegion s : regions) {
+                if (index.isParallel(r.getID(), s.getID()) != isParallelUnindexed(r, s)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /** Konservative Parallelitaetsabfrage - m und n sind sequentiell, wenn alle moeglichen Instanzen zueinander sequentiell sind.
      *
      * Geeignet z.B. fuer statisches Graph-Preprocessing
@@ -98,6 +138,10 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
      * @return
      */
     public boolean isParallel(SDGNode m, SDGNode n) {
+        final MHPIndex index = getIndex();
+        if (index != null && index.isIndexed(m) && index.isIndexed(n)) {
+            return index.isParallel(m, n);
+        }
         for (int mt : m.getThreadNumbers()) {
             for (int nt : n.getThreadNumbers()) {
                 if (isParallel(m, mt, n, nt)) {
@@ -118,6 +162,14 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
         if (!isDynamic(mThread) && mThread == nThread) {
            return false;
         } else {
+            final MHPIndex index = getIndex();
+            if (index != null) {
+                final int mRegion = index.getRegion(m, mThread);
+                final int nRegion = index.getRegion(n, nThread);
+                if (mRegion >= 0 && nRegion >= 0) {
+                    return index.isParallel(mRegion, nRegion);
+                }
+            }
             ThreadRegion mRegion = regions.getThreadRegion(m, mThread);
             ThreadRegion nRegion = regions.getThreadRegion(n, nThread);
             return threadRegionMap.get(mRegion.getID(), nRegion.getID());
@@ -125,16 +177,17 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
     }
 
     public boolean isParallel(VirtualNode m, VirtualNode n) {
-        if (!isDynamic(m.getNumber()) && m.getNumber() == n.getNumber()) {
-            return false;
-        } else {
-            ThreadRegion mRegion = regions.getThreadRegion(m);
-            ThreadRegion nRegion = regions.getThreadRegion(n);
-            return threadRegionMap.get(mRegion.getID(), nRegion.getID());
-        }
+        return isParallel(m.getNode(), m.getNumber(), n.getNode(), n.getNumber());
     }
 
 	public boolean isParallel(SDGNode m, int mThread, int region) {
+        final MHPIndex index = getIndex();
+        if (index != null) {
+            final int mRegion = index.getRegion(m, mThread);
+            if (mRegion >= 0) {
+                return index.isParallel(mRegion, region);
+            }
+        }
         ThreadRegion mRegion = regions.getThreadRegion(m, mThread);
         if (mThread == regions.getThreadRegion(region).getThread() && !isDynamic(mThread)) {
             return false;
@@ -144,6 +197,14 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
 	}
 
     public boolean isParallel(ThreadRegion r, ThreadRegion s) {
+        final MHPIndex index = getIndex();
+        if (index != null) {
+            return index.isParallel(r.getID(), s.getID());
+        }
+        return isParallelUnindexed(r, s);
+    }
+
+    private boolean isParallelUnindexed(ThreadRegion r, ThreadRegion s) {
         if (!isDynamic(r.getThread()) && s.getThread() == r.getThread()) {
             return false;
         } else {
@@ -208,6 +269,19 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
         }; 
     }
     
+    /**
+     * Calls the consumer for all ThreadRegion s such that {@link PreciseMHPAnalysis#isParallel(r, s)},
+     * without allocating an iterator if the {@link #getIndex() index} is available.
+     */
+    public void forEachParallel(ThreadRegion r, Consumer<ThreadRegion> consumer) {
+        final MHPIndex index = getIndex();
+        if (index == null) {
+            parallelTo(r).forEach(consumer);
+        } else {
+            index.forEachParallelRegion(r.getID(), s -> consumer.accept(regions.getThreadRegion(s)));
+        }
+    }
+
     public String toString() {
 //        return "Map size: " + map.getDimension();
         return threadRegionMap.toString();
@@ -279,11 +353,11 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
 		for (SDGNode node : icfg.vertexSet()) {
 			if (node.getKind() == SDGNode.Kind.CALL) {
 				Set<SDGNode> intraSucc = new HashSet<SDGNode>();
-				for (SDGEdge intraEdge : icfg.getOutgoingEdgesOfKindUnsafe(node, SDGEdge.Kind.CONTROL_FLOW)) {
+				for (SDGEdge intraEdge : icfg.outgoingEdgesOfKind(node, SDGEdge.Kind.CONTROL_FLOW)) {
 					intraSucc.add(intraEdge.getTarget());
 				}
 
-				for (SDGEdge callEdge : icfg.getOutgoingEdgesOfKindUnsafe(node, SDGEdge.Kind.CALL)) {
+				for (SDGEdge callEdge : icfg.outgoingEdgesOfKind(node, SDGEdge.Kind.CALL)) {
 					SDGNode entryOfCalled = callEdge.getTarget();
 					assert entryOfCalled.kind == SDGNode.Kind.ENTRY;
 					SDGNode exitOfCalled = findExit(icfg, entryOfCalled);
@@ -366,7 +440,7 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
 		};
 
     	for (ThreadRegion r : mhp.getThreadRegions()) {
-    		for (ThreadRegion s : mhp.parallelTo(r)) {
+    		mhp.forEachParallel(r, s -> {
     			result.compute(r.getThread(), (k, c) -> {
         			if (c == null) {
         				c = new HashSet<>();
@@ -383,7 +457,7 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
        				
        				return c;
     			});
-    		}
+    		});
     	}
 
     	assert result.equals(computeMayExistSlow(mhp));
@@ -538,7 +612,7 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
 
         		LinkedList<SDGNode> succ = new LinkedList<SDGNode>();
 
-        		for (SDGEdge e : icfg.getOutgoingEdgesOfKindUnsafe(fork.getNode(), SDGEdge.Kind.CONTROL_FLOW)) {
+        		for (SDGEdge e : icfg.outgoingEdgesOfKind(fork.getNode(), SDGEdge.Kind.CONTROL_FLOW)) {
         			succ.add(e.getTarget());
         		}
 
@@ -653,7 +727,7 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
 
             	LinkedList<SDGNode> succ = new LinkedList<SDGNode>();
 
-            	for (SDGEdge e : icfg.getOutgoingEdgesOfKindUnsafe(forkNode, SDGEdge.Kind.CONTROL_FLOW)) {
+            	for (SDGEdge e : icfg.outgoingEdgesOfKind(forkNode, SDGEdge.Kind.CONTROL_FLOW)) {
             		succ.add(e.getTarget());
             	}
 
@@ -857,7 +931,7 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
 
             	LinkedList<SDGNode> succ = new LinkedList<SDGNode>();
 
-            	for (SDGEdge e : icfg.getOutgoingEdgesOfKindUnsafe(forkNode, SDGEdge.Kind.CONTROL_FLOW)) {
+            	for (SDGEdge e : icfg.outgoingEdgesOfKind(forkNode, SDGEdge.Kind.CONTROL_FLOW)) {
             		succ.add(e.getTarget());
             	}
 
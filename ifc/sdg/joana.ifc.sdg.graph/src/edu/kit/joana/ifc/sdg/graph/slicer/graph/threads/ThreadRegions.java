@@ -283,6 +283,13 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 		 return regions.size();
 	 }
 
+	 /**
+	  * @return the control flow graph the thread regions were computed on
+	  */
+	 CFG getICFG() {
+		 return icfg;
+	 }
+
 	 /**
 	  * Prints the ThreadRegions in attribute 'regions'.
 	  */
@@ -449,7 +456,7 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 			 Collection<SDGNode> forks = info.getAllForks();
 
 			 for (SDGNode fork : forks) {
-				 for (SDGEdge e: icfg.getOutgoingEdgesOfKindUnsafe(fork, SDGEdge.Kind.CONTROL_FLOW)) {
+				 for (SDGEdge e: icfg.outgoingEdgesOfKind(fork, SDGEdge.Kind.CONTROL_FLOW)) {
 					 if (e.getTarget().isInThread(thread)) {
 						 init.add(e.getTarget());
 					 }
@@ -574,7 +581,7 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 			 
 			 Collection<SDGNode> forks = info.getAllForks();
 			 for (SDGNode fork : forks) {
-				 for (SDGEdge e: icfg.getOutgoingEdgesOfKindUnsafe(fork, SDGEdge.Kind.CONTROL_FLOW)) {
+				 for (SDGEdge e: icfg.outgoingEdgesOfKind(fork, SDGEdge.Kind.CONTROL_FLOW)) {
 					 if (e.getTarget().isInThread(thread)) {
 						 result.add(e.getTarget());
 					 }
@@ -1120,7 +1127,7 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 			 
 			 Collection<SDGNode> forks = info.getAllForks();
 			 for (SDGNode fork : forks) {
-				 for (SDGEdge e: icfg.getOutgoingEdgesOfKindUnsafe(fork, SDGEdge.Kind.CONTROL_FLOW)) {
+				 for (SDGEdge e: icfg.outgoingEdgesOfKind(fork, SDGEdge.Kind.CONTROL_FLOW)) {
 					 if (e.getTarget().isInThread(thread)) {
 						 result.add(e.getTarget());
 					 }
@@ -1153,7 +1160,7 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 			 
 			 Collection<SDGNode> forks = info.getAllForks();
 			 for (SDGNode fork : forks) {
-				 for (SDGEdge e: icfg.getOutgoingEdgesOfKindUnsafe(fork, SDGEdge.Kind.CONTROL_FLOW)) {
+				 for (SDGEdge e: icfg.outgoingEdgesOfKind(fork, SDGEdge.Kind.CONTROL_FLOW)) {
 					result.add(e.getTarget());
 				 }
 			 }
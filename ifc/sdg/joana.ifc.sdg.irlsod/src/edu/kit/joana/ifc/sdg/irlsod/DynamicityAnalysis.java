@@ -71,7 +71,7 @@ public class DynamicityAnalysis {
 				if (isDynamic(entry)) {
 					continue;
 				}
-				for (final SDGEdge inc : threadGraph.getIncomingEdgesOfKind(entry, SDGEdge.Kind.CALL)) {
+				for (final SDGEdge inc : threadGraph.incomingEdgesOfKind(entry, SDGEdge.Kind.CALL)) {
 					if ((inc.getKind() == SDGEdge.Kind.CALL) && isDynamic(inc.getSource())) {
 						changed |= markAllNodesInMethod(entry);
 						break;
@@ -102,7 +102,7 @@ public class DynamicityAnalysis {
 			ret.addVertex(entryAndProc.getKey());
 			for (final SDGNode n : entryAndProc.getValue()) {
 				if (n.getKind() == SDGNode.Kind.CALL) {
-					for (final SDGEdge callEdge : threadGraph.getOutgoingEdgesOfKindUnsafe(n, SDGEdge.Kind.CALL)) {
+					for (final SDGEdge callEdge : threadGraph.outgoingEdgesOfKind(n, SDGEdge.Kind.CALL)) {
 						ret.addVertex(callEdge.getTarget());
 						ret.addEdge(entryAndProc.getKey(), threadGraph.getEntry(callEdge.getTarget()));
 					}
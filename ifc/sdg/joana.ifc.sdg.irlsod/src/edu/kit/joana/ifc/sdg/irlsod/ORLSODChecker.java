@@ -1,8 +1,12 @@
 package edu.kit.joana.ifc.sdg.irlsod;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -15,9 +19,13 @@ import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IndexedLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 
 public class ORLSODChecker<L> extends AnnotationMapChecker<L> {
 	
@@ -120,73 +128,340 @@ public class ORLSODChecker<L> extends AnnotationMapChecker<L> {
 	public Collection<? extends IViolation<SecurityNode>> checkIFlow() throws NotInLatticeException {
 		inferUserAnnotationsOnDemand();
 		
-		final SDG sdg = this.getSDG();
-		final IStaticLattice<L> secLattice = this.getLattice();
-		
-		final I2PBackward backw = new I2PBackward(sdg);
 		// 1.) initialize classification: we go from the bottom up, so every
 		// node is classified as low initially
 		// except for the user annotated nodes: They are classified with the
 		// level given by the user
 		cl = initCL(true);
-		// 2.) fixed-point iteration
-		int numIters = 0;
-		boolean change;
-		do {
-			change = false;
-			for (final SDGNode n : sdg.vertexSet()) {
-				final L oldLevel = cl.get(n);
+		// 2.) fixed-point iteration: the predecessors and probabilistic influencers of every node
+		// are computed only once, and a node is only revisited if the level of one of them changed.
+		// Nodes are numbered in topological order of the dependencies, and the worklist always
+		// continues with the lowest queued number.
+		final ForwardDependencies forwDep = computeForwardDep();
+		forwDep.renumber(computeTopologicalOrder(forwDep));
+		// levels are propagated as indices of the compiled lattice, unless the lattice is too large to be compiled
+		final IStaticLattice<L> lattice = this.getLattice();
+		final int numUpdates = IndexedLattice.isIndexable(lattice)
+				? propagate(IndexedLattice.of(lattice), forwDep)
+				: propagate(lattice, forwDep);
+		debug.outln(String.format("needed %d update(s).", numUpdates));
+		// 3.) check that sink levels comply
+		return checkCompliance();
+	}
+
+	/**
+	 * Propagates the levels of {@link #cl} along the dependencies until the least fixed point is reached.
+	 * @param forwDep the dependencies, with the nodes numbered in topological order
+	 * @return the number of level updates
+	 */
+	private int propagate(final IndexedLattice<L> secLattice, final ForwardDependencies forwDep) {
+		final int top = secLattice.top();
+		final int bottom = secLattice.bottom();
+		final int size = forwDep.size();
+		final int[] initial = new int[size];
+		for (int i = 0; i < size; i++) {
+			initial[i] = secLattice.indexOf(cl.get(forwDep.node(i)));
+		}
+		final int[] level = initial.clone();
+		final BitSet worklist = new BitSet(size);
+		for (int i = 0; i < size; i++) {
+			if (level[i] != bottom) {
+				worklist.set(i);
+			}
+		}
+		int numUpdates = 0;
+		int first = 0;
+		for (int next = worklist.nextSetBit(first); next >= 0; next = worklist.nextSetBit(first)) {
+			worklist.clear(next);
+			first = next;
+			for (int n = forwDep.next(next, 0); n >= 0; n = forwDep.next(next, n + 1)) {
+				final int oldLevel = level[n];
 				// nothing changes if current level is top already
-				if (secLattice.getTop().equals(oldLevel)) {
+				if (oldLevel == top) {
 					continue;
 				}
-				L newLevel = oldLevel;
-
-				// 2a.) propagate from sdg predecessors
-				final Collection<SDGNode> predecessors;
-				switch (predecessorMethod) {
-				case EDGE:
-					// @formatter:off
-					predecessors = sdg.incomingEdgesOf(n).stream()
-					                                     .filter((e) -> e.getKind().isSDGEdge())
-					                                     .map(SDGEdge::getSource)
-					                                     .collect(Collectors.toSet());
-					// @formatter:on
-					debug.outln(String.format("BS(%s) = %s", n, predecessors));
-					break;
-				case SLICE:
-					predecessors = backw.slice(n);
-					debug.outln(String.format("PRED(%s) = %s", n, predecessors));
-					break;
-				default:
-					throw new IllegalArgumentException(predecessorMethod.toString());
+				final int newLevel = secLattice.lub(oldLevel, level[next]);
+				if (newLevel != oldLevel) {
+					level[n] = newLevel;
+					worklist.set(n);
+					first = Math.min(first, n);
+					numUpdates++;
+				}
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			if (level[i] != initial[i]) {
+				cl.put(forwDep.node(i), secLattice.elementAt(level[i]));
+			}
+		}
+		return numUpdates;
+	}
+
+	/**
+	 * Like {@link #propagate(IndexedLattice, ForwardDependencies)}, but on the elements of a lattice that is too
+	 * large to be indexed, see {@link IndexedLattice#isIndexable(IStaticLattice)}.
+	 */
+	private int propagate(final IStaticLattice<L> secLattice, final ForwardDependencies forwDep) {
+		final L top = secLattice.getTop();
+		final L bottom = secLattice.getBottom();
+		final int size = forwDep.size();
+		final List<L> level = new ArrayList<L>(size);
+		final BitSet worklist = new BitSet(size);
+		for (int i = 0; i < size; i++) {
+			level.add(cl.get(forwDep.node(i)));
+			if (!bottom.equals(level.get(i))) {
+				worklist.set(i);
+			}
+		}
+		int numUpdates = 0;
+		int first = 0;
+		for (int next = worklist.nextSetBit(first); next >= 0; next = worklist.nextSetBit(first)) {
+			worklist.clear(next);
+			first = next;
+			for (int n = forwDep.next(next, 0); n >= 0; n = forwDep.next(next, n + 1)) {
+				final L oldLevel = level.get(n);
+				// nothing changes if current level is top already
+				if (top.equals(oldLevel)) {
+					continue;
+				}
+				final L newLevel = secLattice.leastUpperBound(oldLevel, level.get(next));
+				if (!newLevel.equals(oldLevel)) {
+					level.set(n, newLevel);
+					cl.put(forwDep.node(n), newLevel);
+					worklist.set(n);
+					first = Math.min(first, n);
+					numUpdates++;
+				}
+			}
+		}
+		return numUpdates;
+	}
+
+	/**
+	 * Inverts the dependencies of the classification: the level of a node is the least upper bound of the levels
+	 * of its predecessors (see {@link #predecessorMethod}) and of its probabilistic influencers.
+	 * @return for each node the nodes whose level has to be updated if the level of the node changes
+	 */
+	protected ForwardDependencies computeForwardDep() {
+		final SDG sdg = this.getSDG();
+		final I2PBackward backw = (predecessorMethod == PredecessorMethod.SLICE) ? new I2PBackward(sdg) : null;
+		
+		final ForwardDependencies ret =
+				new ForwardDependencies(sdg.vertexSet(), predecessorMethod == PredecessorMethod.SLICE);
+		for (final SDGNode n : sdg.vertexSet()) {
+			// 2a.) propagate from sdg predecessors
+			final Collection<SDGNode> predecessors;
+			switch (predecessorMethod) {
+			case EDGE:
+				// @formatter:off
+				predecessors = sdg.incomingEdgesOf(n).stream()
+				                                     .filter((e) -> e.getKind().isSDGEdge())
+				                                     .map(SDGEdge::getSource)
+				                                     .collect(Collectors.toSet());
+				// @formatter:on
+				debug.outln(String.format("BS(%s) = %s", n, predecessors));
+				break;
+			case SLICE:
+				predecessors = backw.slice(n);
+				debug.outln(String.format("PRED(%s) = %s", n, predecessors));
+				break;
+			default:
+				throw new IllegalArgumentException(predecessorMethod.toString());
+			}
+			for (final SDGNode m : predecessors) {
+				ret.add(m, n);
+			}
+			// 2b.) propagate security levels from probabilistic influencers
+			final Collection<? extends SDGNode> pi = probInf.getProbabilisticInfluencers(n);
+			debug.outln(String.format("ProbInf(%s) = %s", n, pi));
+			for (final SDGNode cp : pi) {
+				ret.add(cp, n);
+			}
+		}
+		ret.trim();
+		return ret;
+	}
+
+	/**
+	 * The nodes whose level has to be updated if the level of a node changes. The nodes are numbered
+	 * 0..{@link #size()}-1, and the dependents of each node are stored as a set of these numbers. With
+	 * {@link PredecessorMethod#SLICE}, every node depends on its whole backward slice, so the dependents are stored
+	 * as bit sets. Otherwise there are only a few dependents per node, which are stored as sorted arrays.
+	 */
+	protected static final class ForwardDependencies {
+
+		private SDGNode[] nodes;
+		/** the number of each node, only needed until all dependencies have been added */
+		private TObjectIntMap<SDGNode> numbers;
+		/** the dependents of each node if they are dense, else null */
+		private BitSet[] dense;
+		/** the dependents of each node while they are added, if they are sparse, else null */
+		private TIntArrayList[] sparse;
+		/** the sorted dependents of each node, if they are sparse, else null */
+		private int[][] sorted;
+
+		ForwardDependencies(final Collection<SDGNode> nodes, final boolean dense) {
+			this.nodes = nodes.toArray(new SDGNode[nodes.size()]);
+			this.numbers = new TObjectIntHashMap<SDGNode>(this.nodes.length, 0.5f, -1);
+			for (int i = 0; i < this.nodes.length; i++) {
+				numbers.put(this.nodes[i], i);
+			}
+			if (dense) {
+				this.dense = new BitSet[this.nodes.length];
+			} else {
+				this.sparse = new TIntArrayList[this.nodes.length];
+			}
+		}
+
+		void add(final SDGNode from, final SDGNode to) {
+			if (from.equals(to)) {
+				return;
+			}
+			final int f = numbers.get(from);
+			final int t = numbers.get(to);
+			if (dense != null) {
+				if (dense[f] == null) {
+					dense[f] = new BitSet();
+				}
+				dense[f].set(t);
+			} else {
+				if (sparse[f] == null) {
+					sparse[f] = new TIntArrayList(4);
 				}
-				for (final SDGNode m : predecessors) {
-					newLevel = secLattice.leastUpperBound(newLevel, cl.get(m));
-					if (secLattice.getTop().equals(newLevel)) {
-						break; // we can abort the loop here - level cannot get
-						// any higher
+				sparse[f].add(t);
+			}
+		}
+
+		/**
+		 * Sorts the sparse dependents and removes duplicates, after all dependencies have been added.
+		 */
+		void trim() {
+			numbers = null;
+			if (sparse == null) {
+				return;
+			}
+			sorted = new int[nodes.length][];
+			for (int i = 0; i < nodes.length; i++) {
+				sorted[i] = (sparse[i] == null ? new int[0] : unique(sparse[i].toArray()));
+				sparse[i] = null;
+			}
+			sparse = null;
+		}
+
+		private static int[] unique(final int[] values) {
+			Arrays.sort(values);
+			int k = 0;
+			for (int i = 0; i < values.length; i++) {
+				if (k == 0 || values[k - 1] != values[i]) {
+					values[k++] = values[i];
+				}
+			}
+			return (k == values.length ? values : Arrays.copyOf(values, k));
+		}
+
+		/**
+		 * Changes the numbering of the nodes.
+		 * @param number the new number of each node, indexed by its current number
+		 */
+		private void renumber(final int[] number) {
+			final SDGNode[] renumbered = new SDGNode[nodes.length];
+			for (int i = 0; i < nodes.length; i++) {
+				renumbered[number[i]] = nodes[i];
+			}
+			nodes = renumbered;
+			if (dense != null) {
+				final BitSet[] newDense = new BitSet[dense.length];
+				for (int i = 0; i < dense.length; i++) {
+					if (dense[i] != null) {
+						final BitSet deps = new BitSet();
+						for (int d = dense[i].nextSetBit(0); d >= 0; d = dense[i].nextSetBit(d + 1)) {
+							deps.set(number[d]);
+						}
+						// release the old set right away, only one additional set is allocated at a time
+						dense[i] = null;
+						newDense[number[i]] = deps;
 					}
 				}
-				// 2b.) propagate security levels from probabilistic influencers
-				final Collection<? extends SDGNode> pi = probInf.getProbabilisticInfluencers(n);
-				debug.outln(String.format("ProbInf(%s) = %s", n, pi));
-				for (final SDGNode cp : pi) {
-					newLevel = secLattice.leastUpperBound(newLevel, cl.get(cp));
-					if (secLattice.getTop().equals(newLevel)) {
-						break; // we can abort the loop here - level cannot get
-						// any higher
+				dense = newDense;
+			} else {
+				final int[][] newSorted = new int[sorted.length][];
+				for (int i = 0; i < sorted.length; i++) {
+					final int[] deps = sorted[i];
+					for (int k = 0; k < deps.length; k++) {
+						deps[k] = number[deps[k]];
 					}
+					Arrays.sort(deps);
+					newSorted[number[i]] = deps;
 				}
-				if (!newLevel.equals(oldLevel)) {
-					cl.put(n, newLevel);
-					change = true;
+				sorted = newSorted;
+			}
+		}
+
+		public int size() {
+			return nodes.length;
+		}
+
+		public SDGNode node(final int number) {
+			return nodes[number];
+		}
+
+		/**
+		 * Iterates over the dependents of a node: <code>for (int d = next(n, 0); d &gt;= 0; d = next(n, d + 1))</code>.
+		 * @return the smallest number of a dependent of the given node that is at least <code>from</code>, or -1
+		 */
+		public int next(final int node, final int from) {
+			if (dense != null) {
+				return (dense[node] == null ? -1 : dense[node].nextSetBit(from));
+			}
+			final int[] deps = sorted[node];
+			int i = Arrays.binarySearch(deps, from);
+			if (i < 0) {
+				i = -i - 1;
+			}
+			return (i < deps.length ? deps[i] : -1);
+		}
+	}
+
+	/**
+	 * Numbers the nodes in reverse postorder of a depth-first search along the given dependencies. This is a
+	 * topological order of the strongly connected components of the dependency graph, so if the worklist is
+	 * processed in this order, a node outside of a cycle is only processed after all nodes it depends on.
+	 * @return the new number of each node, indexed by its current number
+	 */
+	private static int[] computeTopologicalOrder(final ForwardDependencies forwDep) {
+		final int size = forwDep.size();
+		final int[] order = new int[size];
+		final BitSet visited = new BitSet(size);
+		final int[] stack = new int[size];
+		final int[] cursor = new int[size];
+		int top = 0;
+		int finished = 0;
+		for (int root = 0; root < size; root++) {
+			if (visited.get(root)) {
+				continue;
+			}
+			visited.set(root);
+			stack[top++] = root;
+			cursor[root] = 0;
+			while (top > 0) {
+				final int cur = stack[top - 1];
+				final int succ = forwDep.next(cur, cursor[cur]);
+				if (succ >= 0) {
+					cursor[cur] = succ + 1;
+					if (!visited.get(succ)) {
+						visited.set(succ);
+						cursor[succ] = 0;
+						stack[top++] = succ;
+					}
+				} else {
+					top--;
+					order[cur] = finished++;
 				}
 			}
-			numIters++;
-		} while (change);
-		debug.outln(String.format("needed %d iteration(s).", numIters));
-		// 3.) check that sink levels comply
-		return checkCompliance();
+		}
+		for (int i = 0; i < size; i++) {
+			order[i] = size - 1 - order[i];
+		}
+		return order;
 	}
 }
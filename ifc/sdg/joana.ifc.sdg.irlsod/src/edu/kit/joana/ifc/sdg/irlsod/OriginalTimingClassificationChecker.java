@@ -195,9 +195,9 @@ public class OriginalTimingClassificationChecker<L> extends AnnotationMapChecker
 	 *         n.
 	 */
 	private boolean interferenceWriteUndirected(final SDGNode n) {
-		for (final SDGEdge e : g.getOutgoingEdgesOfKindUnsafe(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
+		for (final SDGEdge e : g.outgoingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
 			boolean found = false;
-			for (final SDGEdge e2 : g.getOutgoingEdgesOfKindUnsafe(e.getTarget(), SDGEdge.Kind.INTERFERENCE_WRITE)) {
+			for (final SDGEdge e2 : g.outgoingEdgesOfKind(e.getTarget(), SDGEdge.Kind.INTERFERENCE_WRITE)) {
 				if (e2.getTarget().equals(n)) {
 					found = true;
 				}
@@ -271,7 +271,7 @@ public class OriginalTimingClassificationChecker<L> extends AnnotationMapChecker
 				// INTERFERENCE_WRITE.
 				assert(interferenceWriteUndirected(n));
 
-				for (final SDGEdge e : g.getIncomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE)) {
+				for (final SDGEdge e : g.incomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE)) {
 					final SDGNode m = e.getSource();
 					if (!mhp.isParallel(n, m)) {
 						continue;
@@ -288,7 +288,7 @@ public class OriginalTimingClassificationChecker<L> extends AnnotationMapChecker
 						// any higher
 					}
 				}
-				for (final SDGEdge e : g.getIncomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
+				for (final SDGEdge e : g.incomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
 					final SDGNode m = e.getSource();
 					L timingLevel = clt.get(Pair.pair(n, m));
 					if (timingLevel == null) {
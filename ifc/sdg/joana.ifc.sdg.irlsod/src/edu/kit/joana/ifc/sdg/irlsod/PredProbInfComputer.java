@@ -7,6 +7,7 @@
  */
 package edu.kit.joana.ifc.sdg.irlsod;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.stream.Collectors;
@@ -17,6 +18,7 @@ import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFG;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPIndex;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.PreciseMHPAnalysis;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadRegion;
 import edu.kit.joana.ifc.sdg.mhpoptimization.CSDGPreprocessor;
@@ -63,6 +65,19 @@ public class PredProbInfComputer extends ProbInfComputer {
 
 	private void calculateInfluencedRegions() {
 		Collection<ThreadRegion> regions = mhp.getThreadRegions();
+		final MHPIndex index = mhp instanceof PreciseMHPAnalysis ? ((PreciseMHPAnalysis) mhp).getIndex() : null;
+		if (index != null) {
+			final BitSet nonEmpty = new BitSet(regions.size());
+			for (final ThreadRegion tr : regions) {
+				if (!tr.getNodes().isEmpty()) {
+					nonEmpty.set(tr.getID());
+				}
+			}
+			for (final ThreadRegion trN : regions) {
+				influencedRegion[trN.getID()] = index.anyParallelRegion(trN.getID(), nonEmpty);
+			}
+			return;
+		}
 		for (final ThreadRegion trN : regions) {
 			influencedRegion[trN.getID()] = false;
 			for (ThreadRegion trM : regions) {
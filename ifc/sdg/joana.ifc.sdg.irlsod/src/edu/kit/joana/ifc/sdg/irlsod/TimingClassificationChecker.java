@@ -257,9 +257,9 @@ public class TimingClassificationChecker<L> extends AnnotationMapChecker<L> {
 	 *         n.
 	 */
 	private boolean interferenceWriteUndirected(final SDGNode n) {
-		for (final SDGEdge e : g.getOutgoingEdgesOfKindUnsafe(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
+		for (final SDGEdge e : g.outgoingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
 			boolean found = false;
-			for (final SDGEdge e2 : g.getOutgoingEdgesOfKindUnsafe(e.getTarget(), SDGEdge.Kind.INTERFERENCE_WRITE)) {
+			for (final SDGEdge e2 : g.outgoingEdgesOfKind(e.getTarget(), SDGEdge.Kind.INTERFERENCE_WRITE)) {
 				if (e2.getTarget().equals(n)) {
 					found = true;
 					break;
@@ -339,7 +339,7 @@ public class TimingClassificationChecker<L> extends AnnotationMapChecker<L> {
 				// INTERFERENCE_WRITE.
 				assert interferenceWriteUndirected(n);
 
-				/*for (final SDGEdge e : g.getIncomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE)) {
+				/*for (final SDGEdge e : g.incomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE)) {
 					final SDGNode m = e.getSource();
 					if (!mhp.isParallel(n, m)) {
 						continue;
@@ -356,7 +356,7 @@ public class TimingClassificationChecker<L> extends AnnotationMapChecker<L> {
 						// any higher
 					}
 				}
-				for (final SDGEdge e : g.getIncomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
+				for (final SDGEdge e : g.incomingEdgesOfKind(n, SDGEdge.Kind.INTERFERENCE_WRITE)) {
 					final SDGNode m = e.getSource();
 					if (!mhp.isParallel(n, m)) {
 						continue;
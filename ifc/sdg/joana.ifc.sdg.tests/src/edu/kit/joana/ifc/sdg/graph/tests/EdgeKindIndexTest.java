@@ -0,0 +1,177 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.JoanaGraph.EdgeView;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.graph.AbstractBaseGraph;
+import edu.kit.joana.util.graph.AbstractBaseGraph.EdgeGroups;
+
+/**
+ * Checks the per-kind edge ranges of {@link SDG} and the {@link EdgeView}s built on them against filtering all edges
+ * of a vertex by their kind.
+ */
+public class EdgeKindIndexTest {
+
+	private static final EdgeGroups<SDGEdge> KINDS = e -> e.getKind().getPriority();
+
+	private static List<SDGEdge> filter(SDGEdge[] edges, long kindMask) {
+		final List<SDGEdge> res = new ArrayList<SDGEdge>();
+		for (SDGEdge e : edges) {
+			if (e != null && FrozenSDG.inMask(kindMask, e.getKind().ordinal())) {
+				res.add(e);
+			}
+		}
+		return res;
+	}
+
+	private static List<SDGEdge> toList(EdgeView view) {
+		final List<SDGEdge> res = new ArrayList<SDGEdge>();
+		for (SDGEdge e : view) {
+			res.add(e);
+		}
+		return res;
+	}
+
+	private static void checkKinds(SDG sdg, Random rnd) {
+		for (SDGNode n : sdg.vertexSet()) {
+			final SDGEdge[] outgoing = sdg.outgoingEdgesOfUnsafe(n);
+			final SDGEdge[] incoming = sdg.incomingEdgesOfUnsafe(n);
+			for (SDGEdge.Kind k : SDGEdge.Kind.values()) {
+				final List<SDGEdge> out = filter(outgoing, FrozenSDG.kindMask(k));
+				assertEquals(out, toList(sdg.outgoingEdgesOfKind(n, k)));
+				assertEquals(out, sdg.getOutgoingEdgesOfKind(n, k));
+				assertEquals(!out.isEmpty(), sdg.hasOutgoingEdgesOfKind(n, k));
+				assertEquals(out.isEmpty(), sdg.outgoingEdgesOfKind(n, k).isEmpty());
+
+				final List<SDGEdge> in = filter(incoming, FrozenSDG.kindMask(k));
+				assertEquals(in, toList(sdg.incomingEdgesOfKind(n, k)));
+				assertEquals(in, sdg.getIncomingEdgesOfKind(n, k));
+				assertEquals(!in.isEmpty(), sdg.hasIncomingEdgesOfKind(n, k));
+			}
+
+			final SDGEdge.Kind[] kinds = SDGEdge.Kind.values();
+			final List<SDGEdge.Kind> some = new ArrayList<SDGEdge.Kind>();
+			for (SDGEdge.Kind k : kinds) {
+				if (rnd.nextBoolean()) {
+					some.add(k);
+				}
+			}
+			final long mask = FrozenSDG.kindMask(some);
+			assertEquals(filter(outgoing, mask), toList(sdg.outgoingEdgesOfKinds(n, mask)));
+			assertEquals(filter(incoming, mask), sdg.incomingEdgesOfKinds(n, mask).toList());
+		}
+	}
+
+	@Test
+	public void testRangesMatchFilteredEdges() {
+		final Random rnd = new Random(42);
+		for (int round = 0; round < 100; round++) {
+			final int nodes = 1 + rnd.nextInt(20);
+			// up to 40 edges per node, so both scanned and indexed edge arrays occur
+			final SDG sdg = RandomSDGs.random(rnd, nodes, 1 + rnd.nextInt(3), rnd.nextInt(40 * nodes),
+					SDGEdge.Kind.values());
+			checkKinds(sdg, rnd);
+
+			// the indices built so far have to be dropped by the modifications
+			final List<SDGEdge> edges = new ArrayList<SDGEdge>(sdg.edgeSet());
+			for (SDGEdge e : edges) {
+				if (rnd.nextInt(3) == 0) {
+					sdg.removeEdge(e);
+				}
+			}
+			final SDG more = RandomSDGs.random(rnd, nodes, 1, rnd.nextInt(10 * nodes), SDGEdge.Kind.values());
+			for (SDGEdge e : more.edgeSet()) {
+				final SDGEdge.Kind k = e.getKind();
+				sdg.addEdge(k.newEdge(sdg.getNode(e.getSource().getId()), sdg.getNode(e.getTarget().getId())));
+			}
+			checkKinds(sdg, rnd);
+		}
+	}
+
+	@Test
+	public void testViewIsSnapshot() {
+		final SDG sdg = new SDG();
+		final SDGNode n = new SDGNode(SDGNode.Kind.EXPRESSION, 1, 0, "n");
+		sdg.addVertex(n);
+		final List<SDGNode> targets = new ArrayList<SDGNode>();
+		for (int i = 0; i < 20; i++) {
+			final SDGNode t = new SDGNode(SDGNode.Kind.EXPRESSION, i + 2, 0, "t" + i);
+			sdg.addVertex(t);
+			targets.add(t);
+			sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(n, t));
+			sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(n, t));
+		}
+
+		final SDGEdge[] before = sdg.outgoingEdgesOfUnsafe(n);
+		final EdgeView view = sdg.outgoingEdgesOfKind(n, SDGEdge.Kind.DATA_DEP);
+		final List<SDGEdge> dataBefore = toList(view);
+		assertEquals(20, dataBefore.size());
+
+		// modify the edges while iterating the view
+		int seen = 0;
+		for (SDGEdge e : view) {
+			sdg.removeEdge(e);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(n, e.getTarget()));
+			seen++;
+		}
+		assertEquals(20, seen);
+		assertEquals(dataBefore, toList(view));
+		assertTrue(sdg.outgoingEdgesOfKind(n, SDGEdge.Kind.DATA_DEP).isEmpty());
+		assertEquals(20, sdg.getOutgoingEdgesOfKind(n, SDGEdge.Kind.CONTROL_DEP_UNCOND).size());
+
+		// a range for an old snapshot must not use the index of the current edges
+		final int dataDep = SDGEdge.Kind.DATA_DEP.getPriority();
+		final long range = sdg.outgoingEdgesRange(n, before, KINDS, dataDep);
+		assertEquals(dataBefore, filter(before, FrozenSDG.kindMask(SDGEdge.Kind.DATA_DEP)));
+		assertEquals(20, AbstractBaseGraph.rangeTo(range) - AbstractBaseGraph.rangeFrom(range));
+		for (int i = AbstractBaseGraph.rangeFrom(range); i < AbstractBaseGraph.rangeTo(range); i++) {
+			assertEquals(SDGEdge.Kind.DATA_DEP, before[i].getKind());
+		}
+		final long current = sdg.outgoingEdgesRange(n, KINDS, dataDep);
+		assertEquals(AbstractBaseGraph.rangeFrom(current), AbstractBaseGraph.rangeTo(current));
+	}
+
+	@Test
+	public void testIteratorsAreIndependent() {
+		final SDG sdg = RandomSDGs.random(new Random(42), 5, 1, 100, new SDGEdge.Kind[] { SDGEdge.Kind.DATA_DEP });
+		for (SDGNode n : sdg.vertexSet()) {
+			final EdgeView view = sdg.outgoingEdgesOfKind(n, SDGEdge.Kind.DATA_DEP);
+			final List<SDGEdge> expected = filter(sdg.outgoingEdgesOfUnsafe(n), FrozenSDG.kindMask(SDGEdge.Kind.DATA_DEP));
+
+			// nested iterations of the same view, as in SDG.getCallSiteFor
+			final List<SDGEdge> pairs = new ArrayList<SDGEdge>();
+			for (SDGEdge e1 : view) {
+				for (SDGEdge e2 : view) {
+					pairs.add(e1);
+					pairs.add(e2);
+				}
+			}
+			assertEquals(2 * expected.size() * expected.size(), pairs.size());
+
+			final Iterator<SDGEdge> first = view.iterator();
+			if (first.hasNext()) {
+				first.next();
+			}
+			assertEquals(expected, toList(view));
+			assertEquals(expected, toList(view));
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.Iterative2PhaseSlicer;
+
+/**
+ * Checks that {@link Iterative2PhaseSlicer#sliceBatch(List)} agrees with slicing each criterion on its own.
+ */
+public class Iterative2PhaseBatchSlicingTest {
+
+	private static void testBatch(SDG sdg, Iterative2PhaseSlicer slicer, Random rnd) {
+		final List<SDGNode> criteria = new ArrayList<SDGNode>();
+		for (SDGNode n : sdg.vertexSet()) {
+			if (rnd.nextInt(3) == 0) {
+				criteria.add(n);
+			}
+		}
+
+		final Map<SDGNode, BitSet> batch = slicer.sliceBatch(criteria);
+		for (int i = 0; i < criteria.size(); i++) {
+			final Set<SDGNode> fromBatch = new HashSet<SDGNode>();
+			for (Map.Entry<SDGNode, BitSet> e : batch.entrySet()) {
+				if (e.getValue().get(i)) {
+					fromBatch.add(e.getKey());
+				}
+			}
+			assertEquals("slice of " + criteria.get(i), new HashSet<SDGNode>(slicer.slice(criteria.get(i))), fromBatch);
+		}
+	}
+
+	@Test
+	public void testRandomSDGs() {
+		final Random rnd = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			final int nodes = 1 + rnd.nextInt(50);
+			final SDG sdg = RandomSDGs.random(rnd, nodes, 1 + rnd.nextInt(5), rnd.nextInt(3 * nodes), RandomSDGs.CONCURRENT);
+			testBatch(sdg, new I2PBackward(sdg), rnd);
+			testBatch(sdg, new I2PForward(sdg), rnd);
+		}
+	}
+
+	@Test
+	public void testEmptyBatch() {
+		final SDG sdg = RandomSDGs.random(new Random(1), 10, 2, 20, RandomSDGs.CONCURRENT);
+		assertTrue(new I2PBackward(sdg).sliceBatch(new ArrayList<SDGNode>()).isEmpty());
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.tests;
+
+import java.util.Random;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * Builds small random SDGs for comparing different implementations of the same graph algorithm.
+ * The graphs are not well-formed SDGs, they merely contain edges of the given kinds between random nodes.
+ */
+public final class RandomSDGs {
+
+	public static final SDGEdge.Kind[] INTRA_AND_INTERPROC = {
+		SDGEdge.Kind.DATA_DEP, SDGEdge.Kind.DATA_HEAP, SDGEdge.Kind.CONTROL_DEP_UNCOND, SDGEdge.Kind.CONTROL_DEP_EXPR,
+		SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.PARAMETER_OUT, SDGEdge.Kind.CALL, SDGEdge.Kind.SUMMARY,
+		SDGEdge.Kind.CONTROL_FLOW
+	};
+
+	public static final SDGEdge.Kind[] CONCURRENT = {
+		SDGEdge.Kind.DATA_DEP, SDGEdge.Kind.DATA_HEAP, SDGEdge.Kind.CONTROL_DEP_UNCOND, SDGEdge.Kind.CONTROL_DEP_EXPR,
+		SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.PARAMETER_OUT, SDGEdge.Kind.CALL, SDGEdge.Kind.SUMMARY,
+		SDGEdge.Kind.CONTROL_FLOW, SDGEdge.Kind.INTERFERENCE, SDGEdge.Kind.INTERFERENCE_WRITE,
+		SDGEdge.Kind.FORK, SDGEdge.Kind.FORK_IN, SDGEdge.Kind.FORK_OUT, SDGEdge.Kind.JOIN
+	};
+
+	private RandomSDGs() {}
+
+	/**
+	 * @param rnd         source of randomness
+	 * @param nodes       number of nodes, numbered from 1
+	 * @param procs       number of procedures the nodes are distributed on
+	 * @param edges       number of edges, parallel edges and self loops included
+	 * @param edgeKinds   kinds of the edges
+	 */
+	public static SDG random(Random rnd, int nodes, int procs, int edges, SDGEdge.Kind[] edgeKinds) {
+		final SDG sdg = new SDG();
+		final SDGNode[] ns = new SDGNode[nodes];
+		for (int i = 0; i < nodes; i++) {
+			ns[i] = new SDGNode(SDGNode.Kind.EXPRESSION, i + 1, rnd.nextInt(procs), "n" + (i + 1));
+			sdg.addVertex(ns[i]);
+		}
+		for (int i = 0; i < edges; i++) {
+			final SDGEdge.Kind k = edgeKinds[rnd.nextInt(edgeKinds.length)];
+			sdg.addEdge(k.newEdge(ns[rnd.nextInt(nodes)], ns[rnd.nextInt(nodes)]));
+		}
+		return sdg;
+	}
+}
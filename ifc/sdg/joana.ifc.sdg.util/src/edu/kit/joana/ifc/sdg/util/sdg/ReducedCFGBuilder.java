@@ -84,7 +84,7 @@ public final class ReducedCFGBuilder {
 	private static void removeNode(CFG cfg, SDGNode toRemove) {
 		final List<SDGEdge> edgesToAdd = new LinkedList<SDGEdge>();
 		final List<SDGEdge> edgesToRemove = new LinkedList<SDGEdge>();
-		for (SDGEdge eIncoming : cfg.getIncomingEdgesOfKind(toRemove, SDGEdge.Kind.CONTROL_FLOW)) {
+		for (SDGEdge eIncoming : cfg.incomingEdgesOfKind(toRemove, SDGEdge.Kind.CONTROL_FLOW)) {
 			for (SDGEdge eOutgoing : cfg
 					.getOutgoingEdgesOfKindUnsafe(toRemove, SDGEdge.Kind.CONTROL_FLOW)) {
 				edgesToAdd.add( SDGEdge.Kind.CONTROL_FLOW.newEdge(eIncoming.getSource(), eOutgoing.getTarget()));
@@ -112,6 +112,13 @@ public class ContextMatcher {
                 assertEquals(leakage, comp.maxFlow, () -> {
                     return String.format("The calculated leakage for an attacker of level %s should be %d, leaking %s", attackerSec, leakage, comp.minCut.stream().map(Lattices.Bit::toString).collect(Collectors.joining(", ")));
                 });
+                if (attackerSec != context.sl.top()) {
+                    MinCut.ComputationResult dinic = new MinCut.Dinic(context.sources(attackerSec), context.sinks(attackerSec), context::weight).compute();
+                    assertEquals(comp.maxFlow, dinic.maxFlow, String.format("Dinic should calculate the same leakage for an attacker of level %s", attackerSec));
+                    for (MinCut.LeakageMode mode : MinCut.LeakageMode.values()) {
+                        assertEquals(comp.maxFlow, context.computeLeakage(mode).get(attackerSec).maxFlow, String.format("The %s leakage computation should calculate the same leakage for an attacker of level %s", mode, attackerSec));
+                    }
+                }
             });
             return this;
         }
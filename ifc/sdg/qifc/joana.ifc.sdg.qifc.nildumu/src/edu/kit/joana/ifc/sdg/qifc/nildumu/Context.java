@@ -19,6 +19,7 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -473,6 +474,16 @@ public class Context {
         return leaks;
     }
 
+    private final Map<MinCut.LeakageMode, Map<Sec<?>, MinCut.ComputationResult>> leaksPerMode = new EnumMap<>(MinCut.LeakageMode.class);
+
+    /**
+     * Computes the leakage of all security levels with Dinic's algorithm on a snapshot of the bit graph,
+     * see {@link MinCut#compute(Context, MinCut.LeakageMode)}
+     */
+    public Map<Sec<?>, MinCut.ComputationResult> computeLeakage(MinCut.LeakageMode mode){
+        return leaksPerMode.computeIfAbsent(mode, m -> MinCut.compute(this, m));
+    }
+
     private int c1(Bit bit){
         Queue<Bit> q = new ArrayDeque<>();
         Set<Bit> alreadyVisitedBits = new HashSet<>();
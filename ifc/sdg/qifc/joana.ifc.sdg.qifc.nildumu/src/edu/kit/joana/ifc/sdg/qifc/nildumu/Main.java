@@ -35,6 +35,9 @@ public class Main {
 	@Parameter(names="--dump", description="Dump graphs")
 	private boolean dump = false;
 	
+	@Parameter(names="--mincut", description="Algorithm used to compute the leakage, one of EK_APPROX, GRAPHT_PP and DINIC")
+	private MinCut.Algo minCutAlgo = MinCut.usedAlgo;
+	
 	@Parameter(description="class name, class has to contain a 'program' method that is called in the main method", required=true)
 	private String className;	
 	
@@ -68,6 +71,7 @@ public class Main {
 			printInterprodHelp();
 			return;
 		}
+		MinCut.usedAlgo = main.minCutAlgo;
 		Builder builder = new Builder().classpath(main.classPath)
 				.methodInvocationHandler(main.handler)
 				.entry(main.className).dumpDir(main.dumpPath);
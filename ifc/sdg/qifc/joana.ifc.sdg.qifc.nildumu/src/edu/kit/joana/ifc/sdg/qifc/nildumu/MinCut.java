@@ -17,6 +17,9 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -40,10 +43,13 @@ import org.jgrapht.graph.DefaultWeightedEdge;
 import org.jgrapht.graph.SimpleDirectedWeightedGraph;
 
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Bit;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Lattice;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Sec;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.util.DefaultMap;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.util.Pair;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.util.Util.Box;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TObjectIntHashMap;
 
 /**
  * Computation of the minimum cut on graphs.
@@ -57,7 +63,8 @@ public class MinCut {
 
     public static enum Algo {
         EK_APPROX("approximate Edmonds-Karp"),
-        GRAPHT_PP("JGraphT Preflow-Push");
+        GRAPHT_PP("JGraphT Preflow-Push"),
+        DINIC("Dinic on an int graph");
 
         public final String description;
 
@@ -679,6 +686,427 @@ public class MinCut {
         }
     }
 
+    /**
+     * Dinic's max-flow algorithm on the flow network of {@link GraphTPP}, compiled into a {@link FlowNetwork}.
+     */
+    public static class Dinic extends Algorithm {
+
+        protected Dinic(Set<Bit> sourceNodes, Set<Bit> sinkNodes, Function<Bit, Integer> weights) {
+            super(sourceNodes, sinkNodes, weights);
+        }
+
+        @Override
+        public ComputationResult compute() {
+            return new FlowNetwork(sourceNodes, sinkNodes, weights, true).flow().compute(sourceNodes, sinkNodes);
+        }
+    }
+
+    /**
+     * The flow network of {@link GraphTPP}, compiled into primitive arrays.
+     *
+     * Each bit with index i is split into a start node 2i + 2 and an end node 2i + 3, connected by an edge
+     * with the weight of the bit as capacity, node 0 is the super source and node 1 the super sink.
+     * The edges of each node are stored consecutively (compressed sparse rows), each edge knows the
+     * position of its reverse edge, which carries the residual capacity.
+     *
+     * The edges from the super source to the possible source bits and from the possible sink bits to
+     * the super sink have no capacity in the network itself, a {@link Flow} enables the ones it uses.
+     * The network is not modified after its construction and can be shared by concurrent flows.
+     */
+    public static class FlowNetwork {
+
+        static final int SOURCE = 0;
+        static final int SINK = 1;
+        static final int INF = Integer.MAX_VALUE;
+
+        private final TObjectIntHashMap<Bit> indices = new TObjectIntHashMap<>(16, 0.5f, -1);
+        private final List<Bit> bits = new ArrayList<>();
+        /**
+         * Bits whose dependencies are part of the network
+         */
+        private final BitSet walked = new BitSet();
+        private final Function<Bit, Integer> weights;
+        private final Collection<Bit> sourceBits;
+        private final Collection<Bit> sinkBits;
+
+        private int[] degree;
+        private int[] start;
+        private int[] target;
+        private int[] reverse;
+        private int[] capacity;
+        /**
+         * Position of the edge from the super source to the start node, per bit index, -1 if there is none
+         */
+        private int[] sourceEdge;
+        /**
+         * Position of the edge from the end node to the super sink, per bit index, -1 if there is none
+         */
+        private int[] sinkEdge;
+
+        /**
+         * @param stopAtSinks don't walk past sink bits, like {@link GraphTPP}
+         */
+        public FlowNetwork(Collection<Bit> sourceBits, Collection<Bit> sinkBits, Function<Bit, Integer> weights, boolean stopAtSinks) {
+            this.sourceBits = sourceBits;
+            this.sinkBits = sinkBits;
+            this.weights = weights;
+            collectBits(stopAtSinks ? (sinkBits instanceof Set ? (Set<Bit>)sinkBits : new HashSet<>(sinkBits)) : Collections.emptySet());
+            buildGraph();
+        }
+
+        /**
+         * Creates a new flow of zero without any enabled sources and sinks
+         */
+        public Flow flow() {
+            return new Flow(this);
+        }
+
+        public int size() {
+            return bits.size();
+        }
+
+        private static int startNode(int index) {
+            return 2 * index + 2;
+        }
+
+        private static int endNode(int index) {
+            return 2 * index + 3;
+        }
+
+        private int index(Bit bit) {
+            int index = indices.get(bit);
+            if (index == -1) {
+                index = bits.size();
+                indices.put(bit, index);
+                bits.add(bit);
+            }
+            return index;
+        }
+
+        /**
+         * Visits all bits reachable from the source bits, without walking past the passed sink bits
+         */
+        private void collectBits(Set<Bit> stopAt) {
+            final TIntArrayList stack = new TIntArrayList();
+            for (Bit sourceBit : sourceBits) {
+                final int sourceIndex = index(sourceBit);
+                if (stopAt.contains(sourceBit)) {
+                    continue;
+                }
+                stack.add(sourceIndex);
+                while (!stack.isEmpty()) {
+                    final int cur = stack.removeAt(stack.size() - 1);
+                    if (walked.get(cur)) {
+                        continue;
+                    }
+                    walked.set(cur);
+                    final Bit bit = bits.get(cur);
+                    final boolean stop = stopAt.contains(bit);
+                    for (Bit dep : bit.deps()) {
+                        final int depIndex = index(dep);
+                        if (!stop) {
+                            stack.add(depIndex);
+                        }
+                    }
+                }
+            }
+            for (Bit sinkBit : sinkBits) {
+                index(sinkBit);
+            }
+        }
+
+        /**
+         * Enumerates the edges twice, first to count the edges per node, then to store them
+         */
+        private void buildGraph() {
+            final int nodes = 2 * bits.size() + 2;
+            degree = new int[nodes];
+            addEdges();
+            start = new int[nodes + 1];
+            for (int i = 0; i < nodes; i++) {
+                start[i + 1] = start[i] + degree[i];
+            }
+            target = new int[start[nodes]];
+            reverse = new int[start[nodes]];
+            capacity = new int[start[nodes]];
+            sourceEdge = new int[bits.size()];
+            sinkEdge = new int[bits.size()];
+            Arrays.fill(sourceEdge, -1);
+            Arrays.fill(sinkEdge, -1);
+            System.arraycopy(start, 0, degree, 0, nodes);
+            addEdges();
+            degree = null;
+        }
+
+        private void addEdges() {
+            for (int i = 0; i < bits.size(); i++) {
+                final Bit bit = bits.get(i);
+                addEdge(startNode(i), endNode(i), weights.apply(bit) == INFTY ? INF : 1);
+                if (walked.get(i)) {
+                    for (Bit dep : bit.deps()) {
+                        addEdge(endNode(i), startNode(indices.get(dep)), INF);
+                    }
+                }
+            }
+            for (Bit sourceBit : sourceBits) {
+                final int index = indices.get(sourceBit);
+                final int edge = addEdge(SOURCE, startNode(index), 0);
+                if (sourceEdge != null) {
+                    sourceEdge[index] = edge;
+                }
+            }
+            for (Bit sinkBit : sinkBits) {
+                final int index = indices.get(sinkBit);
+                final int edge = addEdge(endNode(index), SINK, 0);
+                if (sinkEdge != null) {
+                    sinkEdge[index] = edge;
+                }
+            }
+        }
+
+        /**
+         * @return position of the edge, -1 while counting
+         */
+        private int addEdge(int from, int to, int cap) {
+            if (target == null) {
+                degree[from]++;
+                degree[to]++;
+                return -1;
+            }
+            final int forward = degree[from]++;
+            final int backward = degree[to]++;
+            target[forward] = to;
+            capacity[forward] = cap;
+            reverse[forward] = backward;
+            target[backward] = from;
+            capacity[backward] = 0;
+            reverse[backward] = forward;
+            return forward;
+        }
+
+        private int indexOf(Bit bit) {
+            final int index = indices.get(bit);
+            if (index == -1) {
+                throw new IllegalArgumentException(String.format("Bit %s is not part of the flow network", bit));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A flow in a {@link FlowNetwork}, computed with Dinic's algorithm.
+     *
+     * A flow can be reused for other source and sink bits: the flow over removed sources and sinks is
+     * routed back through the residual graph, the remaining flow stays valid and is only augmented.
+     *
+     * The maximum flow is bounded by the smaller of the two bit sets, like in {@link GraphTPP},
+     * therefore the search stops as soon as this bound is exceeded.
+     */
+    public static class Flow {
+
+        private static final int SOURCE = FlowNetwork.SOURCE;
+        private static final int SINK = FlowNetwork.SINK;
+        private static final int INF = FlowNetwork.INF;
+
+        private final FlowNetwork network;
+        private final int[] start;
+        private final int[] target;
+        private final int[] reverse;
+        private final int[] residual;
+        private final int[] level;
+        private final int[] queue;
+        private final int[] next;
+        private final int[] path;
+        private final BitSet sources = new BitSet();
+        private final BitSet sinks = new BitSet();
+        private long value = 0;
+
+        Flow(FlowNetwork network) {
+            this.network = network;
+            this.start = network.start;
+            this.target = network.target;
+            this.reverse = network.reverse;
+            this.residual = network.capacity.clone();
+            final int nodes = start.length - 1;
+            this.level = new int[nodes];
+            this.queue = new int[nodes];
+            this.next = new int[nodes];
+            this.path = new int[nodes];
+        }
+
+        /**
+         * Computes the leakage from the source bits to the sink bits, starting from the current flow
+         */
+        public ComputationResult compute(Set<Bit> sourceBits, Set<Bit> sinkBits) {
+            final int bound = Math.min(sourceBits.size(), sinkBits.size());
+            if (bound == 0) {
+                return new ComputationResult(Collections.emptySet(), 0);
+            }
+            setSources(sourceBits);
+            setSinks(sinkBits);
+            if (value <= bound) {
+                value += maxFlow(SOURCE, SINK, bound + 1 - value);
+            }
+            if (value > bound) {
+                return new ComputationResult(sourceBits.size() < sinkBits.size() ? sourceBits : sinkBits, bound);
+            }
+            // the last breadth first search marked the nodes reachable in the residual graph
+            Set<Bit> minCut = new HashSet<>();
+            for (int i = 0; i < network.bits.size(); i++) {
+                if (level[FlowNetwork.startNode(i)] >= 0 && level[FlowNetwork.endNode(i)] < 0) {
+                    minCut.add(network.bits.get(i));
+                }
+            }
+            return new ComputationResult(minCut, value);
+        }
+
+        private void setSources(Set<Bit> sourceBits) {
+            final BitSet wanted = new BitSet();
+            for (Bit bit : sourceBits) {
+                wanted.set(network.indexOf(bit));
+            }
+            for (int i = sources.nextSetBit(0); i >= 0; i = sources.nextSetBit(i + 1)) {
+                if (!wanted.get(i)) {
+                    // the start node lacks the flow over the removed edge, take it back from the super sink
+                    final int flow = disable(network.sourceEdge[i]);
+                    value -= flow;
+                    final long returned = flow == 0 ? 0 : maxFlow(SINK, FlowNetwork.startNode(i), flow);
+                    assert returned == flow;
+                }
+            }
+            for (int i = wanted.nextSetBit(0); i >= 0; i = wanted.nextSetBit(i + 1)) {
+                if (!sources.get(i)) {
+                    enable(network.sourceEdge[i], i);
+                }
+            }
+            sources.clear();
+            sources.or(wanted);
+        }
+
+        private void setSinks(Set<Bit> sinkBits) {
+            final BitSet wanted = new BitSet();
+            for (Bit bit : sinkBits) {
+                wanted.set(network.indexOf(bit));
+            }
+            for (int i = sinks.nextSetBit(0); i >= 0; i = sinks.nextSetBit(i + 1)) {
+                if (!wanted.get(i)) {
+                    // the end node has an excess of the flow over the removed edge, return it to the super source
+                    final int flow = disable(network.sinkEdge[i]);
+                    value -= flow;
+                    final long returned = flow == 0 ? 0 : maxFlow(FlowNetwork.endNode(i), SOURCE, flow);
+                    assert returned == flow;
+                }
+            }
+            for (int i = wanted.nextSetBit(0); i >= 0; i = wanted.nextSetBit(i + 1)) {
+                if (!sinks.get(i)) {
+                    enable(network.sinkEdge[i], i);
+                }
+            }
+            sinks.clear();
+            sinks.or(wanted);
+        }
+
+        private void enable(int edge, int index) {
+            if (edge == -1) {
+                throw new IllegalArgumentException(String.format("Bit %s is not a possible source or sink of the flow network", network.bits.get(index)));
+            }
+            residual[edge] = INF;
+            residual[reverse[edge]] = 0;
+        }
+
+        /**
+         * @return the flow over the edge before
+         */
+        private int disable(int edge) {
+            final int flow = residual[reverse[edge]];
+            residual[edge] = 0;
+            residual[reverse[edge]] = 0;
+            return flow;
+        }
+
+        /**
+         * @return the maximum flow from the first to the second node, or a flow of at least the limit
+         */
+        private long maxFlow(int from, int to, long limit) {
+            long flow = 0;
+            while (flow < limit && levels(from, to)) {
+                System.arraycopy(start, 0, next, 0, next.length);
+                int pushed;
+                while (flow < limit && (pushed = augment(from, to, (int) Math.min(INF, limit - flow))) > 0) {
+                    flow += pushed;
+                }
+            }
+            return flow;
+        }
+
+        /**
+         * Breadth first search in the residual graph
+         *
+         * @return is the second node reachable?
+         */
+        private boolean levels(int from, int to) {
+            Arrays.fill(level, -1);
+            level[from] = 0;
+            queue[0] = from;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                final int cur = queue[head++];
+                for (int e = start[cur]; e < start[cur + 1]; e++) {
+                    final int node = target[e];
+                    if (residual[e] > 0 && level[node] == -1) {
+                        level[node] = level[cur] + 1;
+                        queue[tail++] = node;
+                    }
+                }
+            }
+            return level[to] >= 0;
+        }
+
+        /**
+         * Finds an augmenting path in the level graph with an iterative depth first search
+         * and pushes flow along it
+         *
+         * @return the pushed flow, 0 if there is no augmenting path left
+         */
+        private int augment(int from, int to, int limit) {
+            int depth = 0;
+            int cur = from;
+            while (true) {
+                if (cur == to) {
+                    int pushed = limit;
+                    for (int i = 0; i < depth; i++) {
+                        pushed = Math.min(pushed, residual[path[i]]);
+                    }
+                    for (int i = 0; i < depth; i++) {
+                        residual[path[i]] -= pushed;
+                        residual[reverse[path[i]]] += pushed;
+                    }
+                    return pushed;
+                }
+                boolean advanced = false;
+                for (; next[cur] < start[cur + 1]; next[cur]++) {
+                    final int e = next[cur];
+                    if (residual[e] > 0 && level[target[e]] == level[cur] + 1) {
+                        path[depth++] = e;
+                        cur = target[e];
+                        advanced = true;
+                        break;
+                    }
+                }
+                if (!advanced) {
+                    if (depth == 0) {
+                        return 0;
+                    }
+                    // dead end, retreat
+                    level[cur] = -1;
+                    cur = target[reverse[path[--depth]]];
+                    next[cur]++;
+                }
+            }
+        }
+    }
+
     /**
      * Choose the algorithm by setting the static {@link MinCut#usedAlgo} variable
      */
@@ -690,6 +1118,9 @@ public class MinCut {
                 break;
             case EK_APPROX:
                 cur = new ApproxEdmondsKarp(sourceNodes, sinkNodes, weights);
+                break;
+            case DINIC:
+                cur = new Dinic(sourceNodes, sinkNodes, weights);
         }
         return cur.compute();
     }
@@ -710,4 +1141,63 @@ public class MinCut {
                         new ComputationResult(Collections.emptySet(), 0) :
                         compute(context, s)));
     }
+
+    /**
+     * How to compute the leakages of all security levels on a frozen bit graph
+     */
+    public static enum LeakageMode {
+        /**
+         * Computes the levels concurrently, each with its own flow
+         */
+        PARALLEL,
+        /**
+         * Computes the levels in an order compatible with the security lattice and reuses the flow,
+         * as the sources only grow and the sinks only shrink between levels
+         */
+        INCREMENTAL
+    }
+
+    /**
+     * Computes the leakage of all security levels with Dinic's algorithm, on a {@link FlowNetwork}
+     * built once from the current bit graph. The bit graph is only read while building the network.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Map<Sec<?>, ComputationResult> compute(Context context, LeakageMode mode){
+        Lattice lattice = (Lattice) context.sl;
+        List<Sec<?>> levels = context.sl.elements().stream()
+                .map(s -> (Sec<?>)s)
+                .filter(s -> s != context.sl.top())
+                .collect(Collectors.toList());
+        Map<Sec<?>, Pair<Set<Bit>, Set<Bit>>> bitsPerLevel = new HashMap<>();
+        Set<Bit> sourceBits = new HashSet<>();
+        Set<Bit> sinkBits = new HashSet<>();
+        for (Sec<?> sec : levels) {
+            Pair<Set<Bit>, Set<Bit>> bits = p(context.sources(sec), context.sinks(sec));
+            bitsPerLevel.put(sec, bits);
+            sourceBits.addAll(bits.first);
+            sinkBits.addAll(bits.second);
+        }
+        FlowNetwork network = new FlowNetwork(sourceBits, sinkBits, context::weight, false);
+        Map<Sec<?>, ComputationResult> results;
+        switch (mode) {
+            case PARALLEL:
+                results = levels.parallelStream().collect(Collectors.toConcurrentMap(s -> s, s ->
+                        network.flow().compute(bitsPerLevel.get(s).first, bitsPerLevel.get(s).second)));
+                break;
+            case INCREMENTAL:
+            default:
+                // a level comes after all levels below it
+                Map<Sec<?>, Long> below = levels.stream().collect(Collectors.toMap(s -> s,
+                        s -> levels.stream().filter(t -> lattice.lowerEqualsThan(t, s)).count()));
+                levels.sort((s, t) -> Long.compare(below.get(s), below.get(t)));
+                Flow flow = network.flow();
+                results = new HashMap<>();
+                for (Sec<?> sec : levels) {
+                    results.put(sec, flow.compute(bitsPerLevel.get(sec).first, bitsPerLevel.get(sec).second));
+                }
+        }
+        Map<Sec<?>, ComputationResult> all = new HashMap<>(results);
+        all.put((Sec<?>)context.sl.top(), new ComputationResult(Collections.emptySet(), 0));
+        return all;
+    }
 }
@@ -0,0 +1,51 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ui.ifc.wala.console.test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.kit.joana.ui.ifc.wala.console.console.IFCConsole;
+import edu.kit.joana.ui.ifc.wala.console.io.PrintStreamConsoleWrapper;
+import edu.kit.joana.util.io.IOFactory;
+
+/**
+ * Checks that the results that are written for each annotated entry point as soon as it is analyzed form one
+ * YAML sequence.
+ */
+public class EntryPointsYAMLTest {
+
+	private static final String CLASSPATH = System.getProperty("joana.api.testdata.classpath", "../../../../api/joana.api.testdata/bin");
+	private static final String PATTERN = "joana\\.api\\.testdata\\.demo\\.EntryPoints\\..*";
+
+	@Test
+	public void testOneItemPerEntryPoint() {
+		BufferedReader in = new BufferedReader(IOFactory.createUTF8ISReader(System.in));
+		IFCConsole console = new IFCConsole(in, new PrintStreamConsoleWrapper(System.out, System.out, in, System.out, System.out));
+		console.processCommand("setClasspath " + CLASSPATH);
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		Assert.assertTrue(console.useEntryPointsYAML(new PrintStream(result), PATTERN));
+		String yaml = result.toString();
+		// one sequence with an item per entry point, not a document per entry point
+		Assert.assertFalse(yaml.contains("---"));
+		int items = 0;
+		for (String line : yaml.split("\\R")) {
+			if (line.startsWith("-")) {
+				items++;
+			} else {
+				// everything else belongs to the item above
+				Assert.assertTrue(line, line.isEmpty() || line.startsWith(" "));
+			}
+		}
+		Assert.assertEquals(3, items);
+	}
+}
@@ -63,6 +63,7 @@ import edu.kit.joana.util.Stubs;
 import edu.kit.joana.util.Triple;
 import edu.kit.joana.util.io.IOFactory;
 import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.SDGBuildProfile;
 import edu.kit.joana.wala.core.SDGBuilder;
 import edu.kit.joana.wala.core.SDGBuilder.ExceptionAnalysis;
 import edu.kit.joana.wala.core.SDGBuilder.FieldPropagation;
@@ -114,7 +115,7 @@ public class IFCConsole {
 				"Search declassification annotations that have the given tag"),
 		USE_ENTRY_POINT("useEntryPoint", 1, "tag", "Select the entry point with the given tag, build the sdg, select sources and sinks with this tag"),
 		RUN_ENTRY_POINTS_YAML("runEntryPointsYAML", 0, 2, "<out file, '-' for std out, is the default> <pattern matching the entry points, optional, matches all if not present>",
-				"Stores the analysis results for the entry points in the passed file as YAML"),
+				"Stores the analysis results for the entry points in the passed file as YAML, each result is written as soon as its entry point is analyzed"),
 		SET_CLASSPATH(	"setClasspath", 		1, 		"<path>",
 							"Sets the class path for sdg generation. Can be for example a bin directory or a jar file."),
 		SET_EXCEPTIONS( "setExceptionAnalysis", 1, "<exception analysis type>", "Sets the type of exception analysis to perform during SDG construction. Possible values are: " + Arrays.toString(ExceptionAnalysis.values())),
@@ -123,6 +124,7 @@ public class IFCConsole {
 		SET_COMPUTE_INTERFERENCES("setComputeInterferences", 1, "true|false", "Sets whether interference edges shall be computed or not."),
 		SET_MHP_TYPE(
 						"setMHPType", 		1, 	"<mhp type>", 			"Sets the type of MHP analysis to use if interference edges are activated. Possible values are: " + Arrays.toString(MHPType.values())),
+		SET_BUILD_PROFILE("setBuildProfile", 1, "<file>|off", "Records the phases of the following sdg builds (time, allocations, graph sizes and the slowest pdgs) and writes them as json to the given file. 'off' disables the profiling."),
 		INFO(			"info", 				0, 		"",
 							"Display the current configuration for sdg generation and ifc analysis"),
 		BUILD_SDG(		"buildSDG", 			0, 	3, 	"<compute interference?> <mhptype> [<exception analysis type>]",
@@ -387,6 +389,14 @@ public class IFCConsole {
 	 * @see UninitializedFieldHelperOptions
 	 */
 	private UninitializedFieldHelperOptions.FieldTypeMatcher uninitializedFieldTypeMatcher = typeReference -> false;
+	/**
+	 * class hierarchy shared by the sdg builds of a {@link #useEntryPointsYAML(PrintStream, String) batch}
+	 */
+	private SDGBuildPreparation.SharedClassHierarchy sharedClassHierarchy = null;
+	/**
+	 * json file the profile of the sdg builds is written to, null if they are not profiled
+	 */
+	private String buildProfileFile = null;
 
 	public IFCConsole(BufferedReader in, IFCConsoleOutput out) {
 		this.in = in;
@@ -622,6 +632,19 @@ public class IFCConsole {
 		};
 	}
 
+	private Command makeCommandSetBuildProfile() {
+		return new Command(CMD.SET_BUILD_PROFILE) {
+
+			@Override
+			boolean execute(String[] args) {
+				buildProfileFile = "off".equals(args[1]) ? null : args[1];
+				out.logln("buildProfile = " + (buildProfileFile == null ? "off" : buildProfileFile));
+				return true;
+			}
+
+		};
+	}
+
 	private Command makeCommandSetMHPType() {
 		return new Command(CMD.SET_MHP_TYPE) {
 
@@ -1227,6 +1250,7 @@ public class IFCConsole {
 		repo.addCommand(makeCommandSetPointsTo());
 		repo.addCommand(makeCommandSetComputeInterferences());
 		repo.addCommand(makeCommandSetMHPType());
+		repo.addCommand(makeCommandSetBuildProfile());
 		repo.addCommand(makeCommandSetStubsPath());
 		repo.addCommand(makeCommandInfo());
 		repo.addCommand(makeCommandBuildSDG());
@@ -1499,24 +1523,46 @@ public class IFCConsole {
 			return false;
 		}
 	}
-	
+
+	/**
+	 * Analyzes all entry points that match the pattern one after another and writes the result of each entry
+	 * point to the stream as a YAML sequence item as soon as it is available. The items of all entry points
+	 * form one YAML sequence. The class hierarchy is computed once and shared by the sdg builds of all
+	 * entry points.
+	 */
 	public boolean useEntryPointsYAML(PrintStream stream, String pattern) {
-		YamlSequenceBuilder seq = Yaml.createYamlSequenceBuilder();
 		Optional<List<Pair<IMethod, Annotation>>> result = 
 				loc.doSearchForEntryPointAnnotated(classPath, out, new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE));
-		if (result.isPresent()) {
-			for (Pair<IMethod, Annotation> p : result.get()) {
+		if (!result.isPresent()) {
+			out.error("No entry points found");
+			return false;
+		}
+		List<Pair<IMethod, Annotation>> entryPoints = result.get();
+		try {
+			sharedClassHierarchy = SDGBuildPreparation.computeSharedClassHierarchy(out.getPrintStream(),
+					SDGProgram.makeBuildPreparationConfig(new SDGConfig(classPath, entryPoints.get(0).getFirst().getSignature(), stubsPath)));
+			for (Pair<IMethod, Annotation> p : entryPoints) {
 				Optional<YamlMapping> map = useEntryPointYaml(p.getFirst(), p.getSecond());
 				if (!map.isPresent()) {
 					return false;
 				}
-				seq = seq.add(map.get());
+				printYamlSequenceItem(stream, map.get());
 			}
-			stream.println(seq.build().toString());
 			return true;
+		} catch (ClassHierarchyException e) {
+			out.error(e.getMessage());
+			return false;
+		} catch (IOException e) {
+			out.error("\nI/O problem while computing the class hierarchy: " + e.getMessage());
+			return false;
+		} finally {
+			sharedClassHierarchy = null;
 		}
-		out.error("No entry points found");
-		return false;
+	}
+
+	private static void printYamlSequenceItem(PrintStream stream, YamlMapping map) {
+		stream.println(Yaml.createYamlSequenceBuilder().add(map).build().toString());
+		stream.flush();
 	}
 	
 	public Optional<YamlMapping> useEntryPointYaml(IMethod method, Annotation annotation){
@@ -2600,7 +2646,15 @@ public class IFCConsole {
 			config.setPointsToPrecision(pointsTo);
 			config.setFieldPropagation(FieldPropagation.OBJ_GRAPH_SIMPLE_PROPAGATION);
 			config.setFieldHelperOptions(new UninitializedFieldHelperOptions(uninitializedFieldTypeMatcher));
+			final SDGBuildProfile profile = buildProfileFile == null ? null : new SDGBuildProfile();
+			config.setBuildProfile(profile);
+			config.setSharedClassHierarchy(sharedClassHierarchy);
 			SDGProgram program = SDGProgram.createSDGProgram(config, out.getPrintStream(), monitor);
+			if (profile != null) {
+				profile.writeJSON(new File(buildProfileFile));
+				out.logln(profile.toString());
+				out.logln("build profile written to " + buildProfileFile);
+			}
 			if (onlyDirectFlow) {
 				SDGProgram.throwAwayControlDeps(program.getSDG());
 			}
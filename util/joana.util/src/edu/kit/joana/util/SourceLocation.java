@@ -7,8 +7,8 @@
  */
 package edu.kit.joana.util;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class SourceLocation {
 
@@ -22,7 +22,8 @@ public class SourceLocation {
 	private final int endLine;
 	private final int endChar;
 	
-	private static final Map<SourceLocation, SourceLocation> sourceLocationPool  = new HashMap<>();
+	// concurrent, as pdgs may be built in parallel
+	private static final ConcurrentMap<SourceLocation, SourceLocation> sourceLocationPool  = new ConcurrentHashMap<>();
 	public static void clearSourceLocationPool() {
 		sourceLocationPool.clear();
 		sourceLocationPool.put(UNKNOWN, UNKNOWN);
@@ -44,13 +45,8 @@ public class SourceLocation {
 
 	public static SourceLocation getLocation(String sourceFileName, int startLine, int startChar, int endLine, int endChar) {
 		final SourceLocation sourceLocation = new SourceLocation(sourceFileName, startLine, startChar, endLine, endChar);
-		final SourceLocation pooled = sourceLocationPool.get(sourceLocation);
-		if (pooled != null) {
-			return pooled;
-		} else {
-			sourceLocationPool.put(sourceLocation, sourceLocation);
-			return sourceLocation;
-		}
+		final SourceLocation pooled = sourceLocationPool.putIfAbsent(sourceLocation, sourceLocation);
+		return (pooled != null ? pooled : sourceLocation);
 	}
 
 	public String toString() {
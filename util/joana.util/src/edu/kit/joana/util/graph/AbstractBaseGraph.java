@@ -47,6 +47,7 @@ package edu.kit.joana.util.graph;
 import java.io.*;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -93,6 +94,14 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
     
 	private boolean changed = true;
 	private int hashCode;
+	/**
+	 * counts the structural modifications, see {@link #getModificationCount()}. It is updated atomically, as the
+	 * UNSAFE edge additions of {@link EfficientGraph} may run concurrently for different vertices.
+	 */
+	private volatile int modifications;
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<AbstractBaseGraph> MODIFICATIONS =
+		AtomicIntegerFieldUpdater.newUpdater(AbstractBaseGraph.class, "modifications");
 	
 
 
@@ -157,7 +166,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
             return null;
         } else {
             addEdgeToTouchingVertices(e);
-            changed = true;
+            markChanged();
             
             return e;
         }
@@ -182,7 +191,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         assertVertexExist(targetVertex);
 
         addEdgeToTouchingVertices(e);
-        changed = true;
+        markChanged();
 
         return true;
     }
@@ -203,7 +212,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
 
         final boolean addedInTarget = vertexMap.get(targetVertex).addIncomingEdge(arraySetProvider, e);
         if (addedInTarget) {
-            changed = true;
+            markChanged();
             final boolean addedInSource = vertexMap.get(sourceVertex).addOutgoingEdge(arraySetProvider, e);
             assert addedInSource;
         } else {
@@ -218,7 +227,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
     	assert assertVertexExist(targetVertex);
     	
     	vertexMap.get(targetVertex).addIncomingEdges(arraySetProvider, edges);
-    	changed = true;
+    	markChanged();
     }
 
     @Override
@@ -226,7 +235,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
     	assert assertVertexExist(sourceVertex);
     	
     	vertexMap.get(sourceVertex).addOutgoingEdges(arraySetProvider, edges);
-    	changed = true;
+    	markChanged();
     }
 
     /**
@@ -240,7 +249,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
             return false;
         } else {
             vertexMap.put(v, new ArraySetDirectedEdgeContainer<V, E>(classE));
-            changed = true;
+            markChanged();
 
             return true;
         }
@@ -256,7 +265,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
             throw new NullPointerException();
         } else {
             vertexMap.put(v, new ArraySetDirectedEdgeContainer<V, E>(classE));
-            changed = true;
+            markChanged();
         }
     }
 
@@ -304,7 +313,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
             newGraph.vertexMap = vertexMapConstructor.get();
 
             org.jgrapht.Graphs.addGraph(newGraph, this);
-            newGraph.changed = true;
+            newGraph.markChanged();
 
             return newGraph;
         } catch (CloneNotSupportedException e) {
@@ -563,7 +572,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
 
         if (e != null) {
             removeEdgeFromTouchingVertices(e);
-            changed = true;
+            markChanged();
         }
 
         return e;
@@ -576,7 +585,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
     {
         if (containsEdge(e)) {
             removeEdgeFromTouchingVertices(e);
-            changed = true;
+            markChanged();
             return true;
         } else {
             return false;
@@ -604,7 +613,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
             removeAllEdges(new ArrayList<E>(touchingEdgesList));
 
             vertexMap.remove(v); // remove the vertex itself
-            changed = true;
+            markChanged();
 
             return true;
         } else {
@@ -653,6 +662,46 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         Rep incoming();
         Rep outgoing();
         
+        /**
+         * @param edges a snapshot of {@link #incoming()}
+         * @return the range of the edges in the given group within {@code edges}, see
+         *         {@link AbstractBaseGraph#incomingEdgesRange}
+         */
+        long incomingRange(EE[] edges, EdgeGroups<? super EE> groups, int group);
+        
+        /**
+         * @param edges a snapshot of {@link #outgoing()}
+         * @return the range of the edges in the given group within {@code edges}, see
+         *         {@link AbstractBaseGraph#outgoingEdgesRange}
+         */
+        long outgoingRange(EE[] edges, EdgeGroups<? super EE> groups, int group);
+        
+    }
+    
+    /**
+     * Assigns edges to groups, e.g. by their kind. The groups have to be ascending in the order of the edge arrays
+     * of a vertex, i.e., in the order of the {@link Object#hashCode()} of the edges, so the edges of a group form a
+     * range of these arrays. A graph has to use the same groups for all its queries.
+     */
+    @FunctionalInterface
+    public interface EdgeGroups<EE> {
+        int groupOf(EE e);
+    }
+    
+    /**
+     * @return a range [from, to) of an edge array, packed into a long, see {@link #rangeFrom(long)} and
+     *         {@link #rangeTo(long)}
+     */
+    public static long range(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+    
+    public static int rangeFrom(long range) {
+        return (int) (range >>> 32);
+    }
+    
+    public static int rangeTo(long range) {
+        return (int) range;
     }
     
     /**
@@ -664,8 +713,19 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
      */
     protected static final class ArraySetDirectedEdgeContainer<V, EE extends KnowsVertices<V>> implements DirectedEdgeContainer<EE, EE[]>
     {
+        /** edge arrays with less edges are scanned instead of being indexed */
+        private static final int MIN_INDEXED_EDGES = 8;
+
         EE[] incoming;
         EE[] outgoing;
+        
+        /**
+         * Start offsets of the groups in the edge arrays, built on demand and dropped whenever the edges change.
+         * An index is only used for the very array it was built for, so a reader that races with a modification of
+         * the edges never combines a new array with an old index, or vice versa.
+         */
+        private volatile GroupIndex incomingIndex;
+        private volatile GroupIndex outgoingIndex;
 
         @SuppressWarnings("unchecked")
 		ArraySetDirectedEdgeContainer(Class<EE> clazz)
@@ -709,6 +769,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
            	set = asProvider.apply(incoming);
            	added = set.add(e);
             incoming = set.disown();
+            incomingIndex = null;
             
             return added;
         }
@@ -721,6 +782,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         	final Disowning<EE> set = asProvider.apply(outgoing);
         	final boolean added = set.add(e);
            	outgoing = set.disown();
+           	outgoingIndex = null;
             
             return added;
         }
@@ -731,6 +793,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
 			final Disowning<EE> set = asProvider.apply(incoming);
 			set.addAll(edges);
 			incoming = set.disown();
+			incomingIndex = null;
 		}
 		
 		@Override
@@ -739,6 +802,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
 			final Disowning<EE> set = asProvider.apply(outgoing);
 			set.addAll(edges);
 			outgoing = set.disown();
+			outgoingIndex = null;
 		}
 
         /**
@@ -754,6 +818,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         	
         	final boolean removed = set.remove(e);
             incoming = set.disown();
+            incomingIndex = null;
             return removed;
         }
 
@@ -770,6 +835,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         	
         	final boolean removed = set.remove(e);
             outgoing = set.disown();
+            outgoingIndex = null;
             return removed;
         }
         
@@ -778,6 +844,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         	final Disowning<EE> set = asProvider.apply(incoming);
         	set.clear();
         	incoming = set.disown();
+        	incomingIndex = null;
         }
         
 		@Override
@@ -785,6 +852,101 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         	final Disowning<EE> set = asProvider.apply(outgoing);
         	set.clear();
         	outgoing = set.disown();
+        	outgoingIndex = null;
+        }
+        
+        @Override
+        public long incomingRange(EE[] edges, EdgeGroups<? super EE> groups, int group) {
+        	if (edges.length < MIN_INDEXED_EDGES) {
+        		return scanRange(edges, groups, group);
+        	}
+        	GroupIndex index = incomingIndex;
+        	if (index == null || index.edges != edges) {
+        		index = new GroupIndex(edges, buildIndex(edges, groups));
+        		if (edges == incoming) {
+        			incomingIndex = index;
+        		}
+        	}
+        	return indexedRange(index.offsets, group);
+        }
+        
+        @Override
+        public long outgoingRange(EE[] edges, EdgeGroups<? super EE> groups, int group) {
+        	if (edges.length < MIN_INDEXED_EDGES) {
+        		return scanRange(edges, groups, group);
+        	}
+        	GroupIndex index = outgoingIndex;
+        	if (index == null || index.edges != edges) {
+        		index = new GroupIndex(edges, buildIndex(edges, groups));
+        		if (edges == outgoing) {
+        			outgoingIndex = index;
+        		}
+        	}
+        	return indexedRange(index.offsets, group);
+        }
+        
+        /**
+         * The start offsets of the groups in an edge array, together with that array. For k groups present, the first
+         * k entries of the offsets are the groups in ascending order, the next k entries their start offsets, and the
+         * last entry is the length of the edge array.
+         */
+        private static final class GroupIndex {
+        	private final Object[] edges;
+        	private final int[] offsets;
+        	
+        	private GroupIndex(Object[] edges, int[] offsets) {
+        		this.edges = edges;
+        		this.offsets = offsets;
+        	}
+        }
+        
+        private static <EE> long scanRange(EE[] edges, EdgeGroups<? super EE> groups, int group) {
+        	int from = 0;
+        	while (from < edges.length && (edges[from] == null || groups.groupOf(edges[from]) < group)) from++;
+        	int to = from;
+        	while (to < edges.length && (edges[to] == null || groups.groupOf(edges[to]) == group)) to++;
+        	return range(from, to);
+        }
+        
+        private static <EE> int[] buildIndex(EE[] edges, EdgeGroups<? super EE> groups) {
+        	final int[] found = new int[edges.length];
+        	final int[] start = new int[edges.length];
+        	int k = 0;
+        	for (int i = 0; i < edges.length; i++) {
+        		if (edges[i] == null) continue;
+        		final int group = groups.groupOf(edges[i]);
+        		assert k == 0 || found[k - 1] <= group : "edges are not ordered by their groups";
+        		if (k == 0 || found[k - 1] != group) {
+        			found[k] = group;
+        			start[k] = i;
+        			k++;
+        		}
+        	}
+        	final int[] index = new int[2 * k + 1];
+        	System.arraycopy(found, 0, index, 0, k);
+        	System.arraycopy(start, 0, index, k, k);
+        	index[2 * k] = edges.length;
+        	return index;
+        }
+        
+        private static long indexedRange(int[] index, int group) {
+        	final int k = index.length / 2;
+        	int low = 0;
+        	int high = k - 1;
+        	while (low <= high) {
+        		final int mid = (low + high) >>> 1;
+        		final int midGroup = index[mid];
+        		if (midGroup < group) {
+        			low = mid + 1;
+        		} else if (midGroup > group) {
+        			high = mid - 1;
+        		} else {
+        			return range(index[k + mid], index[k + mid + 1]);
+        		}
+        	}
+        	// empty range at the position the group would start
+        	final int at = index[k + low];
+        	return range(at, at);
         }
     }
     
@@ -914,7 +1076,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         	for (E e : incoming) {
         		final boolean removedFromSource = getEdgeContainer(e.getSource()).removeOutgoingEdge(arraySetProvider, e);
         		assert removedFromSource;
-        		changed = true;
+        		markChanged();
         	}
         	getEdgeContainer(vertex).removeIncomingEdges(arraySetProvider);
         }
@@ -926,7 +1088,7 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         	for (E e : outgoing) {
         		final boolean removedFromTarget = getEdgeContainer(e.getTarget()).removeIncomingEdge(arraySetProvider, e);
         		assert removedFromTarget;
-        		changed = true;
+        		markChanged();
         	}
         	container.removeOutgoingEdges(arraySetProvider);
         }
@@ -961,6 +1123,56 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
             return container.outgoing();
         }
 
+        /**
+         * @return the range of those edges in {@link #incomingEdgesOfUnsafe(Object)} that are in the given group,
+         *         packed into a long (see {@link #rangeFrom(long)} and {@link #rangeTo(long)}), or an empty range
+         *         if the vertex is not part of this graph. Does not allocate unless the range index of the vertex
+         *         has to be built.
+         */
+        public long incomingEdgesRange(V vertex, EdgeGroups<? super E> groups, int group)
+        {
+        	final DirectedEdgeContainer<E, E[]> container = vertexMap.get(vertex);
+        	if (container == null) return range(0, 0);
+        	return container.incomingRange(container.incoming(), groups, group);
+        }
+        
+        /**
+         * @param edges a result of {@link #incomingEdgesOfUnsafe(Object)} for the vertex
+         * @return the range of those edges in {@code edges} that are in the given group,
+         *         see {@link #incomingEdgesRange(Object, EdgeGroups, int)}. Unlike querying the range and the edges
+         *         separately, this gives a range that fits the array even if the edges of the vertex have been
+         *         modified in between.
+         */
+        public long incomingEdgesRange(V vertex, E[] edges, EdgeGroups<? super E> groups, int group)
+        {
+        	final DirectedEdgeContainer<E, E[]> container = vertexMap.get(vertex);
+        	if (container == null) return range(0, 0);
+        	return container.incomingRange(edges, groups, group);
+        }
+        
+        /**
+         * @return the range of those edges in {@link #outgoingEdgesOfUnsafe(Object)} that are in the given group,
+         *         see {@link #incomingEdgesRange(Object, EdgeGroups, int)}
+         */
+        public long outgoingEdgesRange(V vertex, EdgeGroups<? super E> groups, int group)
+        {
+        	final DirectedEdgeContainer<E, E[]> container = vertexMap.get(vertex);
+        	if (container == null) return range(0, 0);
+        	return container.outgoingRange(container.outgoing(), groups, group);
+        }
+        
+        /**
+         * @param edges a result of {@link #outgoingEdgesOfUnsafe(Object)} for the vertex
+         * @return the range of those edges in {@code edges} that are in the given group,
+         *         see {@link #incomingEdgesRange(Object, Object[], EdgeGroups, int)}
+         */
+        public long outgoingEdgesRange(V vertex, E[] edges, EdgeGroups<? super E> groups, int group)
+        {
+        	final DirectedEdgeContainer<E, E[]> container = vertexMap.get(vertex);
+        	if (container == null) return range(0, 0);
+        	return container.outgoingRange(edges, groups, group);
+        }
+
         private boolean removeEdgeFromTouchingVertices(E e)
         {
             V source = getEdgeSource(e);
@@ -970,7 +1182,9 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
             final boolean removedFromTarget = getEdgeContainer(target).removeIncomingEdge(arraySetProvider, e);
             
             assert removedFromSource == removedFromTarget;
-            changed |= removedFromSource;
+            if (removedFromSource) {
+                markChanged();
+            }
             return removedFromSource;
         }
 
@@ -996,6 +1210,45 @@ public abstract class AbstractBaseGraph<V extends IntegerIdentifiable, E extends
         }
         
         
+        /**
+         * Rebuilds the vertex map and all edge containers. This is necessary whenever the hashCode of vertices
+         * or edges that are already part of this graph has changed, e.g. after the vertices were renumbered.
+         */
+        protected void rehash() {
+            final Map<V, DirectedEdgeContainer<E,E[]>> oldVertexMap = vertexMap;
+            vertexMap = vertexMapConstructor.get();
+            unmodifiableEdgeSet = null;
+            unmodifiableVertexSet = null;
+
+            for (V v : oldVertexMap.keySet()) {
+                vertexMap.put(v, new ArraySetDirectedEdgeContainer<V, E>(classE));
+            }
+
+            for (DirectedEdgeContainer<E,E[]> ec : oldVertexMap.values()) {
+                for (E e : ec.outgoing()) {
+                    addEdgeUnsafe(e.getSource(), e.getTarget(), e);
+                }
+            }
+
+            markChanged();
+        }
+
+        private void markChanged() {
+            changed = true;
+            MODIFICATIONS.incrementAndGet(this);
+        }
+
+        /**
+         * Returns a counter that increases whenever vertices or edges are added to or removed from this graph.
+         * Analyses that cache results derived from the graph can compare it to the count they computed their results
+         * for, in order to notice that their results are outdated.
+         *
+         * @return the modification counter of this graph
+         */
+        public int getModificationCount() {
+            return modifications;
+        }
+
         public void trimToSize() {
         	// TODO: this is a hack, obviously
         	if (vertexMap instanceof SimpleVectorBase) {
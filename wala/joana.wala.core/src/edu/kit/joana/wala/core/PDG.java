@@ -26,11 +26,7 @@ import java.util.TreeSet;
 
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.EdgeFactory;
-import org.jgrapht.alg.KosarajuStrongConnectivityInspector;
-import org.jgrapht.graph.EdgeReversedGraph;
-import org.jgrapht.traverse.DepthFirstIterator;
 
-import com.google.common.collect.Iterators;
 import com.ibm.wala.analysis.typeInference.TypeInference;
 import com.ibm.wala.cfg.ControlFlowGraph;
 import com.ibm.wala.classLoader.IBytecodeMethod;
@@ -41,11 +37,13 @@ import com.ibm.wala.classLoader.IMethod.SourcePosition;
 import com.ibm.wala.ipa.callgraph.CGNode;
 import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
 import com.ibm.wala.ipa.callgraph.propagation.PointerAnalysis;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
 import com.ibm.wala.shrikeCT.InvalidClassFileException;
 import com.ibm.wala.ssa.IR;
 import com.ibm.wala.ssa.SSAAbstractInvokeInstruction;
 import com.ibm.wala.ssa.SSAArrayLoadInstruction;
 import com.ibm.wala.ssa.SSAArrayStoreInstruction;
+import com.ibm.wala.ssa.SSAFieldAccessInstruction;
 import com.ibm.wala.ssa.SSAGetCaughtExceptionInstruction;
 import com.ibm.wala.ssa.SSAGetInstruction;
 import com.ibm.wala.ssa.SSAInstruction;
@@ -76,11 +74,12 @@ import edu.kit.joana.util.collections.ArrayMap;
 import edu.kit.joana.util.graph.AbstractJoanaGraph;
 import edu.kit.joana.wala.core.PDGNode.Kind;
 import edu.kit.joana.wala.core.graphs.CDG;
+import edu.kit.joana.wala.core.graphs.IntCDG;
+import edu.kit.joana.wala.core.graphs.IntCFG;
 import edu.kit.joana.wala.core.graphs.NTICDGraph;
 import edu.kit.joana.wala.core.graphs.NTICDGraphGreatestFP;
 import edu.kit.joana.wala.core.graphs.NTICDGraphGreatestFPWorklistSymbolic;
 import edu.kit.joana.wala.core.graphs.NTICDGraphLeastFPDualWorklistSymbolic;
-import edu.kit.joana.wala.core.graphs.NTICDGraphPostdominanceFrontiers;
 import edu.kit.joana.wala.core.graphs.NTSCDGraph;
 import edu.kit.joana.wala.core.graphs.NTSCDGraphPostdominanceFrontiers;
 import edu.kit.joana.wala.flowless.pointsto.AliasGraph;
@@ -89,6 +88,7 @@ import edu.kit.joana.wala.flowless.pointsto.Pts2AliasGraph;
 import edu.kit.joana.wala.flowless.pointsto.PtsParameter;
 import edu.kit.joana.wala.util.PrettyWalaNames;
 import edu.kit.joana.wala.util.WriteGraphToDot;
+import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 
@@ -98,17 +98,77 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 	public static PDG build(SDGBuilder builder, String name, CGNode node, int id,
 			ExternalCallCheck ext, PrintStream out, IProgressMonitor progress)
 	throws UnsoundGraphException, CancelException {
-		PDG pdg = new PDG(builder, name, node, id);
+		PDG pdg = new PDG(builder, name, node, id, false);
 
 		pdg.run(node.getIR(), ext, out, progress);
 
 		return pdg;
 	}
 
+	/**
+	 * Same as {@link #build(SDGBuilder, String, CGNode, int, ExternalCallCheck, PrintStream, IProgressMonitor)},
+	 * but records the ids of all created nodes, so that the pdg can later be moved to a contiguous range of node ids
+	 * with {@link #renumberNodes(int)}. Used when multiple pdgs are built concurrently.
+	 */
+	static PDG buildRenumberable(SDGBuilder builder, String name, CGNode node, int id, Input input,
+			ExternalCallCheck ext, PrintStream out, IProgressMonitor progress)
+	throws UnsoundGraphException, CancelException {
+		PDG pdg = new PDG(builder, name, node, id, true);
+
+		pdg.run(input.ir, input.ecfg, input.typeInf, ext, out, progress);
+
+		return pdg;
+	}
+
+	/**
+	 * The parts of a pdg construction that use the caches of WALA or lazily initialized class hierarchy data.
+	 * These are not thread-safe, so they are computed by {@link #prepare(SDGBuilder, CGNode, IProgressMonitor)}
+	 * before multiple pdgs are built concurrently.
+	 */
+	static final class Input {
+		private final IR ir;
+		private final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg;
+		private final TypeInference typeInf;
+
+		private Input(final IR ir, final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg,
+				final TypeInference typeInf) {
+			this.ir = ir;
+			this.ecfg = ecfg;
+			this.typeInf = typeInf;
+		}
+	}
+
+	/**
+	 * Computes the IR, the exception analyzed control flow graph and, if needed, the type inference of the
+	 * method and resolves all fields accessed by it. Must not be called concurrently.
+	 */
+	static Input prepare(SDGBuilder builder, CGNode node, IProgressMonitor progress)
+	throws UnsoundGraphException, CancelException {
+		final IR ir = node.getIR();
+		if (isDummy(builder, node.getMethod(), ir)) {
+			return new Input(ir, null, null);
+		}
+
+		final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg = builder.createExceptionAnalyzedCFG(node, progress);
+		final TypeInference typeInf = (builder.cfg.showTypeNameInValue ? TypeInference.make(ir, true) : null);
+		final IClassHierarchy cha = builder.getClassHierarchy();
+		for (final SSAInstruction instr : ir.getInstructions()) {
+			if (instr instanceof SSAFieldAccessInstruction) {
+				cha.resolveField(((SSAFieldAccessInstruction) instr).getDeclaredField());
+			}
+		}
+
+		return new Input(ir, ecfg, typeInf);
+	}
+
+	private static boolean isDummy(final SDGBuilder builder, final IMethod method, final IR ir) {
+		return ir == null || ir.isEmptyIR() || builder.isImmutableStub(method.getDeclaringClass().getReference());
+	}
+
 	public static PDG buildDummy(SDGBuilder builder, String name, CGNode node, int id,
 			ExternalCallCheck ext, PrintStream out, IProgressMonitor progress)
 	throws UnsoundGraphException, CancelException {
-		PDG pdg = new PDG(builder, name, node, id);
+		PDG pdg = new PDG(builder, name, node, id, false);
 
 		// calling run with an empty IR triggers dummy creation.
 		pdg.run(null, ext, out, progress);
@@ -169,8 +229,13 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 	private final boolean keepPhiNodes;
 	private final boolean noBasePointerDependency;
 
-	private PDG(final SDGBuilder builder, final String name, final CGNode node, final int pdgId) {
+	/** ids of all nodes created for this pdg in creation order, including removed ones. null if not renumberable. */
+	private TIntArrayList createdNodeIds;
+
+	private PDG(final SDGBuilder builder, final String name, final CGNode node, final int pdgId,
+			final boolean renumberable) {
 		super(() -> new ArrayMap<>());
+		this.createdNodeIds = (renumberable ? new TIntArrayList() : null);
 		this.id = pdgId;
 		this.nodeID = pdgId;
 		this.cgNode = node;
@@ -206,7 +271,17 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 	}
 
 	private void run(final IR ir, ExternalCallCheck ext, PrintStream out, IProgressMonitor progress) throws UnsoundGraphException, CancelException {
-		if (ir == null || ir.isEmptyIR() || builder.isImmutableStub(method.getDeclaringClass().getReference())) {
+		run(ir, null, null, ext, out, progress);
+	}
+
+	/**
+	 * @param preparedCFG the exception analyzed cfg of the method, computed here if null
+	 * @param preparedTypes the type inference of the method, computed here if null and needed
+	 */
+	private void run(final IR ir, final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> preparedCFG,
+			final TypeInference preparedTypes, ExternalCallCheck ext, PrintStream out, IProgressMonitor progress)
+			throws UnsoundGraphException, CancelException {
+		if (isDummy(builder, method, ir)) {
 			addDummyConnections();
 			addSourcecodeInfoToNodes(false, null);
 		} else {
@@ -215,7 +290,8 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 				dumpSSA.outln(PrettyWalaNames.ir2string(ir));
 			}
 			
-			final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg = builder.createExceptionAnalyzedCFG(cgNode, progress);
+			final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg =
+					(preparedCFG != null ? preparedCFG : builder.createExceptionAnalyzedCFG(cgNode, progress));
 			final Logger log = Log.getLogger(Log.L_WALA_CFG_DUMP);
 			if (log.isEnabled()) {
 				final String fileName = WriteGraphToDot.sanitizeFileName(method.getSignature() + "-cfg.dot");
@@ -240,7 +316,7 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 			}
 			
 			
-			addNodesForInstructions(ir, instructions.iterator());
+			addNodesForInstructions(ir, preparedTypes, instructions.iterator());
 			addSourcecodeInfoToNodes(ir != null, instructions);
 			addControlFlow(progress, ecfg);
 			addControlDependence();
@@ -514,9 +590,17 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		
     	cfg.addEdge(entry, exit, new PDGEdge(entry, exit, PDGEdge.Kind.CONTROL_FLOW));
 		
+		final IntCDG<PDGNode> intCdg = computeIntCDG(builder.cfg.controlDependenceVariant, cfg, entry, exit);
+
 		final AbstractJoanaGraph<PDGNode, PDGEdge> cdg;
-		switch (builder.cfg.controlDependenceVariant) {
-			case CLASSIC: cdg = CDG.build(cfg, entry, exit); break;
+		if (intCdg != null) {
+			cdg = null;
+		} else switch (builder.cfg.controlDependenceVariant) {
+			case CLASSIC: {
+				// not every node reaches the exit node, otherwise intCdg has been computed
+				cdg = CDG.build(cfg, entry, exit);
+				break;
+			}
 			case NTSCD: {
 				cdg = NTSCDGraph.compute(cfg, new EdgeFactory<PDGNode,PDGEdge>() {
 					public PDGEdge createEdge(PDGNode from, PDGNode to) {
@@ -581,47 +665,7 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 				cdg.addEdge(entry, exit);
 				break;
 			}
-			case NTICD_ISINKDOM: {
-				cdg = NTICDGraphPostdominanceFrontiers.compute(cfg, new EdgeFactory<PDGNode,PDGEdge>() {
-					public PDGEdge createEdge(PDGNode from, PDGNode to) {
-						return new PDGEdge(from, to, PDGEdge.Kind.CONTROL_DEP);
-					};
-				},
-				PDGEdge.class);
-				cdg.addEdge(entry, exit);
-				break;
-			}
-			case ADAPTIVE : {
-				final DepthFirstIterator<PDGNode, PDGEdge> reachingExit = new DepthFirstIterator<PDGNode, PDGEdge>(new EdgeReversedGraph<>(cfg), exit);
-				if (Iterators.size(reachingExit) == cfg.vertexSet().size())  {
-					cdg = CDG.build(cfg, entry, exit); 
-				} else {
-					cdg = NTICDGraphPostdominanceFrontiers.compute(cfg, new EdgeFactory<PDGNode,PDGEdge>() {
-						public PDGEdge createEdge(PDGNode from, PDGNode to) {
-							return new PDGEdge(from, to, PDGEdge.Kind.CONTROL_DEP);
-						};
-					},
-					PDGEdge.class
-					);
-					
-					final DependenceGraph cfgS = createSinkRepresentativeVariant(cfg);
-					final AbstractJoanaGraph<PDGNode, PDGEdge> cdgS = NTICDGraphPostdominanceFrontiers.compute(cfgS, new EdgeFactory<PDGNode,PDGEdge>() {
-						public PDGEdge createEdge(PDGNode from, PDGNode to) {
-							return new PDGEdge(from, to, PDGEdge.Kind.CONTROL_DEP);
-						};
-					},
-					PDGEdge.class
-					);
-
-					for (PDGEdge e : cdgS.edgeSet()) {
-						assert (e.getTarget().getLabel() == DUMMY_LABEL) == (!cdg.containsVertex(e.getTarget()));
-						if (e.getTarget().getLabel() != DUMMY_LABEL) {
-							cdg.addEdge(e.getSource(), e.getTarget(), e);
-						}
-					}
-				}
-				break;
-			}
+			// NTICD_ISINKDOM and ADAPTIVE are always computed on the IntCFG
 			default: throw new IllegalArgumentException();
 		}
 		
@@ -630,21 +674,21 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 			String cdgFileName = WriteGraphToDot.sanitizeFileName(method.getSignature() + "-" + builder.cfg.controlDependenceVariant + "-cdg.dot");
 			String cfgFileName = WriteGraphToDot.sanitizeFileName(method.getSignature() + "-" + builder.cfg.controlDependenceVariant + "-cfg.dot");
 			try {
-				WriteGraphToDot.write(cdg, cdgFileName, e -> true, v -> Integer.toString(v.getId()));
+				WriteGraphToDot.write(cdg != null ? cdg : toGraph(intCdg), cdgFileName, e -> true, v -> Integer.toString(v.getId()));
 				WriteGraphToDot.write(cfg, cfgFileName, e -> true, v -> Integer.toString(v.getId()));
 			} catch (FileNotFoundException e) {
 				log.outln(Arrays.toString(e.getStackTrace()));
 			}
 		}
 		
-		for (final PDGNode from : cdg.vertexSet()) {
-			for (final PDGEdge edge : cdg.outgoingEdgesOf(from)) {
-				final PDGNode to = cdg.getEdgeTarget(edge);
-				// do not add control dep to exception formal out. there is already a
-				// connection through data dependence from ret _exception_ field
-				// TODO: this is not always the case! For example, for call nodes in infinite loops
-				if (!(from.getKind() == PDGNode.Kind.CALL && to == exception)) {
-					addEdge(from, to, (from == entry && to == exit ? PDGEdge.Kind.CONTROL_DEP_EXPR : PDGEdge.Kind.CONTROL_DEP));
+		if (intCdg != null) {
+			for (int i = 0; i < intCdg.size(); i++) {
+				addControlDependence(intCdg.getSource(i), intCdg.getTarget(i));
+			}
+		} else {
+			for (final PDGNode from : cdg.vertexSet()) {
+				for (final PDGEdge edge : cdg.outgoingEdgesOf(from)) {
+					addControlDependence(from, cdg.getEdgeTarget(edge));
 				}
 			}
 		}
@@ -718,7 +762,7 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		// Still, in order to remain sound, and in order to avoid a fixed-point iteration, we need to process the phi
 		// nodes in order (by node id, which --- for any two phi nodes that correspond to the same "moral" join -- corresponds
 		// to CFG order).
-		final TreeSet<PDGNode> phis = cdg.vertexSet().stream().filter( n -> n.getKind() == PDGNode.Kind.PHI).collect(Collectors.toCollection(TreeSet::new));
+		final TreeSet<PDGNode> phis = (cdg != null ? cdg.vertexSet() : cfg.vertexSet()).stream().filter( n -> n.getKind() == PDGNode.Kind.PHI).collect(Collectors.toCollection(TreeSet::new));
 		for (final PDGNode n : phis) {
 			assert (n.getKind() == PDGNode.Kind.PHI); {
 				Set<PDGNode> cdPreds = new HashSet<PDGNode>();
@@ -742,6 +786,64 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		}
 	}
 
+	private void addControlDependence(final PDGNode from, final PDGNode to) {
+		// do not add control dep to exception formal out. there is already a
+		// connection through data dependence from ret _exception_ field
+		// TODO: this is not always the case! For example, for call nodes in infinite loops
+		if (!(from.getKind() == PDGNode.Kind.CALL && to == exception)) {
+			addEdge(from, to, (from == entry && to == exit ? PDGEdge.Kind.CONTROL_DEP_EXPR : PDGEdge.Kind.CONTROL_DEP));
+		}
+	}
+
+	/**
+	 * Computes the control dependencies of the given variant on an {@link IntCFG}, if they are ported to
+	 * {@link IntCDG}. ADAPTIVE and NTICD_ISINKDOM are always ported, CLASSIC only for control flow graphs
+	 * where every node reaches the exit node. In all other cases this returns null, and the control
+	 * dependencies have to be computed on the object graph:
+	 * <ul>
+	 * <li>CLASSIC, if some node does not reach the exit node.</li>
+	 * <li>The other nontermination sensitive and insensitive variants NTSCD* and NTICD*.</li>
+	 * </ul>
+	 *
+	 * @param cfg a control flow graph that contains entry and exit
+	 * @return the control dependencies, or null if the object graph has to be used instead
+	 */
+	@SuppressWarnings("deprecation")
+	static <V, E> IntCDG<V> computeIntCDG(final SDGBuilder.ControlDependenceVariant variant,
+			final DirectedGraph<V, E> cfg, final V entry, final V exit) {
+		switch (variant) {
+			case CLASSIC: {
+				final IntCFG<V> intCfg = IntCFG.of(cfg);
+				return intCfg.isReachableFromAll(intCfg.indexOf(exit)) ? IntCDG.build(intCfg, entry, exit) : null;
+			}
+			case ADAPTIVE:
+				return IntCDG.buildAdaptive(IntCFG.of(cfg), entry, exit);
+			case NTICD_ISINKDOM:
+				return IntCDG.buildNTICD(IntCFG.of(cfg), entry, exit);
+			case NTSCD:
+			case NTSCD_IMAXDOM:
+			case NTICD_LFP:
+			case NTICD_GFP:
+			case NTICD_GFP_WORKLIST_SYMBOLIC:
+			case NTICD_LFP_DUAL_WORKLIST:
+				return null;
+			default: throw new IllegalArgumentException(variant.toString());
+		}
+	}
+
+	private static DependenceGraph toGraph(final IntCDG<PDGNode> intCdg) {
+		final DependenceGraph graph = new DependenceGraph(() -> new ArrayMap<>());
+		for (int i = 0; i < intCdg.getCFG().size(); i++) {
+			graph.addVertex(intCdg.getCFG().getNode(i));
+		}
+
+		for (int i = 0; i < intCdg.size(); i++) {
+			graph.addEdge(intCdg.getSource(i), intCdg.getTarget(i), PDGEdge.Kind.CONTROL_DEP);
+		}
+
+		return graph;
+	}
+
 	private Set<PDGNode> findUnreachableFrom(final DirectedGraph<PDGNode, PDGEdge> cfg, final PDGNode entry) {
 		final Set<PDGNode> unreachable = new HashSet<PDGNode>(cfg.vertexSet());
 
@@ -762,45 +864,6 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		return unreachable;
 	}
 	
-	private DependenceGraph createSinkRepresentativeVariant(DependenceGraph cfg) {
-		final DependenceGraph result = new DependenceGraph(() -> new ArrayMap<>());
-		for (final PDGNode node : cfg.vertexSet()) {
-			result.addVertex(node);
-		}
-		
-		final KosarajuStrongConnectivityInspector<PDGNode, PDGEdge> sccInspector = new KosarajuStrongConnectivityInspector<>(cfg);
-		final Map<PDGNode, PDGNode> freshForRepresentant = new HashMap<>();
-		for (Set<PDGNode> scc : sccInspector.stronglyConnectedSets()) {
-			final boolean isNontrivialSink = scc.size() > 1 && !scc.stream().anyMatch(
-				v -> cfg.outgoingEdgesOf(v).stream().anyMatch(
-					e -> !scc.contains(cfg.getEdgeTarget(e))
-				)
-			);
-			if (isNontrivialSink) {
-				final PDGNode representant = scc.iterator().next();
-				final PDGNode fresh = createDummyNode(DUMMY_LABEL); { // this is awkward
-					freshForRepresentant.put(representant, fresh);
-					cfg.addVertex(fresh);
-					result.addVertex(fresh);
-					this.removeVertex(fresh);
-				}
-			}
-		}
-
-		for (PDGEdge e : cfg.edgeSet()) {
-			final PDGNode n = e.getSource();
-			final PDGNode m = e.getTarget();
-			final PDGNode fresh = freshForRepresentant.get(m);
-			if (fresh == null) {
-				result.addEdgeUnsafe(n, m, e);
-			} else if (!n.equals(m)) {
-				result.addEdge(n, fresh, PDGEdge.Kind.CONTROL_FLOW);
-			}
-		}
-		
-		return result;
-	}
-
 	public DependenceGraph createCfgWithoutParams() {
 		final DependenceGraph cfg = new DependenceGraph(() -> new ArrayMap<>());
 		for (final PDGNode node : vertexSet()) {
@@ -1397,10 +1460,11 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		exit.setBytecodeName(BytecodeLocation.RETURN_PARAM);
 	}
 
-	private void addNodesForInstructions(final IR ir, Iterator<SSAInstruction> instructions) {
+	private void addNodesForInstructions(final IR ir, final TypeInference preparedTypes, Iterator<SSAInstruction> instructions) {
         PDGNodeCreationVisitor visitor;
         if (this.builder.cfg.showTypeNameInValue) {
-            TypeInference typeInf = TypeInference.make(ir, true /* doPrimitives */); // ==> Unexpected: JavaPrimitiveType
+            TypeInference typeInf = (preparedTypes != null ? preparedTypes
+                : TypeInference.make(ir, true /* doPrimitives */)); // ==> Unexpected: JavaPrimitiveType
             // Use AbstractFixedPointSolver? 
             visitor = PDGNodeCreationVisitor.makeWithTypeInf(this, builder.getClassHierarchy(),
                 builder.getParameterFieldFactory(), ir.getSymbolTable(), ignoreStaticFields, true /* showTypeNameInValue */ ,
@@ -1561,10 +1625,59 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		final int nodeId = builder.getNextNodeId();
 		final PDGNode node = new PDGNode(nodeId, id, label, kind, type, localDefNames, localUseNames);
 		addVertex(node);
+		if (createdNodeIds != null) {
+			createdNodeIds.add(nodeId);
+		}
 
 		return node;
 	}
 
+	/**
+	 * Moves all nodes of a pdg built with {@link #buildRenumberable} to the node ids
+	 * firstId, firstId + 1, ... in the order they were created. This yields exactly the node ids a
+	 * sequential construction would have assigned, if firstId is the next free id at that point.
+	 * @param firstId the first node id of this pdg
+	 * @return the number of node ids used by this pdg, including those of nodes that have been removed.
+	 */
+	int renumberNodes(final int firstId) {
+		if (createdNodeIds == null) {
+			throw new IllegalStateException("pdg of " + method.getSignature() + " has not been built renumberable.");
+		}
+
+		// all ids of a pdg are drawn from one increasing counter, hence createdNodeIds is sorted
+		for (final PDGNode node : vertexSet()) {
+			final int index = createdNodeIds.binarySearch(node.getId());
+			assert index >= 0;
+			node.renumber(firstId + index);
+		}
+
+		rehash();
+		rehash(node2instr);
+		rehash(call2in);
+		rehash(call2staticIn);
+		rehash(call2staticOut);
+		rehash(call2out);
+
+		final int used = createdNodeIds.size();
+		createdNodeIds = null;
+
+		return used;
+	}
+
+	/**
+	 * @return the number of node ids this pdg has drawn so far, including those of removed nodes. Only available
+	 * for pdgs built with {@link #buildRenumberable} that have not been renumbered yet.
+	 */
+	int getNumberOfCreatedNodeIds() {
+		return createdNodeIds.size();
+	}
+
+	private static <T> void rehash(final Map<PDGNode, T> map) {
+		final Map<PDGNode, T> copy = new HashMap<PDGNode, T>(map);
+		map.clear();
+		map.putAll(copy);
+	}
+
 	public PDGNode createCallReturnNode(PDGNode call) {
 		final PDGNode callRetNode = createNode(SDGConstants.CALLRET_LABEL, Kind.NORMAL, PDGNode.DEFAULT_NO_TYPE, PDGNode.DEFAULT_NO_LOCAL, PDGNode.DEFAULT_NO_LOCAL);
 		callRetNode.setBytecodeName(call.getBytecodeName());
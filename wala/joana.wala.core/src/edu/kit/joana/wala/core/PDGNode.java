@@ -146,8 +146,9 @@ public final class PDGNode implements INodeWithNumber, IntegerIdentifiable, Comp
         }
 	}
 
-    /* The ID of the node. Should be unique in the graph. Negative IDs are permitted.*/
-    private final int id;
+    /* The ID of the node. Should be unique in the graph. Negative IDs are permitted.
+       Only changed by the deterministic renumbering after parallel pdg construction. */
+    private int id;
 
 	/* The ID of the procedure to which the node belongs.*/
     private final int proc;
@@ -213,6 +214,17 @@ public final class PDGNode implements INodeWithNumber, IntegerIdentifiable, Comp
 		return id;
 	}
 
+	/**
+	 * Changes the id of this node. Only to be used by {@link PDG#renumberNodes(int)}, as the hashCode of this node
+	 * changes and all containers that use this node as key have to be rebuilt afterwards.
+	 */
+	void renumber(int newId) {
+		if (nodeID == id) {
+			nodeID = newId;
+		}
+		id = newId;
+	}
+
 	public int getPdgId() {
 		return proc;
 	}
@@ -33,7 +33,7 @@ public final class ParameterFieldFactory {
 	private final Map<IField, ObjectField> ifield2field;
 	private final Map<TypeReference, ArrayField> type2field;
 
-	private final MutableMapping<ParameterField> fieldMapping;
+	private MutableMapping<ParameterField> fieldMapping;
 
 	
 	public ParameterFieldFactory() {
@@ -115,6 +115,32 @@ public final class ParameterFieldFactory {
 	public OrdinalSetMapping<ParameterField> getMapping() {
 		return fieldMapping;
 	}
+
+	/**
+	 * Reassigns the indices of the field mapping: The first fields keep their index, followed by the given fields
+	 * in iteration order and all remaining fields in their previous order. Used to make the mapping independent of
+	 * the thread scheduling, when the fields have been created by multiple threads. Must not be called after
+	 * the mapping has been used to create ordinal sets.
+	 * @param keep number of fields at the start of the mapping that keep their index, at least the lock fields
+	 * @param fields the fields in the order they should be indexed, may contain duplicates
+	 */
+	synchronized void reorderMapping(final int keep, final Iterable<ParameterField> fields) {
+		final MutableMapping<ParameterField> old = fieldMapping;
+		fieldMapping = MutableMapping.make();
+		for (int i = 0; i < keep; i++) {
+			fieldMapping.add(old.getMappedObject(i));
+		}
+		for (final ParameterField f : fields) {
+			if (!fieldMapping.hasMappedIndex(f)) {
+				fieldMapping.add(f);
+			}
+		}
+		for (final ParameterField f : old) {
+			if (!fieldMapping.hasMappedIndex(f)) {
+				fieldMapping.add(f);
+			}
+		}
+	}
 	
 	private static final Atom LOCK_NAME = Atom.findOrCreateAsciiAtom("<lock>");
 	private static final FieldReference FIELD_REF = FieldReference.findOrCreate(TypeReference.JavaLangObject, LOCK_NAME, TypeReference.Boolean);
@@ -0,0 +1,167 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Java Flight Recorder events of a {@link SDGBuildProfile}. This module targets Java 8, which has no
+ * <code>jdk.jfr</code> API, so the event types are defined at runtime via <code>jdk.jfr.EventFactory</code>, which
+ * is looked up reflectively. If the vm does not provide it, there is no {@link #INSTANCE} and no events are emitted.
+ */
+final class SDGBuildEvents {
+
+	static final String PHASE_EVENT = "edu.kit.joana.SDGBuildPhase";
+	static final String PDG_EVENT = "edu.kit.joana.PDGBuild";
+
+	private static final String[] CATEGORY = { "JOANA", "SDG Construction" };
+
+	/** the events, or null if the vm does not provide JFR */
+	static final SDGBuildEvents INSTANCE = create();
+
+	private final Constructor<?> newAnnotation;
+	private final Constructor<?> newField;
+
+	/** the event factories have to stay reachable, otherwise their event types are unregistered */
+	private final Object phaseFactory;
+	private final Object pdgFactory;
+	private final Method newEvent;
+	private final Method begin;
+	private final Method end;
+	private final Method shouldCommit;
+	private final Method commit;
+	private final Method set;
+
+	private static SDGBuildEvents create() {
+		try {
+			return new SDGBuildEvents();
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+			return null;
+		}
+	}
+
+	private SDGBuildEvents() throws ReflectiveOperationException {
+		final Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+		final Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+		final Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+		final Class<?> event = Class.forName("jdk.jfr.Event");
+		newAnnotation = annotationElement.getConstructor(Class.class, Object.class);
+		newField = valueDescriptor.getConstructor(Class.class, String.class, List.class);
+		final Method createFactory = eventFactory.getMethod("create", List.class, List.class);
+		newEvent = eventFactory.getMethod("newEvent");
+		begin = event.getMethod("begin");
+		end = event.getMethod("end");
+		shouldCommit = event.getMethod("shouldCommit");
+		commit = event.getMethod("commit");
+		set = event.getMethod("set", int.class, Object.class);
+
+		// the order of the fields determines their index, see commitPhase and commitPdg
+		phaseFactory = createFactory.invoke(null,
+			eventAnnotations(PHASE_EVENT, "SDG Build Phase", "A phase of the SDG construction"),
+			Arrays.asList(
+				field(String.class, "phase", "Phase", null),
+				field(long.class, "cpuTime", "CPU Time", "CPU time of all threads, -1 if not supported",
+						annotation("jdk.jfr.Timespan", "NANOSECONDS")),
+				field(long.class, "allocated", "Allocated", "Bytes allocated by all threads, -1 if not supported",
+						annotation("jdk.jfr.DataAmount", "BYTES")),
+				field(long.class, "nodesBefore", "Nodes Before", null),
+				field(long.class, "edgesBefore", "Edges Before", null),
+				field(long.class, "nodesAfter", "Nodes After", null),
+				field(long.class, "edgesAfter", "Edges After", null)));
+		pdgFactory = createFactory.invoke(null,
+			eventAnnotations(PDG_EVENT, "PDG Build", "The construction of the PDG of a single method"),
+			Arrays.asList(
+				field(String.class, "method", "Method", null),
+				field(int.class, "nodes", "Nodes", null)));
+	}
+
+	private Object annotation(final String type, final Object value) throws ReflectiveOperationException {
+		final Class<? extends Annotation> annotation = Class.forName(type).asSubclass(Annotation.class);
+		return newAnnotation.newInstance(annotation, value);
+	}
+
+	private List<Object> eventAnnotations(final String name, final String label, final String description)
+			throws ReflectiveOperationException {
+		return Arrays.asList(
+			annotation("jdk.jfr.Name", name),
+			annotation("jdk.jfr.Label", label),
+			annotation("jdk.jfr.Category", CATEGORY),
+			annotation("jdk.jfr.Description", description));
+	}
+
+	private Object field(final Class<?> type, final String name, final String label, final String description,
+			final Object... annotations) throws ReflectiveOperationException {
+		final List<Object> all = new ArrayList<Object>();
+		all.add(annotation("jdk.jfr.Label", label));
+		if (description != null) {
+			all.add(annotation("jdk.jfr.Description", description));
+		}
+		Collections.addAll(all, annotations);
+		return newField.newInstance(type, name, all);
+	}
+
+	private static Object invoke(final Method method, final Object target, final Object... args) {
+		try {
+			return method.invoke(target, args);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private Object begin(final Object factory) {
+		final Object event = invoke(newEvent, factory);
+		invoke(begin, event);
+		return event;
+	}
+
+	/**
+	 * @return whether the event is to be committed, after setting its end time
+	 */
+	private boolean end(final Object event) {
+		invoke(end, event);
+		return (Boolean) invoke(shouldCommit, event);
+	}
+
+	Object beginPhase() {
+		return begin(phaseFactory);
+	}
+
+	void commitPhase(final Object event, final SDGBuildProfile.PhaseRecord record) {
+		if (end(event)) {
+			invoke(set, event, 0, record.getName());
+			invoke(set, event, 1, record.getCpuNanos());
+			invoke(set, event, 2, record.getAllocatedBytes());
+			invoke(set, event, 3, record.getNodesBefore());
+			invoke(set, event, 4, record.getEdgesBefore());
+			invoke(set, event, 5, record.getNodesAfter());
+			invoke(set, event, 6, record.getEdgesAfter());
+			invoke(commit, event);
+		}
+	}
+
+	Object beginPdg() {
+		return begin(pdgFactory);
+	}
+
+	void commitPdg(final Object event, final SDGBuildProfile.PdgRecord record) {
+		if (end(event)) {
+			invoke(set, event, 0, record.getMethod());
+			invoke(set, event, 1, record.getNodes());
+			invoke(commit, event);
+		}
+	}
+}
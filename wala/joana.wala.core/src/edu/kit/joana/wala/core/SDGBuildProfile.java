@@ -0,0 +1,468 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+
+/**
+ * Records the phases of an SDG build: for each phase the wall clock time, the cpu time and the allocated bytes of
+ * all threads of the vm (as reported by the {@link ThreadMXBean}), and the number of nodes and edges before and
+ * after the phase. It also keeps the pdgs that took longest to build.
+ * <p>
+ * Set it via {@link SDGBuilder.SDGBuilderConfig#profile} before the build and read it afterwards, e.g. with
+ * {@link #toJSON()}. If the vm supports Java Flight Recorder, every phase and every pdg build is also emitted as
+ * a JFR event ({@value SDGBuildEvents#PHASE_EVENT} and {@value SDGBuildEvents#PDG_EVENT}), which shows up
+ * in recordings started with <code>-XX:StartFlightRecording</code>.
+ * <p>
+ * Cpu time and allocations are summed over the threads alive at the end of a phase, so threads that terminate
+ * during a phase are not accounted for. Values that the vm does not support are reported as -1.
+ */
+public final class SDGBuildProfile {
+
+	public static final int DEFAULT_HOTSPOTS = 20;
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	/** null if the vm does not provide JFR */
+	private static final SDGBuildEvents EVENTS = SDGBuildEvents.INSTANCE;
+
+	private final int maxHotspots;
+	private final List<PhaseRecord> phases = new ArrayList<PhaseRecord>();
+	/** the slowest pdg builds so far, the fastest of them at the head */
+	private final PriorityQueue<PdgRecord> hotspots;
+	private long pdgs = 0;
+	private long pdgNanos = 0;
+
+	public SDGBuildProfile() {
+		this(DEFAULT_HOTSPOTS);
+	}
+
+	/**
+	 * @param maxHotspots how many of the slowest pdg builds are kept
+	 */
+	public SDGBuildProfile(final int maxHotspots) {
+		if (maxHotspots < 0) {
+			throw new IllegalArgumentException("maxHotspots < 0: " + maxHotspots);
+		}
+		this.maxHotspots = maxHotspots;
+		this.hotspots = new PriorityQueue<PdgRecord>(maxHotspots + 1, Comparator.comparingLong(PdgRecord::getNanos));
+	}
+
+	/**
+	 * Starts a phase. The phase is recorded once {@link Phase#end(long, long)} is called.
+	 *
+	 * @param name name of the phase
+	 * @param nodes number of nodes before the phase
+	 * @param edges number of edges before the phase
+	 */
+	public Phase begin(final String name, final long nodes, final long edges) {
+		return new Phase(name, nodes, edges);
+	}
+
+	/**
+	 * Starts to time the build of a single pdg. May be called concurrently.
+	 */
+	public PdgBuild beginPdg() {
+		return new PdgBuild();
+	}
+
+	private synchronized void add(final PhaseRecord phase) {
+		phases.add(phase);
+	}
+
+	private synchronized void add(final PdgRecord pdg) {
+		pdgs++;
+		pdgNanos += pdg.nanos;
+		if (maxHotspots > 0) {
+			hotspots.add(pdg);
+			if (hotspots.size() > maxHotspots) {
+				hotspots.poll();
+			}
+		}
+	}
+
+	/**
+	 * @return the finished phases in the order they ended
+	 */
+	public synchronized List<PhaseRecord> getPhases() {
+		return Collections.unmodifiableList(new ArrayList<PhaseRecord>(phases));
+	}
+
+	/**
+	 * @return the slowest pdg builds, the slowest first
+	 */
+	public synchronized List<PdgRecord> getHotspots() {
+		final List<PdgRecord> result = new ArrayList<PdgRecord>(hotspots);
+		result.sort(Comparator.comparingLong(PdgRecord::getNanos).reversed());
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * @return the number of pdgs built
+	 */
+	public synchronized long getNumberOfPdgs() {
+		return pdgs;
+	}
+
+	/**
+	 * @return the sum of the build times of all pdgs, which exceeds the wall clock time if they were built in
+	 *         parallel
+	 */
+	public synchronized long getPdgNanos() {
+		return pdgNanos;
+	}
+
+	/**
+	 * @return the phases and hotspots as json object
+	 */
+	public String toJSON() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("{\n  \"phases\": [");
+		boolean first = true;
+		for (final PhaseRecord p : getPhases()) {
+			sb.append(first ? "\n" : ",\n");
+			first = false;
+			sb.append("    {\"name\": ").append(quote(p.name));
+			sb.append(", \"wallNanos\": ").append(p.wallNanos);
+			sb.append(", \"cpuNanos\": ").append(p.cpuNanos);
+			sb.append(", \"allocatedBytes\": ").append(p.allocatedBytes);
+			sb.append(", \"nodesBefore\": ").append(p.nodesBefore);
+			sb.append(", \"edgesBefore\": ").append(p.edgesBefore);
+			sb.append(", \"nodesAfter\": ").append(p.nodesAfter);
+			sb.append(", \"edgesAfter\": ").append(p.edgesAfter);
+			sb.append("}");
+		}
+		sb.append(first ? "],\n" : "\n  ],\n");
+		sb.append("  \"pdgs\": {\"count\": ").append(getNumberOfPdgs());
+		sb.append(", \"totalNanos\": ").append(getPdgNanos());
+		sb.append(", \"hotspots\": [");
+		first = true;
+		for (final PdgRecord p : getHotspots()) {
+			sb.append(first ? "\n" : ",\n");
+			first = false;
+			sb.append("    {\"method\": ").append(quote(p.method));
+			sb.append(", \"nanos\": ").append(p.nanos);
+			sb.append(", \"nodes\": ").append(p.nodes);
+			sb.append("}");
+		}
+		sb.append(first ? "]}\n" : "\n  ]}\n");
+		sb.append("}\n");
+
+		return sb.toString();
+	}
+
+	/**
+	 * Writes {@link #toJSON()} to the given file.
+	 */
+	public void writeJSON(final File file) throws IOException {
+		try (final PrintWriter pw =
+				new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			pw.print(toJSON());
+			if (pw.checkError()) {
+				throw new IOException("could not write " + file);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		for (final PhaseRecord p : getPhases()) {
+			sb.append(p).append('\n');
+		}
+		sb.append(getNumberOfPdgs() + " pdgs built in " + (getPdgNanos() / 1000000) + "ms");
+		for (final PdgRecord p : getHotspots()) {
+			sb.append('\n').append('\t').append(p);
+		}
+
+		return sb.toString();
+	}
+
+	private static String quote(final String str) {
+		final StringBuilder sb = new StringBuilder(str.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < str.length(); i++) {
+			final char c = str.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+
+		return sb.toString();
+	}
+
+	/**
+	 * @return the cpu time of all live threads by thread id, or null if not supported
+	 */
+	private static TLongLongMap threadCpuTimes() {
+		if (!THREADS.isThreadCpuTimeSupported() || !THREADS.isThreadCpuTimeEnabled()) {
+			return null;
+		}
+		final long[] ids = THREADS.getAllThreadIds();
+		final TLongLongMap times = new TLongLongHashMap(ids.length);
+		for (final long id : ids) {
+			final long time = THREADS.getThreadCpuTime(id);
+			if (time >= 0) {
+				times.put(id, time);
+			}
+		}
+
+		return times;
+	}
+
+	/**
+	 * @return the allocated bytes of all live threads by thread id, or null if not supported
+	 */
+	private static TLongLongMap threadAllocatedBytes() {
+		if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+		if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+			return null;
+		}
+		final long[] ids = threads.getAllThreadIds();
+		final long[] bytes = threads.getThreadAllocatedBytes(ids);
+		final TLongLongMap allocated = new TLongLongHashMap(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			if (bytes[i] >= 0) {
+				allocated.put(ids[i], bytes[i]);
+			}
+		}
+
+		return allocated;
+	}
+
+	/**
+	 * @return the sum of the increases from <code>before</code> to <code>after</code>, or -1 if not supported
+	 */
+	private static long increase(final TLongLongMap before, final TLongLongMap after) {
+		if (before == null || after == null) {
+			return -1;
+		}
+		final long[] sum = { 0 };
+		after.forEachEntry((id, value) -> {
+			sum[0] += value - before.get(id);
+			return true;
+		});
+
+		return sum[0];
+	}
+
+	/**
+	 * A started phase, see {@link SDGBuildProfile#begin(String, long, long)}.
+	 */
+	public final class Phase {
+		private final String name;
+		private final long nodes;
+		private final long edges;
+		private final TLongLongMap cpuTimes;
+		private final TLongLongMap allocatedBytes;
+		private final Object event;
+		private final long start;
+		private boolean ended = false;
+
+		private Phase(final String name, final long nodes, final long edges) {
+			this.name = name;
+			this.nodes = nodes;
+			this.edges = edges;
+			this.event = (EVENTS != null ? EVENTS.beginPhase() : null);
+			this.cpuTimes = threadCpuTimes();
+			this.allocatedBytes = threadAllocatedBytes();
+			this.start = System.nanoTime();
+		}
+
+		/**
+		 * Ends the phase and records it. Subsequent calls are ignored.
+		 *
+		 * @param nodesAfter number of nodes after the phase
+		 * @param edgesAfter number of edges after the phase
+		 */
+		public void end(final long nodesAfter, final long edgesAfter) {
+			if (ended) {
+				return;
+			}
+			ended = true;
+			final long wall = System.nanoTime() - start;
+			final long cpu = increase(cpuTimes, threadCpuTimes());
+			final long allocated = increase(allocatedBytes, threadAllocatedBytes());
+			final PhaseRecord record =
+					new PhaseRecord(name, wall, cpu, allocated, nodes, edges, nodesAfter, edgesAfter);
+			add(record);
+			if (event != null) {
+				EVENTS.commitPhase(event, record);
+			}
+		}
+	}
+
+	/**
+	 * A started pdg build, see {@link SDGBuildProfile#beginPdg()}.
+	 */
+	public final class PdgBuild {
+		private final Object event;
+		private final long start;
+
+		private PdgBuild() {
+			this.event = (EVENTS != null ? EVENTS.beginPdg() : null);
+			this.start = System.nanoTime();
+		}
+
+		/**
+		 * Records the build of the pdg.
+		 *
+		 * @param method the method of the pdg
+		 * @param nodes the number of nodes of the pdg
+		 */
+		public void end(final String method, final int nodes) {
+			final PdgRecord record = new PdgRecord(method, System.nanoTime() - start, nodes);
+			add(record);
+			if (event != null) {
+				EVENTS.commitPdg(event, record);
+			}
+		}
+	}
+
+	/**
+	 * The measurements of a finished phase.
+	 */
+	public static final class PhaseRecord {
+		private final String name;
+		private final long wallNanos;
+		private final long cpuNanos;
+		private final long allocatedBytes;
+		private final long nodesBefore;
+		private final long edgesBefore;
+		private final long nodesAfter;
+		private final long edgesAfter;
+
+		private PhaseRecord(final String name, final long wallNanos, final long cpuNanos, final long allocatedBytes,
+				final long nodesBefore, final long edgesBefore, final long nodesAfter, final long edgesAfter) {
+			this.name = name;
+			this.wallNanos = wallNanos;
+			this.cpuNanos = cpuNanos;
+			this.allocatedBytes = allocatedBytes;
+			this.nodesBefore = nodesBefore;
+			this.edgesBefore = edgesBefore;
+			this.nodesAfter = nodesAfter;
+			this.edgesAfter = edgesAfter;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getWallNanos() {
+			return wallNanos;
+		}
+
+		/**
+		 * @return cpu time of all threads during the phase, or -1 if not supported
+		 */
+		public long getCpuNanos() {
+			return cpuNanos;
+		}
+
+		/**
+		 * @return bytes allocated by all threads during the phase, or -1 if not supported
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		public long getNodesBefore() {
+			return nodesBefore;
+		}
+
+		public long getEdgesBefore() {
+			return edgesBefore;
+		}
+
+		public long getNodesAfter() {
+			return nodesAfter;
+		}
+
+		public long getEdgesAfter() {
+			return edgesAfter;
+		}
+
+		@Override
+		public String toString() {
+			return name + ": " + (wallNanos / 1000000) + "ms wall, "
+					+ (cpuNanos < 0 ? "?" : Long.toString(cpuNanos / 1000000)) + "ms cpu, "
+					+ (allocatedBytes < 0 ? "?" : Long.toString(allocatedBytes / (1024 * 1024))) + "M allocated, "
+					+ "nodes " + nodesBefore + " -> " + nodesAfter + ", edges " + edgesBefore + " -> " + edgesAfter;
+		}
+	}
+
+	/**
+	 * The build time of a single pdg.
+	 */
+	public static final class PdgRecord {
+		private final String method;
+		private final long nanos;
+		private final int nodes;
+
+		private PdgRecord(final String method, final long nanos, final int nodes) {
+			this.method = method;
+			this.nanos = nanos;
+			this.nodes = nodes;
+		}
+
+		public String getMethod() {
+			return method;
+		}
+
+		public long getNanos() {
+			return nanos;
+		}
+
+		public int getNodes() {
+			return nodes;
+		}
+
+		@Override
+		public String toString() {
+			return method + ": " + (nanos / 1000000) + "ms, " + nodes + " nodes";
+		}
+	}
+}
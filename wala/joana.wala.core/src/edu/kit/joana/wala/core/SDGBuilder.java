@@ -72,6 +72,7 @@ import edu.kit.joana.wala.core.params.objgraph.ModRefCandidates;
 import edu.kit.joana.wala.core.params.objgraph.ObjGraphParams;
 import edu.kit.joana.wala.core.params.objgraph.SideEffectDetectorConfig;
 import edu.kit.joana.wala.flowless.util.Util;
+import edu.kit.joana.wala.summary.EntryPointCache;
 import edu.kit.joana.wala.summary.ISummaryComputer;
 import edu.kit.joana.wala.summary.SummaryComputationType;
 import edu.kit.joana.wala.summary.WorkPackage;
@@ -93,7 +94,9 @@ import org.jgrapht.DirectedGraph;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 
 public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
@@ -452,9 +455,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 
 		if (cfg.computeSummary) {
 			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			}
 		}
 
@@ -491,9 +494,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 
 		if (cfg.computeSummary) {
 			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			}
 		}
 
@@ -520,9 +523,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		
 		if (cfg.computeSummary) {
 			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			}
 		}
 
@@ -546,9 +549,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 
 		if (cfg.computeSummary) {
 			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, cfg.profile, progress);
 			}
 		}
 
@@ -567,7 +570,11 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	public static SDG convertToJoana(PrintStream out, SDGBuilder builder, IProgressMonitor progress, boolean keepPDGs)
 			throws CancelException {
 		out.print("convert");
+		final SDGBuildProfile.Phase phase = builder.beginPhase("convert");
 		final SDG sdg = JoanaConverter.convert(builder, progress, keepPDGs);
+		if (phase != null) {
+			phase.end(sdg.vertexSet().size(), sdg.edgeSet().size());
+		}
 		out.print(".");
 
 		return sdg;
@@ -588,28 +595,81 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		EntryPoint ep = new EntryPoint(pdg.entry.getId(), formIns, formOuts);
 		entries.add(ep);
 		WorkPackage<SDG> pack = WorkPackage.create(sdg, entries, sdg.getName());
+		if (builder.cfg.summaryCacheDir != null) {
+			pack.setSummaryCache(EntryPointCache.create(builder.cfg.summaryCacheDir));
+		}
+		pack.setSummaryThreads(builder.cfg.summaryThreads);
 		out.print(".");
 
 		return pack;
 	}
 
 	private static void computeSummaryEdges(PrintStream out, ISummaryComputer summaryComputer,
-			WorkPackage<SDG> pack, boolean isParallel, IProgressMonitor progress) throws CancelException {
+			WorkPackage<SDG> pack, boolean isParallel, SDGBuildProfile profile, IProgressMonitor progress)
+			throws CancelException {
+		final SDGBuildProfile.Phase phase = beginPhase(profile, "summary", pack.getGraph());
 		summaryComputer.compute(pack, isParallel, progress);
+		endPhase(phase, pack.getGraph());
 		out.print(".");
 	}
 
 	private static void computeDataAndAliasSummaryEdges(PrintStream out, ISummaryComputer summaryComputer,
-			WorkPackage<SDG> pack, boolean isParallel, IProgressMonitor progress) throws CancelException {
+			WorkPackage<SDG> pack, boolean isParallel, SDGBuildProfile profile, IProgressMonitor progress)
+			throws CancelException {
+		SDGBuildProfile.Phase phase = beginPhase(profile, "summary (no alias)", pack.getGraph());
 		summaryComputer.computeNoAliasDataDep(pack, isParallel, progress);
+		endPhase(phase, pack.getGraph());
 		out.print(".");
+		phase = beginPhase(profile, "summary (full alias)", pack.getGraph());
 		summaryComputer.computeFullAliasDataDep(pack, isParallel, progress);
+		endPhase(phase, pack.getGraph());
 		out.print(".");
 	}
 
+	private static SDGBuildProfile.Phase beginPhase(SDGBuildProfile profile, String name, SDG sdg) {
+		return profile == null ? null : profile.begin(name, sdg.vertexSet().size(), sdg.edgeSet().size());
+	}
+
+	private static void endPhase(SDGBuildProfile.Phase phase, SDG sdg) {
+		if (phase != null) {
+			phase.end(sdg.vertexSet().size(), sdg.edgeSet().size());
+		}
+	}
+
+	/**
+	 * Starts a phase of {@link SDGBuilderConfig#profile}, if set. The node and edge counts are those of all pdgs.
+	 */
+	private SDGBuildProfile.Phase beginPhase(String name) {
+		if (cfg.profile == null) {
+			return null;
+		}
+		final long[] size = pdgsSize();
+		return cfg.profile.begin(name, size[0], size[1]);
+	}
+
+	private void endPhase(SDGBuildProfile.Phase phase) {
+		if (phase != null) {
+			final long[] size = pdgsSize();
+			phase.end(size[0], size[1]);
+		}
+	}
+
+	/**
+	 * @return the number of nodes and the number of edges of all pdgs
+	 */
+	private long[] pdgsSize() {
+		long nodes = 0;
+		long edges = 0;
+		for (final PDG pdg : pdgs) {
+			nodes += pdg.vertexSet().size();
+			edges += pdg.edgeSet().size();
+		}
+		return new long[] { nodes, edges };
+	}
+
 	private APResult apResult = null;
 	private ParameterFieldFactory params = new ParameterFieldFactory();
-	private int currentNodeId = 1;
+	private final AtomicInteger currentNodeId = new AtomicInteger(1);
 	private int pdgId = getMainId();
 	private List<PDG> pdgs = new LinkedList<PDG>();
 	private TIntObjectMap<PDG> pdgIdToPdg = new TIntObjectHashMap<>();
@@ -635,7 +695,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 		cfg.out.print("\n\tcallgraph: ");
 		progress.beginTask("building call graph...", IProgressMonitor.UNKNOWN);
+		final SDGBuildProfile.Phase phase = beginPhase("callgraph");
 		final CGResult walaCG = buildCallgraph(progress);
+		endPhase(phase);
 		progress.done();
 		run(walaCG, progress);
 	}
@@ -659,7 +721,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 		nonPrunedCG = initalCG.cg;
 		progress.beginTask("pruning call graph...", IProgressMonitor.UNKNOWN);
+		SDGBuildProfile.Phase phase = beginPhase("prune callgraph");
 		cg = convertAndPruneCallGraph(cfg.prunecg, initalCG, progress);
+		endPhase(phase);
 		progress.done();
 		if (cfg.debugCallGraphDotOutput) {
 			debugDumpGraph(cg, "callgraph.dot");
@@ -670,6 +734,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		if (cfg.exceptions == ExceptionAnalysis.INTERPROC) {
 			cfg.out.print("\tinterproc exception analysis... ");
 			progress.beginTask("interproc exception analysis... ", IProgressMonitor.UNKNOWN);
+			phase = beginPhase("interproc exception analysis");
 
 			try {
 				interprocExceptionResult = NullPointerAnalysis.computeInterprocAnalysis(
@@ -679,11 +744,13 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 				throw new CancelException(e);
 			}
 
+			endPhase(phase);
 			progress.done();
 			if (IS_DEBUG) debug.outln(interprocExceptionResult.toString());
 		}
 
 		pdgId = getMainId();
+		phase = beginPhase("intraproc");
 		{
 			// create main pdg
 			final CGNode cgm = cg.getRoot().node;
@@ -699,28 +766,34 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		progress.beginTask("computing intraprocedural flow", cg.vertexSet().size());
 		int currentNum = 1;
 
-		for (CallGraph.Node node : cg.vertexSet()) {
-			if (node.node == cg.getRoot().node) {
-				continue;
-			}
+		if (isParallel() && cfg.doParallelPDGs && cfg.ext == ExternalCallCheck.EMPTY) {
+			createAndAddPDGsParallel(cg, progress);
+		} else {
+			for (CallGraph.Node node : cg.vertexSet()) {
+				if (node.node == cg.getRoot().node) {
+					continue;
+				}
 
-			final CGNode cgm = node.node;
-			final PDG pdg = createAndAddPDG(cgm, progress);
+				final CGNode cgm = node.node;
+				final PDG pdg = createAndAddPDG(cgm, progress);
 
-			progress.worked(currentNum++);
+				progress.worked(currentNum++);
 
-			MonitorUtil.throwExceptionIfCanceled(progress);
+				MonitorUtil.throwExceptionIfCanceled(progress);
 
-			if (cfg.debugManyGraphsDotOutput) {
-				debugOutput(pdg);
+				if (cfg.debugManyGraphsDotOutput) {
+					debugOutput(pdg);
+				}
 			}
 		}
+		endPhase(phase);
 		progress.done();
 		
 		SourceLocation.clearSourceLocationPool();
 
 		cfg.out.print("calls");
 		progress.beginTask("interproc: connect call sites", pdgs.size());
+		phase = beginPhase("connect call sites");
 		currentNum = 0;
 		// connect call sites
 		for (PDG pdg : pdgs) {
@@ -758,10 +831,12 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 
 		cfg.out.print(".");
+		endPhase(phase);
 		progress.done();
 		
 		if (cfg.staticInitializers != StaticInitializationTreatment.NONE) {
 			progress.beginTask("interproc: handling static initializers (clinit)...", IProgressMonitor.UNKNOWN);
+			phase = beginPhase("static initializers");
 			cfg.out.print("clinit");
 			switch (cfg.staticInitializers) {
 			case SIMPLE:
@@ -774,6 +849,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			default:
 				throw new IllegalStateException("Unknown option: " + cfg.staticInitializers);
 			}
+			endPhase(phase);
 			cfg.out.print(".");
 
 		}
@@ -781,26 +857,34 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		cfg.out.print("statics");
 		// propagate static root nodes and add dataflow
 		progress.beginTask("interproc: adding data flow for static fields...", IProgressMonitor.UNKNOWN);
+		phase = beginPhase("static fields");
 		addDataFlowForStaticFields(progress);
+		endPhase(phase);
 		progress.done();
 		cfg.out.print(".");
 
 		cfg.out.print("heap");
 		// compute dataflow through heap/fields (no-alias)
+		phase = beginPhase("heap fields");
 		addDataFlowForHeapFields(progress);
+		endPhase(phase);
 		cfg.out.print(".");
 
 		cfg.out.print("misc");
 		// compute dummy connections for unresolved calls
 		progress.beginTask("interproc: adding dummy data flow to unresolved calls...", IProgressMonitor.UNKNOWN);
+		phase = beginPhase("unresolved calls");
 		addDummyDataFlowToUnresolvedCalls();
+		endPhase(phase);
 		progress.done();
 		cfg.out.print(".");
 
 		if (cfg.localKillingDefs) {
 			cfg.out.print("killdef");
 			progress.beginTask("interproc: computing local killing defintions...", IProgressMonitor.UNKNOWN);
+			phase = beginPhase("local killing definitions");
 			LocalKillingDefs.run(this, progress);
+			endPhase(phase);
 			progress.done();
 			cfg.out.print(".");
 		}
@@ -809,23 +893,30 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			DumpSDG.dumpIfEnabled(this, Log.L_SDG_DUMP_PRE_AP);
 			cfg.out.print("accesspath");
 			progress.beginTask("interproc: computing access path information...", IProgressMonitor.UNKNOWN);
+			phase = beginPhase("access paths");
 			// compute access path info
 			this.apResult = AccessPath.compute(this, getMainPDG());
+			endPhase(phase);
 			progress.done();
 			cfg.out.print(".");
 		}
 
+		phase = beginPhase("return edges");
 		addReturnEdges();
+		endPhase(phase);
 
 		progress.worked(1);
 		if (cfg.computeAllocationSites) {
+			phase = beginPhase("allocation sites");
 			call2alloc = new AllCallsAllocationSiteFinder(this).getAllocationSites();
+			endPhase(phase);
 		}
 
 		progress.worked(1);
 
 		if (cfg.computeInterference) {
 			cfg.out.print("interference");
+			phase = beginPhase("interference");
 			ThreadInformationProvider tiProvider = new ThreadInformationProvider(this);
 
 			if (!cfg.computeAllocationSites) {
@@ -836,6 +927,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			addInterferenceEdges(tiProvider, progress);
 			progress.subTask("introducing fork edges...");
 			introduceForkEdges(tiProvider);
+			endPhase(phase);
 			cfg.out.print(".");
 		}
 
@@ -843,7 +935,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		//addEntryExitCFEdges();
 
 		if (cfg.pruneDDEdgesToDanglingExceptionNodes) {
+			phase = beginPhase("prune dangling exception data dependencies");
 			pruneDDEdgesToDanglingExceptionNodes();
+			endPhase(phase);
 		}
 
 		final Logger l = Log.getLogger(Log.L_WALA_UNRESOLVED_CLASSES);
@@ -1796,9 +1890,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	}
 
 	public int getNextNodeId() {
-		final int id = currentNodeId;
-		currentNodeId++;
-		return id;
+		return currentNodeId.getAndIncrement();
 	}
 
 	public IClassHierarchy getClassHierarchy() {
@@ -2092,6 +2184,11 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		public boolean computeInterference = true;
 		public boolean computeSummary = true;
 		public SummaryComputationType summaryComputationType = SummaryComputationType.DEFAULT;
+		/*
+		 * Directory of a cache for the summary edges of library (primordial) methods, which may be shared across
+		 * runs and programs. Only used by SummaryComputationType.JOANA_CLASSIC_SCC. No cache is used if this is null.
+		 */
+		public String summaryCacheDir = null;
 		/*
 		 * If this flag is set, pdg nodes for all call sites of virtual methods contain
 		 * the possible allocation sites of the this-pointer (the ids of PDG nodes of the
@@ -2163,6 +2260,22 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		 * in multiple threads.
 		 */
 		public boolean doParallel = true;
+		/**
+		 * If this flag and {@link #doParallel} are set, the SDG builder builds the intraprocedural PDGs in
+		 * multiple threads. The IRs and control flow graphs are still computed in a single thread, as the caches
+		 * of WALA are not thread-safe.
+		 */
+		public boolean doParallelPDGs = false;
+		/**
+		 * Number of threads of the summary edge computation, if {@link #doParallel} is set and the summary
+		 * computation supports it. 0 uses one thread per available processor.
+		 */
+		public int summaryThreads = 0;
+		/**
+		 * If set, the SDG builder records the time, allocations and graph sizes of its phases and the slowest
+		 * pdg builds in it.
+		 */
+		public transient SDGBuildProfile profile = null;
 		/**
 		 * Options for creating the static helper for working with uninitialized fields
 		 */
@@ -2183,7 +2296,11 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 
 	public PDG createAndAddPDG(final CGNode cgm, final IProgressMonitor progress) throws UnsoundGraphException,
 			CancelException {
+		final SDGBuildProfile.PdgBuild timer = (cfg.profile == null ? null : cfg.profile.beginPdg());
 		final PDG pdg = PDG.build(this, Util.methodName(cgm.getMethod()), cgm, pdgId, cfg.ext, cfg.out, progress);
+		if (timer != null) {
+			timer.end(pdg.getMethod().getSignature(), pdg.vertexSet().size());
+		}
 		pdgIdToPdg.put(pdgId, pdg);
 		pdgs.add(pdg);
 		pdgId++;
@@ -2191,6 +2308,119 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		return pdg;
 	}
 
+	/**
+	 * Number of pdgs whose WALA inputs are prepared before they are built concurrently.
+	 */
+	private static final int PARALLEL_PDG_BLOCK_SIZE = 256;
+
+	/**
+	 * Builds the pdgs of all call graph nodes except the root concurrently. Afterwards the pdg ids, node ids and
+	 * field indices are assigned in call graph order, so the result does not differ from the sequential
+	 * construction in {@link #run(CGResult, IProgressMonitor)}.
+	 * The pdgs are built in blocks: the IRs, control flow graphs and field resolutions of a block are computed
+	 * sequentially by {@link PDG#prepare(SDGBuilder, CGNode, IProgressMonitor)}, as they use the caches of WALA,
+	 * then the pdgs of the block are built in parallel.
+	 * The ExternalCallCheck must be empty, as it registers alias contexts by the (preliminary) node ids.
+	 */
+	private void createAndAddPDGsParallel(final CallGraph cg, final IProgressMonitor progress)
+			throws UnsoundGraphException, CancelException {
+		final List<CGNode> cgms = new ArrayList<CGNode>();
+		for (CallGraph.Node node : cg.vertexSet()) {
+			if (node.node != cg.getRoot().node) {
+				cgms.add(node.node);
+			}
+		}
+
+		final int firstPdgId = pdgId;
+		final int fieldsBefore = params.getMapping().getSize();
+		final PDG[] built = new PDG[cgms.size()];
+		final PDG.Input[] inputs = new PDG.Input[Math.min(PARALLEL_PDG_BLOCK_SIZE, cgms.size())];
+		for (int start = 0; start < built.length; start += PARALLEL_PDG_BLOCK_SIZE) {
+			final int blockStart = start;
+			final int blockEnd = Math.min(start + PARALLEL_PDG_BLOCK_SIZE, built.length);
+			for (int i = blockStart; i < blockEnd; i++) {
+				inputs[i - blockStart] = PDG.prepare(this, cgms.get(i), progress);
+				MonitorUtil.throwExceptionIfCanceled(progress);
+			}
+
+			try {
+				IntStream.range(blockStart, blockEnd).parallel().forEach(i -> {
+					final CGNode cgm = cgms.get(i);
+					try {
+						final SDGBuildProfile.PdgBuild timer = (cfg.profile == null ? null : cfg.profile.beginPdg());
+						built[i] = PDG.buildRenumberable(this, Util.methodName(cgm.getMethod()), cgm, firstPdgId + i,
+								inputs[i - blockStart], cfg.ext, cfg.out, progress);
+						if (timer != null) {
+							timer.end(built[i].getMethod().getSignature(), built[i].vertexSet().size());
+						}
+					} catch (UnsoundGraphException | CancelException e) {
+						throw new PDGConstructionException(e);
+					}
+				});
+			} catch (PDGConstructionException e) {
+				if (e.getCause() instanceof CancelException) {
+					throw (CancelException) e.getCause();
+				}
+				throw (UnsoundGraphException) e.getCause();
+			}
+			Arrays.fill(inputs, null);
+		}
+
+		// the node ids handed out so far are those of the main pdg and the preliminary ones of the parallel phase
+		int nextNodeId = currentNodeId.get() - countCreatedNodeIds(built);
+		final List<ParameterField> fieldOrder = new ArrayList<ParameterField>();
+		int currentNum = 1;
+		for (final PDG pdg : built) {
+			nextNodeId += pdg.renumberNodes(nextNodeId);
+			addFieldsInNodeOrder(pdg, fieldOrder);
+			pdgIdToPdg.put(pdgId, pdg);
+			pdgs.add(pdg);
+			pdgId++;
+
+			progress.worked(currentNum++);
+
+			MonitorUtil.throwExceptionIfCanceled(progress);
+
+			if (cfg.debugManyGraphsDotOutput) {
+				debugOutput(pdg);
+			}
+		}
+		currentNodeId.set(nextNodeId);
+		params.reorderMapping(fieldsBefore, fieldOrder);
+	}
+
+	private static int countCreatedNodeIds(final PDG[] pdgs) {
+		int count = 0;
+		for (final PDG pdg : pdgs) {
+			count += pdg.getNumberOfCreatedNodeIds();
+		}
+		return count;
+	}
+
+	private static void addFieldsInNodeOrder(final PDG pdg, final List<ParameterField> fieldOrder) {
+		final List<PDGField> accesses = new ArrayList<PDGField>();
+		accesses.addAll(pdg.getFieldReads());
+		accesses.addAll(pdg.getFieldWrites());
+		accesses.addAll(Arrays.asList(pdg.staticReads));
+		accesses.addAll(Arrays.asList(pdg.staticWrites));
+		accesses.sort((a, b) -> Integer.compare(a.node.getId(), b.node.getId()));
+		for (final PDGField f : accesses) {
+			fieldOrder.add(f.field);
+		}
+	}
+
+	/**
+	 * Transports checked exceptions out of the parallel pdg construction.
+	 */
+	private static final class PDGConstructionException extends RuntimeException {
+
+		private static final long serialVersionUID = 2931418640297516043L;
+
+		private PDGConstructionException(final Exception cause) {
+			super(cause);
+		}
+	}
+
 	public long countNodesInPdgs() {
 		long count = 0;
 		for (PDG pdg : pdgs) {
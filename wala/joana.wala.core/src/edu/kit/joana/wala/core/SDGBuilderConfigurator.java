@@ -186,6 +186,10 @@ public abstract class SDGBuilderConfigurator<C extends SDGBuilderConfigurator<C>
 		rwd.set("summaryComputationType", sumType);
 		return thisActually();
 	}
+	public C setSummaryCacheDir(String summaryCacheDir) {
+		rwd.set("summaryCacheDir", summaryCacheDir);
+		return thisActually();
+	}
 	public C setAbortAfterCG(boolean setting) {
 		rwd.set("abortAfterCG", setting);
 		return thisActually();
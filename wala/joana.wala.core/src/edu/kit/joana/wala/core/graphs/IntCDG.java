@@ -0,0 +1,299 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.graphs;
+
+import java.util.Arrays;
+
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * Computes the same control dependencies as {@link CDG}, but on an {@link IntCFG}. The postdominator
+ * tree is computed with the iterative algorithm from "A Simple, Fast Dominance Algorithm" by Cooper,
+ * Harvey and Kennedy, the postdominance frontiers by walking up the tree from the successors of
+ * each branching node. n -> m reads as "m is control dependent on n".
+ *
+ * Like {@link CDG}, this expects a control flow graph where every node reaches the exit node, and adds
+ * a dependency from entry to exit. Nodes that do not reach the exit node get no control dependencies.
+ *
+ * {@link #buildNTICD} computes nontermination insensitive control dependence like
+ * {@link NTICDGraphPostdominanceFrontiers} the same way, on the tree of {@link IntSinkpathPostDominators}.
+ * {@link #buildAdaptive} combines both like the ADAPTIVE control dependence variant.
+ *
+ * @param <V> Type of the nodes in the flowgraph
+ */
+public final class IntCDG<V> {
+
+	public static <V> IntCDG<V> build(final IntCFG<V> cfg, final V entry, final V exit) {
+		final IntCDG<V> cdg = new IntCDG<V>(cfg);
+
+		cdg.build(cfg.indexOf(entry), cfg.indexOf(exit));
+
+		return cdg;
+	}
+
+	/**
+	 * Computes nontermination insensitive control dependence, plus a dependency from entry to exit.
+	 */
+	public static <V> IntCDG<V> buildNTICD(final IntCFG<V> cfg, final V entry, final V exit) {
+		final IntCDG<V> cdg = new IntCDG<V>(cfg);
+
+		cdg.addNTICD(cfg);
+		cdg.addIfMissing(cfg.indexOf(entry), cfg.indexOf(exit));
+
+		return cdg;
+	}
+
+	/**
+	 * Computes classic control dependence if every node reaches the exit node. Otherwise, computes the
+	 * nontermination insensitive control dependencies of the graph and of its
+	 * {@link IntCFG#sinkRepresentativeVariant() sink representative variant}. The latter adds the
+	 * dependencies inside of sinks, which are missing in the former.
+	 */
+	public static <V> IntCDG<V> buildAdaptive(final IntCFG<V> cfg, final V entry, final V exit) {
+		if (cfg.isReachableFromAll(cfg.indexOf(exit))) {
+			return build(cfg, entry, exit);
+		}
+
+		final IntCDG<V> cdg = new IntCDG<V>(cfg);
+		cdg.addNTICD(cfg);
+		final IntCFG<V> cfgS = cfg.sinkRepresentativeVariant();
+		if (cfgS != cfg) {
+			final IntCDG<V> cdgS = new IntCDG<V>(cfgS);
+			cdgS.addNTICD(cfgS);
+			final TLongHashSet known = new TLongHashSet(cdg.size);
+			for (int i = 0; i < cdg.size; i++) {
+				known.add(edge(cdg.sources[i], cdg.targets[i]));
+			}
+			for (int i = 0; i < cdgS.size; i++) {
+				// fresh nodes have no successors, so they are never the source of a dependency
+				if (cdgS.targets[i] < cfg.size() && known.add(edge(cdgS.sources[i], cdgS.targets[i]))) {
+					cdg.add(cdgS.sources[i], cdgS.targets[i]);
+				}
+			}
+		}
+
+		return cdg;
+	}
+
+	private static long edge(final int from, final int to) {
+		return ((long) from << 32) | (to & 0xffffffffL);
+	}
+
+	private final IntCFG<V> cfg;
+	private int[] sources;
+	private int[] targets;
+	private int size;
+
+	private IntCDG(final IntCFG<V> cfg) {
+		this.cfg = cfg;
+		final int initial = Math.max(4, cfg.size());
+		this.sources = new int[initial];
+		this.targets = new int[initial];
+	}
+
+	/**
+	 * Computes the immediate postdominator of every node.
+	 *
+	 * @return the index of the immediate postdominator for each node index, -1 for the exit node and
+	 * all nodes that do not reach the exit node.
+	 */
+	public static int[] immediatePostdominators(final IntCFG<?> cfg, final int exit) {
+		final int n = cfg.size();
+		// postorder of the reversed cfg, starting at the exit node
+		final int[] postorder = new int[n];
+		Arrays.fill(postorder, -1);
+		final int[] order = new int[n];
+		final int[] stack = new int[n];
+		final int[] cursor = new int[n];
+		final boolean[] visited = new boolean[n];
+		int top = 0;
+		int num = 0;
+		stack[top++] = exit;
+		visited[exit] = true;
+		cursor[exit] = cfg.predStart(exit);
+		while (top > 0) {
+			final int cur = stack[top - 1];
+			if (cursor[cur] < cfg.predEnd(cur)) {
+				final int next = cfg.pred(cursor[cur]++);
+				if (!visited[next]) {
+					visited[next] = true;
+					cursor[next] = cfg.predStart(next);
+					stack[top++] = next;
+				}
+			} else {
+				top--;
+				postorder[cur] = num;
+				order[num++] = cur;
+			}
+		}
+
+		final int[] idom = new int[n];
+		Arrays.fill(idom, -1);
+		idom[exit] = exit;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			// reverse postorder, omit the exit node at num - 1
+			for (int i = num - 2; i >= 0; i--) {
+				final int cur = order[i];
+				int newIdom = -1;
+				for (int p = cfg.succStart(cur), end = cfg.succEnd(cur); p < end; p++) {
+					final int succ = cfg.succ(p);
+					if (idom[succ] != -1) {
+						newIdom = (newIdom == -1 ? succ : intersect(succ, newIdom, idom, postorder));
+					}
+				}
+
+				if (idom[cur] != newIdom) {
+					idom[cur] = newIdom;
+					changed = true;
+				}
+			}
+		}
+		idom[exit] = -1;
+
+		return idom;
+	}
+
+	private static int intersect(int a, int b, final int[] idom, final int[] postorder) {
+		while (a != b) {
+			while (postorder[a] < postorder[b]) {
+				a = idom[a];
+			}
+			while (postorder[b] < postorder[a]) {
+				b = idom[b];
+			}
+		}
+
+		return a;
+	}
+
+	private void build(final int entry, final int exit) {
+		final int[] idom = immediatePostdominators(cfg, exit);
+
+		add(entry, exit);
+
+		// the branching node that last added a node to its frontier
+		final int[] lastAdded = new int[cfg.size()];
+		Arrays.fill(lastAdded, -1);
+		for (int branch = 0; branch < cfg.size(); branch++) {
+			if ((idom[branch] == -1 && branch != exit) || cfg.succEnd(branch) - cfg.succStart(branch) < 2) {
+				continue;
+			}
+
+			for (int p = cfg.succStart(branch), end = cfg.succEnd(branch); p < end; p++) {
+				int runner = cfg.succ(p);
+				if (idom[runner] == -1 && runner != exit) {
+					continue;
+				}
+
+				while (runner != idom[branch] && lastAdded[runner] != branch) {
+					lastAdded[runner] = branch;
+					if (runner != branch) {
+						// no self dependencies
+						add(branch, runner);
+					}
+					runner = idom[runner];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the postdominance frontiers of the immediate sinkpath postdominator tree. The nodes of each sink
+	 * form one node of the tree, so a dependency on a sink is a dependency on all of its nodes.
+	 */
+	private void addNTICD(final IntCFG<?> cfg) {
+		final int n = cfg.size();
+		final IntSinkpathPostDominators isinkdom = IntSinkpathPostDominators.compute(cfg);
+
+		// the nodes of each sink, grouped by their representant
+		final int[] membersStart = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			membersStart[isinkdom.getRepresentant(i) + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			membersStart[i + 1] += membersStart[i];
+		}
+		final int[] members = new int[n];
+		final int[] membersNext = Arrays.copyOf(membersStart, n);
+		for (int i = 0; i < n; i++) {
+			members[membersNext[isinkdom.getRepresentant(i)]++] = i;
+		}
+
+		// the parent of each representant in the tree, sinks are roots
+		final int[] parent = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = isinkdom.isSinkNode(i) ? -1 : isinkdom.getNext(i);
+		}
+
+		// the node that last added a representant to its frontier
+		final int[] lastAdded = new int[n];
+		Arrays.fill(lastAdded, -1);
+		for (int branch = 0; branch < n; branch++) {
+			final int own = isinkdom.getRepresentant(branch);
+			for (int p = cfg.succStart(branch), end = cfg.succEnd(branch); p < end; p++) {
+				int runner = isinkdom.getRepresentant(cfg.succ(p));
+				while (runner != -1 && runner != parent[own] && lastAdded[runner] != branch) {
+					lastAdded[runner] = branch;
+					if (runner != own) {
+						// no dependencies inside of a sink and no self dependencies
+						for (int m = membersStart[runner], mEnd = membersStart[runner + 1]; m < mEnd; m++) {
+							add(branch, members[m]);
+						}
+					}
+					runner = parent[runner];
+				}
+			}
+		}
+	}
+
+	private void addIfMissing(final int from, final int to) {
+		for (int i = 0; i < size; i++) {
+			if (sources[i] == from && targets[i] == to) {
+				return;
+			}
+		}
+
+		add(from, to);
+	}
+
+	private void add(final int from, final int to) {
+		if (size == sources.length) {
+			sources = Arrays.copyOf(sources, size * 2);
+			targets = Arrays.copyOf(targets, size * 2);
+		}
+		sources[size] = from;
+		targets[size] = to;
+		size++;
+	}
+
+	/**
+	 * @return the number of control dependencies.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public V getSource(final int i) {
+		return cfg.getNode(sources[i]);
+	}
+
+	public V getTarget(final int i) {
+		return cfg.getNode(targets[i]);
+	}
+
+	public IntCFG<V> getCFG() {
+		return cfg;
+	}
+
+	public String toString() {
+		return "IntCDG(" + cfg.size() + ", " + size + ")";
+	}
+
+}
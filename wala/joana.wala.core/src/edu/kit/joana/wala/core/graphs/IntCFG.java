@@ -0,0 +1,316 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.graphs;
+
+import java.util.Arrays;
+
+import org.jgrapht.DirectedGraph;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * A read-only snapshot of a control flow graph, where nodes are numbered 0..n-1 and successors
+ * and predecessors are stored in compressed int arrays. Algorithms running on this representation
+ * do not allocate per node or edge objects and only map their results back to the original nodes.
+ *
+ * The successors of node i are <tt>succ[succStart[i]] .. succ[succStart[i + 1] - 1]</tt>, the
+ * predecessors are stored the same way. Parallel edges of the exported graph are kept.
+ *
+ * @param <V> Type of the nodes in the flowgraph
+ */
+public final class IntCFG<V> {
+
+	private final Object[] nodes;
+	private final TObjectIntHashMap<V> indices;
+	private final int[] succStart;
+	private final int[] succ;
+	private final int[] predStart;
+	private final int[] pred;
+
+	private IntCFG(final Object[] nodes, final TObjectIntHashMap<V> indices, final int[] succStart, final int[] succ,
+			final int[] predStart, final int[] pred) {
+		this.nodes = nodes;
+		this.indices = indices;
+		this.succStart = succStart;
+		this.succ = succ;
+		this.predStart = predStart;
+		this.pred = pred;
+	}
+
+	/**
+	 * Exports the given graph. Later modifications of the graph are not reflected in the result.
+	 */
+	public static <V, E> IntCFG<V> of(final DirectedGraph<V, E> graph) {
+		final int n = graph.vertexSet().size();
+		final Object[] nodes = new Object[n];
+		final TObjectIntHashMap<V> indices = new TObjectIntHashMap<V>(n, 0.5f, -1);
+		int i = 0;
+		for (final V v : graph.vertexSet()) {
+			nodes[i] = v;
+			indices.put(v, i);
+			i++;
+		}
+
+		final int[] succStart = new int[n + 1];
+		final int[] predStart = new int[n + 1];
+		int m = 0;
+		for (i = 0; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			final V v = (V) nodes[i];
+			for (final E e : graph.outgoingEdgesOf(v)) {
+				final int to = indices.get(graph.getEdgeTarget(e));
+				succStart[i + 1]++;
+				predStart[to + 1]++;
+				m++;
+			}
+		}
+		for (i = 0; i < n; i++) {
+			succStart[i + 1] += succStart[i];
+			predStart[i + 1] += predStart[i];
+		}
+
+		final int[] succ = new int[m];
+		final int[] pred = new int[m];
+		final int[] predNext = new int[n];
+		System.arraycopy(predStart, 0, predNext, 0, n);
+		for (i = 0; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			final V v = (V) nodes[i];
+			int next = succStart[i];
+			for (final E e : graph.outgoingEdgesOf(v)) {
+				final int to = indices.get(graph.getEdgeTarget(e));
+				succ[next++] = to;
+				pred[predNext[to]++] = i;
+			}
+		}
+
+		return new IntCFG<V>(nodes, indices, succStart, succ, predStart, pred);
+	}
+
+	public int size() {
+		return nodes.length;
+	}
+
+	public int numberOfEdges() {
+		return succ.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V getNode(final int index) {
+		return (V) nodes[index];
+	}
+
+	/**
+	 * @return the index of the node, or -1 if it is not part of this graph.
+	 */
+	public int indexOf(final V node) {
+		return indices.get(node);
+	}
+
+	public int succStart(final int index) {
+		return succStart[index];
+	}
+
+	public int succEnd(final int index) {
+		return succStart[index + 1];
+	}
+
+	public int succ(final int pos) {
+		return succ[pos];
+	}
+
+	public int predStart(final int index) {
+		return predStart[index];
+	}
+
+	public int predEnd(final int index) {
+		return predStart[index + 1];
+	}
+
+	public int pred(final int pos) {
+		return pred[pos];
+	}
+
+	/**
+	 * Checks if the node with the given index can be reached from every node of this graph.
+	 */
+	public boolean isReachableFromAll(final int target) {
+		final int n = nodes.length;
+		final boolean[] visited = new boolean[n];
+		final int[] stack = new int[n];
+		int top = 0;
+		stack[top++] = target;
+		visited[target] = true;
+		int count = 1;
+		while (top > 0) {
+			final int cur = stack[--top];
+			for (int p = predStart[cur], end = predStart[cur + 1]; p < end; p++) {
+				final int from = pred[p];
+				if (!visited[from]) {
+					visited[from] = true;
+					stack[top++] = from;
+					count++;
+				}
+			}
+		}
+
+		return count == n;
+	}
+
+	/**
+	 * Computes the strongly connected components of this graph with Tarjan's algorithm.
+	 *
+	 * @return the number of the component of each node. Components are numbered in reverse topological
+	 * order: an edge between two components leads to the one with the lower number.
+	 */
+	public int[] stronglyConnectedComponents() {
+		final int n = nodes.length;
+		final int[] component = new int[n];
+		Arrays.fill(component, -1);
+		final int[] index = new int[n];
+		Arrays.fill(index, -1);
+		final int[] lowlink = new int[n];
+		final int[] cursor = new int[n];
+		final int[] callStack = new int[n];
+		final int[] sccStack = new int[n];
+		int nextIndex = 0;
+		int components = 0;
+		int sccTop = 0;
+		for (int start = 0; start < n; start++) {
+			if (index[start] != -1) {
+				continue;
+			}
+			int callTop = 0;
+			callStack[callTop++] = start;
+			index[start] = lowlink[start] = nextIndex++;
+			cursor[start] = succStart[start];
+			sccStack[sccTop++] = start;
+			while (callTop > 0) {
+				final int cur = callStack[callTop - 1];
+				if (cursor[cur] < succStart[cur + 1]) {
+					final int to = succ[cursor[cur]++];
+					if (index[to] == -1) {
+						index[to] = lowlink[to] = nextIndex++;
+						cursor[to] = succStart[to];
+						sccStack[sccTop++] = to;
+						callStack[callTop++] = to;
+					} else if (component[to] == -1) {
+						// still on the scc stack
+						lowlink[cur] = Math.min(lowlink[cur], index[to]);
+					}
+				} else {
+					callTop--;
+					if (lowlink[cur] == index[cur]) {
+						int member;
+						do {
+							member = sccStack[--sccTop];
+							component[member] = components;
+						} while (member != cur);
+						components++;
+					}
+					if (callTop > 0) {
+						final int caller = callStack[callTop - 1];
+						lowlink[caller] = Math.min(lowlink[caller], lowlink[cur]);
+					}
+				}
+			}
+		}
+
+		return component;
+	}
+
+	/**
+	 * Creates the sink representative variant of this graph that {@link IntCDG#buildAdaptive} uses: for each
+	 * sink of more than one node,
+	 * i.e. each strongly connected component without an edge leaving it, the edges to the first node of the
+	 * sink are redirected to a fresh node without successors. Self loops of that node are dropped.
+	 *
+	 * The nodes of this graph keep their indices, the fresh nodes get the indices from {@link #size()} on
+	 * and {@link #getNode(int)} returns null for them.
+	 */
+	public IntCFG<V> sinkRepresentativeVariant() {
+		final int n = nodes.length;
+		final int[] component = stronglyConnectedComponents();
+		int components = 0;
+		for (int i = 0; i < n; i++) {
+			components = Math.max(components, component[i] + 1);
+		}
+		final int[] componentSize = new int[components];
+		final boolean[] leaves = new boolean[components];
+		for (int i = 0; i < n; i++) {
+			componentSize[component[i]]++;
+			for (int p = succStart[i], end = succStart[i + 1]; p < end; p++) {
+				if (component[succ[p]] != component[i]) {
+					leaves[component[i]] = true;
+				}
+			}
+		}
+
+		final int[] fresh = new int[n];
+		Arrays.fill(fresh, -1);
+		final boolean[] hasRepresentant = new boolean[components];
+		int size = n;
+		for (int i = 0; i < n; i++) {
+			final int c = component[i];
+			if (componentSize[c] > 1 && !leaves[c] && !hasRepresentant[c]) {
+				hasRepresentant[c] = true;
+				fresh[i] = size++;
+			}
+		}
+		if (size == n) {
+			return this;
+		}
+
+		final int[] newSuccStart = new int[size + 1];
+		final int[] newPredStart = new int[size + 1];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int p = succStart[i], end = succStart[i + 1]; p < end; p++) {
+				final int to = redirect(i, succ[p], fresh);
+				if (to != -1) {
+					newSuccStart[i + 1]++;
+					newPredStart[to + 1]++;
+					m++;
+				}
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			newSuccStart[i + 1] += newSuccStart[i];
+			newPredStart[i + 1] += newPredStart[i];
+		}
+
+		final int[] newSucc = new int[m];
+		final int[] newPred = new int[m];
+		final int[] predNext = Arrays.copyOf(newPredStart, size);
+		for (int i = 0; i < n; i++) {
+			int next = newSuccStart[i];
+			for (int p = succStart[i], end = succStart[i + 1]; p < end; p++) {
+				final int to = redirect(i, succ[p], fresh);
+				if (to != -1) {
+					newSucc[next++] = to;
+					newPred[predNext[to]++] = i;
+				}
+			}
+		}
+
+		return new IntCFG<V>(Arrays.copyOf(nodes, size), indices, newSuccStart, newSucc, newPredStart, newPred);
+	}
+
+	private static int redirect(final int from, final int to, final int[] fresh) {
+		if (fresh[to] == -1) {
+			return to;
+		}
+
+		return from == to ? -1 : fresh[to];
+	}
+
+	public String toString() {
+		return "IntCFG(" + nodes.length + ", " + succ.length + ")";
+	}
+
+}
@@ -0,0 +1,438 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Computes the same immediate sinkpath postdominators as {@link SinkpathPostDominators}, but on an
+ * {@link IntCFG}. The pseudo tree is stored in int arrays instead of {@link SinkpathPostDominators.Node}
+ * objects and an edge graph, the algorithm (initialize, sinkUp, sinkDown) is the same.
+ *
+ * The nodes of each sink, i.e. each strongly connected component without an edge leaving it, form a cycle
+ * in the pseudo tree and share the representant of the sink. All other nodes point to a representant, or
+ * to -1 if they have no immediate sinkpath postdominator.
+ */
+final class IntSinkpathPostDominators {
+
+	private final IntCFG<?> cfg;
+
+	private final int[] next;
+	private final int[] representant;
+	private final boolean[] isSinkNode;
+	private final boolean[] processed;
+	private final boolean[] isRelevant;
+	private final boolean[] inWorkset;
+	private final int[] dfsNumber;
+
+	/* the nodes pointing to a node, as doubly linked lists */
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] prevSibling;
+
+	/* replaces the path marks of LeastCommonAncestor.PseudoTreeNode */
+	private final int[] inPathOf;
+	private int paths = 0;
+
+	private final int[] visited;
+	private int visits = 0;
+
+	private final int[] stack;
+
+	/* the workset of sinkDown: a max heap of dfs numbers */
+	private final int[] nodeOfDfsNumber;
+	private int numbered = 0;
+	private final int[] workset;
+	private int worksetSize = 0;
+
+	private IntSinkpathPostDominators(final IntCFG<?> cfg) {
+		this.cfg = cfg;
+		final int n = cfg.size();
+		this.next = new int[n];
+		Arrays.fill(next, -1);
+		this.representant = new int[n];
+		for (int i = 0; i < n; i++) {
+			representant[i] = i;
+		}
+		this.isSinkNode = new boolean[n];
+		this.processed = new boolean[n];
+		this.isRelevant = new boolean[n];
+		this.inWorkset = new boolean[n];
+		this.dfsNumber = new int[n];
+		Arrays.fill(dfsNumber, -1);
+		this.firstChild = new int[n];
+		Arrays.fill(firstChild, -1);
+		this.nextSibling = new int[n];
+		this.prevSibling = new int[n];
+		this.inPathOf = new int[n];
+		this.visited = new int[n];
+		this.stack = new int[n];
+		this.nodeOfDfsNumber = new int[n];
+		this.workset = new int[n];
+	}
+
+	public static IntSinkpathPostDominators compute(final IntCFG<?> cfg) {
+		final IntSinkpathPostDominators isinkdom = new IntSinkpathPostDominators(cfg);
+		isinkdom.initialize();
+		isinkdom.sinkUp();
+		isinkdom.sinkDown();
+
+		return isinkdom;
+	}
+
+	/**
+	 * @return the next node in the pseudo tree, -1 if there is none.
+	 */
+	public int getNext(final int node) {
+		return next[node];
+	}
+
+	/**
+	 * @return the representant of the sink of the node, or the node itself if it is not part of a sink.
+	 */
+	public int getRepresentant(final int node) {
+		return representant[node];
+	}
+
+	public boolean isSinkNode(final int node) {
+		return isSinkNode[node];
+	}
+
+	private void newEdge(final int x, final int z) {
+		if (next[x] != -1) {
+			// unlink x from the children of its old next node
+			if (prevSibling[x] == -1) {
+				firstChild[next[x]] = nextSibling[x];
+			} else {
+				nextSibling[prevSibling[x]] = nextSibling[x];
+			}
+			if (nextSibling[x] != -1) {
+				prevSibling[nextSibling[x]] = prevSibling[x];
+			}
+		}
+		if (z != -1) {
+			prevSibling[x] = -1;
+			nextSibling[x] = firstChild[z];
+			if (firstChild[z] != -1) {
+				prevSibling[firstChild[z]] = x;
+			}
+			firstChild[z] = x;
+		}
+		next[x] = z;
+	}
+
+	/**
+	 * Marks the node and all nodes below it in the pseudo tree as processed, up to already processed ones.
+	 */
+	private void processed(final int x) {
+		int top = 0;
+		stack[top++] = x;
+		while (top > 0) {
+			final int cur = stack[--top];
+			if (!processed[cur]) {
+				processed[cur] = true;
+				for (int c = firstChild[cur]; c != -1; c = nextSibling[c]) {
+					stack[top++] = c;
+				}
+			}
+		}
+	}
+
+	private void initialize() {
+		final int n = cfg.size();
+		final int[] component = cfg.stronglyConnectedComponents();
+		int components = 0;
+		for (int i = 0; i < n; i++) {
+			components = Math.max(components, component[i] + 1);
+		}
+		final boolean[] leaves = new boolean[components];
+		for (int i = 0; i < n; i++) {
+			for (int p = cfg.succStart(i), end = cfg.succEnd(i); p < end; p++) {
+				if (component[cfg.succ(p)] != component[i]) {
+					leaves[component[i]] = true;
+				}
+			}
+		}
+
+		// link the nodes of each sink to a cycle, the first one is the representant
+		final int[] first = new int[components];
+		Arrays.fill(first, -1);
+		final int[] last = new int[components];
+		final int[] representants = new int[components];
+		int numRepresentants = 0;
+		for (int i = 0; i < n; i++) {
+			final int c = component[i];
+			if (leaves[c]) {
+				continue;
+			}
+			isSinkNode[i] = true;
+			if (first[c] == -1) {
+				first[c] = i;
+				representants[numRepresentants++] = i;
+			} else {
+				newEdge(last[c], i);
+				processed(last[c]);
+			}
+			representant[i] = first[c];
+			last[c] = i;
+		}
+		for (int i = 0; i < numRepresentants; i++) {
+			final int c = component[representants[i]];
+			if (last[c] != first[c]) {
+				newEdge(last[c], first[c]);
+			}
+			processed(last[c]);
+		}
+
+		final int[] rdfsOrder = reverseDfsOrder(Arrays.copyOf(representants, numRepresentants));
+		for (final int x : rdfsOrder) {
+			dfsNumber[x] = numbered;
+			nodeOfDfsNumber[numbered] = x;
+			numbered++;
+			if (!isSinkNode[x]) {
+				switch (cfg.succEnd(x) - cfg.succStart(x)) {
+					case 0: break;
+					case 1: {
+						final int z = cfg.succ(cfg.succStart(x));
+						if (z != x) {
+							newEdge(x, representant[z]);
+							if (processed[z]) {
+								processed(x);
+							}
+						}
+						break;
+					}
+					default: {
+						isRelevant[x] = true;
+						addToWorkset(x);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the nodes in reverse postorder of a depth first search on the reversed graph, started from the
+	 * given nodes one after another.
+	 */
+	private int[] reverseDfsOrder(final int[] starts) {
+		final int n = cfg.size();
+		final int[] order = new int[n];
+		final boolean[] discovered = new boolean[n];
+		final int[] cursor = new int[n];
+		int num = n;
+		for (final int start : starts) {
+			if (discovered[start]) {
+				continue;
+			}
+			int top = 0;
+			stack[top++] = start;
+			discovered[start] = true;
+			cursor[start] = cfg.predStart(start);
+			while (top > 0) {
+				final int cur = stack[top - 1];
+				if (cursor[cur] < cfg.predEnd(cur)) {
+					final int pred = cfg.pred(cursor[cur]++);
+					if (!discovered[pred]) {
+						discovered[pred] = true;
+						cursor[pred] = cfg.predStart(pred);
+						stack[top++] = pred;
+					}
+				} else {
+					top--;
+					order[--num] = cur;
+				}
+			}
+		}
+
+		// every node reaches a sink, so num == 0 here
+		return Arrays.copyOfRange(order, num, n);
+	}
+
+	private void sinkUp() {
+		// the relevant nodes in the order of initialize, like the workset
+		final int n = cfg.size();
+		final int[] queue = new int[n];
+		int head = 0;
+		int size = 0;
+		for (int i = 0; i < numbered; i++) {
+			final int x = nodeOfDfsNumber[i];
+			if (isRelevant[x]) {
+				queue[size++] = x;
+			}
+		}
+
+		final int[] ys = new int[maxOutDegree()];
+		while (size > 0) {
+			final int x = queue[head];
+			head = (head + 1) % n;
+			size--;
+			int numYs = 0;
+			for (int p = cfg.succStart(x), end = cfg.succEnd(x); p < end; p++) {
+				final int y = cfg.succ(p);
+				if (processed[y]) {
+					ys[numYs++] = y;
+				}
+			}
+			final int z;
+			if (numYs == 0) {
+				z = -1;
+			} else {
+				final int a = lca(ys, numYs);
+				z = a == -1 ? ys[0] : a;
+			}
+			if (z != -1) {
+				newEdge(x, representant[z]);
+				processed(x);
+			} else {
+				queue[(head + size) % n] = x;
+				size++;
+			}
+		}
+	}
+
+	private int maxOutDegree() {
+		int max = 0;
+		for (int i = 0; i < cfg.size(); i++) {
+			max = Math.max(max, cfg.succEnd(i) - cfg.succStart(i));
+		}
+
+		return max;
+	}
+
+	private void sinkDown() {
+		final int[] successors = new int[maxOutDegree()];
+		while (worksetSize > 0) {
+			final int x = pollWorkset();
+			int numSuccessors = 0;
+			for (int p = cfg.succStart(x), end = cfg.succEnd(x); p < end; p++) {
+				successors[numSuccessors++] = cfg.succ(p);
+			}
+			final int a = lca(successors, numSuccessors);
+			final int z = a == -1 ? -1 : representant[a];
+			assert next[x] != -1 || z == -1;
+			if (z != next[x]) {
+				// the relevant predecessors of x and all nodes below it have to be checked again
+				final int visit = ++visits;
+				int top = 0;
+				stack[top++] = x;
+				visited[x] = visit;
+				while (top > 0) {
+					final int cur = stack[--top];
+					for (int p = cfg.predStart(cur), end = cfg.predEnd(cur); p < end; p++) {
+						final int pred = cfg.pred(p);
+						if (isRelevant[pred] && !inWorkset[pred]) {
+							addToWorkset(pred);
+						}
+					}
+					for (int c = firstChild[cur]; c != -1; c = nextSibling[c]) {
+						if (visited[c] != visit) {
+							visited[c] = visit;
+							stack[top++] = c;
+						}
+					}
+				}
+				newEdge(x, z);
+			}
+		}
+	}
+
+	private void addToWorkset(final int x) {
+		inWorkset[x] = true;
+		int pos = worksetSize++;
+		final int key = dfsNumber[x];
+		while (pos > 0 && workset[(pos - 1) / 2] < key) {
+			workset[pos] = workset[(pos - 1) / 2];
+			pos = (pos - 1) / 2;
+		}
+		workset[pos] = key;
+	}
+
+	/**
+	 * @return the node with the highest dfs number in the workset.
+	 */
+	private int pollWorkset() {
+		final int x = nodeOfDfsNumber[workset[0]];
+		final int key = workset[--worksetSize];
+		int pos = 0;
+		while (2 * pos + 1 < worksetSize) {
+			int child = 2 * pos + 1;
+			if (child + 1 < worksetSize && workset[child + 1] > workset[child]) {
+				child++;
+			}
+			if (workset[child] <= key) {
+				break;
+			}
+			workset[pos] = workset[child];
+			pos = child;
+		}
+		workset[pos] = key;
+		inWorkset[x] = false;
+
+		return x;
+	}
+
+	private int lca(final int[] nodes, final int length) {
+		int t = nodes[0];
+		for (int i = 1; i < length && t != -1; i++) {
+			t = lca(t, nodes[i]);
+		}
+
+		return t;
+	}
+
+	/**
+	 * Same as {@link edu.kit.joana.util.graph.LeastCommonAncestor#lca}, walks up from both nodes in turns.
+	 */
+	private int lca(int n, int m) {
+		if (n == m) {
+			return n;
+		}
+
+		int pathN = ++paths;
+		int pathM = ++paths;
+		inPathOf[n] = pathN;
+		inPathOf[m] = pathM;
+
+		while (true) {
+			final int nn = next[n];
+			if (nn == -1 || inPathOf[nn] == pathN) {
+				return lin(pathN, pathM, m);
+			}
+			if (inPathOf[nn] == pathM) {
+				return nn;
+			}
+
+			inPathOf[nn] = pathN;
+			n = m;
+			m = nn;
+
+			final int tmp = pathM;
+			pathM = pathN;
+			pathN = tmp;
+		}
+	}
+
+	private int lin(final int pathN, final int pathM, int m) {
+		while (true) {
+			final int mm = next[m];
+			if (mm == -1) {
+				return -1;
+			}
+			if (inPathOf[mm] == pathN) {
+				return mm;
+			}
+			if (inPathOf[mm] == pathM) {
+				return -1;
+			}
+
+			inPathOf[mm] = pathM;
+			m = mm;
+		}
+	}
+}
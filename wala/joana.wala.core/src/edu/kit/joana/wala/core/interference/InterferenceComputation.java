@@ -7,12 +7,16 @@
  */
 package edu.kit.joana.wala.core.interference;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 import com.ibm.wala.classLoader.IClass;
@@ -157,70 +161,54 @@ public class InterferenceComputation {
 	/**
 	 * Look for each heap accessing node which other heap accessing node may
 	 * happen in parallel and may be referring to the same location.
+	 * Instead of comparing the heap accesses of all pairs of pdgs, the accesses are indexed by the
+	 * abstract locations they may refer to (see {@link HeapLocationIndex}), so each heap write is only
+	 * compared to the accesses of the same field with a common instance key.
 	 * @throws CancelException
 	 * @throws WalaException
 	 */
 	private final Set<InterferenceEdge> computeInterference(final IProgressMonitor progress) throws CancelException {
 		if (IS_DEBUG) debug.outln("Computing read-write/write-write interference for threads");
 		final Set<InterferenceEdge> ret = new HashSet<InterferenceEdge>();
-		Map<PDG, Set<HeapWrite>> writeMap = new IdentityHashMap<>();
-		Map<PDG, Set<HeapRead>> readMap = new IdentityHashMap<>();
+		final Map<PDG, Set<HeapWrite>> writeMap = new IdentityHashMap<>();
+		final HeapLocationIndex index = new HeapLocationIndex();
 
-		Collection<PDG> pdgs = getPDGs();
+		final Collection<PDG> pdgs = getPDGs();
 
-		for (PDG pdg : pdgs) {
-			if (pdg == null) {
+		for (final PDG pdg : pdgs) {
+			if (pdg == null || getThreadIds(pdg).isEmpty()) {
+				// a pdg that runs in no thread does not run in parallel to anything
 				continue;
 			}
-			writeMap.put(pdg, getHeapWrites(pdg));
-			readMap.put(pdg, getHeapReads(pdg));
-		}
-		Stream<PDG> s1 = builder.isParallel()?pdgs.parallelStream():pdgs.stream();
-		s1.forEach(pdg -> {
-			if (pdg == null) {
-				return;
+			final Set<HeapWrite> writes = getHeapWrites(pdg);
+			writeMap.put(pdg, writes);
+			for (final HeapWrite write : writes) {
+				index.add(pdg, write);
 			}
-
-			final Set<HeapWrite> writes = writeMap.get(pdg);
-
-			if (writes.isEmpty()) {
-				// a pdg without heap access does not interfere with anything
-				// the interferences that may happen because of read statements
-				// only appear when there is a aliasing write statement in another
-				// pdg. We skip them here because they will be added later on
-				// while handling the pdg with the interfering write.
-				return;
+			for (final HeapRead read : getHeapReads(pdg)) {
+				index.add(pdg, read);
 			}
-			Stream<PDG> s2 = builder.isParallel()?pdgs.parallelStream():pdgs.stream();
-			s2.forEach(pdgCur -> {
-				if (pdgCur == null) {
-					return;
-				}
-
-				if (mayRunInParallelThreads(pdg, pdgCur)) {
-					final Set<HeapRead> readsCur = readMap.get(pdgCur);
-					final Set<HeapWrite> writesCur = writeMap.get(pdgCur);
+		}
 
-					if (readsCur.isEmpty() && writesCur.isEmpty()) {
-						// a pdg without heap access does not interfere with anything
-						return;
-					}
-					
-					Set<InterferenceEdge> interferenceEdges
-						= computeInterference(writes, readsCur, writesCur);
-					synchronized (ret) {
-						ret.addAll(interferenceEdges);
+		// the interferences that may happen because of read statements only appear when there is
+		// an aliasing write statement, so it suffices to look up the accesses aliasing each write.
+		final Stream<PDG> s1 = builder.isParallel() ? writeMap.keySet().parallelStream() : writeMap.keySet().stream();
+		s1.forEach(pdg -> {
+			final Set<InterferenceEdge> interferenceEdges = new HashSet<InterferenceEdge>();
+			for (final HeapWrite write : writeMap.get(pdg)) {
+				index.forEachAliasing(write, (pdgCur, acc) -> {
+					if (mayRunInParallelThreads(pdg, pdgCur)) {
+						if (acc instanceof HeapWrite) {
+							interferenceEdges.add(addWriteWriteInterference(write, (HeapWrite) acc));
+						} else {
+							interferenceEdges.add(addReadWriteInterference(write, (HeapRead) acc));
+						}
 					}
-				}
-
-				/*if (progress.isCanceled()) {
-					throw CancelException.make("Computing interference canceled.");
-				}*/
-			});
-
-			/*if (progress.isCanceled()) {
-				throw CancelException.make("Computing interference canceled.");
-			}*/
+				});
+			}
+			synchronized (ret) {
+				ret.addAll(interferenceEdges);
+			}
 
 			progress.worked(1);
 		});
@@ -236,26 +224,6 @@ public class InterferenceComputation {
 		return builder.getNonPrunedWalaCallGraph();
 	}
 
-	private final Set<InterferenceEdge> computeInterference(final Set<HeapWrite> writes1, final Set<HeapRead> reads2,
-			final Set<HeapWrite> writes2) {
-
-		final Set<InterferenceEdge> ret = new HashSet<InterferenceEdge>();
-		for (final HeapWrite write : writes1) {
-			for (final HeapRead read2 : reads2) {
-				if (write.isAliasing(read2)) {
-					ret.add(addReadWriteInterference(write, read2));
-				}
-			}
-			for (final HeapWrite write2 : writes2) {
-				if (write.isAliasing(write2)) {
-					ret.add(addWriteWriteInterference(write, write2));
-				}
-			}
-		}
-
-		return ret;
-	}
-
 	private final InterferenceEdge addReadWriteInterference(final HeapWrite write, final HeapRead read) {
 		final PDGNode ewrite = write.getNode();
 		final PDG pdgWrite = getPdgForId(ewrite.getPdgId());
@@ -584,6 +552,108 @@ public class InterferenceComputation {
 
 
 
+	/**
+	 * Maps abstract heap locations, i.e. a {@link ParameterField} together with an instance key of the base
+	 * pointer, to the heap accesses that may refer to them. Two accesses alias (see
+	 * {@link HeapAccess#isAliasing(HeapAccess)}) iff they access the same field and either share an instance key,
+	 * both have an empty base (static fields) or one of them has no points-to set at all. The latter may refer
+	 * to any location of the field.
+	 */
+	static final class HeapLocationIndex {
+
+		private static final class Location {
+			private final List<PDG> pdgs = new ArrayList<PDG>();
+			private final List<HeapAccess> accesses = new ArrayList<HeapAccess>();
+
+			private void add(final PDG pdg, final HeapAccess acc) {
+				pdgs.add(pdg);
+				accesses.add(acc);
+			}
+		}
+
+		private static final class FieldLocations {
+			/** accesses without points-to set */
+			private final Location nullBase = new Location();
+			/** accesses with an empty points-to set, e.g. of static fields */
+			private final Location emptyBase = new Location();
+			/** accesses by the instance keys of their base */
+			private final TIntObjectHashMap<Location> byInstanceKey = new TIntObjectHashMap<Location>();
+		}
+
+		private final Map<ParameterField, FieldLocations> fields = new IdentityHashMap<ParameterField, FieldLocations>();
+
+		void add(final PDG pdg, final HeapAccess acc) {
+			FieldLocations locs = fields.get(acc.field);
+			if (locs == null) {
+				locs = new FieldLocations();
+				fields.put(acc.field, locs);
+			}
+
+			if (acc.base == null) {
+				locs.nullBase.add(pdg, acc);
+			} else if (acc.base.isEmpty()) {
+				locs.emptyBase.add(pdg, acc);
+			} else {
+				for (final IntIterator it = acc.base.getBackingSet().intIterator(); it.hasNext();) {
+					final int ik = it.next();
+					Location loc = locs.byInstanceKey.get(ik);
+					if (loc == null) {
+						loc = new Location();
+						locs.byInstanceKey.put(ik, loc);
+					}
+					loc.add(pdg, acc);
+				}
+			}
+		}
+
+		/**
+		 * Calls the action once for each indexed access that aliases the given access, together with its pdg.
+		 */
+		void forEachAliasing(final HeapAccess acc, final BiConsumer<PDG, HeapAccess> action) {
+			final FieldLocations locs = fields.get(acc.field);
+			if (locs == null) {
+				return;
+			}
+
+			// accesses without points-to set may refer to any location of the field
+			forEach(locs.nullBase, action);
+			if (acc.base == null) {
+				forEach(locs.emptyBase, action);
+				final Set<HeapAccess> seen = Collections.newSetFromMap(new IdentityHashMap<HeapAccess, Boolean>());
+				for (final Location loc : locs.byInstanceKey.valueCollection()) {
+					forEachUnseen(loc, seen, action);
+				}
+			} else if (acc.base.isEmpty()) {
+				forEach(locs.emptyBase, action);
+			} else {
+				// an access sharing several instance keys with acc is found in several locations
+				final Set<HeapAccess> seen = Collections.newSetFromMap(new IdentityHashMap<HeapAccess, Boolean>());
+				for (final IntIterator it = acc.base.getBackingSet().intIterator(); it.hasNext();) {
+					final Location loc = locs.byInstanceKey.get(it.next());
+					if (loc != null) {
+						forEachUnseen(loc, seen, action);
+					}
+				}
+			}
+		}
+
+		private static void forEachUnseen(final Location loc, final Set<HeapAccess> seen,
+				final BiConsumer<PDG, HeapAccess> action) {
+			for (int i = 0; i < loc.accesses.size(); i++) {
+				final HeapAccess other = loc.accesses.get(i);
+				if (seen.add(other)) {
+					action.accept(loc.pdgs.get(i), other);
+				}
+			}
+		}
+
+		private static void forEach(final Location loc, final BiConsumer<PDG, HeapAccess> action) {
+			for (int i = 0; i < loc.accesses.size(); i++) {
+				action.accept(loc.pdgs.get(i), loc.accesses.get(i));
+			}
+		}
+	}
+
 	static abstract class HeapAccess {
 		private final PDGNode expr;
 		private final OrdinalSet<InstanceKey> base;
@@ -612,12 +682,16 @@ public class InterferenceComputation {
 			return expr;
 		}
 
+		/**
+		 * Two accesses alias if they access the same field and may refer to the same location. An access without
+		 * points-to set (e.g. of an unresolved reference) is conservatively assumed to alias every access of its field.
+		 */
 		public boolean isAliasing(final HeapAccess acc) {
-			final boolean emtpyBases = (base == null && acc.base == null) ||
-			(base != null && acc.base != null && base.isEmpty() && acc.base.isEmpty());
+			final boolean unknownBase = base == null || acc.base == null;
+			final boolean emtpyBases = unknownBase || (base.isEmpty() && acc.base.isEmpty());
 
 			return (field == acc.field) &&
-			(emtpyBases || (base != null && base.containsAny(acc.base)));
+			(emtpyBases || base.containsAny(acc.base));
 		}
 
 	}
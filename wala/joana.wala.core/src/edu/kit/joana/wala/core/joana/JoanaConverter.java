@@ -12,6 +12,8 @@ import java.util.Comparator;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import com.ibm.wala.classLoader.IClass;
 import com.ibm.wala.classLoader.IMethod;
@@ -45,11 +47,16 @@ public class JoanaConverter {
 	public static SDG convert(final SDGBuilder b, IProgressMonitor progress) throws CancelException {
 		return convert (b, progress, true);
 	}
-	public static SDG convert(final SDGBuilder b, IProgressMonitor progress, boolean keepPDGs) throws CancelException {
-		final SDG sdg = (b.getEntry() == null
-			? new SDG("multiple-entrypoints.SDG()")
-			: new SDG(PrettyWalaNames.methodName(b.getEntry())));
 
+	/**
+	 * Converts the pdgs of the builder to an sdg. Nodes and edges are converted in blocks of {@link #BLOCK_SIZE}
+	 * nodes: the sdg nodes and edges of a block are created concurrently (if the builder runs in parallel) into a
+	 * buffer indexed by the position of the node, and are then added to the sdg sequentially in the order of the node
+	 * ids. Hence, the result does not depend on the number of threads.
+	 * The sdg is sized for all node ids up front, and unless {@code keepPDGs} is set, the edges of a block are
+	 * removed from their pdgs as soon as they have been added to the sdg.
+	 */
+	public static SDG convert(final SDGBuilder b, IProgressMonitor progress, boolean keepPDGs) throws CancelException {
         progress.beginTask("Building utility edges", IProgressMonitor.UNKNOWN);
         addUtilityEdges(b);
         progress.worked(1);
@@ -61,6 +68,11 @@ public class JoanaConverter {
         PDGNode allNodes[] = getAllNodesSorted(b, progress);
         progress.done();
 
+        final int nodeIdCapacity = (allNodes.length == 0 ? 0 : Math.max(0, allNodes[allNodes.length - 1].getId() + 1));
+		final SDG sdg = (b.getEntry() == null
+			? new SDG("multiple-entrypoints.SDG()", nodeIdCapacity)
+			: new SDG(PrettyWalaNames.methodName(b.getEntry()), nodeIdCapacity));
+
         progress.beginTask("Inserting nodes into SDG", allNodes.length);
         progress.subTask("processing " + allNodes.length + " nodes");
         convertNodes(sdg, allNodes, b, progress);
@@ -68,14 +80,7 @@ public class JoanaConverter {
 
         progress.beginTask("Inserting edges into SDG", allNodes.length);
         progress.subTask("processing " + allNodes.length + " nodes");
-        for (int i = 0; i < allNodes.length; i++) {
-        	addEdgesForNode(sdg, allNodes[i], b, keepPDGs);
-
-        	if (i % 107 == 0) {
-                progress.worked(i);
-    			MonitorUtil.throwExceptionIfCanceled(progress);
-            }
-        }
+        convertEdges(sdg, allNodes, b, keepPDGs, progress);
         sdg.setNode2Instr(b.getPDGNode2IIndex());
         sdg.setEntryToCGNode(b.getEntryNode2CGNode());
         
@@ -89,7 +94,41 @@ public class JoanaConverter {
 		return sdg;
 	}
 
-	private static void addEdgesForNode(SDG sdg, PDGNode node, SDGBuilder b, boolean keepEdges) {
+	/** number of nodes that are converted at once, see {@link #convert(SDGBuilder, IProgressMonitor, boolean)} */
+	private static final int BLOCK_SIZE = 1 << 14;
+
+	private static IntStream block(final SDGBuilder b, final int start, final int end) {
+		final IntStream positions = IntStream.range(start, end);
+		return (b.isParallel() ? positions.parallel() : positions);
+	}
+
+	private static void convertEdges(SDG sdg, PDGNode[] nodes, SDGBuilder b, boolean keepEdges,
+			IProgressMonitor progress) throws CancelException {
+		final SDGEdge[][] buffer = new SDGEdge[Math.min(BLOCK_SIZE, nodes.length)][];
+		for (int start = 0; start < nodes.length; start += BLOCK_SIZE) {
+			final int offset = start;
+			final int end = Math.min(nodes.length, start + BLOCK_SIZE);
+			// the sdg and the pdgs are only read here
+			block(b, start, end).forEach(i -> buffer[i - offset] = createEdgesForNode(sdg, nodes[i], b));
+
+			for (int i = start; i < end; i++) {
+				final SDGNode from = sdg.getNode(nodes[i].getId());
+				for (final SDGEdge edge : buffer[i - offset]) {
+					sdg.addEdgeUnsafe(from, edge.getTarget(), edge);
+				}
+				buffer[i - offset] = null;
+
+				if (!keepEdges) {
+					b.getPDGforId(nodes[i].getPdgId()).removeOutgoingEdgesOf(nodes[i]);
+				}
+			}
+
+			progress.worked(end);
+			MonitorUtil.throwExceptionIfCanceled(progress);
+		}
+	}
+
+	private static SDGEdge[] createEdgesForNode(SDG sdg, PDGNode node, SDGBuilder b) {
 		PDG pdg = b.getPDGforId(node.getPdgId());
 		SDGNode from = sdg.getNode(node.getId());
 
@@ -98,15 +137,15 @@ public class JoanaConverter {
 		}
 
 		final Set<PDGEdge> outgoing = pdg.outgoingEdgesOf(node);
+		final SDGEdge[] edges = new SDGEdge[outgoing.size()];
+		int i = 0;
 		for (PDGEdge edge : outgoing) {
 			SDGNode to = sdg.getNode(edge.to.getId());
 			
-			SDGEdge sdgEdge = createEdge(from, to, edge.kind, edge.getLabel());
-			sdg.addEdgeUnsafe(from, to, sdgEdge);
-		}
-		if (!keepEdges) {
-			pdg.removeOutgoingEdgesOf(node);
+			edges[i++] = createEdge(from, to, edge.kind, edge.getLabel());
 		}
+
+		return edges;
 	}
 
 	private static SDGEdge createEdge(SDGNode from, SDGNode to, PDGEdge.Kind kind, String label) {
@@ -205,15 +244,19 @@ public class JoanaConverter {
 
 	private static void convertNodes(SDG sdg, PDGNode[] nodes, SDGBuilder b,
 			IProgressMonitor progress) throws CancelException {
-		int i = 0;
-		for (PDGNode node : nodes) {
-			SDGNode snode = convertNode(b, node);
-			sdg.addVertex(snode);
-
-			if (i++ % 107 == 0) {
-				progress.worked(i);
-				MonitorUtil.throwExceptionIfCanceled(progress);
+		final SDGNode[] buffer = new SDGNode[Math.min(BLOCK_SIZE, nodes.length)];
+		for (int start = 0; start < nodes.length; start += BLOCK_SIZE) {
+			final int offset = start;
+			final int end = Math.min(nodes.length, start + BLOCK_SIZE);
+			block(b, start, end).forEach(i -> buffer[i - offset] = convertNode(b, nodes[i]));
+
+			for (int i = start; i < end; i++) {
+				sdg.addVertex(buffer[i - offset]);
+				buffer[i - offset] = null;
 			}
+
+			progress.worked(end);
+			MonitorUtil.throwExceptionIfCanceled(progress);
 		}
 	}
 
@@ -370,10 +413,12 @@ public class JoanaConverter {
 	}
 
 	private static void addUtilityEdges(SDGBuilder sdg) {
-		for (PDG pdg : sdg.getAllPDGs()) {
+		// each walker only modifies its own pdg
+		final Stream<PDG> pdgs = sdg.getAllPDGs().stream();
+		(sdg.isParallel() ? pdgs.parallel() : pdgs).forEach(pdg -> {
 			UtilityEdgeWalker walker = new UtilityEdgeWalker(pdg);
 			walker.traverseDFS(pdg.entry);
-		}
+		});
 	}
 
 	private static PDGNode[] getAllNodesSorted(SDGBuilder builder, IProgressMonitor progress) throws CancelException {
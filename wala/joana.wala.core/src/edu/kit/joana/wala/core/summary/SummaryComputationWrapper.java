@@ -21,7 +21,9 @@ import edu.kit.joana.wala.core.PDGEdge;
 import edu.kit.joana.wala.core.PDGNode;
 import edu.kit.joana.wala.core.SDGBuilder;
 import edu.kit.joana.wala.core.joana.JoanaConverter;
+import edu.kit.joana.wala.summary.EntryPointCache;
 import edu.kit.joana.wala.summary.SummaryComputation;
+import edu.kit.joana.wala.summary.SummaryComputation3;
 import edu.kit.joana.wala.summary.WorkPackage;
 import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
 import gnu.trove.set.TIntSet;
@@ -33,6 +35,15 @@ public final class SummaryComputationWrapper {
 	private SummaryComputationWrapper() {}
 
 	public static void computeDataDepSummary(final SDGBuilder builder, final IProgressMonitor progress) throws CancelException {
+		computeDataDepSummary(builder, null, progress);
+	}
+
+	/**
+	 * Computes the data dependency summary edges and writes them back to the PDGs of the builder. If a cache is
+	 * given, the summaries of library methods are taken from the cache when possible.
+	 */
+	public static void computeDataDepSummary(final SDGBuilder builder, final EntryPointCache cache,
+			final IProgressMonitor progress) throws CancelException {
 		final SDG sdg = JoanaConverter.convert(builder, progress);
 
 		final Set<EntryPoint> entries = new TreeSet<EntryPoint>();
@@ -47,7 +58,12 @@ public final class SummaryComputationWrapper {
 		final EntryPoint ep = new EntryPoint(pdg.entry.getId(), formIns, formOuts);
 		entries.add(ep);
 		final WorkPackage<SDG> pack = WorkPackage.create(sdg, entries, sdg.getName());
-		SummaryComputation.computePureDataDep(pack, progress);
+		if (cache == null) {
+			SummaryComputation.computePureDataDep(pack, progress);
+		} else {
+			pack.setSummaryCache(cache);
+			SummaryComputation3.computePureDataDep(pack, false, progress);
+		}
 
 		// write back to this sdg
 		for (final SDGNode call : sdg.vertexSet()) {
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014, Oracle America, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of Oracle nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+ * THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package edu.kit.joana.wala.eval.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.util.io.IOFactory;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.SDGBuilder.ExceptionAnalysis;
+import edu.kit.joana.wala.core.SDGBuilder.FieldPropagation;
+
+/**
+ * Provides the sdgs the slicer and chopper benchmarks run on.
+ * <p>
+ * A program is either the name of a class with a main method on {@link #CLASSPATH}, whose sdg is built once and
+ * then kept in a {@link edu.kit.joana.api.sdg.SDGBuildCache} below {@link #CACHE_DIR}, or the path of a
+ * <tt>.pdg</tt> file. The sdgs contain interference edges and thread information, so that the concurrent
+ * slicers can be run on them as well.
+ */
+final class BenchmarkSDGs {
+
+	public static final String CLASSPATH =
+			JavaBenchmark.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator +
+			JavaBenchmark.ANNOTATIONS_PASSON_CLASSPATH + File.pathSeparator +
+			JavaBenchmark.JAVAGRANDE + File.pathSeparator +
+			JavaBenchmark.FREECS + File.pathSeparator +
+			JavaBenchmark.HSQLDB + File.pathSeparator +
+			JavaBenchmark.JFLEX;
+
+	public static final String CACHE_DIR = "target/sdg-cache";
+
+	private BenchmarkSDGs() {}
+
+	public static SDG load(String program) throws ClassHierarchyException, UnsoundGraphException, CancelException, IOException {
+		if (program.endsWith(".pdg")) {
+			return SDG.readFromAndUseLessHeap(program);
+		}
+
+		final SDGConfig config = new SDGConfig(CLASSPATH, JavaMethodSignature.mainMethodOfClass(program).toBCString(), Stubs.JRE_15);
+		config.setParallel(false);
+		config.setFieldPropagation(FieldPropagation.OBJ_GRAPH);
+		config.setExceptionAnalysis(ExceptionAnalysis.INTRAPROC);
+		config.setComputeInterferences(true);
+		config.setMhpType(MHPType.PRECISE);
+
+		final PrintStream out = IOFactory.createUTF8PrintStream(new ByteArrayOutputStream());
+		final File cacheDir = new File(CACHE_DIR, program);
+		return SDGProgram.createSDGProgram(config, cacheDir, out, NullProgressMonitor.INSTANCE).getSDG();
+	}
+
+	/**
+	 * @return a deterministic sample of at most <tt>max</tt> nodes of the sdg, spread over the whole graph.
+	 */
+	public static List<SDGNode> sample(SDG sdg, int max) {
+		final List<SDGNode> nodes = new ArrayList<>(sdg.vertexSet());
+		Collections.sort(nodes, Comparator.comparingInt(SDGNode::getId));
+		final int stride = Math.max(1, nodes.size() / max);
+		final List<SDGNode> sample = new ArrayList<>();
+		for (int i = 0; i < nodes.size() && sample.size() < max; i += stride) {
+			sample.add(nodes.get(i));
+		}
+
+		return sample;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2014, Oracle America, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of Oracle nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+ * THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package edu.kit.joana.wala.eval.jmh;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.ContextBasedChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.ContextInsensitiveChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.ContextSensitiveChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.DoubleIntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.FixedPointChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.InsensitiveIntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.IntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.IntraproceduralChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.MixedContextSensitivityChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.NonSameLevelChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.Opt1Chopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopperUnopt;
+import edu.kit.joana.ifc.sdg.graph.chopper.SummaryMergedChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.TruncatedNonSameLevelChopper;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+
+/**
+ * Measures the throughput of the {@link Chopper} implementations on real sdgs, see {@link BenchmarkSDGs}.
+ * <p>
+ * The criteria are pairs of a sampled source node and a sink node taken from the forward slice of the source, so
+ * that the chops are not trivially empty. Same-level choppers only accept source and sink of the same procedure,
+ * so for them the sink is taken from the part of the forward slice in the procedure of the source. The total
+ * number of nodes in the computed chops is reported as the auxiliary counter <tt>chopNodes</tt>; run with
+ * <tt>-prof gc</tt> (as {@link #main(String[])} does) to see the allocation rate.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+public class ChopperBenchmark {
+
+	/** upper bound on the number of chopping criteria per invocation */
+	private static final int CRITERIA = 20;
+
+	@State(Scope.Benchmark)
+	public static class ChoppingProblem {
+		@Param({"de.uni.trier.infsec.core.Setup", "joana.api.testdata.conc.MutualRecursiveSpawn", "org.hsqldb.Server"})
+		String program;
+
+		@Param({"RepsRosay", "RepsRosayUnopt", "NonSameLevel", "TruncatedNonSameLevel", "Opt1", "FixedPoint",
+			"Intersection", "DoubleIntersection", "InsensitiveIntersection", "ContextBased",
+			"ContextInsensitive", "ContextSensitive", "MixedContextSensitivity", "SummaryMerged", "Intraprocedural"})
+		String chopper;
+
+		SDG sdg;
+		List<SDGNode> sources;
+		List<SDGNode> sinks;
+		Chopper instance;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, UnsoundGraphException, CancelException, IOException {
+			this.sdg = BenchmarkSDGs.load(program);
+			this.instance = createChopper(chopper, sdg);
+
+			final boolean sameLevel = isSameLevel(chopper);
+			final Slicer forward = new ContextInsensitiveForward(sdg);
+			this.sources = new ArrayList<>();
+			this.sinks = new ArrayList<>();
+			for (SDGNode source : BenchmarkSDGs.sample(sdg, CRITERIA)) {
+				final List<SDGNode> reached = new ArrayList<>();
+				for (SDGNode n : forward.slice(source)) {
+					if (!sameLevel || n.getProc() == source.getProc()) {
+						reached.add(n);
+					}
+				}
+				Collections.sort(reached, Comparator.comparingInt(SDGNode::getId));
+				sources.add(source);
+				sinks.add(reached.get(reached.size() / 2));
+			}
+
+			System.out.println(program + ": " + sdg.vertexSet().size() + " nodes, " + sources.size() + " criteria");
+		}
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class ChopSize {
+		public long chopNodes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			chopNodes = 0;
+		}
+	}
+
+	static boolean isSameLevel(String name) {
+		switch (name) {
+		case "ContextInsensitive":
+		case "ContextSensitive":
+		case "MixedContextSensitivity":
+		case "SummaryMerged":
+		case "Intraprocedural":
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	static Chopper createChopper(String name, SDG sdg) {
+		switch (name) {
+		case "RepsRosay":
+			return new RepsRosayChopper(sdg);
+		case "RepsRosayUnopt":
+			return new RepsRosayChopperUnopt(sdg);
+		case "NonSameLevel":
+			return new NonSameLevelChopper(sdg);
+		case "TruncatedNonSameLevel":
+			return new TruncatedNonSameLevelChopper(sdg);
+		case "Opt1":
+			return new Opt1Chopper(sdg);
+		case "FixedPoint":
+			return new FixedPointChopper(sdg);
+		case "Intersection":
+			return new IntersectionChopper(sdg);
+		case "DoubleIntersection":
+			return new DoubleIntersectionChopper(sdg);
+		case "InsensitiveIntersection":
+			return new InsensitiveIntersectionChopper(sdg);
+		case "ContextBased":
+			return new ContextBasedChopper(sdg);
+		case "ContextInsensitive":
+			return new ContextInsensitiveChopper(sdg);
+		case "ContextSensitive":
+			return new ContextSensitiveChopper(sdg);
+		case "MixedContextSensitivity":
+			return new MixedContextSensitivityChopper(sdg);
+		case "SummaryMerged":
+			return new SummaryMergedChopper(sdg);
+		case "Intraprocedural":
+			return new IntraproceduralChopper(sdg);
+		default:
+			throw new IllegalArgumentException("unknown chopper: " + name);
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 3, time = 5)
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void testChop(ChoppingProblem problem, ChopSize size, Blackhole blackhole) {
+		for (int i = 0; i < problem.sources.size(); i++) {
+			final Collection<SDGNode> chop = problem.instance.chop(problem.sources.get(i), problem.sinks.get(i));
+			size.chopNodes += chop.size();
+			blackhole.consume(chop);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(ChopperBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.build();
+		new Runner(opt).run();
+	}
+}
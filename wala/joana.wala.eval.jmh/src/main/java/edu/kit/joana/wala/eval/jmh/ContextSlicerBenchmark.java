@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2014, Oracle America, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of Oracle nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+ * THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package edu.kit.joana.wala.eval.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGBuildPreparation;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.IntContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.IntContextSlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.util.io.IOFactory;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.SDGBuilder.ExceptionAnalysis;
+import edu.kit.joana.wala.core.SDGBuilder.FieldPropagation;
+
+/**
+ * Compares the object based {@link ContextSlicerBackward}/{@link ContextSlicerForward} with static contexts
+ * to {@link IntContextSlicerBackward}/{@link IntContextSlicerForward}, which work on interned call strings.
+ * Each benchmark invocation slices a fixed sample of criteria of the sdg.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+public class ContextSlicerBenchmark {
+
+	/** upper bound on the number of slicing criteria per invocation */
+	private static final int CRITERIA = 200;
+
+	public static final SDGConfig config = new SDGConfig(
+			JavaBenchmark.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator +
+			JavaBenchmark.ANNOTATIONS_PASSON_CLASSPATH + File.pathSeparator +
+			JavaBenchmark.JAVAGRANDE + File.pathSeparator +
+			JavaBenchmark.FREECS + File.pathSeparator +
+			JavaBenchmark.HSQLDB + File.pathSeparator +
+			JavaBenchmark.JFLEX,
+			null,
+			Stubs.JRE_15
+		); static {
+			config.setParallel(false);
+			config.setFieldPropagation(FieldPropagation.OBJ_GRAPH);
+			config.setExceptionAnalysis(ExceptionAnalysis.INTRAPROC);
+	}
+
+	@State(Scope.Benchmark)
+	public static class SlicingProblem {
+		@Param({"de.uni.trier.infsec.core.Setup", "joana.api.testdata.conc.MutualRecursiveSpawn", "org.hsqldb.Server"})
+		String className;
+
+		SDG sdg;
+		List<SDGNode> criteria;
+
+		Slicer staticBackward;
+		Slicer staticForward;
+		Slicer intBackward;
+		Slicer intForward;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, UnsoundGraphException, CancelException, IOException {
+			final JavaMethodSignature mainMethod = JavaMethodSignature.mainMethodOfClass(className);
+			config.setEntryMethod(mainMethod.toBCString());
+
+			final PrintStream out = IOFactory.createUTF8PrintStream(new ByteArrayOutputStream());
+			this.sdg = SDGBuildPreparation.compute(out, SDGProgram.makeBuildPreparationConfig(config), NullProgressMonitor.INSTANCE);
+
+			// a deterministic sample of the nodes, spread over the whole graph
+			final List<SDGNode> nodes = new ArrayList<>(sdg.vertexSet());
+			Collections.sort(nodes, Comparator.comparingInt(SDGNode::getId));
+			final int stride = Math.max(1, nodes.size() / CRITERIA);
+			this.criteria = new ArrayList<>();
+			for (int i = 0; i < nodes.size() && criteria.size() < CRITERIA; i += stride) {
+				criteria.add(nodes.get(i));
+			}
+
+			this.staticBackward = ContextSlicerBackward.newStaticContextSlicerBackward(sdg);
+			this.staticForward = ContextSlicerForward.newStaticContextSlicerForward(sdg);
+			this.intBackward = new IntContextSlicerBackward(sdg);
+			this.intForward = new IntContextSlicerForward(sdg);
+
+			System.out.println(className + ": " + sdg.vertexSet().size() + " nodes, " + criteria.size() + " criteria");
+		}
+	}
+
+	private static void sliceAll(Slicer slicer, List<SDGNode> criteria, Blackhole blackhole) {
+		for (SDGNode c : criteria) {
+			blackhole.consume(slicer.slice(c));
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 3, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void testStaticContextSlicerBackward(SlicingProblem problem, Blackhole blackhole) {
+		sliceAll(problem.staticBackward, problem.criteria, blackhole);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 3, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void testIntContextSlicerBackward(SlicingProblem problem, Blackhole blackhole) {
+		sliceAll(problem.intBackward, problem.criteria, blackhole);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 3, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void testStaticContextSlicerForward(SlicingProblem problem, Blackhole blackhole) {
+		sliceAll(problem.staticForward, problem.criteria, blackhole);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 3, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void testIntContextSlicerForward(SlicingProblem problem, Blackhole blackhole) {
+		sliceAll(problem.intForward, problem.criteria, blackhole);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(ContextSlicerBenchmark.class.getSimpleName())
+			.forks(1)
+			.build();
+		new Runner(opt).run();
+	}
+}
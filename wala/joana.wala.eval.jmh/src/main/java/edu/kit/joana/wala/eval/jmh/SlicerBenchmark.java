@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2014, Oracle America, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of Oracle nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+ * THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package edu.kit.joana.wala.eval.jmh;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.FrozenSummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.IncrementalSummaryBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.IntContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.NandaI2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.krinke.Krinke;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.krinke.OptimizedKrinke;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.Nanda;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.NandaBackward;
+
+/**
+ * Measures the throughput of the backward {@link Slicer} implementations on real sdgs, see {@link BenchmarkSDGs}.
+ * Each benchmark invocation slices a fixed sample of criteria. The total number of nodes in the computed slices is
+ * reported as the auxiliary counter <tt>sliceNodes</tt>; run with <tt>-prof gc</tt> (as {@link #main(String[])} does)
+ * to see the allocation rate.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+public class SlicerBenchmark {
+
+	/** upper bound on the number of slicing criteria per invocation */
+	private static final int CRITERIA = 50;
+
+	@State(Scope.Benchmark)
+	public static class SlicingProblem {
+		@Param({"de.uni.trier.infsec.core.Setup", "joana.api.testdata.conc.MutualRecursiveSpawn", "org.hsqldb.Server"})
+		String program;
+
+		@Param({"ContextInsensitive", "Summary", "FrozenSummary", "IncrementalSummary", "StaticContext", "IntContext",
+			"I2P", "NandaI2P", "Nanda", "Krinke", "OptimizedKrinke"})
+		String slicer;
+
+		SDG sdg;
+		List<SDGNode> criteria;
+		Slicer instance;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, UnsoundGraphException, CancelException, IOException {
+			this.sdg = BenchmarkSDGs.load(program);
+			this.criteria = BenchmarkSDGs.sample(sdg, CRITERIA);
+			this.instance = createSlicer(slicer, sdg);
+
+			System.out.println(program + ": " + sdg.vertexSet().size() + " nodes, " + criteria.size() + " criteria");
+		}
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class SliceSize {
+		public long sliceNodes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			sliceNodes = 0;
+		}
+	}
+
+	static Slicer createSlicer(String name, SDG sdg) {
+		switch (name) {
+		case "ContextInsensitive":
+			return new ContextInsensitiveBackward(sdg);
+		case "Summary":
+			return new SummarySlicerBackward(sdg);
+		case "FrozenSummary":
+			return new FrozenSummarySlicerBackward(FrozenSDG.freeze(sdg));
+		case "IncrementalSummary":
+			return new IncrementalSummaryBackward(sdg);
+		case "StaticContext":
+			return ContextSlicerBackward.newStaticContextSlicerBackward(sdg);
+		case "IntContext":
+			return new IntContextSlicerBackward(sdg);
+		case "I2P":
+			return new I2PBackward(sdg);
+		case "NandaI2P":
+			return new NandaI2PBackward(sdg);
+		case "Nanda":
+			return new Nanda(sdg, new NandaBackward());
+		case "Krinke":
+			return new Krinke(sdg);
+		case "OptimizedKrinke":
+			return new OptimizedKrinke(sdg);
+		default:
+			throw new IllegalArgumentException("unknown slicer: " + name);
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 3, time = 5)
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void testSlice(SlicingProblem problem, SliceSize size, Blackhole blackhole) {
+		for (SDGNode c : problem.criteria) {
+			final Collection<SDGNode> slice = problem.instance.slice(c);
+			size.sliceNodes += slice.size();
+			blackhole.consume(slice);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(SlicerBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.build();
+		new Runner(opt).run();
+	}
+}
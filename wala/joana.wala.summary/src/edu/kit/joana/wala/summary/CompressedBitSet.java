@@ -0,0 +1,320 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.summary;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import com.ibm.wala.util.intset.IntIterator;
+
+/**
+ * A set of non-negative ints in the layout of a roaring bitmap: the ints are grouped into chunks of 2^16 by their upper
+ * bits, and the lower bits of each chunk are either stored as a sorted array or, once that would be larger, as a plain
+ * bitmap. The bitmap of a chunk only covers the bits up to the size hint given at construction (or the largest
+ * element), so the sets of small procedures stay small as well.
+ * <p>
+ * In contrast to a {@link edu.kit.joana.ifc.sdg.graph.BitVector64} of the same size, an empty set needs no memory
+ * besides the object itself, and a sparse set only a few bytes per element. Not thread-safe.
+ */
+class CompressedBitSet {
+
+	private static final int CHUNK_BITS = 16;
+	private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+	private static final int MAX_BITMAP_WORDS = 1 << (CHUNK_BITS - 6);
+	private static final int MIN_ARRAY_CAPACITY = 4;
+
+	private static final char[] NO_KEYS = new char[0];
+	private static final Object[] NO_CONTAINERS = new Object[0];
+	private static final int[] NO_CARDINALITIES = new int[0];
+
+	/** expected number of bits, only used to size the bitmaps of the chunks */
+	private final int nbits;
+	private int numberOfChunks = 0;
+	/** upper bits of the chunks, in ascending order */
+	private char[] keys = NO_KEYS;
+	/** for each chunk, either a char[] of its sorted lower bits or a long[] bitmap of them */
+	private Object[] containers = NO_CONTAINERS;
+	private int[] cardinalities = NO_CARDINALITIES;
+
+	/**
+	 * @param nbits expected number of bits, i.e. all elements are expected to be smaller than this
+	 */
+	CompressedBitSet(int nbits) {
+		if (nbits < 0) {
+			throw new IllegalArgumentException("negative size: " + nbits);
+		}
+		this.nbits = nbits;
+	}
+
+	public final void set(int bit) {
+		setWithResult(bit);
+	}
+
+	/**
+	 * @return true iff the bit was not set before
+	 */
+	public final boolean setWithResult(int bit) {
+		if (bit < 0) {
+			throw new IllegalArgumentException("negative bit: " + bit);
+		}
+		final char key = (char) (bit >>> CHUNK_BITS);
+		final char low = (char) (bit & CHUNK_MASK);
+		int chunk = Arrays.binarySearch(keys, 0, numberOfChunks, key);
+		if (chunk < 0) {
+			chunk = -chunk - 1;
+			insertChunk(chunk, key);
+		}
+
+		final Object container = containers[chunk];
+		if (container instanceof long[]) {
+			long[] bitmap = (long[]) container;
+			final int word = low >>> 6;
+			if (word >= bitmap.length) {
+				bitmap = Arrays.copyOf(bitmap, Math.min(MAX_BITMAP_WORDS, Math.max(word + 1, 2 * bitmap.length)));
+				containers[chunk] = bitmap;
+			}
+			final long mask = 1L << low;
+			if ((bitmap[word] & mask) != 0) {
+				return false;
+			}
+			bitmap[word] |= mask;
+			cardinalities[chunk]++;
+			return true;
+		}
+
+		char[] array = (char[]) container;
+		final int cardinality = cardinalities[chunk];
+		int pos = Arrays.binarySearch(array, 0, cardinality, low);
+		if (pos >= 0) {
+			return false;
+		}
+		pos = -pos - 1;
+		final int bitmapWords = bitmapWords(key, cardinality == 0 ? low : (char) Math.max(low, array[cardinality - 1]));
+		if (cardinality + 1 > 4 * bitmapWords) {
+			// a bitmap is smaller than the array, from now on
+			final long[] bitmap = new long[bitmapWords];
+			for (int i = 0; i < cardinality; i++) {
+				bitmap[array[i] >>> 6] |= 1L << array[i];
+			}
+			bitmap[low >>> 6] |= 1L << low;
+			containers[chunk] = bitmap;
+			cardinalities[chunk]++;
+			return true;
+		}
+		if (cardinality == array.length) {
+			array = Arrays.copyOf(array, Math.max(MIN_ARRAY_CAPACITY, Math.min(4 * bitmapWords, 2 * cardinality)));
+			containers[chunk] = array;
+		}
+		System.arraycopy(array, pos, array, pos + 1, cardinality - pos);
+		array[pos] = low;
+		cardinalities[chunk]++;
+		return true;
+	}
+
+	/**
+	 * @return the number of words of a bitmap for the given chunk, which covers the expected number of bits and the
+	 *         given largest lower bits
+	 */
+	private int bitmapWords(char key, char maxLow) {
+		final int expectedInChunk = Math.min(1 << CHUNK_BITS, Math.max(0, nbits - (key << CHUNK_BITS)));
+		return Math.max((expectedInChunk + 63) >>> 6, (maxLow >>> 6) + 1);
+	}
+
+	private void insertChunk(int chunk, char key) {
+		if (numberOfChunks == keys.length) {
+			final int capacity = Math.max(1, 2 * numberOfChunks);
+			keys = Arrays.copyOf(keys, capacity);
+			containers = Arrays.copyOf(containers, capacity);
+			cardinalities = Arrays.copyOf(cardinalities, capacity);
+		}
+		System.arraycopy(keys, chunk, keys, chunk + 1, numberOfChunks - chunk);
+		System.arraycopy(containers, chunk, containers, chunk + 1, numberOfChunks - chunk);
+		System.arraycopy(cardinalities, chunk, cardinalities, chunk + 1, numberOfChunks - chunk);
+		keys[chunk] = key;
+		containers[chunk] = NO_KEYS;
+		cardinalities[chunk] = 0;
+		numberOfChunks++;
+	}
+
+	/**
+	 * Removes the bit from this set. A chunk that has become a bitmap stays one, as the sets mostly grow.
+	 */
+	public final void clear(int bit) {
+		if (bit < 0) {
+			return;
+		}
+		final int chunk = Arrays.binarySearch(keys, 0, numberOfChunks, (char) (bit >>> CHUNK_BITS));
+		if (chunk < 0) {
+			return;
+		}
+		final char low = (char) (bit & CHUNK_MASK);
+		final Object container = containers[chunk];
+		if (container instanceof long[]) {
+			final long[] bitmap = (long[]) container;
+			final int word = low >>> 6;
+			final long mask = 1L << low;
+			if (word >= bitmap.length || (bitmap[word] & mask) == 0) {
+				return;
+			}
+			bitmap[word] &= ~mask;
+		} else {
+			final char[] array = (char[]) container;
+			final int cardinality = cardinalities[chunk];
+			final int pos = Arrays.binarySearch(array, 0, cardinality, low);
+			if (pos < 0) {
+				return;
+			}
+			System.arraycopy(array, pos + 1, array, pos, cardinality - pos - 1);
+		}
+		if (--cardinalities[chunk] == 0) {
+			removeChunk(chunk);
+		}
+	}
+
+	private void removeChunk(int chunk) {
+		System.arraycopy(keys, chunk + 1, keys, chunk, numberOfChunks - chunk - 1);
+		System.arraycopy(containers, chunk + 1, containers, chunk, numberOfChunks - chunk - 1);
+		System.arraycopy(cardinalities, chunk + 1, cardinalities, chunk, numberOfChunks - chunk - 1);
+		numberOfChunks--;
+		containers[numberOfChunks] = null;
+	}
+
+	/**
+	 * @return whether the chunk of the given bit exists and is stored as a bitmap rather than a sorted array
+	 */
+	final boolean isBitmap(int bit) {
+		final int chunk = Arrays.binarySearch(keys, 0, numberOfChunks, (char) (bit >>> CHUNK_BITS));
+		return chunk >= 0 && containers[chunk] instanceof long[];
+	}
+
+	public final boolean contains(int bit) {
+		if (bit < 0) {
+			return false;
+		}
+		final int chunk = Arrays.binarySearch(keys, 0, numberOfChunks, (char) (bit >>> CHUNK_BITS));
+		if (chunk < 0) {
+			return false;
+		}
+		final char low = (char) (bit & CHUNK_MASK);
+		final Object container = containers[chunk];
+		if (container instanceof long[]) {
+			final long[] bitmap = (long[]) container;
+			return (low >>> 6) < bitmap.length && (bitmap[low >>> 6] & (1L << low)) != 0;
+		}
+		return Arrays.binarySearch((char[]) container, 0, cardinalities[chunk], low) >= 0;
+	}
+
+	public final boolean isZero() {
+		return numberOfChunks == 0;
+	}
+
+	public final int populationCount() {
+		int count = 0;
+		for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+			count += cardinalities[chunk];
+		}
+		return count;
+	}
+
+	/**
+	 * @return the elements of this set in ascending order
+	 */
+	public final IntIterator intIterator() {
+		return new IntIterator() {
+			private int chunk = 0;
+			/** position in the array, or the next bit in the bitmap of the current chunk */
+			private int pos = 0;
+
+			{
+				advance();
+			}
+
+			/**
+			 * Moves to the next element, starting at the current position.
+			 */
+			private void advance() {
+				while (chunk < numberOfChunks) {
+					final Object container = containers[chunk];
+					if (container instanceof long[]) {
+						final long[] bitmap = (long[]) container;
+						int word = pos >>> 6;
+						if (word < bitmap.length) {
+							long bits = bitmap[word] & (-1L << pos);
+							while (bits == 0 && ++word < bitmap.length) {
+								bits = bitmap[word];
+							}
+							if (bits != 0) {
+								pos = (word << 6) + Long.numberOfTrailingZeros(bits);
+								return;
+							}
+						}
+					} else if (pos < cardinalities[chunk]) {
+						return;
+					}
+					chunk++;
+					pos = 0;
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return chunk < numberOfChunks;
+			}
+
+			@Override
+			public int next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final Object container = containers[chunk];
+				final int low = (container instanceof long[]) ? pos : ((char[]) container)[pos];
+				final int result = (keys[chunk] << CHUNK_BITS) | low;
+				pos++;
+				advance();
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * @return a rough estimate of the heap used by this set, in bytes, assuming compressed object references
+	 */
+	public final long estimatedBytes() {
+		long bytes = 40 + arrayBytes(2L * keys.length) + arrayBytes(4L * containers.length)
+				+ arrayBytes(4L * cardinalities.length);
+		for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+			final Object container = containers[chunk];
+			bytes += (container instanceof long[]) ? arrayBytes(8L * ((long[]) container).length)
+					: arrayBytes(2L * ((char[]) container).length);
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the heap used by a {@link edu.kit.joana.ifc.sdg.graph.BitVector64} for the expected number of bits
+	 */
+	public final long bitVectorBytes() {
+		return 24 + arrayBytes(8L * ((nbits + 63) >>> 6));
+	}
+
+	private static long arrayBytes(long payload) {
+		return (16 + payload + 7) & ~7L;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("{");
+		for (final IntIterator it = intIterator(); it.hasNext(); ) {
+			sb.append(it.next());
+			if (it.hasNext()) {
+				sb.append(", ");
+			}
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -11,14 +11,24 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
 import gnu.trove.map.hash.TIntObjectHashMap;
 
 
 /**
+ * Stores the summaries of entry points in a directory. Entry points are either stored by the id of their entry node,
+ * or, for the summaries of library methods that are shared across runs, by a content based key (see
+ * {@link #getSummaries(String, int)}).
+ * 
  * @author Juergen Graf <graf@kit.edu>
  *
  */
@@ -55,6 +65,7 @@ public class EntryPointCache {
 	private final TIntObjectHashMap<EntryPoint> data = new TIntObjectHashMap<EntryPoint>();
 	private final String directory;
 	private static final String ENTRYPOINT_FILE_SUFFIX = ".sum";
+	private static final String TMP_FILE_SUFFIX = ".tmp";
 
 	private EntryPointCache(String directory) {
 		this.directory = directory;
@@ -140,6 +151,66 @@ public class EntryPointCache {
 		return new EntryPointCache(directory);
 	}
 
+	/**
+	 * Looks up the summaries stored for a key. Entry ids of the returned entry points are their positions and the
+	 * formal parameters are identified relative to their procedure, as chosen by the one who stored them.
+	 * @param key a content based key, e.g. a hash of the procedures the summaries belong to.
+	 * @param nrOfEntries the number of entry points stored for the key.
+	 * @return the entry points, or null if there are none for the key.
+	 */
+	public List<EntryPoint> getSummaries(final String key, final int nrOfEntries) throws LoadEntryPointException {
+		final List<EntryPoint> eps = new ArrayList<EntryPoint>(nrOfEntries);
+
+		for (int i = 0; i < nrOfEntries; i++) {
+			final File epFile = getFileOfSummary(key, i);
+			if (!epFile.isFile()) {
+				return null;
+			}
+
+			try (final InputStream in = new BufferedInputStream(new FileInputStream(epFile))) {
+				final EntryPoint ep = EntryPoint.readIn(in);
+				if (ep.getEntryId() != i) {
+					throw new LoadEntryPointException(epFile.getAbsolutePath() + " contains entry " + ep.getEntryId());
+				}
+				eps.add(ep);
+			} catch (IOException e) {
+				throw new LoadEntryPointException(e.getMessage(), e);
+			} catch (ParseException e) {
+				throw new LoadEntryPointException(e.getMessage(), e);
+			}
+		}
+
+		return eps;
+	}
+
+	/**
+	 * Stores the summaries for a key, see {@link #getSummaries(String, int)}. Each file is written completely before
+	 * it becomes visible, so several analyses may share a cache directory.
+	 */
+	public void putSummaries(final String key, final List<EntryPoint> eps) throws StoreEntryPointException {
+		for (int i = 0; i < eps.size(); i++) {
+			final EntryPoint ep = eps.get(i);
+			if (ep.getEntryId() != i) {
+				throw new IllegalArgumentException("Entry " + ep.getEntryId() + " at position " + i);
+			}
+
+			try {
+				final File tmpFile = File.createTempFile(key, TMP_FILE_SUFFIX, new File(directory));
+				try (final PrintWriter pw = new PrintWriter(tmpFile)) {
+					EntryPoint.writeOut(pw, ep);
+				}
+				Files.move(tmpFile.toPath(), getFileOfSummary(key, i).toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException exc) {
+				throw new StoreEntryPointException(exc.getMessage(), exc);
+			}
+		}
+	}
+
+	private File getFileOfSummary(final String key, final int position) {
+		return new File(directory + File.separator + key + "." + position + ENTRYPOINT_FILE_SUFFIX);
+	}
+
 	public void put(EntryPoint ep) throws StoreEntryPointException {
 		if (ep == null) {
 			throw new IllegalArgumentException("Parameter is null.");
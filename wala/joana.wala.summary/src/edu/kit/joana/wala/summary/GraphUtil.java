@@ -115,17 +115,15 @@ public class GraphUtil {
         			&& fullyConnectedIds.contains(node.getId())) {
         		final List<SDGNode> ins = new LinkedList<SDGNode>();
         		SDGNode entry = null;
-        		for (SDGEdge edge : sdg.incomingEdgesOf(node)) {
-        			if (edge.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR
-        					&& edge.getSource().kind == SDGNode.Kind.ENTRY) {
+        		for (SDGEdge edge : sdg.incomingEdgesOfKind(node, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+        			if (edge.getSource().kind == SDGNode.Kind.ENTRY) {
         				entry = edge.getSource();
         				break;
         			}
         		}
 
-        		for (final SDGEdge edge : sdg.outgoingEdgesOf(entry)) {
-        			if (edge.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR
-        					&& edge.getTarget().kind == SDGNode.Kind.FORMAL_IN) {
+        		for (final SDGEdge edge : sdg.outgoingEdgesOfKind(entry, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+        			if (edge.getTarget().kind == SDGNode.Kind.FORMAL_IN) {
         				ins.add(edge.getTarget());
         			}
         		}
@@ -134,17 +132,15 @@ public class GraphUtil {
         	} else if (node.kind == SDGNode.Kind.ACTUAL_OUT && fullyConnectedIds.contains(node.getId())) {
         		final List<SDGNode> ins = new LinkedList<SDGNode>();
         		SDGNode entry = null;
-        		for (final SDGEdge edge : sdg.incomingEdgesOf(node)) {
-        			if (edge.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR
-        					&& edge.getSource().kind == SDGNode.Kind.CALL) {
+        		for (final SDGEdge edge : sdg.incomingEdgesOfKind(node, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+        			if (edge.getSource().kind == SDGNode.Kind.CALL) {
         				entry = edge.getSource();
         				break;
         			}
         		}
 
-        		for (final SDGEdge edge : sdg.outgoingEdgesOf(entry)) {
-        			if (edge.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR
-        					&& edge.getTarget().kind == SDGNode.Kind.ACTUAL_IN) {
+        		for (final SDGEdge edge : sdg.outgoingEdgesOfKind(entry, SDGEdge.Kind.CONTROL_DEP_EXPR)) {
+        			if (edge.getTarget().kind == SDGNode.Kind.ACTUAL_IN) {
         				ins.add(edge.getTarget());
         			}
         		}
@@ -7,9 +7,15 @@
  */
 package edu.kit.joana.wala.summary;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -19,6 +25,12 @@ import java.util.RandomAccess;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultDirectedGraph;
@@ -30,7 +42,6 @@ import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
 import com.ibm.wala.util.intset.IntIterator;
 
 import edu.kit.joana.ifc.sdg.graph.BitVector;
-import edu.kit.joana.ifc.sdg.graph.BitVector64;
 import edu.kit.joana.ifc.sdg.graph.LabeledSDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
@@ -41,19 +52,45 @@ import edu.kit.joana.util.collections.Intrusable;
 import edu.kit.joana.util.collections.IntrusiveList;
 import edu.kit.joana.util.collections.SimpleVectorBase;
 import edu.kit.joana.util.graph.EfficientGraph;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
 import edu.kit.joana.util.graph.TarjanStrongConnectivityInspector;
+import edu.kit.joana.wala.summary.EntryPointCache.LoadEntryPointException;
+import edu.kit.joana.wala.summary.EntryPointCache.StoreEntryPointException;
 import edu.kit.joana.wala.summary.MainChangeTest.RememberReachedBitVector;
+import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 
 /**
+ * Summary edge computation on the condensation of the call graph: the strongly connected components of procedures
+ * are processed bottom-up, each with a local worklist, and their summary edges are materialized as soon as a
+ * component is done.
+ * <p>
+ * In parallel mode, a component is scheduled on a dedicated {@link ForkJoinPool} with
+ * {@link WorkPackage#getSummaryThreads()} threads as soon as all components it calls into are done, so independent
+ * components (e.g. the leaves of the call graph) are processed concurrently.
+ * <p>
+ * If the work package has a {@link WorkPackage#getSummaryCache() summary cache}, the results of components consisting
+ * of library (primordial) methods are looked up in and stored to the cache, see {@link #computeCacheKeys()}.
+ * <p>
+ * Path edges and the summary information at actual-outs are kept in {@link CompressedBitSet}s, which only grow with
+ * the number of edges, and are dropped as soon as their component is done. The memory they used is reported for each
+ * work package on the {@link Log#L_SUMMARY_MEMORY} logger.
+ * 
  * @author Juergen Graf <graf@kit.edu>
  *
  */
 public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGraph<SDGNode, SDGEdge>> {
 
-	private final HashSet<Edge> pathEdge;
-    private final Set<Integer> procedureWorkSet;
+	private static final Logger memoryLog = Log.getLogger(Log.L_SUMMARY_MEMORY);
+
+	private final Set<Edge> pathEdge;
+    private final TIntSet initialProcs;
     private final Map<Integer, IntrusiveList<Edge>> worklists;
     private final G graph;
     private final TIntSet relevantFormalIns;
@@ -71,18 +108,35 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
     private final long relevantEdgesMask;
     private final long relevantEdgesAtActualOutMask;
     private final boolean assertionsEnabled;
-    
-    private IntrusiveList<Edge> current; 
+    private final boolean parallel;
+    /** number of threads in parallel mode, 0 for one per available processor */
+    private int threads = 0;
+    /** for each scc, the sccs containing callers of its procedures. only computed in parallel mode. */
+    private final int[][] callerSccs;
+    /** for each scc, the number of other sccs its procedures call into. only computed in parallel mode. */
+    private final int[] nrOfCalleeSccs;
+    /** the persistent cache for summaries of library methods, or null */
+    private final EntryPointCache cache;
+    /** for each scc, the key of its summaries in the cache, or null if it is not cached. */
+    private String[] sccCacheKeys;
+    /** for each cached scc, its procedures in the order of the cached entry points */
+    private int[][] sccCacheOrder;
+    /** memory used by the path edges, or null if it is not reported */
+    private final PathEdgeMemory memory = memoryLog.isEnabled() ? new PathEdgeMemory() : null;
 
 	private SummaryComputation3(G graph, TIntSet relevantFormalIns,
 			TIntSet relevantProcs, TIntSet fullyConnected, TIntObjectMap<List<SDGNode>> out2in,
 			boolean rememberReached, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
-			String annotate) {
+			String annotate, boolean parallel, EntryPointCache cache) {
     	this.graph = graph;
     	this.relevantFormalIns = relevantFormalIns;
     	this.relevantProcs = relevantProcs;
     	this.fullyConnected = fullyConnected;
-        this.pathEdge = new HashSet<Edge>();
+    	this.parallel = parallel;
+    	// these restrict the computation, but are not part of the cache keys
+    	this.cache = (relevantProcs == null && fullyConnected == null && !rememberReached) ? cache : null;
+        this.pathEdge = parallel ? ConcurrentHashMap.newKeySet() : new HashSet<Edge>();
+        this.initialProcs = new TIntHashSet();
         int maxProcNumber = -1;
         {
             final DirectedGraph<Integer, DefaultEdge> callGraph = extractCallGraph(graph);
@@ -98,16 +152,30 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
                 indexNumberOf.put(entry.getKey(), entry.getValue().getSccNumber());
             }
             indexNumberOf.trimToSize();
-            
-            this.procedureWorkSet = new TreeSet<>(new Comparator<Integer>() {
-            	@Override
-            	public int compare(Integer o1, Integer o2) {
-            		final int sccCompare = Integer.compare(indexNumberOf.getInt(o1), indexNumberOf.getInt(o2));
-    				if (sccCompare != 0) return sccCompare;
-    				
-    				return Integer.compare(o1, o2);
+
+            if (parallel) {
+            	final TIntHashSet[] callers = new TIntHashSet[procSccs.size()];
+            	this.nrOfCalleeSccs = new int[procSccs.size()];
+            	for (int scc = 0; scc < procSccs.size(); scc++) {
+            		callers[scc] = new TIntHashSet();
             	}
-			});
+            	for (DefaultEdge call : callGraph.edgeSet()) {
+            		final int callerScc = indexNumberOf.getInt(callGraph.getEdgeSource(call));
+            		final int calleeScc = indexNumberOf.getInt(callGraph.getEdgeTarget(call));
+            		// tarjan numbers an scc only after all sccs reachable from it
+            		assert calleeScc <= callerScc;
+            		if (callerScc != calleeScc && callers[calleeScc].add(callerScc)) {
+            			nrOfCalleeSccs[callerScc]++;
+            		}
+            	}
+            	this.callerSccs = new int[procSccs.size()][];
+            	for (int scc = 0; scc < procSccs.size(); scc++) {
+            		callerSccs[scc] = callers[scc].toArray();
+            	}
+            } else {
+            	this.callerSccs = null;
+            	this.nrOfCalleeSccs = null;
+            }
         }
         
         this.worklists = new SimpleVectorBase<Integer, IntrusiveList<Edge>>(0, 1) {
@@ -165,7 +233,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		return result;
 	}
 	
-	public static int compute(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	public static int compute(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -184,10 +252,10 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY, relevantEdges, progress);
+		return compute(pack, SDGEdge.Kind.SUMMARY, relevantEdges, parallel, progress);
 	}
 
-	public static int computeAdjustedAliasDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	public static int computeAdjustedAliasDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -206,10 +274,10 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, progress);
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, parallel, progress);
 	}
 
-	public static int computePureDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	public static int computePureDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -226,14 +294,14 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_DATA);
 //		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, progress);
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, parallel, progress);
 	}
 
-	public static int computeFullAliasDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
-		return compute(pack, progress);
+	public static int computeFullAliasDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
+		return compute(pack, parallel, progress);
 	}
 
-	public static int computeNoAliasDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	public static int computeNoAliasDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
 		relevantEdges.add(SDGEdge.Kind.DATA_HEAP);
@@ -251,10 +319,10 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_NO_ALIAS, relevantEdges, progress);
+		return compute(pack, SDGEdge.Kind.SUMMARY_NO_ALIAS, relevantEdges, parallel, progress);
 	}
 
-	public static int computeHeapDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	public static int computeHeapDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -273,20 +341,24 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 //		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 //		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, progress);
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, parallel, progress);
 	}
 
 	private static int compute(WorkPackage<SDG> pack, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
-			IProgressMonitor progress) throws CancelException {
-		return compute(pack, sumEdgeKind, relevantEdges, null, progress);
+			boolean parallel, IProgressMonitor progress) throws CancelException {
+		return compute(pack, sumEdgeKind, relevantEdges, null, parallel, progress);
 	}
 
 	private static int compute(WorkPackage<SDG> pack, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
-			String annotate, IProgressMonitor progress) throws CancelException {
+			String annotate, boolean parallel, IProgressMonitor progress) throws CancelException {
 		SummaryComputation3<SDG> comp = new SummaryComputation3<SDG>(pack.getGraph(), pack.getAllFormalInIds(),
 				pack.getRelevantProcIds(), pack.getFullyConnected(), pack.getOut2In(),
-				pack.getRememberReached(), sumEdgeKind, relevantEdges, annotate);
+				pack.getRememberReached(), sumEdgeKind, relevantEdges, annotate, parallel, pack.getSummaryCache());
+		comp.threads = pack.getSummaryThreads();
 		Collection<SDGEdge> formInOutSummaryEdge = comp.computeSummaryEdges(progress);
+		if (comp.memory != null) {
+			memoryLog.outln("summary computation of " + pack.getName() + ": " + comp.memory);
+		}
 
 		for (SDGEdge edge : formInOutSummaryEdge) {
 			pack.addSummaryDep(edge.getSource().getId(), edge.getTarget().getId());
@@ -298,8 +370,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		return formInOutSummaryEdge.size();
 	}
 
-	@SuppressWarnings("serial")
-	private static class PathEdgeReachedNodesBitvector extends BitVector64 {
+	private static class PathEdgeReachedNodesBitvector extends CompressedBitSet {
 		PathEdgeReachedNodesBitvector(int nbits) {
 			super(nbits);
 		}
@@ -315,20 +386,55 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		}
 	}
 
-	@SuppressWarnings("serial")
-	private static class AoPathsNodesBitvector extends BitVector64 {
+	private static class AoPathsNodesBitvector extends CompressedBitSet {
 		AoPathsNodesBitvector(int nbits) {
 			super(nbits);
 		}
 	}
 	
-	@SuppressWarnings("serial")
-	private static class IncomingSummaryEdgesFromBitVector extends BitVector64 {
+	private static class IncomingSummaryEdgesFromBitVector extends CompressedBitSet {
 		IncomingSummaryEdgesFromBitVector(int nbits) {
 			super(nbits);
 		}
 	}
 
+	/**
+	 * Sums up the memory used by the path edges and the summary information at actual-outs of the sccs, right before
+	 * it is dropped.
+	 */
+	private static final class PathEdgeMemory {
+		private long sccs = 0;
+		private long sets = 0;
+		private long pathEdges = 0;
+		private long bytes = 0;
+		private long bitVectorBytes = 0;
+		private long largestSccBytes = 0;
+		private Set<Integer> largestScc = null;
+
+		synchronized void add(Set<Integer> scc, long sets, long pathEdges, long bytes, long bitVectorBytes) {
+			this.sccs++;
+			this.sets += sets;
+			this.pathEdges += pathEdges;
+			this.bytes += bytes;
+			this.bitVectorBytes += bitVectorBytes;
+			if (bytes > largestSccBytes) {
+				largestSccBytes = bytes;
+				largestScc = scc;
+			}
+		}
+
+		private static String mb(long bytes) {
+			return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+		}
+
+		@Override
+		public synchronized String toString() {
+			return String.format("%d path edges in %d sets of %d sccs use %s (largest scc: %s for procedures %s), "
+					+ "%s as bit vectors", pathEdges, sets, sccs, mb(bytes), mb(largestSccBytes), largestScc,
+					mb(bitVectorBytes));
+		}
+	}
+
 	private static class ActualInInformation {
 		private final SDGEdge[] summaryEdges;
 		int next;
@@ -359,7 +465,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 	}
 
     private Collection<SDGEdge> computeSummaryEdges(IProgressMonitor progress) throws CancelException {
-    	HashSet<SDGEdge> formInOutSummaryEdge = new HashSet<SDGEdge>();
+    	final Set<SDGEdge> formInOutSummaryEdge = new HashSet<SDGEdge>();
 
     	Map<Integer, Set<SDGNode>> proc2nodes = new HashMap<>();
         for (SDGNode n : (Set<SDGNode>) graph.vertexSet()) {
@@ -375,13 +481,14 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         for (Entry<Integer, Set<SDGNode>> entry : proc2nodes.entrySet()) {
         	final int procedure = entry.getKey();
         	final Set<SDGNode> nodes = entry.getValue();
-        	final SDGNode[] procLocal2Node = new SDGNode[nodes.size()];
+        	final SDGNode[] procLocal2Node = nodes.toArray(new SDGNode[nodes.size()]);
+        	if (cache != null) {
+        		// the cached summaries refer to procedure local ids, so these have to be independent of hashing
+        		Arrays.sort(procLocal2Node, (n1, n2) -> Integer.compare(n1.getId(), n2.getId()));
+        	}
 			procLocalNodeId2Node.put(procedure, procLocal2Node);
-        	int procLocalNodeId = 0;
-        	for (SDGNode n : nodes) {
-        		nodeId2ProcLocalNodeId.put(n.getId(), procLocalNodeId);
-        		procLocal2Node[procLocalNodeId] =  n;
-        		procLocalNodeId++;
+        	for (int procLocalNodeId = 0; procLocalNodeId < procLocal2Node.length; procLocalNodeId++) {
+        		nodeId2ProcLocalNodeId.put(procLocal2Node[procLocalNodeId].getId(), procLocalNodeId);
         	}
         }
         
@@ -408,7 +515,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
                 	workList.add(new Edge(n,n));
                 	return workList;
                 });
-                procedureWorkSet.add(n.getProc());
+                initialProcs.add(n.getProc());
             }
             
             if (n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
@@ -430,309 +537,777 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         }
         
         proc2nodes = null;
-        
-        assert workListsConsistent();
-
-        while (!procedureWorkSet.isEmpty()) {
-        	
-        	
-            final int procedure; {
-                final Iterator<Integer> iterator = procedureWorkSet.iterator();
-                procedure = iterator.next();
-                iterator.remove();
-            }
-            final IntrusiveList<Edge> worklist = worklists.get(procedure);
-            current = worklist;
-
-            final SDGNode[] procLocal2Node = procLocalNodeId2Node.get(procedure);
-
-            while (!worklist.isEmpty()) {
-            	final Edge next = worklist.poll();
-            	final SDGNode.Kind k = next.source.getKind();
-
-            	switch(k) {
-            	case ACTUAL_OUT:
-            		if (fullyConnected != null && fullyConnected.contains(next.source.getId())) {
-            			propagateAllActIns(worklist, next.source, next.target);
-            		} else {
-            			for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
-            				if (e == null) continue;
-            				final SDGEdge.Kind kind = e.getKind();
-            				assert kind != SDGEdge.Kind.CONTROL_DEP_EXPR || e.getSource().getKind() == SDGNode.Kind.CALL;
-            				if (relevantEdgesAtActualOut_contains(kind)) {
-            					propagate(worklist, e.getSource(), next.target);
-            				}
-            			}
-            			final ActualOutInformation aoInformation = (ActualOutInformation) next.source.customData;
-            			final IncomingSummaryEdgesFromBitVector incomingSummaryEdgesFrom = aoInformation.incomingSummaryEdgesFrom;
-            			
-            			for (IntIterator it = incomingSummaryEdgesFrom.intIterator(); it.hasNext(); ) {
-            				final int procLocalId = it.next();
-            				SDGNode summarySource = procLocal2Node[procLocalId];
-            				propagate(worklist, summarySource, next.target);
-            			}
 
-            		}
-            		break;
-
-            	case FORMAL_IN:
-            		// next.source is relevant formal in then:
-            		if (relevantFormalIns.contains(next.source.getId())) {
-            			SDGEdge fInOut;
-            			if (annotate != null && !annotate.isEmpty()) {
-            				fInOut =  new LabeledSDGEdge(next.source, next.target, sumEdgeKind, annotate);
-            			} else {
-            				fInOut = sumEdgeKind.newEdge(next.source, next.target);
-            			}
-
-            			formInOutSummaryEdge.add(fInOut);
-            		}
+        if (cache != null) {
+        	computeCacheKeys();
+        }
 
-            		final Collection<AcutalInActualOutPair> aiaoPairs = aiaoPairs(next);
-            		for (AcutalInActualOutPair e : aiaoPairs) {
-
-            			final SDGNode source = e.getActualIn();
-            			final SDGNode target = e.getActualOut();
-            			
-            			assert source != null;
-            			if (target == null) continue;
-            			
-            			boolean connectedInPDG = false;
-            			if (assertionsEnabled) {
-            				connectedInPDG = graph.containsEdge(source, target, eOut -> eOut.getKind().isSDGEdge());
-            			}
-
-
-            			final int procLocalIdOfSource = nodeId2ProcLocalNodeId.getInt(source.getId());
-            			final ActualOutInformation aoInformation = (ActualOutInformation) target.customData;
-
-            			if (aoInformation.incomingSummaryEdgesFrom.setWithResult((procLocalIdOfSource))) {
-            				assert !connectedInPDG;
-            				
-            				final Integer nrOfoutgoingSummaryEdgesInto = (Integer) source.customData;
-            				source.customData = nrOfoutgoingSummaryEdgesInto + 1;
-            				
-            				final AoPathsNodesBitvector aoPaths = aoInformation.aoPaths;
-            				
-            				if (!aoPaths.isZero()) {
-            					final int caller = source.getProc();
-            					procedureWorkSet.add(caller);
-            					final IntrusiveList<Edge> workListInCaller = worklists.get(caller);
-            					final SDGNode[] callerLocal2Node = procLocalNodeId2Node.get(caller);
-
-            					for (IntIterator it = aoPaths.intIterator(); it.hasNext(); ) {
-            						final int procLocalId = it.next();
-
-            						SDGNode aoPathTarget = callerLocal2Node[procLocalId];
-            						propagate(workListInCaller, source, aoPathTarget);
-            					}
-            				}
-            			}
-            		}
-            		if (assertionsEnabled) {
-	            		for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
-	            			if (e == null) continue;
-	            			final SDGEdge.Kind kind = e.getKind();
-	            			assert !((kind == SDGEdge.Kind.DATA_DEP || kind == SDGEdge.Kind.DATA_HEAP || kind == SDGEdge.Kind.DATA_ALIAS) && relevantEdges_contains(kind));
-	            		}
-            		}
-            		break;
+        if (parallel) {
+        	computeSccsInParallel(formInOutSummaryEdge, progress);
+        } else {
+        	// callees are in sccs with lower numbers, so this is a bottom-up traversal of the call graph
+        	for (int scc = 0; scc < procSccs.size(); scc++) {
+        		MonitorUtil.throwExceptionIfCanceled(progress);
+        		new SccComputation(scc, formInOutSummaryEdge).compute();
+        	}
+        }
 
-            	case ACTUAL_IN:
-            		if (rememberReached) {
-            			BitVector bv = (RememberReachedBitVector) next.source.customData;
-            			int id = next.target.tmp;
+        return formInOutSummaryEdge;
+    }
 
-            			if (bv.contains(id)) {
-            				continue;
-            			}
+    private static boolean isProcLocalId(SDGNode[] procLocal2Node, int procLocalId, SDGNode.Kind kind) {
+    	return 0 <= procLocalId && procLocalId < procLocal2Node.length && procLocal2Node[procLocalId].getKind() == kind;
+    }
 
-            			bv.set(id);
-            		}
+    private static boolean isPrimordial(SDGNode entry) {
+    	return entry.getClassLoader() != null && entry.getClassLoader().contains("Primordial");
+    }
 
-            		for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
-            			if (e == null) continue;
-            			assert e.getKind() != SDGEdge.Kind.CONTROL_DEP_EXPR || e.getSource().getKind() == SDGNode.Kind.CALL;
-            			if (relevantEdges_contains(e.getKind()) || e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR) {
-            				propagate(worklist, e.getSource(), next.target);
-            			}
-            		}
-            		break;
-
-            	case FORMAL_OUT:
-            	case EXIT:
-            		if (fullyConnected != null && fullyConnected.contains(next.source.getId())) {
-            			propagateAllActIns(worklist, next.source, next.target);
-            		} else {
-            			for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
-            				if (e == null) continue;
-            				if (e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR) {
-            					if (e.getSource().getKind() == SDGNode.Kind.ENTRY) {
-            						propagate(worklist, e.getSource(), next.target);
-            					}
-
-            				} else if (relevantEdges_contains(e.getKind())) {
-            					propagate(worklist, e.getSource(), next.target);
-            				}
-            			}
-            		}
-            		break;
-
-            	default:
-            		for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
-            			if (e == null) continue;
-            			if (relevantEdges_contains(e.getKind())) {
-            				propagate(worklist, e.getSource(), next.target);
-            			}
-            		}
-            		break;
-            	}
-            }
-            
-            // TODO: somehow update this implicitly when creating summary edges
-            boolean leftScc = true;
-            for (Integer inSameScc : procSccs.get(indexNumberOf.getInt(procedure))) {
-            	if (procedureWorkSet.contains(inSameScc)) {
-            		leftScc = false;
-            		break;
-            	}
-            }
+    /**
+     * Computes the keys of the sccs of library methods in the summary cache. The summaries of a procedure only depend
+     * on the procedures it (transitively) calls, so the key of an scc is a hash over
+     * <ul>
+     * <li>the kind of summary edges computed and the dependencies followed,</li>
+     * <li>the signatures of its procedures, and the kinds and parameter labels (e.g. fields of object graph
+     * parameters) of their nodes,</li>
+     * <li>the dependencies inside its procedures and their parameter edges, where called procedures outside of the
+     * scc are identified by the key of their scc.</li>
+     * </ul>
+     * Hence an scc is only cached if all procedures it calls are. Nodes are identified by their position in the
+     * procedure when ordered by id.
+     * <p>
+     * The relevant procedures, fully connected formal-outs and remembered reached nodes of a work package are not
+     * part of the key, so the cache is not used at all for work packages that set them (see the constructor).
+     */
+    private void computeCacheKeys() {
+    	sccCacheKeys = new String[procSccs.size()];
+    	sccCacheOrder = new int[procSccs.size()][];
+    	final Map<Integer, SDGNode> proc2entry = new HashMap<>();
+    	for (SDGNode n : (Set<SDGNode>) graph.vertexSet()) {
+    		if (n.getKind() == SDGNode.Kind.ENTRY) {
+    			proc2entry.put(n.getProc(), n);
+    		}
+    	}
 
-            // clear HashSet<SDGNode> at each node whenever we leave a scc
-            if (leftScc) {
-                for (Integer inSameScc : procSccs.get(indexNumberOf.getInt(procedure))) {
-                	final SDGNode[] inSameSccLocal2Node = procLocalNodeId2Node.get(inSameScc);
-                	for (SDGNode n : inSameSccLocal2Node) {
-                		if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
-                			final Integer nrOfoutgoingSummaryEdges = (Integer) n.customData;
-                			n.customData = new ActualInInformation(new SDGEdge[nrOfoutgoingSummaryEdges]);
-                			// will be filled in the upcoming loop by the corresponding ACTUAL_OUTs
-                		}
-                	}
+    	final List<String> modeDescription = new ArrayList<>();
+    	modeDescription.add(sumEdgeKind.name());
+    	modeDescription.add(annotate == null ? "" : annotate);
+    	for (SDGEdge.Kind kind : relevantEdges) {
+    		modeDescription.add(kind.name());
+    	}
+    	modeDescription.subList(2, modeDescription.size()).sort(null);
+
+    	// callees have lower scc numbers
+    	for (int scc = 0; scc < procSccs.size(); scc++) {
+    		final List<SDGNode> entries = new ArrayList<>();
+    		for (Integer proc : procSccs.get(scc)) {
+    			final SDGNode entry = proc2entry.get(proc);
+    			if (entry == null || !isPrimordial(entry) || entry.getBytecodeMethod() == null) {
+    				entries.clear();
+    				break;
+    			}
+    			entries.add(entry);
+    		}
+    		if (entries.isEmpty()) {
+    			continue;
+    		}
+
+    		entries.sort((e1, e2) -> {
+    			final int cmp = e1.getBytecodeMethod().compareTo(e2.getBytecodeMethod());
+    			return cmp != 0 ? cmp : Integer.compare(e1.getId(), e2.getId());
+    		});
+    		final int[] procs = new int[entries.size()];
+    		for (int i = 0; i < procs.length; i++) {
+    			procs[i] = entries.get(i).getProc();
+    		}
+
+    		try {
+    			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    			final DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest));
+    			out.writeInt(modeDescription.size());
+    			for (String s : modeDescription) {
+    				out.writeUTF(s);
+    			}
+    			out.writeInt(procs.length);
+    			boolean cacheable = true;
+    			for (int i = 0; cacheable && i < procs.length; i++) {
+    				out.writeUTF(entries.get(i).getBytecodeMethod());
+    				cacheable = writeProcedure(out, procs, procs[i]);
+    			}
+    			out.flush();
+
+    			if (cacheable) {
+    				sccCacheKeys[scc] = toHex(digest.digest());
+    				sccCacheOrder[scc] = procs;
+    			}
+    		} catch (NoSuchAlgorithmException | IOException e) {
+    			// every jvm supports SHA-256, and no io happens
+    			throw new IllegalStateException(e);
+    		}
+    	}
+    }
 
-                	for (SDGNode n : inSameSccLocal2Node) {
-                		if (n.getKind() == SDGNode.Kind.FORMAL_OUT || n.getKind() == SDGNode.Kind.EXIT) {
-                			if (relevantProcs != null && !relevantProcs.contains(n.getProc())) {
-                				continue;
-                			}
-
-                			if (fullyConnected != null && fullyConnected.contains(n.getId())) {
-                				continue;
-                			}
-
-                			assert n.customData instanceof PathEdgeReachedNodesBitvector;
-                			n.customData = null;
-                		}
-
-                		if (n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
-                			final ActualOutInformation aoInformation = (ActualOutInformation) n.customData;
-                			final IncomingSummaryEdgesFromBitVector incomingSummaryEdgesFrom = aoInformation.incomingSummaryEdgesFrom;
-                			
-                			final int nrOfSummaryEdges = incomingSummaryEdgesFrom.populationCount();
-                			final SDGEdge[] summaryEdges = new SDGEdge[nrOfSummaryEdges];
-                			
-                			int i = 0;
-                			for (IntIterator it = incomingSummaryEdgesFrom.intIterator(); it.hasNext(); ) {
-                				final int procLocalId = it.next();
-                				final SDGNode source = inSameSccLocal2Node[procLocalId];
-
-                				final SDGEdge sum;
-                				if (annotate != null && !annotate.isEmpty()) {
-                					sum =  new LabeledSDGEdge(source, n, sumEdgeKind, annotate);
-                				} else {
-                					sum = sumEdgeKind.newEdge(source, n);
-                				}
-
-                				summaryEdges[i++] = sum;
-                				
-                				final ActualInInformation actualInInformation = (ActualInInformation) source.customData;
-                				actualInInformation.summaryEdges[actualInInformation.next++] = sum;
-                			}
-
-                			Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
-
-                			final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
-
-                			graph.addIncomingEdgesAtUNSAFE(n, summaryEdgesSet);
-
-                			n.customData = null;
-                		}
-                	}
-                	
-                	for (SDGNode n : inSameSccLocal2Node) {
-                		if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
-                			final ActualInInformation actualInInformation = (ActualInInformation) n.customData;
-                			
-                			final SDGEdge[] summaryEdges = actualInInformation.summaryEdges;
-                			assert summaryEdges.length == 0 || summaryEdges[summaryEdges.length - 1] != null;
-                    		
-                			Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
+    /**
+     * Writes the description of a procedure relevant for its summaries.
+     * @return false if the procedure depends on a procedure whose summaries are not cached.
+     */
+    private boolean writeProcedure(DataOutputStream out, int[] procsOfScc, int proc) throws IOException {
+    	final SDGNode[] procLocal2Node = procLocalNodeId2Node.get(proc);
+    	out.writeInt(procLocal2Node.length);
+    	final List<String> deps = new ArrayList<>();
+    	for (SDGNode n : procLocal2Node) {
+    		out.writeUTF(n.getKind().name());
+    		final boolean isParameter = n.getKind() == SDGNode.Kind.FORMAL_IN || n.getKind() == SDGNode.Kind.FORMAL_OUT
+    				|| n.getKind() == SDGNode.Kind.ACTUAL_IN || n.getKind() == SDGNode.Kind.ACTUAL_OUT;
+    		out.writeUTF(isParameter && n.getLabel() != null ? n.getLabel() : "");
+
+    		deps.clear();
+    		for (SDGEdge e : graph.incomingEdgesOfUnsafe(n)) {
+    			if (e == null) continue;
+    			final SDGNode source = e.getSource();
+    			final SDGEdge.Kind kind = e.getKind();
+    			if (kind == SDGEdge.Kind.PARAMETER_OUT && n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
+    				final String callee = describeCallee(procsOfScc, source);
+    				if (callee == null) {
+    					return false;
+    				}
+    				deps.add("out " + callee);
+    			} else if (relevantEdges_contains(kind) || kind == SDGEdge.Kind.CONTROL_DEP_EXPR) {
+    				if (source.getProc() != proc) {
+    					return false;
+    				}
+    				deps.add(kind.name() + " " + nodeId2ProcLocalNodeId.getInt(source.getId()));
+    			}
+    		}
+    		if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
+    			for (SDGEdge e : graph.outgoingEdgesOfUnsafe(n)) {
+    				if (e == null || e.getKind() != SDGEdge.Kind.PARAMETER_IN) continue;
+    				final String callee = describeCallee(procsOfScc, e.getTarget());
+    				if (callee == null) {
+    					return false;
+    				}
+    				deps.add("in " + callee);
+    			}
+    		}
+
+    		deps.sort(null);
+    		out.writeInt(deps.size());
+    		for (String dep : deps) {
+    			out.writeUTF(dep);
+    		}
+    	}
 
-                			final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
+    	return true;
+    }
 
-                			graph.addOutgoingEdgesAtUNSAFE(n, summaryEdgesSet);
+    /**
+     * Describes a formal parameter of a called procedure by its position, and the key of its scc if it is not part of
+     * the scc being described.
+     */
+    private String describeCallee(int[] procsOfScc, SDGNode formal) {
+    	final int calledProc = formal.getProc();
+    	final int position = nodeId2ProcLocalNodeId.getInt(formal.getId());
+    	for (int i = 0; i < procsOfScc.length; i++) {
+    		if (procsOfScc[i] == calledProc) {
+    			return "scc " + i + " " + position;
+    		}
+    	}
 
-                			n.customData = null;
-                			
-                		}
+    	final int calledScc = indexNumberOf.getInt(calledProc);
+    	final String key = sccCacheKeys[calledScc];
+    	if (key == null) {
+    		return null;
+    	}
+    	final int[] procs = sccCacheOrder[calledScc];
+    	for (int i = 0; i < procs.length; i++) {
+    		if (procs[i] == calledProc) {
+    			return key + " " + i + " " + position;
+    		}
+    	}
 
-                	}
+    	throw new IllegalStateException();
+    }
 
-                	procLocalNodeId2Node.remove(inSameScc);
-                }
-            }
-            
-            assert workListsConsistent();
-        }
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+    	@Override
+    	public void write(int b) {}
 
-        return formInOutSummaryEdge;
+    	@Override
+    	public void write(byte[] b, int off, int len) {}
+    };
+
+    private static String toHex(byte[] bytes) {
+    	final StringBuilder sb = new StringBuilder(2 * bytes.length);
+    	for (byte b : bytes) {
+    		sb.append(String.format("%02x", b));
+    	}
+    	return sb.toString();
     }
-    
-    private boolean workListsConsistent() {
-        for (Entry<Integer, IntrusiveList<Edge>> entry : worklists.entrySet()) {
-        	final Integer proc = entry.getKey(); 
-        	final IntrusiveList<Edge> workList = entry.getValue();
-        	if (!workList.isEmpty() &&  !procedureWorkSet.contains(proc)) {
-        		return false;
-        	}
-        }
-        return true;
+
+    /**
+     * Processes the sccs in a wavefront from the leaves of the condensed call graph upwards: an scc is submitted
+     * to the pool when the last of the sccs it calls into is done. The computation stops at the next scc once the
+     * progress monitor is canceled.
+     */
+    private void computeSccsInParallel(Set<SDGEdge> formInOutSummaryEdge, IProgressMonitor progress)
+    		throws CancelException {
+    	final int nrOfSccs = procSccs.size();
+    	if (nrOfSccs == 0) {
+    		return;
+    	}
+
+    	final AtomicInteger[] pendingCallees = new AtomicInteger[nrOfSccs];
+    	for (int scc = 0; scc < nrOfSccs; scc++) {
+    		pendingCallees[scc] = new AtomicInteger(nrOfCalleeSccs[scc]);
+    	}
+    	final AtomicInteger remaining = new AtomicInteger(nrOfSccs);
+    	final CompletableFuture<Void> done = new CompletableFuture<>();
+    	final ForkJoinPool pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+
+    	final class SccTask implements Runnable {
+    		private final int scc;
+
+    		SccTask(int scc) {
+    			this.scc = scc;
+    		}
+
+    		@Override
+    		public void run() {
+    			if (done.isDone()) {
+    				// some other scc failed or the computation was canceled
+    				return;
+    			}
+    			try {
+    				MonitorUtil.throwExceptionIfCanceled(progress);
+    				final Set<SDGEdge> sccSummaryEdges = new HashSet<SDGEdge>();
+    				new SccComputation(scc, sccSummaryEdges).compute();
+    				synchronized (formInOutSummaryEdge) {
+    					formInOutSummaryEdge.addAll(sccSummaryEdges);
+    				}
+    				for (int caller : callerSccs[scc]) {
+    					if (pendingCallees[caller].decrementAndGet() == 0) {
+    						pool.execute(new SccTask(caller));
+    					}
+    				}
+    				if (remaining.decrementAndGet() == 0) {
+    					done.complete(null);
+    				}
+    			} catch (Throwable t) {
+    				done.completeExceptionally(t);
+    			}
+    		}
+    	}
+
+    	boolean completed = false;
+    	try {
+    		for (int scc = 0; scc < nrOfSccs; scc++) {
+    			if (nrOfCalleeSccs[scc] == 0) {
+    				pool.execute(new SccTask(scc));
+    			}
+    		}
+
+    		done.join();
+    		completed = true;
+    	} catch (CompletionException e) {
+    		final Throwable cause = e.getCause();
+    		if (cause instanceof CancelException) {
+    			throw (CancelException) cause;
+    		} else if (cause instanceof RuntimeException) {
+    			throw (RuntimeException) cause;
+    		} else if (cause instanceof Error) {
+    			throw (Error) cause;
+    		}
+    		throw e;
+    	} finally {
+    		if (completed) {
+    			pool.shutdown();
+    		} else {
+    			// sccs that are still computed add edges to the graph, so they have to be finished before the failure
+    			// is passed on. The queued sccs are dropped.
+    			pool.shutdownNow();
+    			awaitTermination(pool);
+    		}
+    	}
     }
 
-    private void propagateAllActIns(IntrusiveList<Edge> worklist, SDGNode outNode, SDGNode target) {
-    	for (SDGNode inNode : out2in.get(outNode.getId())) {
-    		propagate(worklist, inNode, target);
+    private static void awaitTermination(ForkJoinPool pool) {
+    	try {
+    		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    	} catch (InterruptedException e) {
+    		Thread.currentThread().interrupt();
     	}
     }
 
-    private void propagate(IntrusiveList<Edge> worklist, SDGNode source, SDGNode target) {
-    	assert source.getProc() == target.getProc();
-    	assert worklist == worklists.get(source.getProc());
-        if (relevantProcs != null && !(relevantProcs.contains(source.getProc())
-        		&& relevantProcs.contains(target.getProc()))) {
-            return;
-        }
+    /**
+     * The fixpoint iteration on the procedures of a single scc. The nodes of the scc (and their customData) are
+     * only accessed by this computation, with the exception of the summary edge information at the actual-outs and
+     * actual-ins of calls into a callee scc, which is written while the callee scc is computed. In parallel mode,
+     * this happens before the scc is scheduled, but concurrently with the computations of other callee sccs.
+     */
+    private final class SccComputation {
+    	private final int scc;
+    	private final Set<SDGEdge> formInOutSummaryEdge;
+    	private final TreeSet<Integer> procedureWorkSet = new TreeSet<>();
+    	private IntrusiveList<Edge> current;
+    	/** scratch space of {@link SummaryComputation3#aiaoPairs(Edge, Map)}, reused for all path edges of this scc */
+    	private final Map<SDGNode, AcutalInActualOutPair> call2pair = parallel ? new HashMap<>() : null;
+
+    	SccComputation(int scc, Set<SDGEdge> formInOutSummaryEdge) {
+    		this.scc = scc;
+    		this.formInOutSummaryEdge = formInOutSummaryEdge;
+    	}
 
-//    	if (fullyConnected != null && fullyConnected.contains(e.target.getId())) {
-//    		return;
-//    	}
-//
-        
-        if (pathEdge_add(source, target)) {
-        	final Edge e = new Edge(source, target);
-        	assert pathEdge.add(e);
-            worklist.add(e);
-            assert procedureWorkSet.contains(source.getProc()) || worklist == current;
-            if (source.getKind() == SDGNode.Kind.ACTUAL_OUT) {
-            	final ActualOutInformation aoInformation = (ActualOutInformation) source.customData;
-            	final AoPathsNodesBitvector aoPaths = aoInformation.aoPaths;
-            	final int procLocalTargetId = nodeId2ProcLocalNodeId.getInt(target.getId());
-
-            	aoPaths.set(procLocalTargetId);
-            }
-        } else {
-        	assert pathEdge.contains(new Edge(source, target));
-        }
+    	void compute() {
+    		for (Integer proc : procSccs.get(scc)) {
+    			if (initialProcs.contains(proc)) {
+    				procedureWorkSet.add(proc);
+    			}
+    		}
+
+    		if (procedureWorkSet.isEmpty()) {
+    			return;
+    		}
+
+    		final String cacheKey = (sccCacheKeys == null ? null : sccCacheKeys[scc]);
+    		if (cacheKey != null && applyCachedSummaries(cacheKey)) {
+    			leaveScc();
+    			return;
+    		}
+
+    		assert workListsConsistent();
+
+    		while (!procedureWorkSet.isEmpty()) {
+    			final int procedure; {
+    				final Iterator<Integer> iterator = procedureWorkSet.iterator();
+    				procedure = iterator.next();
+    				iterator.remove();
+    			}
+    			final IntrusiveList<Edge> worklist = worklists.get(procedure);
+    			current = worklist;
+
+    			final SDGNode[] procLocal2Node = procLocalNodeId2Node.get(procedure);
+
+    			while (!worklist.isEmpty()) {
+    				final Edge next = worklist.poll();
+    				final SDGNode.Kind k = next.source.getKind();
+
+    				switch(k) {
+    				case ACTUAL_OUT:
+    					if (fullyConnected != null && fullyConnected.contains(next.source.getId())) {
+    						propagateAllActIns(worklist, next.source, next.target);
+    					} else {
+    						for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
+    							if (e == null) continue;
+    							final SDGEdge.Kind kind = e.getKind();
+    							assert kind != SDGEdge.Kind.CONTROL_DEP_EXPR || e.getSource().getKind() == SDGNode.Kind.CALL;
+    							if (relevantEdgesAtActualOut_contains(kind)) {
+    								propagate(worklist, e.getSource(), next.target);
+    							}
+    						}
+    						final ActualOutInformation aoInformation = (ActualOutInformation) next.source.customData;
+    						final IncomingSummaryEdgesFromBitVector incomingSummaryEdgesFrom = aoInformation.incomingSummaryEdgesFrom;
+
+    						for (IntIterator it = incomingSummaryEdgesFrom.intIterator(); it.hasNext(); ) {
+    							final int procLocalId = it.next();
+    							SDGNode summarySource = procLocal2Node[procLocalId];
+    							propagate(worklist, summarySource, next.target);
+    						}
+
+    					}
+    					break;
+
+    				case FORMAL_IN:
+    					formalInReached(next);
+    					break;
+
+    				case ACTUAL_IN:
+    					if (rememberReached) {
+    						BitVector bv = (RememberReachedBitVector) next.source.customData;
+    						int id = next.target.tmp;
+
+    						if (bv.contains(id)) {
+    							continue;
+    						}
+
+    						bv.set(id);
+    					}
+
+    					for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
+    						if (e == null) continue;
+    						assert e.getKind() != SDGEdge.Kind.CONTROL_DEP_EXPR || e.getSource().getKind() == SDGNode.Kind.CALL;
+    						if (relevantEdges_contains(e.getKind()) || e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR) {
+    							propagate(worklist, e.getSource(), next.target);
+    						}
+    					}
+    					break;
+
+    				case FORMAL_OUT:
+    				case EXIT:
+    					if (fullyConnected != null && fullyConnected.contains(next.source.getId())) {
+    						propagateAllActIns(worklist, next.source, next.target);
+    					} else {
+    						for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
+    							if (e == null) continue;
+    							if (e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR) {
+    								if (e.getSource().getKind() == SDGNode.Kind.ENTRY) {
+    									propagate(worklist, e.getSource(), next.target);
+    								}
+
+    							} else if (relevantEdges_contains(e.getKind())) {
+    								propagate(worklist, e.getSource(), next.target);
+    							}
+    						}
+    					}
+    					break;
+
+    				default:
+    					for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
+    						if (e == null) continue;
+    						if (relevantEdges_contains(e.getKind())) {
+    							propagate(worklist, e.getSource(), next.target);
+    						}
+    					}
+    					break;
+    				}
+    			}
+
+    			assert workListsConsistent();
+    		}
+
+    		if (cacheKey != null) {
+    			storeSummaries(cacheKey);
+    		}
+
+    		leaveScc();
+    	}
+
+    	/**
+    	 * Replaces the fixpoint iteration by the summaries found in the cache.
+    	 * @return false if the cache contains no (valid) summaries for this scc.
+    	 */
+    	private boolean applyCachedSummaries(final String cacheKey) {
+    		final int[] procs = sccCacheOrder[scc];
+    		final List<EntryPoint> cached;
+    		try {
+    			cached = cache.getSummaries(cacheKey, procs.length);
+    		} catch (LoadEntryPointException e) {
+    			// an unreadable entry is recomputed and overwritten
+    			return false;
+    		}
+
+    		if (cached == null) {
+    			return false;
+    		}
+
+    		final List<Edge> summaries = new ArrayList<>();
+    		for (int i = 0; i < procs.length; i++) {
+    			final SDGNode[] procLocal2Node = procLocalNodeId2Node.get(procs[i]);
+    			final EntryPoint ep = cached.get(i);
+    			for (TIntIterator itIn = ep.iterateFormalIns(); itIn.hasNext(); ) {
+    				final int formIn = itIn.next();
+    				final TIntList formOuts = ep.getInfluencedFormOuts(formIn);
+    				if (formOuts == null) {
+    					continue;
+    				}
+    				for (TIntIterator itOut = formOuts.iterator(); itOut.hasNext(); ) {
+    					final int formOut = itOut.next();
+    					if (!(isProcLocalId(procLocal2Node, formIn, SDGNode.Kind.FORMAL_IN)
+    							&& (isProcLocalId(procLocal2Node, formOut, SDGNode.Kind.FORMAL_OUT)
+    							|| isProcLocalId(procLocal2Node, formOut, SDGNode.Kind.EXIT)))) {
+    						// does not fit the procedure, so the entry must be corrupt
+    						return false;
+    					}
+    					summaries.add(new Edge(procLocal2Node[formIn], procLocal2Node[formOut]));
+    				}
+    			}
+    		}
+
+    		// nothing in this scc has been propagated, so all callers are left untouched
+    		for (Edge summary : summaries) {
+    			formalInReached(summary);
+    		}
+
+    		return true;
+    	}
+
+    	/**
+    	 * Stores the summaries of this scc in the cache. Nothing is stored if a formal-out of the scc has not been
+    	 * traversed (e.g. as it is fully connected or in an irrelevant procedure), as its summaries are unknown then.
+    	 */
+    	private void storeSummaries(final String cacheKey) {
+    		final int[] procs = sccCacheOrder[scc];
+    		final List<EntryPoint> entries = new ArrayList<>(procs.length);
+    		for (int i = 0; i < procs.length; i++) {
+    			final SDGNode[] procLocal2Node = procLocalNodeId2Node.get(procs[i]);
+    			final TIntList formIns = new TIntArrayList();
+    			final TIntList formOuts = new TIntArrayList();
+    			for (int procLocalId = 0; procLocalId < procLocal2Node.length; procLocalId++) {
+    				final SDGNode n = procLocal2Node[procLocalId];
+    				if (n.getKind() == SDGNode.Kind.FORMAL_IN) {
+    					formIns.add(procLocalId);
+    				} else if (n.getKind() == SDGNode.Kind.FORMAL_OUT || n.getKind() == SDGNode.Kind.EXIT) {
+    					formOuts.add(procLocalId);
+    				}
+    			}
+
+    			final EntryPoint ep = new EntryPoint(i, formIns, formOuts);
+    			for (TIntIterator itOut = formOuts.iterator(); itOut.hasNext(); ) {
+    				final int formOut = itOut.next();
+    				final PathEdgeReachedNodesBitvector sources =
+    						(PathEdgeReachedNodesBitvector) procLocal2Node[formOut].customData;
+    				if (sources == null) {
+    					return;
+    				}
+    				for (IntIterator itIn = sources.intIterator(); itIn.hasNext(); ) {
+    					final int procLocalId = itIn.next();
+    					if (procLocal2Node[procLocalId].getKind() == SDGNode.Kind.FORMAL_IN) {
+    						ep.addSummaryDep(procLocalId, formOut);
+    					}
+    				}
+    			}
+    			entries.add(ep);
+    		}
+
+    		try {
+    			cache.putSummaries(cacheKey, entries);
+    		} catch (StoreEntryPointException e) {
+    			// recomputed in the next run
+    		}
+    	}
+
+    	/**
+    	 * Handles a path edge from a formal-in to a formal-out, i.e. a summary of the procedure.
+    	 */
+    	private void formalInReached(final Edge next) {
+    		// next.source is relevant formal in then:
+    		if (relevantFormalIns.contains(next.source.getId())) {
+    			SDGEdge fInOut;
+    			if (annotate != null && !annotate.isEmpty()) {
+    				fInOut =  new LabeledSDGEdge(next.source, next.target, sumEdgeKind, annotate);
+    			} else {
+    				fInOut = sumEdgeKind.newEdge(next.source, next.target);
+    			}
+
+    			formInOutSummaryEdge.add(fInOut);
+    		}
+
+    		final Collection<AcutalInActualOutPair> aiaoPairs = aiaoPairs(next, call2pair);
+    		for (AcutalInActualOutPair e : aiaoPairs) {
+
+    			final SDGNode source = e.getActualIn();
+    			final SDGNode target = e.getActualOut();
+
+    			assert source != null;
+    			if (target == null) continue;
+
+    			boolean connectedInPDG = false;
+    			if (assertionsEnabled) {
+    				connectedInPDG = graph.containsEdge(source, target, eOut -> eOut.getKind().isSDGEdge());
+    			}
+
+
+    			final int procLocalIdOfSource = nodeId2ProcLocalNodeId.getInt(source.getId());
+    			final ActualOutInformation aoInformation = (ActualOutInformation) target.customData;
+
+    			// in parallel mode, other callees of the same call site may be computed concurrently
+    			final boolean added;
+    			synchronized (aoInformation) {
+    				added = aoInformation.incomingSummaryEdgesFrom.setWithResult((procLocalIdOfSource));
+    			}
+    			if (added) {
+    				assert !connectedInPDG;
+
+    				synchronized (source) {
+    					final Integer nrOfoutgoingSummaryEdgesInto = (Integer) source.customData;
+    					source.customData = nrOfoutgoingSummaryEdgesInto + 1;
+    				}
+
+    				final AoPathsNodesBitvector aoPaths = aoInformation.aoPaths;
+
+    				if (!aoPaths.isZero()) {
+    					final int caller = source.getProc();
+    					// only callers of the current scc have been visited yet
+    					assert indexNumberOf.getInt(caller) == scc;
+    					procedureWorkSet.add(caller);
+    					final IntrusiveList<Edge> workListInCaller = worklists.get(caller);
+    					final SDGNode[] callerLocal2Node = procLocalNodeId2Node.get(caller);
+
+    					for (IntIterator it = aoPaths.intIterator(); it.hasNext(); ) {
+    						final int procLocalId = it.next();
+
+    						SDGNode aoPathTarget = callerLocal2Node[procLocalId];
+    						propagate(workListInCaller, source, aoPathTarget);
+    					}
+    				}
+    			}
+    		}
+    		if (assertionsEnabled) {
+    			for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
+    				if (e == null) continue;
+    				final SDGEdge.Kind kind = e.getKind();
+    				assert !((kind == SDGEdge.Kind.DATA_DEP || kind == SDGEdge.Kind.DATA_HEAP || kind == SDGEdge.Kind.DATA_ALIAS) && relevantEdges_contains(kind));
+    			}
+    		}
+    	}
+
+    	/**
+    	 * Materializes the summary edges of the call sites in this scc, and clears the information at the nodes.
+    	 */
+    	private void leaveScc() {
+    		if (memory != null) {
+    			recordMemory();
+    		}
+    		for (Integer inSameScc : procSccs.get(scc)) {
+    			final SDGNode[] inSameSccLocal2Node = procLocalNodeId2Node.get(inSameScc);
+    			for (SDGNode n : inSameSccLocal2Node) {
+    				if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
+    					final Integer nrOfoutgoingSummaryEdges = (Integer) n.customData;
+    					n.customData = new ActualInInformation(new SDGEdge[nrOfoutgoingSummaryEdges]);
+    					// will be filled in the upcoming loop by the corresponding ACTUAL_OUTs
+    				}
+    			}
+
+    			for (SDGNode n : inSameSccLocal2Node) {
+    				if (n.getKind() == SDGNode.Kind.FORMAL_OUT || n.getKind() == SDGNode.Kind.EXIT) {
+    					if (relevantProcs != null && !relevantProcs.contains(n.getProc())) {
+    						continue;
+    					}
+
+    					if (fullyConnected != null && fullyConnected.contains(n.getId())) {
+    						continue;
+    					}
+
+    					assert n.customData instanceof PathEdgeReachedNodesBitvector;
+    					n.customData = null;
+    				}
+
+    				if (n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
+    					final ActualOutInformation aoInformation = (ActualOutInformation) n.customData;
+    					final IncomingSummaryEdgesFromBitVector incomingSummaryEdgesFrom = aoInformation.incomingSummaryEdgesFrom;
+
+    					final int nrOfSummaryEdges = incomingSummaryEdgesFrom.populationCount();
+    					final SDGEdge[] summaryEdges = new SDGEdge[nrOfSummaryEdges];
+
+    					int i = 0;
+    					for (IntIterator it = incomingSummaryEdgesFrom.intIterator(); it.hasNext(); ) {
+    						final int procLocalId = it.next();
+    						final SDGNode source = inSameSccLocal2Node[procLocalId];
+
+    						final SDGEdge sum;
+    						if (annotate != null && !annotate.isEmpty()) {
+    							sum =  new LabeledSDGEdge(source, n, sumEdgeKind, annotate);
+    						} else {
+    							sum = sumEdgeKind.newEdge(source, n);
+    						}
+
+    						summaryEdges[i++] = sum;
+
+    						final ActualInInformation actualInInformation = (ActualInInformation) source.customData;
+    						actualInInformation.summaryEdges[actualInInformation.next++] = sum;
+    					}
+
+    					Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
+
+    					final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
+
+    					graph.addIncomingEdgesAtUNSAFE(n, summaryEdgesSet);
+
+    					n.customData = null;
+    				}
+    			}
+
+    			for (SDGNode n : inSameSccLocal2Node) {
+    				if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
+    					final ActualInInformation actualInInformation = (ActualInInformation) n.customData;
+
+    					final SDGEdge[] summaryEdges = actualInInformation.summaryEdges;
+    					assert summaryEdges.length == 0 || summaryEdges[summaryEdges.length - 1] != null;
+
+    					Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
+
+    					final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
+
+    					graph.addOutgoingEdgesAtUNSAFE(n, summaryEdgesSet);
+
+    					n.customData = null;
+
+    				}
+
+    			}
+
+    			if (!parallel) {
+    				// SimpleVectorBase does not support concurrent removal, so in parallel mode the arrays are kept
+    				procLocalNodeId2Node.remove(inSameScc);
+    			}
+    		}
+    	}
+
+    	private void recordMemory() {
+    		long sets = 0;
+    		long pathEdges = 0;
+    		long bytes = 0;
+    		long bitVectorBytes = 0;
+    		for (Integer inSameScc : procSccs.get(scc)) {
+    			for (SDGNode n : procLocalNodeId2Node.get(inSameScc)) {
+    				if (n.customData instanceof PathEdgeReachedNodesBitvector) {
+    					final CompressedBitSet sources = (CompressedBitSet) n.customData;
+    					sets++;
+    					pathEdges += sources.populationCount();
+    					bytes += sources.estimatedBytes();
+    					bitVectorBytes += sources.bitVectorBytes();
+    				} else if (n.customData instanceof ActualOutInformation) {
+    					final ActualOutInformation aoInformation = (ActualOutInformation) n.customData;
+    					sets += 2;
+    					bytes += aoInformation.aoPaths.estimatedBytes()
+    							+ aoInformation.incomingSummaryEdgesFrom.estimatedBytes();
+    					bitVectorBytes += aoInformation.aoPaths.bitVectorBytes()
+    							+ aoInformation.incomingSummaryEdgesFrom.bitVectorBytes();
+    				}
+    			}
+    		}
+    		memory.add(procSccs.get(scc), sets, pathEdges, bytes, bitVectorBytes);
+    	}
+
+    	private boolean workListsConsistent() {
+    		for (Integer proc : procSccs.get(scc)) {
+    			final IntrusiveList<Edge> workList = worklists.get(proc);
+    			if (workList != null && !workList.isEmpty() && !procedureWorkSet.contains(proc)) {
+    				return false;
+    			}
+    		}
+    		return true;
+    	}
+
+    	private void propagateAllActIns(IntrusiveList<Edge> worklist, SDGNode outNode, SDGNode target) {
+    		for (SDGNode inNode : out2in.get(outNode.getId())) {
+    			propagate(worklist, inNode, target);
+    		}
+    	}
+
+    	private void propagate(IntrusiveList<Edge> worklist, SDGNode source, SDGNode target) {
+    		assert source.getProc() == target.getProc();
+    		assert worklist == worklists.get(source.getProc());
+    		if (relevantProcs != null && !(relevantProcs.contains(source.getProc())
+    				&& relevantProcs.contains(target.getProc()))) {
+    			return;
+    		}
+
+    		if (pathEdge_add(source, target)) {
+    			final Edge e = new Edge(source, target);
+    			assert pathEdge.add(e);
+    			worklist.add(e);
+    			assert procedureWorkSet.contains(source.getProc()) || worklist == current;
+    			if (source.getKind() == SDGNode.Kind.ACTUAL_OUT) {
+    				final ActualOutInformation aoInformation = (ActualOutInformation) source.customData;
+    				final AoPathsNodesBitvector aoPaths = aoInformation.aoPaths;
+    				final int procLocalTargetId = nodeId2ProcLocalNodeId.getInt(target.getId());
+
+    				aoPaths.set(procLocalTargetId);
+    			}
+    		} else {
+    			assert pathEdge.contains(new Edge(source, target));
+    		}
+    	}
     }
     
     private boolean pathEdge_add(SDGNode source, SDGNode target) {
@@ -753,12 +1328,21 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 
 
 
-    private Collection<AcutalInActualOutPair> aiaoPairs(Edge e) {
+    /**
+     * @param call2pair scratch map, required in parallel mode
+     */
+    private Collection<AcutalInActualOutPair> aiaoPairs(Edge e, Map<SDGNode, AcutalInActualOutPair> call2pair) {
         final IntrusiveList<AcutalInActualOutPair> result = new IntrusiveList<>();
         
         assert e.source.getKind() == SDGNode.Kind.FORMAL_IN;
         assert e.target.getKind() == SDGNode.Kind.FORMAL_OUT || e.target.getKind() == SDGNode.Kind.EXIT;
 
+        // in parallel mode, a call site may be shared with a concurrently computed callee (dynamic dispatch),
+        // so the pairs cannot be remembered at the call node
+        if (parallel) {
+        	// call sites without a matching actual-out are left over from the last path edge
+        	call2pair.clear();
+        }
         
         for (SDGEdge pi : graph.incomingEdgesOfUnsafe(e.source)) {
         	if (pi == null) continue;
@@ -769,7 +1353,11 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
                 assert call != null;
 
                 final AcutalInActualOutPair pair = new AcutalInActualOutPair(ai);
-                call.customData = pair;
+                if (parallel) {
+                	call2pair.put(call, pair);
+                } else {
+                	call.customData = pair;
+                }
                 result.add(pair);
             }
         }
@@ -782,11 +1370,16 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
                 final SDGNode call = getCallSiteFor(ao);
                 assert call != null;
 
-                final AcutalInActualOutPair newE = (AcutalInActualOutPair) call.customData;
+                final AcutalInActualOutPair newE;
+                if (parallel) {
+                	newE = call2pair.remove(call);
+                } else {
+                	newE = (AcutalInActualOutPair) call.customData;
+                	call.customData = null;
+                }
                 assert newE != null;
                 
                	newE.setActualOut(ao);
-               	call.customData = null;
             }
         }
 
@@ -942,36 +1535,36 @@ class AcutalInActualOutPair implements Intrusable<AcutalInActualOutPair> {
 class SummaryComputer3 implements ISummaryComputer {
 	@Override
 	public int compute(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
-		return SummaryComputation3.compute(pack, progress);
+		return SummaryComputation3.compute(pack, parallel, progress);
 	}
 
 	@Override
 	public int computeAdjustedAliasDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
 			throws CancelException {
-		return SummaryComputation3.computeAdjustedAliasDep(pack, progress);
+		return SummaryComputation3.computeAdjustedAliasDep(pack, parallel, progress);
 	}
 
 	@Override
 	public int computePureDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
 			throws CancelException {
-		return SummaryComputation3.computePureDataDep(pack, progress);
+		return SummaryComputation3.computePureDataDep(pack, parallel, progress);
 	}
 
 	@Override
 	public int computeFullAliasDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
 			throws CancelException {
-		return SummaryComputation3.computeFullAliasDataDep(pack, progress);
+		return SummaryComputation3.computeFullAliasDataDep(pack, parallel, progress);
 	}
 
 	@Override
 	public int computeNoAliasDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
 			throws CancelException {
-		return SummaryComputation3.computeNoAliasDataDep(pack, progress);
+		return SummaryComputation3.computeNoAliasDataDep(pack, parallel, progress);
 	}
 
 	@Override
 	public int computeHeapDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
 			throws CancelException {
-		return SummaryComputation3.computeHeapDataDep(pack, progress);
+		return SummaryComputation3.computeHeapDataDep(pack, parallel, progress);
 	}
 }
\ No newline at end of file
@@ -59,7 +59,7 @@ public class WorkPackage<G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGr
 				+ (maxConnections > 0 ? " " + ((100 * summaryEdges) / maxConnections) + "%]" : " --%]" );
 		}
 
-		private void addSummaryDep(int formIn, int formOut) {
+		void addSummaryDep(int formIn, int formOut) {
 			if (formalIns.contains(formIn) && formalOuts.contains(formOut)) {
 				TIntList outs = formIn2out.get(formIn);
 				if (outs == null) {
@@ -262,6 +262,8 @@ public class WorkPackage<G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGr
 	private final TIntObjectMap<List<SDGNode>> out2in;
 	private boolean immutable = false;
 	private final boolean rememberReached;
+	private EntryPointCache summaryCache = null;
+	private int summaryThreads = 0;
 
 	private WorkPackage(G subgraph, Set<EntryPoint> entries, String name,
 			TIntSet relevantProcs, TIntSet fullyConnected, TIntObjectMap<List<SDGNode>> out2in,
@@ -331,6 +333,31 @@ public class WorkPackage<G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGr
 		return rememberReached;
 	}
 
+	/**
+	 * @return the cache the summaries of library methods are looked up in and stored to, or null if there is none.
+	 */
+	public EntryPointCache getSummaryCache() {
+		return summaryCache;
+	}
+
+	public void setSummaryCache(EntryPointCache summaryCache) {
+		this.summaryCache = summaryCache;
+	}
+
+	/**
+	 * @return the number of threads of a parallel summary computation, 0 for one thread per available processor.
+	 */
+	public int getSummaryThreads() {
+		return summaryThreads;
+	}
+
+	public void setSummaryThreads(int summaryThreads) {
+		if (summaryThreads < 0) {
+			throw new IllegalArgumentException("negative number of threads: " + summaryThreads);
+		}
+		this.summaryThreads = summaryThreads;
+	}
+
 	public void workIsDone() {
 		if (!immutable) {
 			immutable = true;
@@ -0,0 +1,370 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.EdgeFactory;
+import org.jgrapht.alg.KosarajuStrongConnectivityInspector;
+import org.jgrapht.graph.EdgeReversedGraph;
+import org.jgrapht.traverse.DepthFirstIterator;
+import org.junit.Test;
+
+import edu.kit.joana.util.collections.ArrayMap;
+import edu.kit.joana.wala.core.SDGBuilder.ControlDependenceVariant;
+import edu.kit.joana.wala.core.graphs.CDG;
+import edu.kit.joana.wala.core.graphs.IntCDG;
+import edu.kit.joana.wala.core.graphs.IntCFG;
+import edu.kit.joana.wala.core.graphs.NTICDGraphPostdominanceFrontiers;
+
+/**
+ * Checks that {@link IntCDG} computes the same control dependencies as {@link CDG} and
+ * {@link NTICDGraphPostdominanceFrontiers}, and that {@link PDG#computeIntCDG} only uses it where the
+ * control dependence variant is ported.
+ */
+public class IntCDGTest {
+
+	private static PDGNode node(final int id) {
+		return new PDGNode(id, 0, "n" + id, PDGNode.Kind.NORMAL, PDGNode.DEFAULT_TYPE, PDGNode.DEFAULT_NO_LOCAL,
+				PDGNode.DEFAULT_NO_LOCAL);
+	}
+
+	private static void addFlow(final DependenceGraph cfg, final PDGNode from, final PDGNode to) {
+		cfg.addEdge(from, to, new PDGEdge(from, to, PDGEdge.Kind.CONTROL_FLOW));
+	}
+
+	/**
+	 * A random cfg of the given size with entry 0 and exit size - 1, including the entry -> exit edge
+	 * that {@link PDG} adds before computing control dependencies.
+	 */
+	private static DependenceGraph randomCfg(final Random rnd, final int size, final boolean reachExit) {
+		final DependenceGraph cfg = new DependenceGraph(() -> new ArrayMap<>());
+		final List<PDGNode> nodes = new ArrayList<PDGNode>();
+		for (int i = 0; i < size; i++) {
+			nodes.add(node(i));
+			cfg.addVertex(nodes.get(i));
+		}
+		final PDGNode entry = nodes.get(0);
+		final PDGNode exit = nodes.get(size - 1);
+
+		final int edges = rnd.nextInt(3 * size);
+		for (int i = 0; i < edges; i++) {
+			final int from = rnd.nextInt(size - 1);
+			addFlow(cfg, nodes.get(from), nodes.get(1 + rnd.nextInt(size - 1)));
+		}
+		addFlow(cfg, entry, exit);
+
+		if (reachExit) {
+			// connect every node that does not reach the exit node yet
+			final Set<PDGNode> reaching = reaching(cfg, exit);
+			for (final PDGNode n : nodes) {
+				if (!reaching.contains(n)) {
+					addFlow(cfg, n, exit);
+					reaching.addAll(reaching(cfg, exit));
+				}
+			}
+		}
+
+		return cfg;
+	}
+
+	private static Set<PDGNode> reaching(final DependenceGraph cfg, final PDGNode exit) {
+		final Set<PDGNode> reaching = new HashSet<PDGNode>();
+		final DepthFirstIterator<PDGNode, PDGEdge> it =
+				new DepthFirstIterator<PDGNode, PDGEdge>(new EdgeReversedGraph<PDGNode, PDGEdge>(cfg), exit);
+		while (it.hasNext()) {
+			reaching.add(it.next());
+		}
+
+		return reaching;
+	}
+
+	private static Set<List<PDGNode>> dependencies(final DirectedGraph<PDGNode, PDGEdge> cdg) {
+		final Set<List<PDGNode>> deps = new HashSet<List<PDGNode>>();
+		for (final PDGEdge e : cdg.edgeSet()) {
+			final List<PDGNode> dep = new ArrayList<PDGNode>();
+			dep.add(cdg.getEdgeSource(e));
+			dep.add(cdg.getEdgeTarget(e));
+			deps.add(dep);
+		}
+
+		return deps;
+	}
+
+	private static Set<List<PDGNode>> dependencies(final IntCDG<PDGNode> cdg) {
+		final Set<List<PDGNode>> deps = new HashSet<List<PDGNode>>();
+		for (int i = 0; i < cdg.size(); i++) {
+			final List<PDGNode> dep = new ArrayList<PDGNode>();
+			dep.add(cdg.getSource(i));
+			dep.add(cdg.getTarget(i));
+			deps.add(dep);
+		}
+		// no dependency is added twice
+		assertEquals(cdg.size(), deps.size());
+
+		return deps;
+	}
+
+	private static Set<List<PDGNode>> nticd(final DirectedGraph<PDGNode, PDGEdge> cfg) {
+		final EdgeFactory<PDGNode, PDGEdge> factory = (from, to) -> new PDGEdge(from, to, PDGEdge.Kind.CONTROL_DEP);
+		return dependencies(NTICDGraphPostdominanceFrontiers.compute(cfg, factory, PDGEdge.class));
+	}
+
+	/**
+	 * The ADAPTIVE control dependence variant on the object graph, as {@link PDG} computed it before it was
+	 * ported. The representant of a sink is its first node in the order of {@link DependenceGraph#vertexSet()}.
+	 */
+	private static Set<List<PDGNode>> adaptive(final DependenceGraph cfg, final PDGNode entry, final PDGNode exit) {
+		if (reaching(cfg, exit).size() == cfg.vertexSet().size()) {
+			return dependencies(CDG.build(cfg, entry, exit));
+		}
+
+		final Set<List<PDGNode>> deps = nticd(cfg);
+
+		final DependenceGraph cfgS = new DependenceGraph(() -> new ArrayMap<>());
+		for (final PDGNode n : cfg.vertexSet()) {
+			cfgS.addVertex(n);
+		}
+		final Map<PDGNode, PDGNode> freshForRepresentant = new HashMap<PDGNode, PDGNode>();
+		for (final Set<PDGNode> scc : new KosarajuStrongConnectivityInspector<PDGNode, PDGEdge>(cfg).stronglyConnectedSets()) {
+			boolean isSink = scc.size() > 1;
+			for (final PDGNode n : scc) {
+				for (final PDGEdge e : cfg.outgoingEdgesOf(n)) {
+					isSink &= scc.contains(e.to);
+				}
+			}
+			if (isSink) {
+				PDGNode representant = null;
+				for (final PDGNode n : cfg.vertexSet()) {
+					if (representant == null && scc.contains(n)) {
+						representant = n;
+					}
+				}
+				final PDGNode fresh = node(-1 - freshForRepresentant.size());
+				freshForRepresentant.put(representant, fresh);
+				cfgS.addVertex(fresh);
+			}
+		}
+		for (final PDGEdge e : cfg.edgeSet()) {
+			final PDGNode fresh = freshForRepresentant.get(e.to);
+			if (fresh == null) {
+				cfgS.addEdge(e.from, e.to, e);
+			} else if (!e.from.equals(e.to)) {
+				addFlow(cfgS, e.from, fresh);
+			}
+		}
+
+		for (final List<PDGNode> dep : nticd(cfgS)) {
+			if (!freshForRepresentant.containsValue(dep.get(1))) {
+				deps.add(dep);
+			}
+		}
+
+		return deps;
+	}
+
+	private static PDGNode find(final DependenceGraph cfg, final int id) {
+		for (final PDGNode n : cfg.vertexSet()) {
+			if (n.getId() == id) {
+				return n;
+			}
+		}
+
+		throw new IllegalArgumentException("no node " + id);
+	}
+
+	@Test
+	public void testSameAsCDG() {
+		final Random rnd = new Random(42);
+		for (int round = 0; round < 2000; round++) {
+			final int size = 2 + rnd.nextInt(round < 1000 ? 10 : 100);
+			final DependenceGraph cfg = randomCfg(rnd, size, true);
+			final PDGNode entry = find(cfg, 0);
+			final PDGNode exit = find(cfg, size - 1);
+
+			final IntCFG<PDGNode> intCfg = IntCFG.of(cfg);
+			assertEquals(cfg.vertexSet().size(), intCfg.size());
+			assertEquals(cfg.edgeSet().size(), intCfg.numberOfEdges());
+			assertTrue(intCfg.isReachableFromAll(intCfg.indexOf(exit)));
+
+			final IntCDG<PDGNode> intCdg = IntCDG.build(intCfg, entry, exit);
+			assertEquals(dependencies(CDG.build(cfg, entry, exit)), dependencies(intCdg));
+		}
+	}
+
+	@Test
+	public void testImmediatePostdominators() {
+		// 0 -> 1 -> {2, 3} -> 4 -> 5, 4 -> 1, 0 -> 5
+		final DependenceGraph cfg = new DependenceGraph(() -> new ArrayMap<>());
+		final PDGNode[] n = new PDGNode[6];
+		for (int i = 0; i < n.length; i++) {
+			n[i] = node(i);
+			cfg.addVertex(n[i]);
+		}
+		addFlow(cfg, n[0], n[1]);
+		addFlow(cfg, n[1], n[2]);
+		addFlow(cfg, n[1], n[3]);
+		addFlow(cfg, n[2], n[4]);
+		addFlow(cfg, n[3], n[4]);
+		addFlow(cfg, n[4], n[1]);
+		addFlow(cfg, n[4], n[5]);
+		addFlow(cfg, n[0], n[5]);
+
+		final IntCFG<PDGNode> intCfg = IntCFG.of(cfg);
+		final int[] idom = IntCDG.immediatePostdominators(intCfg, intCfg.indexOf(n[5]));
+		final int[] expected = { 5, 4, 4, 4, 5, -1 };
+		final int[] actual = new int[n.length];
+		for (int i = 0; i < n.length; i++) {
+			final int ipdom = idom[intCfg.indexOf(n[i])];
+			actual[i] = (ipdom == -1 ? -1 : intCfg.getNode(ipdom).getId());
+		}
+		assertArrayEquals(expected, actual);
+
+		final Set<List<PDGNode>> deps = dependencies(IntCDG.build(intCfg, n[0], n[5]));
+		assertEquals(dependencies(CDG.build(cfg, n[0], n[5])), deps);
+	}
+
+	@Test
+	public void testFallbackIfExitIsNotReached() {
+		final Random rnd = new Random(42);
+		int notReaching = 0;
+		for (int round = 0; round < 500; round++) {
+			final int size = 2 + rnd.nextInt(30);
+			final DependenceGraph cfg = randomCfg(rnd, size, false);
+			final PDGNode entry = find(cfg, 0);
+			final PDGNode exit = find(cfg, size - 1);
+			final boolean reachExit = reaching(cfg, exit).size() == size;
+
+			final IntCFG<PDGNode> intCfg = IntCFG.of(cfg);
+			assertEquals(reachExit, intCfg.isReachableFromAll(intCfg.indexOf(exit)));
+			final IntCDG<PDGNode> intCdg = PDG.computeIntCDG(ControlDependenceVariant.CLASSIC, cfg, entry, exit);
+			if (reachExit) {
+				assertNotNull(intCdg);
+				assertEquals(dependencies(CDG.build(cfg, entry, exit)), dependencies(intCdg));
+			} else {
+				assertNull(intCdg);
+			}
+			if (!reachExit) {
+				notReaching++;
+			}
+		}
+		assertTrue(notReaching > 0);
+	}
+
+	@Test
+	public void testFallbackForNonterminationSensitiveVariants() {
+		final DependenceGraph cfg = randomCfg(new Random(42), 10, true);
+		final PDGNode entry = find(cfg, 0);
+		final PDGNode exit = find(cfg, 9);
+		for (final ControlDependenceVariant variant : ControlDependenceVariant.values()) {
+			final IntCDG<PDGNode> intCdg = PDG.computeIntCDG(variant, cfg, entry, exit);
+			final boolean ported = variant == ControlDependenceVariant.CLASSIC
+					|| variant == ControlDependenceVariant.ADAPTIVE
+					|| variant == ControlDependenceVariant.NTICD_ISINKDOM;
+			assertEquals(variant.toString(), ported, intCdg != null);
+		}
+	}
+
+	@Test
+	public void testNTICDSameAsPostdominanceFrontiers() {
+		final Random rnd = new Random(42);
+		for (int round = 0; round < 2000; round++) {
+			final int size = 2 + rnd.nextInt(round < 1000 ? 10 : 60);
+			final DependenceGraph cfg = randomCfg(rnd, size, round % 4 == 0);
+			final PDGNode entry = find(cfg, 0);
+			final PDGNode exit = find(cfg, size - 1);
+
+			final Set<List<PDGNode>> expected = nticd(cfg);
+			expected.add(dependency(entry, exit));
+			final IntCDG<PDGNode> intCdg = PDG.computeIntCDG(ControlDependenceVariant.NTICD_ISINKDOM, cfg, entry, exit);
+			assertEquals(expected, dependencies(intCdg));
+		}
+	}
+
+	@Test
+	public void testAdaptiveSameAsSinkRepresentatives() {
+		final Random rnd = new Random(42);
+		int notReaching = 0;
+		for (int round = 0; round < 2000; round++) {
+			final int size = 2 + rnd.nextInt(round < 1000 ? 10 : 60);
+			final DependenceGraph cfg = randomCfg(rnd, size, round % 4 == 0);
+			final PDGNode entry = find(cfg, 0);
+			final PDGNode exit = find(cfg, size - 1);
+			if (reaching(cfg, exit).size() < size) {
+				notReaching++;
+			}
+
+			final IntCDG<PDGNode> intCdg = PDG.computeIntCDG(ControlDependenceVariant.ADAPTIVE, cfg, entry, exit);
+			assertEquals(adaptive(cfg, entry, exit), dependencies(intCdg));
+		}
+		assertTrue(notReaching > 1000);
+	}
+
+	@Test
+	public void testSinkRepresentativeVariant() {
+		// 0 -> 1 -> 2 -> 3 -> 2, 3 -> 3, 0 -> 4, where {2, 3} is a sink
+		final DependenceGraph cfg = new DependenceGraph(() -> new ArrayMap<>());
+		final PDGNode[] n = new PDGNode[5];
+		for (int i = 0; i < n.length; i++) {
+			n[i] = node(i);
+			cfg.addVertex(n[i]);
+		}
+		addFlow(cfg, n[0], n[1]);
+		addFlow(cfg, n[1], n[2]);
+		addFlow(cfg, n[2], n[3]);
+		addFlow(cfg, n[3], n[2]);
+		addFlow(cfg, n[3], n[3]);
+		addFlow(cfg, n[0], n[4]);
+
+		final IntCFG<PDGNode> intCfg = IntCFG.of(cfg);
+		final int[] component = intCfg.stronglyConnectedComponents();
+		assertEquals(component[intCfg.indexOf(n[2])], component[intCfg.indexOf(n[3])]);
+		assertTrue(component[intCfg.indexOf(n[0])] > component[intCfg.indexOf(n[1])]);
+		assertTrue(component[intCfg.indexOf(n[1])] > component[intCfg.indexOf(n[2])]);
+
+		final IntCFG<PDGNode> cfgS = intCfg.sinkRepresentativeVariant();
+		assertEquals(n.length + 1, cfgS.size());
+		assertNull(cfgS.getNode(n.length));
+		// the self loop of the representant is dropped, the other edges to it lead to the fresh node
+		final int representant = Math.min(intCfg.indexOf(n[2]), intCfg.indexOf(n[3]));
+		final boolean loopDropped = cfg.containsEdge(intCfg.getNode(representant), intCfg.getNode(representant));
+		assertEquals(intCfg.numberOfEdges() - (loopDropped ? 1 : 0), cfgS.numberOfEdges());
+		for (int i = 0; i < n.length; i++) {
+			for (int p = cfgS.succStart(i); p < cfgS.succEnd(i); p++) {
+				assertTrue(cfgS.succ(p) != representant);
+			}
+		}
+		assertEquals(0, cfgS.succEnd(n.length) - cfgS.succStart(n.length));
+		assertEquals(loopDropped ? 1 : 2, cfgS.predEnd(n.length) - cfgS.predStart(n.length));
+
+		// without a sink of more than one node nothing changes
+		final IntCFG<PDGNode> classic = IntCFG.of(randomCfg(new Random(42), 10, true));
+		assertTrue(classic == classic.sinkRepresentativeVariant());
+	}
+
+	private static List<PDGNode> dependency(final PDGNode from, final PDGNode to) {
+		final List<PDGNode> dep = new ArrayList<PDGNode>();
+		dep.add(from);
+		dep.add(to);
+
+		return dep;
+	}
+}
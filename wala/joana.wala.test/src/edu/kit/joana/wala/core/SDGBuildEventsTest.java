@@ -0,0 +1,101 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Checks that the JFR events of an {@link SDGBuildProfile} are only set up if the vm provides JFR, and that they
+ * carry the recorded values. The jdk.jfr API is only used reflectively, like in {@link SDGBuildEvents}, as this
+ * module targets Java 8.
+ */
+public class SDGBuildEventsTest {
+
+	private static boolean isJFRAvailable() {
+		try {
+			Class.forName("jdk.jfr.EventFactory");
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	@Test
+	public void testOnlyAvailableWithJFR() {
+		if (isJFRAvailable()) {
+			assertNotNull(SDGBuildEvents.INSTANCE);
+		} else {
+			assertNull(SDGBuildEvents.INSTANCE);
+		}
+		// profiling works either way
+		final SDGBuildProfile profile = new SDGBuildProfile();
+		profile.begin("phase", 1, 2).end(3, 4);
+		profile.beginPdg().end("m()", 5);
+		assertEquals(1, profile.getPhases().size());
+		assertEquals(1, profile.getNumberOfPdgs());
+	}
+
+	@Test
+	public void testEventsAreRecorded() throws Exception {
+		if (!isJFRAvailable()) {
+			return;
+		}
+		final Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+		final Object recording = recordingClass.getConstructor().newInstance();
+		final Method enable = recordingClass.getMethod("enable", String.class);
+		enable.invoke(recording, SDGBuildEvents.PHASE_EVENT);
+		enable.invoke(recording, SDGBuildEvents.PDG_EVENT);
+		recordingClass.getMethod("start").invoke(recording);
+
+		final SDGBuildProfile profile = new SDGBuildProfile();
+		profile.begin("phase", 1, 2).end(3, 4);
+		profile.beginPdg().end("m()", 5);
+
+		recordingClass.getMethod("stop").invoke(recording);
+		final Path file = Files.createTempFile("sdgbuild", ".jfr");
+		file.toFile().deleteOnExit();
+		recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+		recordingClass.getMethod("close").invoke(recording);
+
+		final Map<String, Object> events = new HashMap<String, Object>();
+		final List<?> recorded = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+				.getMethod("readAllEvents", Path.class).invoke(null, file);
+		for (final Object event : recorded) {
+			final Object type = event.getClass().getMethod("getEventType").invoke(event);
+			events.put((String) type.getClass().getMethod("getName").invoke(type), event);
+		}
+
+		final Object phase = events.get(SDGBuildEvents.PHASE_EVENT);
+		assertNotNull(events.keySet().toString(), phase);
+		assertEquals("phase", value(phase, "phase"));
+		assertEquals(1L, value(phase, "nodesBefore"));
+		assertEquals(2L, value(phase, "edgesBefore"));
+		assertEquals(3L, value(phase, "nodesAfter"));
+		assertEquals(4L, value(phase, "edgesAfter"));
+
+		final Object pdg = events.get(SDGBuildEvents.PDG_EVENT);
+		assertNotNull(events.keySet().toString(), pdg);
+		assertEquals("m()", value(pdg, "method"));
+		assertEquals(5, value(pdg, "nodes"));
+	}
+
+	private static Object value(final Object event, final String field) throws ReflectiveOperationException {
+		return event.getClass().getMethod("getValue", String.class).invoke(event, field);
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.interference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.types.TypeReference;
+import com.ibm.wala.util.intset.MutableSparseIntSet;
+import com.ibm.wala.util.intset.OrdinalSet;
+
+import edu.kit.joana.wala.core.ParameterField;
+import edu.kit.joana.wala.core.ParameterFieldFactory;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapAccess;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapLocationIndex;
+
+/**
+ * Checks that the {@link HeapLocationIndex} finds exactly the accesses the pairwise
+ * {@link HeapAccess#isAliasing(HeapAccess)} comparison finds.
+ */
+public class HeapLocationIndexTest {
+
+	private static final int ROUNDS = 200;
+	private static final int INSTANCE_KEYS = 8;
+
+	@Test
+	public void testIndexMatchesPairwiseAliasing() {
+		final ParameterFieldFactory factory = new ParameterFieldFactory();
+		final ParameterField[] fields = new ParameterField[] {
+			factory.getArrayField(TypeReference.Int),
+			factory.getArrayField(TypeReference.Char),
+		};
+		final Random rand = new Random(42);
+
+		for (int round = 0; round < ROUNDS; round++) {
+			final List<HeapAccess> accesses = new ArrayList<HeapAccess>();
+			final int size = 1 + rand.nextInt(30);
+			for (int i = 0; i < size; i++) {
+				final ParameterField field = fields[rand.nextInt(fields.length)];
+				final OrdinalSet<InstanceKey> base = randomBase(rand);
+				accesses.add(rand.nextBoolean()
+						? HeapAccess.createWrite(null, base, field)
+						: HeapAccess.createRead(null, base, field));
+			}
+
+			final HeapLocationIndex index = new HeapLocationIndex();
+			for (final HeapAccess acc : accesses) {
+				index.add(null, acc);
+			}
+
+			for (final HeapAccess acc : accesses) {
+				final Set<HeapAccess> expected = Collections.newSetFromMap(new IdentityHashMap<HeapAccess, Boolean>());
+				for (final HeapAccess other : accesses) {
+					if (acc.isAliasing(other)) {
+						expected.add(other);
+					}
+				}
+
+				final Set<HeapAccess> found = Collections.newSetFromMap(new IdentityHashMap<HeapAccess, Boolean>());
+				index.forEachAliasing(acc, (pdg, other) -> assertTrue("reported twice", found.add(other)));
+				assertEquals(expected, found);
+			}
+		}
+	}
+
+	@Test
+	public void testUnknownBaseAliasesEveryLocation() {
+		final ParameterField field = new ParameterFieldFactory().getArrayField(TypeReference.Int);
+		final HeapAccess unknown = HeapAccess.createWrite(null, null, field);
+		final HeapAccess empty = HeapAccess.createRead(null, OrdinalSet.<InstanceKey>empty(), field);
+		final HeapAccess known = HeapAccess.createRead(null, set(1, 2), field);
+
+		assertTrue(unknown.isAliasing(empty));
+		assertTrue(unknown.isAliasing(known));
+		assertTrue(known.isAliasing(unknown));
+
+		final HeapLocationIndex index = new HeapLocationIndex();
+		index.add(null, unknown);
+		index.add(null, empty);
+		index.add(null, known);
+		final List<HeapAccess> found = new ArrayList<HeapAccess>();
+		index.forEachAliasing(unknown, (pdg, other) -> found.add(other));
+		assertEquals(3, found.size());
+
+		found.clear();
+		index.forEachAliasing(known, (pdg, other) -> found.add(other));
+		assertEquals(2, found.size());
+		assertTrue(found.contains(unknown));
+	}
+
+	private static OrdinalSet<InstanceKey> randomBase(final Random rand) {
+		switch (rand.nextInt(5)) {
+		case 0:
+			return null;
+		case 1:
+			return OrdinalSet.empty();
+		default:
+			final MutableSparseIntSet keys = MutableSparseIntSet.makeEmpty();
+			final int num = 1 + rand.nextInt(3);
+			for (int i = 0; i < num; i++) {
+				keys.add(rand.nextInt(INSTANCE_KEYS));
+			}
+			return new OrdinalSet<InstanceKey>(keys, null);
+		}
+	}
+
+	private static OrdinalSet<InstanceKey> set(final int... keys) {
+		final MutableSparseIntSet s = MutableSparseIntSet.makeEmpty();
+		for (final int k : keys) {
+			s.add(k);
+		}
+		return new OrdinalSet<InstanceKey>(s, null);
+	}
+}
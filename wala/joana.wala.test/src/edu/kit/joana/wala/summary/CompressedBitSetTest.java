@@ -0,0 +1,189 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.summary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ibm.wala.util.intset.IntIterator;
+
+/**
+ * Checks the conversion of the chunks of a {@link CompressedBitSet} from sorted arrays to bitmaps, and compares its
+ * operations with a {@link BitSet} on random data.
+ */
+public class CompressedBitSetTest {
+
+	private static final int CHUNK = 1 << 16;
+
+	private static void assertSameSet(String msg, BitSet expected, CompressedBitSet actual) {
+		final List<Integer> expectedElements = new ArrayList<Integer>();
+		for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+			expectedElements.add(i);
+		}
+		final List<Integer> actualElements = new ArrayList<Integer>();
+		for (final IntIterator it = actual.intIterator(); it.hasNext();) {
+			actualElements.add(it.next());
+		}
+		assertEquals(msg, expectedElements, actualElements);
+		assertEquals(msg, expected.cardinality(), actual.populationCount());
+		assertEquals(msg, expected.isEmpty(), actual.isZero());
+	}
+
+	@Test
+	public void testArrayBecomesBitmapAtSizeHint() {
+		// a bitmap for 1024 bits has 16 words, which is as large as an array of 64 elements
+		final CompressedBitSet set = new CompressedBitSet(1024);
+		for (int i = 0; i < 64; i++) {
+			assertTrue(set.setWithResult(i * 16));
+			assertFalse("still an array with " + (i + 1) + " elements", set.isBitmap(0));
+		}
+		assertTrue(set.setWithResult(1));
+		assertTrue("a bitmap with 65 elements", set.isBitmap(0));
+		assertFalse(set.setWithResult(1));
+		assertEquals(65, set.populationCount());
+		for (int i = 0; i < 1024; i++) {
+			assertEquals(Integer.toString(i), i % 16 == 0 || i == 1, set.contains(i));
+		}
+	}
+
+	@Test
+	public void testArrayBecomesBitmapWithoutSizeHint() {
+		// without a size hint, the bitmap only covers the largest element, i.e. a single word here
+		final CompressedBitSet set = new CompressedBitSet(0);
+		for (int i = 0; i < 4; i++) {
+			set.set(i);
+			assertFalse(set.isBitmap(0));
+		}
+		set.set(63);
+		assertTrue(set.isBitmap(0));
+
+		// bits beyond the bitmap make it grow
+		set.set(CHUNK - 1);
+		assertTrue(set.contains(CHUNK - 1));
+		assertFalse(set.contains(CHUNK - 2));
+		assertEquals(6, set.populationCount());
+	}
+
+	@Test
+	public void testSparseChunksStayArrays() {
+		final CompressedBitSet set = new CompressedBitSet(4 * CHUNK);
+		for (int chunk = 0; chunk < 4; chunk++) {
+			for (int i = 0; i < 100; i++) {
+				set.set(chunk * CHUNK + i * 600);
+			}
+			// 100 elements need less than a bitmap of the whole chunk with 1024 words
+			assertFalse(set.isBitmap(chunk * CHUNK));
+		}
+		assertEquals(400, set.populationCount());
+	}
+
+	@Test
+	public void testBitmapCoversEndOfSizeHint() {
+		// the last chunk only covers the remaining expected bits
+		final CompressedBitSet set = new CompressedBitSet(CHUNK + 128);
+		for (int i = 0; i < 8; i++) {
+			set.set(CHUNK + i);
+		}
+		assertFalse(set.isBitmap(CHUNK));
+		set.set(CHUNK + 8);
+		assertTrue(set.isBitmap(CHUNK));
+		assertFalse(set.isBitmap(0));
+	}
+
+	@Test
+	public void testClearRemovesEmptyChunks() {
+		// the last chunk only covers 256 bits, so 200 elements turn it into a bitmap
+		final CompressedBitSet set = new CompressedBitSet(2 * CHUNK + 256);
+		set.set(5);
+		set.set(CHUNK + 5);
+		for (int i = 0; i < 200; i++) {
+			set.set(2 * CHUNK + i);
+		}
+		assertTrue(set.isBitmap(2 * CHUNK));
+
+		set.clear(CHUNK + 5);
+		set.clear(CHUNK + 6);
+		set.clear(7 * CHUNK);
+		set.clear(-1);
+		assertFalse(set.contains(CHUNK + 5));
+		assertEquals(201, set.populationCount());
+
+		set.clear(5);
+		for (int i = 0; i < 200; i++) {
+			set.clear(2 * CHUNK + i);
+		}
+		assertTrue(set.isZero());
+		assertFalse(set.intIterator().hasNext());
+
+		set.set(2 * CHUNK + 3);
+		assertEquals(1, set.populationCount());
+		assertTrue(set.contains(2 * CHUNK + 3));
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		try {
+			new CompressedBitSet(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		final CompressedBitSet set = new CompressedBitSet(10);
+		try {
+			set.set(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertFalse(set.contains(-1));
+		try {
+			set.intIterator().next();
+			fail();
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testRandomAgainstBitSet() {
+		final Random rand = new Random(42);
+		for (int round = 0; round < 300; round++) {
+			final int range = 1 + rand.nextInt(round % 3 == 0 ? 4 * CHUNK : 3000);
+			final int hint = rand.nextBoolean() ? range : rand.nextInt(range);
+			final int ops = rand.nextInt(range < 3000 ? 3 * range : 20000);
+			// the share of clear operations, so both sparse and dense sets are covered
+			final int clears = rand.nextInt(50);
+
+			final BitSet expected = new BitSet();
+			final CompressedBitSet actual = new CompressedBitSet(hint);
+			for (int i = 0; i < ops; i++) {
+				final int bit = rand.nextInt(range);
+				if (rand.nextInt(100) < clears) {
+					expected.clear(bit);
+					actual.clear(bit);
+				} else {
+					assertEquals("set " + bit, !expected.get(bit), actual.setWithResult(bit));
+					expected.set(bit);
+				}
+				final int probe = rand.nextInt(range);
+				assertEquals("contains " + probe, expected.get(probe), actual.contains(probe));
+			}
+			assertSameSet("round " + round, expected, actual);
+		}
+	}
+}